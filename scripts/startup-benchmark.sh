@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+# Measures time-to-first-redirect of the default JVM launch versus the fast-start launch
+# (Spring AOT + AppCDS + fast-start profile) and, when it has been built, the native executable:
+# the time from process start until a freshly created short link answers with a redirect, the
+# latency of that first redirect and the resident set size right after it.
+#
+# Usage: mvn -Pfast-start package -DskipTests && scripts/startup-benchmark.sh [runs]
+#        (optionally mvn -Pnative,fast-start native:compile -DskipTests first for the native row)
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+cd "$(dirname "$0")/.."
+JAR=$(ls target/shortenuri-api-*.jar | grep -v original | head -1)
+CDS_ARCHIVE=target/app.jsa
+NATIVE=target/shortenuri-api
+
+if [[ ! -f "$CDS_ARCHIVE" ]]; then
+    echo "Missing $CDS_ARCHIVE; build with: mvn -Pfast-start package -DskipTests" >&2
+    exit 1
+fi
+
+now_ms() { date +%s%3N; }
+
+# Runs the given command and prints "<ms to first redirect> <first redirect latency ms> <RSS MB>"
+measure() {
+    local start pid code status first_latency rss_kb
+    start=$(now_ms)
+    "$@" --server.port="$PORT" > /dev/null 2>&1 &
+    pid=$!
+    trap 'kill $pid 2> /dev/null || true' RETURN
+
+    code=""
+    until [[ -n "$code" ]]; do
+        code=$(curl -s -X POST "http://localhost:$PORT/api/urls" -H 'Content-Type: application/json' \
+            -d '{"originalUrl":"https://www.example.com/startup"}' 2> /dev/null \
+            | sed -n 's/.*"shortCode":"\([^"]*\)".*/\1/p' || true)
+        [[ -n "$code" ]] || sleep 0.02
+    done
+
+    while true; do
+        read -r status first_latency < <(curl -s -o /dev/null -w '%{http_code} %{time_total}\n' \
+            "http://localhost:$PORT/$code" || echo "000 0")
+        [[ "$status" == 3* ]] && break
+        sleep 0.02
+    done
+    local elapsed=$(( $(now_ms) - start ))
+    rss_kb=$(awk '/^VmRSS:/ { print $2 }' "/proc/$pid/status")
+    echo "$elapsed $(awk -v s="$first_latency" 'BEGIN { printf "%.1f", s * 1000 }') $(( rss_kb / 1024 ))"
+    kill $pid
+    wait $pid 2> /dev/null || true
+}
+
+median() { sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'; }
+
+run() {
+    local name=$1
+    shift
+    local ttfr=() latency=() rss=()
+    for ((i = 0; i < RUNS; i++)); do
+        read -r t l r < <(measure "$@")
+        ttfr+=("$t")
+        latency+=("$l")
+        rss+=("$r")
+    done
+    printf '%-12s time-to-first-redirect %6s ms   first redirect %6s ms   RSS %5s MB   (median of %d)\n' "$name" \
+        "$(printf '%s\n' "${ttfr[@]}" | median)" "$(printf '%s\n' "${latency[@]}" | median)" \
+        "$(printf '%s\n' "${rss[@]}" | median)" "$RUNS"
+}
+
+run "jvm" java -jar "$JAR"
+run "fast-start" java -XX:SharedArchiveFile="$CDS_ARCHIVE" -Xlog:cds=off -Dspring.aot.enabled=true \
+    -Dspring.profiles.active=fast-start -jar "$JAR"
+if [[ -x "$NATIVE" ]]; then
+    run "native" "$NATIVE" --spring.profiles.active=fast-start
+else
+    echo "native       skipped: $NATIVE not built (mvn -Pnative,fast-start native:compile -DskipTests)"
+fi
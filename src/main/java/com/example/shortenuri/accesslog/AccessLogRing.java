@@ -0,0 +1,111 @@
+package com.example.shortenuri.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer, single-consumer queue of access log records held in preallocated
+ * parallel arrays, so offering a record allocates nothing. Each slot carries a sequence number
+ * (Vyukov's bounded queue): a producer claims the next position with a CAS and publishes the
+ * slot by advancing its sequence; the consumer reads slots in order while they are published.
+ * A full ring rejects the record rather than waiting.
+ */
+final class AccessLogRing {
+
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(long timeMillis, String remoteAddr, String shortCode, int status, long durationMicros,
+                    String referer, String userAgent);
+    }
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // Consumer thread only
+    private long head;
+
+    private final long[] timestamps;
+    private final String[] remoteAddrs;
+    private final String[] shortCodes;
+    private final int[] statuses;
+    private final long[] durations;
+    private final String[] referers;
+    private final String[] userAgents;
+
+    AccessLogRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1) << 1);
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.timestamps = new long[size];
+        this.remoteAddrs = new String[size];
+        this.shortCodes = new String[size];
+        this.statuses = new int[size];
+        this.durations = new long[size];
+        this.referers = new String[size];
+        this.userAgents = new String[size];
+    }
+
+    /**
+     * Returns {@code false} if the ring is full.
+     */
+    boolean offer(long timeMillis, String remoteAddr, String shortCode, int status, long durationMicros,
+                  String referer, String userAgent) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The consumer has not freed this slot since the last lap
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+        int index = (int) position & mask;
+        timestamps[index] = timeMillis;
+        remoteAddrs[index] = remoteAddr;
+        shortCodes[index] = shortCode;
+        statuses[index] = status;
+        durations[index] = durationMicros;
+        referers[index] = referer;
+        userAgents[index] = userAgent;
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Hands up to {@code max} published records to {@code consumer} in order and returns how
+     * many there were. Consumer thread only.
+     */
+    int drain(RecordConsumer consumer, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            consumer.accept(timestamps[index], remoteAddrs[index], shortCodes[index], statuses[index],
+                durations[index], referers[index], userAgents[index]);
+            remoteAddrs[index] = null;
+            shortCodes[index] = null;
+            referers[index] = null;
+            userAgents[index] = null;
+            sequences.set(index, head + mask + 1);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.shortenuri.accesslog;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One line per redirect request, written off the request path:
+ * <pre>
+ * 2026-10-19T06:57:14.540Z 203.0.113.7 "GET /abc12345" 302 153 "https://ref.example/" "curl/8.4.0"
+ * </pre>
+ * (UTC time, client address, request, status, microseconds spent, referer, user agent).
+ * <p>
+ * Request threads only copy the fields into an {@link AccessLogRing}. If the writer falls so far
+ * behind that the ring is full, the record is dropped and counted ({@code app.access-log.dropped})
+ * instead of making the request wait. A single writer thread formats records into one reusable
+ * buffer and appends it to the file whenever it fills or {@code flush-interval-ms} has passed,
+ * so the file sees a few large writes rather than one per request. The file is rotated to
+ * {@code <path>.1} .. {@code <path>.<max-files>} once it reaches {@code max-file-size-mb}.
+ */
+@Component
+public class RedirectAccessLog {
+
+    private static final Logger log = LoggerFactory.getLogger(RedirectAccessLog.class);
+
+    // Longer header values are cut; one record always fits the buffer
+    private static final int MAX_FIELD_LENGTH = 512;
+    // Four text fields, each at most doubled by escaping, plus the fixed parts
+    private static final int MAX_RECORD_BYTES = 4 * 2 * MAX_FIELD_LENGTH + 128;
+    private static final byte[] REQUEST_PREFIX = " \"GET /".getBytes(StandardCharsets.US_ASCII);
+    private static final int DRAIN_CHUNK = 1024;
+    private static final DateTimeFormatter SECOND = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.").withZone(ZoneOffset.UTC);
+
+    private final boolean enabled;
+    private final Path path;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final long flushIntervalNanos;
+    private final AccessLogRing ring;
+    private final ByteBuffer buffer;
+    private final AccessLogRing.RecordConsumer formatter = this::format;
+    private final ScheduledExecutorService writer;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong appends = new AtomicLong();
+
+    // Writer thread only
+    private FileChannel channel;
+    private long fileSize;
+    private long lastFlush = System.nanoTime();
+    private long cachedSecond = Long.MIN_VALUE;
+    private final byte[] secondPrefix = new byte[20];
+
+    public RedirectAccessLog(MeterRegistry meterRegistry,
+                             @Value("${app.access-log.enabled:false}") boolean enabled,
+                             @Value("${app.access-log.path:logs/redirect-access.log}") String path,
+                             @Value("${app.access-log.queue-capacity:65536}") int queueCapacity,
+                             @Value("${app.access-log.buffer-size-kb:256}") int bufferSizeKb,
+                             @Value("${app.access-log.flush-interval-ms:1000}") long flushIntervalMs,
+                             @Value("${app.access-log.max-file-size-mb:100}") long maxFileSizeMb,
+                             @Value("${app.access-log.max-files:10}") int maxFiles) {
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.maxFileBytes = maxFileSizeMb * 1024 * 1024;
+        this.maxFiles = maxFiles;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.ring = new AccessLogRing(enabled ? queueCapacity : 2);
+        this.buffer = ByteBuffer.allocate(enabled ? Math.max(bufferSizeKb * 1024, MAX_RECORD_BYTES) : 0);
+        FunctionCounter.builder("app.access-log.written", written, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("app.access-log.dropped", dropped, AtomicLong::get)
+            .description("Redirect access log records dropped because the writer fell behind")
+            .register(meterRegistry);
+        FunctionCounter.builder("app.access-log.appends", appends, AtomicLong::get).register(meterRegistry);
+        if (enabled) {
+            this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "access-log-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            writer.scheduleWithFixedDelay(this::drain, 10, 10, TimeUnit.MILLISECONDS);
+        } else {
+            this.writer = null;
+        }
+    }
+
+    /**
+     * Records a finished redirect request. {@code startNanos} is the {@link System#nanoTime()}
+     * at which handling began.
+     */
+    public void record(HttpServletRequest request, String shortCode, int status, long startNanos) {
+        if (!enabled) {
+            return;
+        }
+        long durationMicros = (System.nanoTime() - startNanos) / 1000;
+        if (!ring.offer(System.currentTimeMillis(), request.getRemoteAddr(), shortCode, status, durationMicros,
+                request.getHeader(HttpHeaders.REFERER), request.getHeader(HttpHeaders.USER_AGENT))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    void drain() {
+        try {
+            int drained;
+            do {
+                drained = ring.drain(formatter, DRAIN_CHUNK);
+                written.addAndGet(drained);
+            } while (drained == DRAIN_CHUNK);
+            if (buffer.position() > 0 && System.nanoTime() - lastFlush >= flushIntervalNanos) {
+                flush();
+            }
+        } catch (IOException | RuntimeException e) {
+            // An exception would cancel the periodic task; the buffered records are lost
+            log.warn("Writing redirect access log {} failed", path, e);
+            buffer.clear();
+            closeChannel();
+        }
+    }
+
+    private void format(long timeMillis, String remoteAddr, String shortCode, int status, long durationMicros,
+                        String referer, String userAgent) {
+        if (buffer.remaining() < MAX_RECORD_BYTES) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        putTimestamp(timeMillis);
+        buffer.put((byte) ' ');
+        putText(remoteAddr);
+        buffer.put(REQUEST_PREFIX);
+        putText(shortCode);
+        buffer.put((byte) '"').put((byte) ' ');
+        putNumber(status);
+        buffer.put((byte) ' ');
+        putNumber(durationMicros);
+        buffer.put((byte) ' ');
+        putQuoted(referer);
+        buffer.put((byte) ' ');
+        putQuoted(userAgent);
+        buffer.put((byte) '\n');
+    }
+
+    private void putTimestamp(long timeMillis) {
+        long second = Math.floorDiv(timeMillis, 1000);
+        if (second != cachedSecond) {
+            byte[] prefix = SECOND.format(Instant.ofEpochSecond(second)).getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(prefix, 0, secondPrefix, 0, secondPrefix.length);
+            cachedSecond = second;
+        }
+        buffer.put(secondPrefix);
+        int millis = (int) Math.floorMod(timeMillis, 1000);
+        buffer.put((byte) ('0' + millis / 100)).put((byte) ('0' + millis / 10 % 10)).put((byte) ('0' + millis % 10));
+        buffer.put((byte) 'Z');
+    }
+
+    private void putNumber(long value) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int start = buffer.position();
+        do {
+            buffer.put((byte) ('0' + value % 10));
+            value /= 10;
+        } while (value > 0);
+        // Digits went in least significant first
+        for (int i = start, j = buffer.position() - 1; i < j; i++, j--) {
+            byte digit = buffer.get(i);
+            buffer.put(i, buffer.get(j));
+            buffer.put(j, digit);
+        }
+    }
+
+    private void putText(String value) {
+        if (value == null || value.isEmpty()) {
+            buffer.put((byte) '-');
+            return;
+        }
+        putChars(value);
+    }
+
+    private void putQuoted(String value) {
+        buffer.put((byte) '"');
+        if (value == null || value.isEmpty()) {
+            buffer.put((byte) '-');
+        } else {
+            putChars(value);
+        }
+        buffer.put((byte) '"');
+    }
+
+    // ASCII only; control and non-ASCII characters become '?', quotes and backslashes are escaped
+    private void putChars(String value) {
+        int length = Math.min(value.length(), MAX_FIELD_LENGTH);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.put((byte) '\\').put((byte) c);
+            } else if (c < 0x20 || c > 0x7e) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) c);
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        lastFlush = System.nanoTime();
+        if (buffer.position() == 0) {
+            return;
+        }
+        if (channel == null) {
+            open();
+        } else if (fileSize + buffer.position() > maxFileBytes) {
+            rotate();
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            fileSize += channel.write(buffer);
+        }
+        buffer.clear();
+        appends.incrementAndGet();
+    }
+
+    private void open() throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileSize = channel.size();
+    }
+
+    private void rotate() throws IOException {
+        closeChannel();
+        Files.deleteIfExists(rotated(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            if (Files.exists(rotated(i))) {
+                Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 0) {
+            Files.move(path, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(path);
+        }
+        open();
+    }
+
+    private Path rotated(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Closing redirect access log {} failed", path, e);
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Writes out everything recorded so far, then stops the writer.
+     */
+    @PreDestroy
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            // Writer thread has stopped; finish on this one
+            written.addAndGet(ring.drain(formatter, Integer.MAX_VALUE));
+            flush();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Writing redirect access log {} failed", path, e);
+        }
+        closeChannel();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getAppends() {
+        return appends.get();
+    }
+}
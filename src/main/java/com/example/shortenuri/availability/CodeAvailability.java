@@ -0,0 +1,318 @@
+package com.example.shortenuri.availability;
+
+import com.example.shortenuri.cache.InvalidationBus;
+import com.example.shortenuri.cache.InvalidationEvent;
+import com.example.shortenuri.cache.InvalidationListener;
+import com.example.shortenuri.entity.Url;
+import com.example.shortenuri.repository.UrlFilter;
+import com.example.shortenuri.store.LinkStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Answers whether a custom short code is free, and suggests free codes next to a taken one.
+ * <p>
+ * Codes the generator cannot produce, which are all custom, are kept in a {@link RadixTrie}
+ * loaded from the store before the application reports ready and updated by creates and deletes
+ * here and on other nodes. Such codes are answered from memory. A code the generator could have
+ * produced (eight letters or digits) may belong to a generated link, which the trie does not
+ * hold, so it is checked with one indexed store lookup; suggestions of that shape are checked
+ * together in one query. Until the first load completes, everything is checked in the store.
+ */
+@Component
+public class CodeAvailability implements ApplicationRunner, InvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CodeAvailability.class);
+
+    /** Same alphabet and length as the short code generator in UrlService. */
+    private static final String GENERATOR_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    private static final int GENERATED_LENGTH = 8;
+
+    public static final int MAX_CODE_LENGTH = 255;
+    public static final int MAX_SUGGESTIONS = 20;
+    // Counter values tried after a taken code before giving up
+    private static final int MAX_CANDIDATES = 200;
+    // Trailing digits beyond this are part of the stem rather than a counter
+    private static final int MAX_COUNTER_DIGITS = 9;
+
+    private final LinkStore linkStore;
+    private final boolean enabled;
+    private final int loadBatchSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService reloader;
+
+    // Guarded by lock
+    private RadixTrie trie = new RadixTrie();
+    // Guarded by lock; creates (+) and deletes (-) made while a load runs, replayed onto its result
+    private List<String> changesWhileLoading;
+    private volatile boolean loaded;
+
+    public CodeAvailability(LinkStore linkStore,
+                            InvalidationBus invalidationBus,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.availability.enabled:true}") boolean enabled,
+                            @Value("${app.availability.load-batch-size:1000}") int loadBatchSize) {
+        this.linkStore = linkStore;
+        this.enabled = enabled;
+        this.loadBatchSize = loadBatchSize;
+        this.reloader = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "availability-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("app.availability.codes", this, CodeAvailability::size)
+            .description("Custom short codes held in memory for availability checks")
+            .register(meterRegistry);
+        if (enabled) {
+            invalidationBus.addListener(this);
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            load();
+        }
+    }
+
+    /**
+     * Reads every link's code from the store into a new trie, then swaps it in together with the
+     * creates and deletes that happened meanwhile.
+     */
+    void load() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changesWhileLoading = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        RadixTrie fresh = new RadixTrie();
+        try {
+            Long afterId = null;
+            UrlFilter all = new UrlFilter();
+            List<Url> page;
+            do {
+                page = linkStore.findPage(all, afterId, loadBatchSize);
+                for (Url url : page) {
+                    if (!generatable(url.getShortCode())) {
+                        fresh.add(url.getShortCode());
+                    }
+                }
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == loadBatchSize);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesWhileLoading = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (String change : changesWhileLoading) {
+                if (change.charAt(0) == '+') {
+                    fresh.add(change.substring(1));
+                } else {
+                    fresh.remove(change.substring(1));
+                }
+            }
+            changesWhileLoading = null;
+            trie = fresh;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded {} custom short codes in {} ms", fresh.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void add(String shortCode) {
+        change('+', shortCode);
+    }
+
+    public void remove(String shortCode) {
+        change('-', shortCode);
+    }
+
+    private void change(char type, String shortCode) {
+        if (!enabled || generatable(shortCode)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (type == '+') {
+                trie.add(shortCode);
+            } else {
+                trie.remove(shortCode);
+            }
+            if (changesWhileLoading != null) {
+                changesWhileLoading.add(type + shortCode);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isAvailable(String shortCode) {
+        if (!loaded || generatable(shortCode)) {
+            return !linkStore.existsByShortCode(shortCode);
+        }
+        lock.readLock().lock();
+        try {
+            return !trie.contains(shortCode);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} free codes made from {@code shortCode} and a counter, closest first:
+     * {@code sale} gives {@code sale2}, {@code sale-2}, {@code sale3}, ... and {@code sale07}
+     * gives {@code sale08}, {@code sale09}, {@code sale10}, ...
+     */
+    public List<String> suggest(String shortCode, int limit) {
+        // Twice the limit, so that candidates found taken in the store can be dropped
+        List<String> candidates;
+        List<String> unchecked;
+        if (loaded) {
+            lock.readLock().lock();
+            try {
+                candidates = candidates(shortCode, limit * 2,
+                    candidate -> generatable(candidate) || !trie.contains(candidate));
+            } finally {
+                lock.readLock().unlock();
+            }
+            unchecked = candidates.stream().filter(CodeAvailability::generatable).toList();
+        } else {
+            candidates = candidates(shortCode, limit * 2, candidate -> true);
+            unchecked = candidates;
+        }
+        if (!unchecked.isEmpty()) {
+            for (Url url : linkStore.findByShortCodeIn(unchecked)) {
+                candidates.remove(url.getShortCode());
+            }
+        }
+        return candidates.size() > limit ? new ArrayList<>(candidates.subList(0, limit)) : candidates;
+    }
+
+    static List<String> candidates(String shortCode, int limit, Predicate<String> accept) {
+        int digits = 0;
+        while (digits < shortCode.length() && isDigit(shortCode.charAt(shortCode.length() - 1 - digits))) {
+            digits++;
+        }
+        // An all-digit code, or one ending in a long number such as a date, gets a counter of its own
+        if (digits == shortCode.length() || digits > MAX_COUNTER_DIGITS) {
+            digits = 0;
+        }
+        String stem = shortCode.substring(0, shortCode.length() - digits);
+        long first = digits > 0 ? Long.parseLong(shortCode.substring(stem.length())) + 1 : 2;
+        // A separator only reads well after a letter: "sale-2" but not "sale2-3" or "sale--2"
+        boolean separated = digits == 0 && Character.isLetter(stem.charAt(stem.length() - 1));
+
+        List<String> candidates = new ArrayList<>(Math.min(limit, MAX_SUGGESTIONS * 2));
+        StringBuilder candidate = new StringBuilder(stem.length() + MAX_COUNTER_DIGITS + 2);
+        for (long n = first; n < first + MAX_CANDIDATES && candidates.size() < limit; n++) {
+            candidate.setLength(0);
+            candidate.append(stem);
+            // Keep the width of a zero-padded counter: sale07 -> sale08
+            for (int pad = digits - stringSize(n); pad > 0; pad--) {
+                candidate.append('0');
+            }
+            candidate.append(n);
+            offer(candidates, candidate.toString(), accept);
+            if (separated && candidates.size() < limit) {
+                candidate.insert(stem.length(), '-');
+                offer(candidates, candidate.toString(), accept);
+            }
+        }
+        return candidates;
+    }
+
+    private static void offer(List<String> candidates, String candidate, Predicate<String> accept) {
+        if (candidate.length() <= MAX_CODE_LENGTH && accept.test(candidate)) {
+            candidates.add(candidate);
+        }
+    }
+
+    private static int stringSize(long n) {
+        int size = 1;
+        while (n >= 10) {
+            n /= 10;
+            size++;
+        }
+        return size;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    static boolean generatable(String shortCode) {
+        if (shortCode.length() != GENERATED_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < shortCode.length(); i++) {
+            if (GENERATOR_ALPHABET.indexOf(shortCode.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return trie.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onEvent(InvalidationEvent event) {
+        // Expired links still hold their code
+        if (event.getType() == InvalidationEvent.Type.CREATED) {
+            add(event.getShortCode());
+        } else if (event.getType() == InvalidationEvent.Type.DELETED) {
+            remove(event.getShortCode());
+        }
+    }
+
+    @Override
+    public void onResync() {
+        // The current trie keeps answering until the reload replaces it
+        reloader.execute(() -> {
+            try {
+                load();
+            } catch (RuntimeException e) {
+                log.warn("Reloading custom short codes failed", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        reloader.shutdownNow();
+    }
+}
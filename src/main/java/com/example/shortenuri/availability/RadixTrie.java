@@ -0,0 +1,304 @@
+package com.example.shortenuri.availability;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A set of strings as a compressed (radix) trie over their UTF-8 bytes, laid out to keep both
+ * memory and pointer chasing low at millions of keys:
+ * <ul>
+ *   <li>a leaf, a key nothing else extends, is just the {@code byte[]} of its remaining bytes;</li>
+ *   <li>an inner node is an {@code Object[]} whose slot 0 is a header {@code byte[]}
+ *       {@code [terminal, label..., first byte of each child...]} and whose other slots are the
+ *       children in the order of their first byte (unsigned).</li>
+ * </ul>
+ * A lookup reads two arrays per inner node and one for the leaf. Not thread-safe.
+ */
+final class RadixTrie {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private Object[] root = inner(false, EMPTY, 0, EMPTY, new Object[0]);
+    private int size;
+    // Set by insert and delete when the set changed
+    private boolean changed;
+
+    boolean contains(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        Object node = root;
+        int offset = 0;
+        while (true) {
+            if (node instanceof byte[] leaf) {
+                return Arrays.equals(leaf, 0, leaf.length, bytes, offset, bytes.length);
+            }
+            Object[] inner = (Object[]) node;
+            byte[] header = (byte[]) inner[0];
+            int labelEnd = 1 + labelLength(inner);
+            int labelLength = labelEnd - 1;
+            if (bytes.length - offset < labelLength
+                    || !Arrays.equals(header, 1, labelEnd, bytes, offset, offset + labelLength)) {
+                return false;
+            }
+            offset += labelLength;
+            if (offset == bytes.length) {
+                return header[0] != 0;
+            }
+            int child = findChild(header, labelEnd, bytes[offset]);
+            if (child < 0) {
+                return false;
+            }
+            node = inner[1 + child];
+        }
+    }
+
+    /**
+     * Returns {@code false} if the trie already held {@code key}.
+     */
+    boolean add(String key) {
+        changed = false;
+        root = (Object[]) insert(root, key.getBytes(StandardCharsets.UTF_8), 0);
+        if (changed) {
+            size++;
+        }
+        return changed;
+    }
+
+    /**
+     * Returns {@code false} if the trie did not hold {@code key}.
+     */
+    boolean remove(String key) {
+        changed = false;
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length == 0) {
+            // The empty key is the root's terminal flag; the root itself always stays
+            byte[] header = (byte[]) root[0];
+            changed = header[0] != 0;
+            header[0] = 0;
+        } else {
+            Object[] next = (Object[]) delete(root, bytes, 0, true);
+            root = next;
+        }
+        if (changed) {
+            size--;
+        }
+        return changed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds {@code key[offset..]} below {@code node}, whose label starts at {@code offset}, and
+     * returns the node to keep in its place.
+     */
+    private Object insert(Object node, byte[] key, int offset) {
+        byte[] label = label(node);
+        int common = commonPrefix(label, key, offset);
+        if (common < label.length) {
+            // The key leaves or ends inside this label: split it there
+            boolean terminal = offset + common == key.length;
+            byte[] head = Arrays.copyOf(label, common);
+            Object tail = withLabel(node, Arrays.copyOfRange(label, common, label.length));
+            changed = true;
+            if (terminal) {
+                return inner(true, head, 1, new byte[] { firstByte(tail) }, new Object[] { tail });
+            }
+            Object leaf = Arrays.copyOfRange(key, offset + common, key.length);
+            return withChild(inner(false, head, 1, new byte[] { firstByte(tail) }, new Object[] { tail }), leaf);
+        }
+
+        offset += common;
+        if (node instanceof byte[] leafLabel) {
+            if (offset == key.length) {
+                return node;
+            }
+            changed = true;
+            Object[] inner = inner(true, leafLabel, 0, EMPTY, new Object[0]);
+            return withChild(inner, Arrays.copyOfRange(key, offset, key.length));
+        }
+
+        Object[] inner = (Object[]) node;
+        byte[] header = (byte[]) inner[0];
+        if (offset == key.length) {
+            if (header[0] == 0) {
+                header[0] = 1;
+                changed = true;
+            }
+            return inner;
+        }
+        int child = findChild(header, 1 + label.length, key[offset]);
+        if (child < 0) {
+            changed = true;
+            return withChild(inner, Arrays.copyOfRange(key, offset, key.length));
+        }
+        inner[1 + child] = insert(inner[1 + child], key, offset);
+        return inner;
+    }
+
+    /**
+     * Removes {@code key[offset..]} below {@code node} and returns the node to keep in its
+     * place, or {@code null} if nothing is left of it.
+     */
+    private Object delete(Object node, byte[] key, int offset, boolean isRoot) {
+        byte[] label = label(node);
+        if (key.length - offset < label.length
+                || !Arrays.equals(label, 0, label.length, key, offset, offset + label.length)) {
+            return node;
+        }
+        offset += label.length;
+        if (node instanceof byte[]) {
+            if (offset != key.length) {
+                return node;
+            }
+            changed = true;
+            return null;
+        }
+
+        Object[] inner = (Object[]) node;
+        byte[] header = (byte[]) inner[0];
+        if (offset == key.length) {
+            if (header[0] == 0) {
+                return inner;
+            }
+            header[0] = 0;
+            changed = true;
+        } else {
+            int child = findChild(header, 1 + label.length, key[offset]);
+            if (child < 0) {
+                return inner;
+            }
+            Object replacement = delete(inner[1 + child], key, offset, false);
+            if (replacement != null) {
+                inner[1 + child] = replacement;
+                return inner;
+            }
+            inner = withoutChild(inner, child);
+        }
+        return isRoot ? inner : compact(inner);
+    }
+
+    /**
+     * Restores the shape invariants after a removal below or at {@code inner}.
+     */
+    private static Object compact(Object[] inner) {
+        byte[] header = (byte[]) inner[0];
+        int children = inner.length - 1;
+        byte[] label = Arrays.copyOfRange(header, 1, 1 + labelLength(inner));
+        if (children == 0) {
+            return header[0] != 0 ? label : null;
+        }
+        if (children == 1 && header[0] == 0) {
+            // A pass-through node: fold its label into its only child
+            Object only = inner[1];
+            byte[] childLabel = label(only);
+            byte[] merged = Arrays.copyOf(label, label.length + childLabel.length);
+            System.arraycopy(childLabel, 0, merged, label.length, childLabel.length);
+            return withLabel(only, merged);
+        }
+        return inner;
+    }
+
+    private static Object[] inner(boolean terminal, byte[] label, int children, byte[] childKeys, Object[] nodes) {
+        byte[] header = new byte[1 + label.length + children];
+        header[0] = (byte) (terminal ? 1 : 0);
+        System.arraycopy(label, 0, header, 1, label.length);
+        System.arraycopy(childKeys, 0, header, 1 + label.length, children);
+        Object[] inner = new Object[1 + children];
+        inner[0] = header;
+        System.arraycopy(nodes, 0, inner, 1, children);
+        return inner;
+    }
+
+    private static Object[] withChild(Object[] inner, Object child) {
+        byte[] header = (byte[]) inner[0];
+        int children = inner.length - 1;
+        int labelEnd = header.length - children;
+        byte first = firstByte(child);
+        int index = -findChild(header, labelEnd, first) - 1;
+
+        byte[] newHeader = new byte[header.length + 1];
+        System.arraycopy(header, 0, newHeader, 0, labelEnd + index);
+        newHeader[labelEnd + index] = first;
+        System.arraycopy(header, labelEnd + index, newHeader, labelEnd + index + 1, children - index);
+        Object[] newInner = new Object[inner.length + 1];
+        newInner[0] = newHeader;
+        System.arraycopy(inner, 1, newInner, 1, index);
+        newInner[1 + index] = child;
+        System.arraycopy(inner, 1 + index, newInner, 2 + index, children - index);
+        return newInner;
+    }
+
+    private static Object[] withoutChild(Object[] inner, int index) {
+        byte[] header = (byte[]) inner[0];
+        int children = inner.length - 1;
+        int labelEnd = header.length - children;
+
+        byte[] newHeader = new byte[header.length - 1];
+        System.arraycopy(header, 0, newHeader, 0, labelEnd + index);
+        System.arraycopy(header, labelEnd + index + 1, newHeader, labelEnd + index, children - index - 1);
+        Object[] newInner = new Object[inner.length - 1];
+        newInner[0] = newHeader;
+        System.arraycopy(inner, 1, newInner, 1, index);
+        System.arraycopy(inner, 2 + index, newInner, 1 + index, children - index - 1);
+        return newInner;
+    }
+
+    private static Object withLabel(Object node, byte[] label) {
+        if (node instanceof byte[]) {
+            return label;
+        }
+        Object[] inner = (Object[]) node;
+        byte[] header = (byte[]) inner[0];
+        int children = inner.length - 1;
+        byte[] newHeader = new byte[1 + label.length + children];
+        newHeader[0] = header[0];
+        System.arraycopy(label, 0, newHeader, 1, label.length);
+        System.arraycopy(header, header.length - children, newHeader, 1 + label.length, children);
+        inner[0] = newHeader;
+        return inner;
+    }
+
+    private static byte[] label(Object node) {
+        if (node instanceof byte[] leaf) {
+            return leaf;
+        }
+        Object[] inner = (Object[]) node;
+        return Arrays.copyOfRange((byte[]) inner[0], 1, 1 + labelLength(inner));
+    }
+
+    private static int labelLength(Object[] inner) {
+        return ((byte[]) inner[0]).length - 1 - (inner.length - 1);
+    }
+
+    private static byte firstByte(Object node) {
+        return node instanceof byte[] leaf ? leaf[0] : ((byte[]) ((Object[]) node)[0])[1];
+    }
+
+    /**
+     * Index of the child starting with {@code first} among the keys at {@code header[from..]},
+     * or {@code -(insertion point) - 1}.
+     */
+    private static int findChild(byte[] header, int from, byte first) {
+        int target = first & 0xff;
+        int low = 0;
+        int high = header.length - from - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = header[from + mid] & 0xff;
+            if (value < target) {
+                low = mid + 1;
+            } else if (value > target) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int commonPrefix(byte[] label, byte[] key, int offset) {
+        int mismatch = Arrays.mismatch(label, 0, label.length, key, offset, key.length);
+        return mismatch < 0 ? label.length : mismatch;
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.shortenuri.cache;
+
+import com.example.shortenuri.entity.Url;
+import com.example.shortenuri.expiry.ExpiryScheduler;
+import com.example.shortenuri.store.LinkStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Preloads historically hot links into the {@link RedirectCache} before the application
+ * reports ready. Runners finish before Spring Boot publishes the ACCEPTING_TRAFFIC readiness
+ * state, so a readiness probe keeps the node out of rotation until warm-up is done or its
+ * time budget runs out.
+ */
+@Component
+public class CacheWarmer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmer.class);
+
+    private final RedirectCache redirectCache;
+    private final LinkStore linkStore;
+    private final ExpiryScheduler expiryScheduler;
+    private final boolean enabled;
+    private final int topN;
+    private final int chunkSize;
+    private final int parallelism;
+    private final long timeBudgetMs;
+    private final String hotKeysFile;
+
+    private final AtomicLong keysLoaded = new AtomicLong();
+    private final Timer warmupTimer;
+
+    public CacheWarmer(RedirectCache redirectCache,
+                       LinkStore linkStore,
+                       ExpiryScheduler expiryScheduler,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.warmup.enabled:true}") boolean enabled,
+                       @Value("${app.warmup.top-n:10000}") int topN,
+                       @Value("${app.warmup.chunk-size:500}") int chunkSize,
+                       @Value("${app.warmup.parallelism:4}") int parallelism,
+                       @Value("${app.warmup.time-budget-ms:10000}") long timeBudgetMs,
+                       @Value("${app.warmup.hot-keys-file:}") String hotKeysFile) {
+        this.redirectCache = redirectCache;
+        this.linkStore = linkStore;
+        this.expiryScheduler = expiryScheduler;
+        this.enabled = enabled;
+        this.topN = topN;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.timeBudgetMs = timeBudgetMs;
+        this.hotKeysFile = hotKeysFile;
+        meterRegistry.gauge("app.warmup.keys.loaded", keysLoaded);
+        this.warmupTimer = meterRegistry.timer("app.warmup.duration");
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            warmUp();
+        }
+    }
+
+    public long warmUp() {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+
+        Set<String> shortCodes = new LinkedHashSet<>(readHotKeys());
+        shortCodes.addAll(linkStore.findMostClickedShortCodes(topN));
+
+        List<String> codes = new ArrayList<>(shortCodes);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "cache-warmer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (int from = 0; from < codes.size(); from += chunkSize) {
+                List<String> chunk = codes.subList(from, Math.min(codes.size(), from + chunkSize));
+                chunks.add(executor.submit(() -> loadChunk(chunk)));
+            }
+            for (Future<Integer> chunk : chunks) {
+                long remaining = deadline - System.nanoTime();
+                try {
+                    chunk.get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    log.warn("Cache warm-up exceeded its {} ms budget, continuing startup", timeBudgetMs);
+                    break;
+                } catch (ExecutionException e) {
+                    log.warn("Cache warm-up chunk failed", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        warmupTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Cache warm-up loaded {} of {} candidate links in {} ms",
+            keysLoaded.get(), codes.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return keysLoaded.get();
+    }
+
+    private int loadChunk(List<String> chunk) {
+        Map<String, Long> generations = new HashMap<>();
+        for (String shortCode : chunk) {
+            generations.put(shortCode, redirectCache.generation(shortCode));
+        }
+        int loaded = 0;
+        for (Url url : linkStore.findByShortCodeIn(chunk)) {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            RedirectTarget target = RedirectTarget.of(url);
+            if (!target.isExpired()
+                    && redirectCache.putIfCurrent(url.getShortCode(), target, generations.get(url.getShortCode()))) {
+                expiryScheduler.track(url.getShortCode(), target);
+                loaded++;
+            }
+        }
+        keysLoaded.addAndGet(loaded);
+        return loaded;
+    }
+
+    private List<String> readHotKeys() {
+        if (hotKeysFile.isEmpty() || !Files.exists(Path.of(hotKeysFile))) {
+            return List.of();
+        }
+        try {
+            return Files.readAllLines(Path.of(hotKeysFile), StandardCharsets.UTF_8).stream()
+                .filter(line -> !line.isBlank())
+                .limit(topN)
+                .toList();
+        } catch (IOException e) {
+            log.warn("Could not read hot key list {}", hotKeysFile, e);
+            return List.of();
+        }
+    }
+
+    @PreDestroy
+    public void writeHotKeys() {
+        if (hotKeysFile.isEmpty()) {
+            return;
+        }
+        try {
+            Files.write(Path.of(hotKeysFile), redirectCache.keys(topN), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("Could not write hot key list {}", hotKeysFile, e);
+        }
+    }
+
+    public long getKeysLoaded() {
+        return keysLoaded.get();
+    }
+}
@@ -0,0 +1,427 @@
+package com.example.shortenuri.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing hash table from packed short codes ({@link ShortCodeKeys}) to redirect targets,
+ * held in parallel primitive arrays instead of one map node, key String and value object per
+ * link. A slot is the key, the destination's offset and length in a per-segment byte arena, the
+ * expiry in epoch millis, the redirect status, a counter of redirects served from the slot, and
+ * a reference bit for eviction.
+ * <p>
+ * The table is split into segments, each guarded by a {@link StampedLock}. Lookups read
+ * optimistically and retry under the read lock only if a write overlapped; writes take the
+ * segment's write lock. Collisions are resolved by linear probing, and removal shifts the rest
+ * of the probe run back so no tombstones build up. Removed and replaced destinations leave
+ * garbage in the arena, which is compacted once it outweighs the live bytes.
+ * <p>
+ * {@link #evict} frees a slot with the CLOCK policy: each segment's hand sweeps its slots,
+ * clearing the reference bit of slots read since the last sweep and removing the first slot
+ * that was not. A new slot starts unreferenced, so links read once go before links read again.
+ */
+final class CodeTable {
+
+    private static final int SEGMENT_BITS = 4;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int INITIAL_ARENA = 4096;
+    /** Bytes per slot across the parallel arrays (key, offset, length, expiry, status, clicks, referenced). */
+    static final int SLOT_BYTES = 8 + 4 + 4 + 8 + 2 + 4 + 1;
+
+    @FunctionalInterface
+    interface SlotVisitor {
+        void visit(long key, int clicks);
+    }
+
+    private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+
+    CodeTable() {
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    RedirectTarget get(long key) {
+        long hash = hash(key);
+        return segment(hash).get(key, hash);
+    }
+
+    boolean contains(long key) {
+        long hash = hash(key);
+        return segment(hash).contains(key, hash);
+    }
+
+    void put(long key, RedirectTarget target) {
+        long hash = hash(key);
+        segment(hash).put(key, hash, target);
+    }
+
+    /**
+     * Removes {@code key}, or only while it still maps to a target equal to {@code expected}
+     * when that is non-null.
+     */
+    boolean remove(long key, RedirectTarget expected) {
+        long hash = hash(key);
+        return segment(hash).remove(key, hash, expected);
+    }
+
+    /**
+     * Evicts one slot, preferring the segment {@code key} belongs to so that the table stays
+     * balanced. Returns {@code false} if the table is empty.
+     */
+    boolean evict(long key) {
+        int home = (int) (hash(key) >>> (64 - SEGMENT_BITS));
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[(home + i) & (segments.length - 1)].evict()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * Bytes held by the slot arrays and arenas, including free slots and arena slack.
+     */
+    long memoryBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            Table table = segment.table;
+            bytes += (long) table.keys.length * SLOT_BYTES + table.arena.length;
+        }
+        return bytes;
+    }
+
+    void forEach(SlotVisitor visitor) {
+        for (Segment segment : segments) {
+            segment.forEach(visitor);
+        }
+    }
+
+    private Segment segment(long hash) {
+        return segments[(int) (hash >>> (64 - SEGMENT_BITS))];
+    }
+
+    // MurmurHash3 finalizer: packed codes differ mostly in their low digits
+    private static long hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * One generation of slot arrays. Growing the arena replaces only the arena, so a reader
+     * always sees offsets together with the arena they point into.
+     */
+    private static final class Table {
+        final long[] keys;
+        final int[] offsets;
+        final int[] lengths;
+        final long[] expires;
+        final short[] statuses;
+        final int[] clicks;
+        final byte[] referenced;
+        final byte[] arena;
+
+        Table(int capacity, int arenaCapacity) {
+            this(new long[capacity], new int[capacity], new int[capacity], new long[capacity],
+                new short[capacity], new int[capacity], new byte[capacity], new byte[arenaCapacity]);
+        }
+
+        private Table(long[] keys, int[] offsets, int[] lengths, long[] expires, short[] statuses,
+                      int[] clicks, byte[] referenced, byte[] arena) {
+            this.keys = keys;
+            this.offsets = offsets;
+            this.lengths = lengths;
+            this.expires = expires;
+            this.statuses = statuses;
+            this.clicks = clicks;
+            this.referenced = referenced;
+            this.arena = arena;
+        }
+
+        Table withArena(byte[] arena) {
+            return new Table(keys, offsets, lengths, expires, statuses, clicks, referenced, arena);
+        }
+
+        int mask() {
+            return keys.length - 1;
+        }
+
+        int find(long key, long hash) {
+            int mask = mask();
+            int index = (int) hash & mask;
+            // Bounded so that a torn optimistic read cannot loop forever
+            for (int probes = 0; probes <= mask; probes++) {
+                long slotKey = keys[index];
+                if (slotKey == key) {
+                    return index;
+                }
+                if (slotKey == 0) {
+                    return -1;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        RedirectTarget target(int index) {
+            int offset = offsets[index];
+            int length = lengths[index];
+            if (offset < 0 || length < 0 || offset > arena.length - length) {
+                // Torn optimistic read; the caller's validation fails and it retries
+                return null;
+            }
+            short status = statuses[index];
+            return new RedirectTarget(new String(arena, offset, length, StandardCharsets.UTF_8),
+                expires[index], status != 0 ? Integer.valueOf(status) : null);
+        }
+    }
+
+    private static final class Segment {
+        private final StampedLock lock = new StampedLock();
+        private volatile Table table = new Table(INITIAL_CAPACITY, INITIAL_ARENA);
+        // Guarded by the write lock
+        private volatile int size;
+        private int arenaUsed;
+        private int garbage;
+        private int hand;
+
+        RedirectTarget get(long key, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            Table current = table;
+            int index = current.find(key, hash);
+            RedirectTarget target = index >= 0 ? current.target(index) : null;
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    current = table;
+                    index = current.find(key, hash);
+                    target = index >= 0 ? current.target(index) : null;
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            if (target != null) {
+                // Racy writes; the count only ranks hot keys and the bit only guides eviction
+                current.clicks[index]++;
+                current.referenced[index] = 1;
+            }
+            return target;
+        }
+
+        boolean contains(long key, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            boolean found = table.find(key, hash) >= 0;
+            if (lock.validate(stamp)) {
+                return found;
+            }
+            stamp = lock.readLock();
+            try {
+                return table.find(key, hash) >= 0;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void put(long key, long hash, RedirectTarget target) {
+            byte[] destination = target.getOriginalUrl().getBytes(StandardCharsets.UTF_8);
+            Integer status = target.getRedirectStatus();
+            long stamp = lock.writeLock();
+            try {
+                Table current = table;
+                int index = current.find(key, hash);
+                if (index < 0 && (size + 1) * 4L > current.keys.length * 3L) {
+                    current = rebuild(current.keys.length * 2, destination.length);
+                }
+                if (arenaUsed + destination.length > current.arena.length) {
+                    current = makeRoom(current, destination.length);
+                }
+                index = current.find(key, hash);
+                if (index >= 0) {
+                    garbage += current.lengths[index];
+                } else {
+                    index = (int) hash & current.mask();
+                    while (current.keys[index] != 0) {
+                        index = (index + 1) & current.mask();
+                    }
+                    current.keys[index] = key;
+                    current.clicks[index] = 0;
+                    current.referenced[index] = 0;
+                    size++;
+                }
+                System.arraycopy(destination, 0, current.arena, arenaUsed, destination.length);
+                current.offsets[index] = arenaUsed;
+                current.lengths[index] = destination.length;
+                current.expires[index] = target.getExpiresAtMillis();
+                current.statuses[index] = status != null ? status.shortValue() : 0;
+                arenaUsed += destination.length;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean remove(long key, long hash, RedirectTarget expected) {
+            long stamp = lock.writeLock();
+            try {
+                Table current = table;
+                int hole = current.find(key, hash);
+                if (hole < 0 || (expected != null && !expected.equals(current.target(hole)))) {
+                    return false;
+                }
+                removeAt(current, hole);
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean evict() {
+            long stamp = lock.writeLock();
+            try {
+                Table current = table;
+                if (size == 0) {
+                    return false;
+                }
+                int mask = current.mask();
+                // Two sweeps at most: the first may only clear reference bits
+                for (int scanned = 0; scanned < 2 * current.keys.length; scanned++) {
+                    int index = hand & mask;
+                    hand = index + 1;
+                    if (current.keys[index] == 0) {
+                        continue;
+                    }
+                    if (current.referenced[index] != 0) {
+                        current.referenced[index] = 0;
+                        continue;
+                    }
+                    removeAt(current, index);
+                    return true;
+                }
+                return false;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        // Caller holds the write lock
+        private void removeAt(Table current, int hole) {
+            garbage += current.lengths[hole];
+            int mask = current.mask();
+            int next = hole;
+            while (true) {
+                next = (next + 1) & mask;
+                long nextKey = current.keys[next];
+                if (nextKey == 0) {
+                    break;
+                }
+                int home = (int) hash(nextKey) & mask;
+                // Leave entries whose home lies cyclically in (hole, next]; move the rest back
+                boolean stays = hole <= next ? (hole < home && home <= next) : (hole < home || home <= next);
+                if (!stays) {
+                    move(current, next, hole);
+                    hole = next;
+                }
+            }
+            current.keys[hole] = 0;
+            size--;
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                table = new Table(INITIAL_CAPACITY, INITIAL_ARENA);
+                size = 0;
+                arenaUsed = 0;
+                garbage = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void forEach(SlotVisitor visitor) {
+            long stamp = lock.readLock();
+            try {
+                Table current = table;
+                for (int i = 0; i < current.keys.length; i++) {
+                    if (current.keys[i] != 0) {
+                        visitor.visit(current.keys[i], current.clicks[i]);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private Table makeRoom(Table current, int needed) {
+            if (garbage > arenaUsed - garbage) {
+                current = rebuild(current.keys.length, needed);
+                if (arenaUsed + needed <= current.arena.length) {
+                    return current;
+                }
+            }
+            int grown = Math.max(current.arena.length * 2, arenaUsed + needed);
+            table = current.withArena(Arrays.copyOf(current.arena, grown));
+            return table;
+        }
+
+        // Copies live slots into fresh arrays, compacting the arena
+        private Table rebuild(int capacity, int needed) {
+            Table old = table;
+            int live = arenaUsed - garbage;
+            Table fresh = new Table(capacity, Math.max(INITIAL_ARENA, (live + needed) * 2));
+            int mask = fresh.mask();
+            int used = 0;
+            for (int i = 0; i < old.keys.length; i++) {
+                long key = old.keys[i];
+                if (key == 0) {
+                    continue;
+                }
+                int index = (int) hash(key) & mask;
+                while (fresh.keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                fresh.keys[index] = key;
+                System.arraycopy(old.arena, old.offsets[i], fresh.arena, used, old.lengths[i]);
+                fresh.offsets[index] = used;
+                fresh.lengths[index] = old.lengths[i];
+                fresh.expires[index] = old.expires[i];
+                fresh.statuses[index] = old.statuses[i];
+                fresh.clicks[index] = old.clicks[i];
+                fresh.referenced[index] = old.referenced[i];
+                used += old.lengths[i];
+            }
+            arenaUsed = used;
+            garbage = 0;
+            table = fresh;
+            return fresh;
+        }
+
+        private static void move(Table table, int from, int to) {
+            table.keys[to] = table.keys[from];
+            table.offsets[to] = table.offsets[from];
+            table.lengths[to] = table.lengths[from];
+            table.expires[to] = table.expires[from];
+            table.statuses[to] = table.statuses[from];
+            table.clicks[to] = table.clicks[from];
+            table.referenced[to] = table.referenced[from];
+        }
+    }
+}
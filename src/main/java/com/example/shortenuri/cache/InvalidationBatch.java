@@ -0,0 +1,32 @@
+package com.example.shortenuri.cache;
+
+import java.util.List;
+
+/**
+ * A coalesced group of invalidation events sent by one node. Sequence numbers are
+ * consecutive per node so receivers can detect lost batches.
+ */
+public class InvalidationBatch {
+
+    private final String nodeId;
+    private final long sequence;
+    private final List<InvalidationEvent> events;
+
+    public InvalidationBatch(String nodeId, long sequence, List<InvalidationEvent> events) {
+        this.nodeId = nodeId;
+        this.sequence = sequence;
+        this.events = List.copyOf(events);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public List<InvalidationEvent> getEvents() {
+        return events;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.shortenuri.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Publishes link changes to every node's {@link RedirectCache}.
+ * <p>
+ * Events are applied locally right away and again once the surrounding transaction commits,
+ * then queued for the transport. A single sender thread coalesces queued events per short
+ * code and ships them in numbered batches. A receiver that sees a gap in a node's sequence
+ * cannot know which codes it missed, so it drops its whole cache and refills from the database.
+ */
+@Component
+public class InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private final RedirectCache redirectCache;
+    private final InvalidationTransport transport;
+    private final int maxBatchSize;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, InvalidationEvent> pending = new LinkedHashMap<>();
+    private final Map<String, Long> lastSequenceByNode = new ConcurrentHashMap<>();
+    private final Consumer<InvalidationBatch> listener = this::onBatch;
+    private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService sender;
+
+    private long sequence;
+    private final AtomicLong batchesSent = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+
+    public InvalidationBus(RedirectCache redirectCache,
+                           InvalidationTransport transport,
+                           @Value("${app.invalidation.batch-interval-ms:20}") long batchIntervalMs,
+                           @Value("${app.invalidation.max-batch-size:500}") int maxBatchSize) {
+        this.redirectCache = redirectCache;
+        this.transport = transport;
+        this.maxBatchSize = maxBatchSize;
+        this.sender = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "invalidation-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        transport.subscribe(listener);
+        sender.scheduleWithFixedDelay(this::flush, batchIntervalMs, batchIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void addListener(InvalidationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void publish(InvalidationEvent event) {
+        redirectCache.invalidate(event.getShortCode());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    redirectCache.invalidate(event.getShortCode());
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(InvalidationEvent event) {
+        boolean full;
+        synchronized (pending) {
+            pending.remove(event.getShortCode());
+            pending.put(event.getShortCode(), event);
+            full = pending.size() >= maxBatchSize;
+        }
+        if (full) {
+            sender.execute(this::flush);
+        }
+    }
+
+    synchronized void flush() {
+        List<InvalidationEvent> events;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            events = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        for (int from = 0; from < events.size(); from += maxBatchSize) {
+            List<InvalidationEvent> chunk = events.subList(from, Math.min(events.size(), from + maxBatchSize));
+            transport.send(new InvalidationBatch(nodeId, ++sequence, chunk));
+            batchesSent.incrementAndGet();
+        }
+    }
+
+    void onBatch(InvalidationBatch batch) {
+        if (nodeId.equals(batch.getNodeId())) {
+            return;
+        }
+        Long previous = lastSequenceByNode.put(batch.getNodeId(), batch.getSequence());
+        if (previous != null && batch.getSequence() != previous + 1) {
+            log.warn("Invalidation gap from node {}: expected {} but got {}, resyncing redirect cache",
+                batch.getNodeId(), previous + 1, batch.getSequence());
+            resyncs.incrementAndGet();
+            redirectCache.clear();
+            listeners.forEach(InvalidationListener::onResync);
+            return;
+        }
+        for (InvalidationEvent event : batch.getEvents()) {
+            redirectCache.invalidate(event.getShortCode());
+            listeners.forEach(l -> l.onEvent(event));
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getBatchesSent() {
+        return batchesSent.get();
+    }
+
+    public long getResyncs() {
+        return resyncs.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        sender.shutdown();
+        try {
+            sender.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        transport.unsubscribe(listener);
+    }
+}
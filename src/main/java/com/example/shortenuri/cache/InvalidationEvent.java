@@ -0,0 +1,38 @@
+package com.example.shortenuri.cache;
+
+public class InvalidationEvent {
+
+    public enum Type {
+        CREATED,
+        DELETED,
+        EXPIRED
+    }
+
+    private final Type type;
+    private final String shortCode;
+
+    public InvalidationEvent(Type type, String shortCode) {
+        this.type = type;
+        this.shortCode = shortCode;
+    }
+
+    public static InvalidationEvent created(String shortCode) {
+        return new InvalidationEvent(Type.CREATED, shortCode);
+    }
+
+    public static InvalidationEvent deleted(String shortCode) {
+        return new InvalidationEvent(Type.DELETED, shortCode);
+    }
+
+    public static InvalidationEvent expired(String shortCode) {
+        return new InvalidationEvent(Type.EXPIRED, shortCode);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getShortCode() {
+        return shortCode;
+    }
+}
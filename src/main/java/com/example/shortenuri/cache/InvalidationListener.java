@@ -0,0 +1,16 @@
+package com.example.shortenuri.cache;
+
+/**
+ * Told about link changes made on other nodes, after {@link InvalidationBus} has applied them to
+ * the redirect cache. Changes made on this node are not delivered; their callers apply them.
+ */
+public interface InvalidationListener {
+
+    void onEvent(InvalidationEvent event);
+
+    /**
+     * Some of another node's changes were missed, so anything kept in step with them has to be
+     * rebuilt from the store. Called on the transport's thread.
+     */
+    void onResync();
+}
@@ -0,0 +1,16 @@
+package com.example.shortenuri.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries invalidation batches between application instances. Implementations may deliver
+ * a node's own batches back to it; {@link InvalidationBus} ignores those.
+ */
+public interface InvalidationTransport {
+
+    void send(InvalidationBatch batch);
+
+    void subscribe(Consumer<InvalidationBatch> listener);
+
+    void unsubscribe(Consumer<InvalidationBatch> listener);
+}
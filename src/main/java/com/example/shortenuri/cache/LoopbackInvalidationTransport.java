@@ -0,0 +1,48 @@
+package com.example.shortenuri.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process transport. All instances created with the same channel name share one set of
+ * subscribers, so several application contexts in one JVM see each other's batches.
+ */
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(LoopbackInvalidationTransport.class);
+
+    private static final Map<String, List<Consumer<InvalidationBatch>>> CHANNELS = new ConcurrentHashMap<>();
+
+    private final List<Consumer<InvalidationBatch>> subscribers;
+
+    public LoopbackInvalidationTransport(String channel) {
+        this.subscribers = CHANNELS.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>());
+    }
+
+    @Override
+    public void send(InvalidationBatch batch) {
+        for (Consumer<InvalidationBatch> subscriber : subscribers) {
+            try {
+                subscriber.accept(batch);
+            } catch (RuntimeException e) {
+                log.warn("Invalidation subscriber failed for batch {} from {}", batch.getSequence(), batch.getNodeId(), e);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationBatch> listener) {
+        subscribers.add(listener);
+    }
+
+    @Override
+    public void unsubscribe(Consumer<InvalidationBatch> listener) {
+        subscribers.remove(listener);
+    }
+}
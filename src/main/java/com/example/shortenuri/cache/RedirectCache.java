@@ -0,0 +1,187 @@
+package com.example.shortenuri.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-instance cache of redirect lookups, keyed by short code.
+ * <p>
+ * Every invalidation bumps the generation stamp of the code's stripe. Loaders read the stamp
+ * with {@link #generation(String)} before going to the database and pass it to
+ * {@link #putIfCurrent}, so a row read before a concurrent delete cannot be cached after that
+ * delete has been applied. Stamps are striped so that the invalidations every create publishes
+ * only fail the loads of codes in the same stripe.
+ * <p>
+ * Generated codes (and custom codes of up to eight characters from the same alphabet) live in a
+ * {@link CodeTable} keyed by the code packed into a long; other custom codes fall back to a map.
+ * Lookups return a fresh {@link RedirectTarget} each time, equal but not identical to the one
+ * cached. Once {@code maxSize} entries are cached, each new entry evicts one chosen by the
+ * CLOCK policy, so links read since the last sweep stay and cold ones make room.
+ */
+@Component
+public class RedirectCache {
+
+    private static final int STRIPES = 1024;
+
+    private final CodeTable table = new CodeTable();
+    private final ConcurrentMap<String, Entry> other = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final int maxSize;
+    // Guarded by itself; the CLOCK hand over the fallback map, weakly consistent
+    private Iterator<Map.Entry<String, Entry>> otherHand;
+
+    public RedirectCache(@Value("${app.cache.redirect.max-size:100000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public RedirectTarget get(String shortCode) {
+        long key = ShortCodeKeys.encode(shortCode);
+        if (key != ShortCodeKeys.NOT_ENCODABLE) {
+            return table.get(key);
+        }
+        Entry entry = other.get(shortCode);
+        if (entry == null) {
+            return null;
+        }
+        entry.referenced = true;
+        return entry.target;
+    }
+
+    /**
+     * The stamp to pass to {@link #putIfCurrent} for a load of {@code shortCode} started now.
+     */
+    public long generation(String shortCode) {
+        return generations.get(stripe(shortCode));
+    }
+
+    public boolean putIfCurrent(String shortCode, RedirectTarget redirect, long expectedGeneration) {
+        long key = ShortCodeKeys.encode(shortCode);
+        boolean packed = key != ShortCodeKeys.NOT_ENCODABLE;
+        if (size() >= maxSize && !(packed ? table.contains(key) : other.containsKey(shortCode))) {
+            // Evict from the structure the entry goes into, unless that one is empty
+            boolean evicted = packed ? table.evict(key) || evictOther() : evictOther() || table.evict(key);
+            if (!evicted) {
+                return false;
+            }
+        }
+        if (packed) {
+            table.put(key, redirect);
+        } else {
+            other.put(shortCode, new Entry(redirect));
+        }
+        // An invalidation raced with this load; drop what we just wrote.
+        if (generations.get(stripe(shortCode)) != expectedGeneration) {
+            remove(shortCode, redirect);
+            return false;
+        }
+        return true;
+    }
+
+    public void invalidate(String shortCode) {
+        generations.incrementAndGet(stripe(shortCode));
+        long key = ShortCodeKeys.encode(shortCode);
+        if (key != ShortCodeKeys.NOT_ENCODABLE) {
+            table.remove(key, null);
+        } else {
+            other.remove(shortCode);
+        }
+    }
+
+    /**
+     * Removes the entry only if it is still equal to {@code redirect}. Unlike {@link #invalidate} this
+     * leaves in-flight loads alone; it is for entries that went stale on their own, such as an
+     * expired link.
+     */
+    public boolean remove(String shortCode, RedirectTarget redirect) {
+        long key = ShortCodeKeys.encode(shortCode);
+        if (key != ShortCodeKeys.NOT_ENCODABLE) {
+            return table.remove(key, redirect);
+        }
+        Entry entry = other.get(shortCode);
+        return entry != null && entry.target.equals(redirect) && other.remove(shortCode, entry);
+    }
+
+    public void clear() {
+        for (int i = 0; i < STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        table.clear();
+        other.clear();
+    }
+
+    /**
+     * Up to {@code limit} cached codes, those that served the most redirects first.
+     */
+    public List<String> keys(int limit) {
+        List<long[]> slots = new ArrayList<>(table.size());
+        table.forEach((key, clicks) -> slots.add(new long[] { key, clicks }));
+        slots.sort(Comparator.comparingLong((long[] slot) -> slot[1]).reversed());
+        List<String> keys = new ArrayList<>(Math.min(limit, slots.size() + other.size()));
+        for (int i = 0; i < slots.size() && keys.size() < limit; i++) {
+            keys.add(ShortCodeKeys.decode(slots.get(i)[0]));
+        }
+        other.keySet().stream().limit(limit - keys.size()).forEach(keys::add);
+        return keys;
+    }
+
+    public int size() {
+        return table.size() + other.size();
+    }
+
+    /**
+     * Approximate bytes held by the packed table, excluding the fallback map.
+     */
+    public long memoryBytes() {
+        return table.memoryBytes();
+    }
+
+    /**
+     * CLOCK over the fallback map: its iteration order stands in for the ring of slots.
+     */
+    private boolean evictOther() {
+        synchronized (other) {
+            // Two full sweeps at most: the first may only clear reference bits
+            int sweeps = 0;
+            while (!other.isEmpty()) {
+                if (otherHand == null || !otherHand.hasNext()) {
+                    if (++sweeps > 2) {
+                        break;
+                    }
+                    otherHand = other.entrySet().iterator();
+                    continue;
+                }
+                Map.Entry<String, Entry> candidate = otherHand.next();
+                Entry entry = candidate.getValue();
+                if (entry.referenced) {
+                    entry.referenced = false;
+                } else if (other.remove(candidate.getKey(), entry)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static int stripe(String shortCode) {
+        int hash = shortCode.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static final class Entry {
+        final RedirectTarget target;
+        volatile boolean referenced;
+
+        Entry(RedirectTarget target) {
+            this.target = target;
+        }
+    }
+}
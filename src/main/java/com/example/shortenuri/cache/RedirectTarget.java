@@ -0,0 +1,92 @@
+package com.example.shortenuri.cache;
+
+import com.example.shortenuri.entity.Url;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * What a redirect needs from a link. The expiry is kept as epoch milliseconds so that checking
+ * it on every redirect is a comparison rather than a {@link LocalDateTime#now()} allocation.
+ */
+public class RedirectTarget {
+
+    public static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final String originalUrl;
+    private final long expiresAtMillis;
+    private final Integer redirectStatus;
+
+    public RedirectTarget(String originalUrl, LocalDateTime expiresAt) {
+        this(originalUrl, expiresAt, null);
+    }
+
+    public RedirectTarget(String originalUrl, LocalDateTime expiresAt, Integer redirectStatus) {
+        this.originalUrl = originalUrl;
+        // Link times are local date-times in the server's zone, as written by LocalDateTime.now()
+        this.expiresAtMillis = expiresAt != null ? expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : NO_EXPIRY;
+        this.redirectStatus = redirectStatus;
+    }
+
+    RedirectTarget(String originalUrl, long expiresAtMillis, Integer redirectStatus) {
+        this.originalUrl = originalUrl;
+        this.expiresAtMillis = expiresAtMillis;
+        this.redirectStatus = redirectStatus;
+    }
+
+    public static RedirectTarget of(Url url) {
+        return new RedirectTarget(url.getOriginalUrl(), url.getExpiresAt(), url.getRedirectStatus());
+    }
+
+    public String getOriginalUrl() {
+        return originalUrl;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAtMillis != NO_EXPIRY
+            ? LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), ZoneId.systemDefault())
+            : null;
+    }
+
+    /**
+     * Epoch milliseconds at which the link expires, or {@link #NO_EXPIRY}.
+     */
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    /**
+     * The per-link redirect status, or {@code null} to use the configured default.
+     */
+    public Integer getRedirectStatus() {
+        return redirectStatus;
+    }
+
+    public boolean isExpired() {
+        return isExpiredAt(System.currentTimeMillis());
+    }
+
+    public boolean isExpiredAt(long nowMillis) {
+        return nowMillis > expiresAtMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RedirectTarget other)) {
+            return false;
+        }
+        return expiresAtMillis == other.expiresAtMillis
+            && originalUrl.equals(other.originalUrl)
+            && Objects.equals(redirectStatus, other.redirectStatus);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(originalUrl, expiresAtMillis, redirectStatus);
+    }
+}
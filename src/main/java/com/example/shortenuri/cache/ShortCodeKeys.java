@@ -0,0 +1,54 @@
+package com.example.shortenuri.cache;
+
+/**
+ * Packs short codes of up to eight characters from the generator's 62-letter alphabet into a
+ * long, and back. Each character is its alphabet index plus one, as a base-63 digit, so no digit
+ * is 0 and leading {@code 'A'}s are kept: {@code "B"} and {@code "AB"} get different keys, and no
+ * code maps to 0. Eight characters need at most 48 bits.
+ */
+final class ShortCodeKeys {
+
+    /** Same alphabet, in the same order, as the short code generator in UrlService. */
+    static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    static final int MAX_LENGTH = 8;
+    /** Returned by {@link #encode} for codes that do not fit; never a valid key. */
+    static final long NOT_ENCODABLE = 0;
+
+    private static final int BASE = ALPHABET.length() + 1;
+    private static final byte[] DIGITS = new byte[128];
+
+    static {
+        for (int i = 0; i < ALPHABET.length(); i++) {
+            DIGITS[ALPHABET.charAt(i)] = (byte) (i + 1);
+        }
+    }
+
+    private ShortCodeKeys() {}
+
+    static long encode(String shortCode) {
+        int length = shortCode.length();
+        if (length == 0 || length > MAX_LENGTH) {
+            return NOT_ENCODABLE;
+        }
+        long key = 0;
+        for (int i = 0; i < length; i++) {
+            char c = shortCode.charAt(i);
+            int digit = c < 128 ? DIGITS[c] : 0;
+            if (digit == 0) {
+                return NOT_ENCODABLE;
+            }
+            key = key * BASE + digit;
+        }
+        return key;
+    }
+
+    static String decode(long key) {
+        char[] chars = new char[MAX_LENGTH];
+        int start = MAX_LENGTH;
+        while (key != 0) {
+            chars[--start] = ALPHABET.charAt((int) (key % BASE) - 1);
+            key /= BASE;
+        }
+        return new String(chars, start, MAX_LENGTH - start);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.shortenuri.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key into one call.
+ * <p>
+ * The first caller for a key runs the loader; callers arriving while it is in flight wait for
+ * its result instead of issuing their own. A waiter that times out runs the loader itself
+ * rather than failing, and once the in-flight table is full new keys bypass coalescing.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final int maxInFlight;
+    private final long timeoutMs;
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    public SingleFlight(int maxInFlight, long timeoutMs) {
+        this.maxInFlight = maxInFlight;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> existing = inFlight.get(key);
+        if (existing == null) {
+            if (inFlight.size() >= maxInFlight) {
+                bypassed.increment();
+                return load(loader);
+            }
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            existing = inFlight.putIfAbsent(key, mine);
+            if (existing == null) {
+                try {
+                    V value = load(loader);
+                    mine.complete(value);
+                    return value;
+                } catch (RuntimeException | Error e) {
+                    mine.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    inFlight.remove(key, mine);
+                }
+            }
+        }
+
+        collapsed.increment();
+        try {
+            return existing.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return load(loader);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for in-flight load of " + key, e);
+        }
+    }
+
+    private V load(Supplier<V> loader) {
+        loads.increment();
+        return loader.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getCollapsed() {
+        return collapsed.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    public long getBypassed() {
+        return bypassed.sum();
+    }
+}
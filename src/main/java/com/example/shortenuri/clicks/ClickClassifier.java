@@ -0,0 +1,70 @@
+package com.example.shortenuri.clicks;
+
+import com.example.shortenuri.entity.Url;
+
+import java.util.Locale;
+
+/**
+ * Reduces the Referer and User-Agent headers of a click to the few values its rollups are
+ * kept by. Parenthesized values cannot be a host name, so they never collide with one.
+ */
+public final class ClickClassifier {
+
+    public static final String DIRECT = "(direct)";
+    public static final String UNKNOWN = "(unknown)";
+
+    public static final String BOT = "bot";
+    public static final String MOBILE = "mobile";
+    public static final String TABLET = "tablet";
+    public static final String DESKTOP = "desktop";
+
+    // Checked in this order; a tablet user agent often says "mobile" as well
+    private static final String[] BOT_TOKENS = { "bot", "crawl", "spider", "slurp", "curl/", "wget/", "python-", "java/", "okhttp", "httpclient", "headless" };
+    private static final String[] TABLET_TOKENS = { "ipad", "tablet", "kindle", "silk/", "playbook" };
+    private static final String[] MOBILE_TOKENS = { "mobi", "iphone", "ipod", "android", "windows phone", "blackberry", "opera mini" };
+
+    private ClickClassifier() {}
+
+    /**
+     * Normalized host of the referring page, {@link #DIRECT} without a Referer, or
+     * {@link #UNKNOWN} if it has no host.
+     */
+    public static String referrer(String referer) {
+        if (referer == null || referer.isBlank()) {
+            return DIRECT;
+        }
+        String host = Url.hostOf(referer.trim());
+        return host != null ? host : UNKNOWN;
+    }
+
+    /**
+     * One of {@link #BOT}, {@link #TABLET}, {@link #MOBILE}, {@link #DESKTOP}, or {@link #UNKNOWN}
+     * without a User-Agent.
+     */
+    public static String device(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return UNKNOWN;
+        }
+        String agent = userAgent.toLowerCase(Locale.ROOT);
+        if (containsAny(agent, BOT_TOKENS)) {
+            return BOT;
+        }
+        // Android tablets leave "mobile" out of the user agent
+        if (containsAny(agent, TABLET_TOKENS) || (agent.contains("android") && !agent.contains("mobile"))) {
+            return TABLET;
+        }
+        if (containsAny(agent, MOBILE_TOKENS)) {
+            return MOBILE;
+        }
+        return DESKTOP;
+    }
+
+    private static boolean containsAny(String value, String[] tokens) {
+        for (String token : tokens) {
+            if (value.contains(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
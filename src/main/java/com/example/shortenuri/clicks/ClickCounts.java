@@ -0,0 +1,55 @@
+package com.example.shortenuri.clicks;
+
+import com.example.shortenuri.entity.ClickRollup;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Clicks on one link since the last flush, per dimension value. Each dimension holds at most
+ * {@code maxValues} distinct values; clicks with any further value are counted as
+ * {@link ClickRollup#OTHER}. Not thread-safe.
+ */
+public final class ClickCounts {
+
+    private final int maxValues;
+    private final Map<ClickDimension, Map<String, long[]>> counts = new EnumMap<>(ClickDimension.class);
+
+    public ClickCounts(int maxValues) {
+        this.maxValues = maxValues;
+    }
+
+    public void add(ClickDimension dimension, String value, long clicks) {
+        Map<String, long[]> values = counts.computeIfAbsent(dimension, d -> new HashMap<>());
+        long[] count = values.get(value);
+        if (count == null) {
+            if (values.size() >= maxValues) {
+                value = ClickRollup.OTHER;
+                count = values.get(value);
+            }
+            if (count == null) {
+                count = new long[1];
+                values.put(value, count);
+            }
+        }
+        count[0] += clicks;
+    }
+
+    public void addAll(ClickCounts other) {
+        other.counts.forEach((dimension, values) ->
+            values.forEach((value, count) -> add(dimension, value, count[0])));
+    }
+
+    /**
+     * Counts of one dimension, keyed by value.
+     */
+    public Map<String, Long> get(ClickDimension dimension) {
+        Map<String, Long> result = new HashMap<>();
+        Map<String, long[]> values = counts.get(dimension);
+        if (values != null) {
+            values.forEach((value, count) -> result.put(value, count[0]));
+        }
+        return result;
+    }
+}
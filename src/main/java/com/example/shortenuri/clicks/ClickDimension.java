@@ -0,0 +1,10 @@
+package com.example.shortenuri.clicks;
+
+/**
+ * What a click is broken down by in the {@code click_rollups} table.
+ */
+public enum ClickDimension {
+    REFERRER,
+    COUNTRY,
+    DEVICE
+}
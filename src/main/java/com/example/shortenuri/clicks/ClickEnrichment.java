@@ -0,0 +1,207 @@
+package com.example.shortenuri.clicks;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Breaks successful redirects down by referrer, country and device. The redirect path only
+ * queues the raw headers; a background thread classifies them, counts them per link in memory
+ * and merges the counts into the {@code click_rollups} table every {@code flush-interval-ms},
+ * or sooner once {@code max-pending-links} links have pending counts. A full queue drops the
+ * click from the breakdown ({@code app.clicks.dropped}); the link's click count is kept apart
+ * and is not affected.
+ */
+@Component
+public class ClickEnrichment {
+
+    private static final Logger log = LoggerFactory.getLogger(ClickEnrichment.class);
+
+    private record Click(String shortCode, String remoteAddr, String referer, String userAgent) {}
+
+    private final ClickRollupStore rollupStore;
+    private final boolean enabled;
+    private final int topN;
+    private final long flushIntervalNanos;
+    private final int maxPendingLinks;
+    private final CountryDatabase countries;
+    private final BlockingQueue<Click> queue;
+    private final ScheduledExecutorService writer;
+    private final Counter enriched;
+    private final Counter dropped;
+    private final Timer flushTimer;
+
+    // Guarded by this
+    private Map<String, ClickCounts> pending = new HashMap<>();
+    private long lastFlush = System.nanoTime();
+    private boolean writeFailed;
+
+    public ClickEnrichment(ClickRollupStore rollupStore,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.clicks.enabled:true}") boolean enabled,
+                           @Value("${app.clicks.top-n:10}") int topN,
+                           @Value("${app.clicks.queue-capacity:65536}") int queueCapacity,
+                           @Value("${app.clicks.flush-interval-ms:10000}") long flushIntervalMs,
+                           @Value("${app.clicks.max-pending-links:10000}") int maxPendingLinks,
+                           @Value("${app.clicks.geoip-path:}") String geoIpPath) {
+        this.rollupStore = rollupStore;
+        this.enabled = enabled;
+        this.topN = topN;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.maxPendingLinks = maxPendingLinks;
+        this.countries = enabled && !geoIpPath.isEmpty() ? loadCountries(Path.of(geoIpPath)) : CountryDatabase.EMPTY;
+        this.queue = new ArrayBlockingQueue<>(enabled ? queueCapacity : 1);
+        this.enriched = meterRegistry.counter("app.clicks.enriched");
+        this.dropped = Counter.builder("app.clicks.dropped")
+            .description("Clicks left out of the breakdown because the enrichment queue was full")
+            .register(meterRegistry);
+        this.flushTimer = meterRegistry.timer("app.clicks.flush");
+        meterRegistry.gaugeCollectionSize("app.clicks.queued", Tags.empty(), queue);
+        if (enabled) {
+            this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "click-enrichment");
+                thread.setDaemon(true);
+                return thread;
+            });
+            writer.scheduleWithFixedDelay(this::drain, 10, 10, TimeUnit.MILLISECONDS);
+        } else {
+            this.writer = null;
+        }
+    }
+
+    private static CountryDatabase loadCountries(Path path) {
+        try {
+            CountryDatabase database = CountryDatabase.load(path);
+            log.info("Loaded {} country ranges from {}", database.size(), path);
+            return database;
+        } catch (IOException e) {
+            log.warn("Could not load country database {}; countries will be reported as unknown", path, e);
+            return CountryDatabase.EMPTY;
+        }
+    }
+
+    /**
+     * Queues a successful redirect for the breakdown. Never blocks.
+     */
+    public void record(HttpServletRequest request, String shortCode) {
+        if (!enabled) {
+            return;
+        }
+        Click click = new Click(shortCode, request.getRemoteAddr(),
+            request.getHeader(HttpHeaders.REFERER), request.getHeader(HttpHeaders.USER_AGENT));
+        if (!queue.offer(click)) {
+            dropped.increment();
+        }
+    }
+
+    private synchronized void drain() {
+        try {
+            drainQueue();
+            if (System.nanoTime() - lastFlush >= flushIntervalNanos) {
+                write();
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task
+            log.warn("Click enrichment failed", e);
+        }
+    }
+
+    private void drainQueue() {
+        Click click;
+        while ((click = queue.poll()) != null) {
+            ClickCounts counts = pending.get(click.shortCode());
+            if (counts == null) {
+                if (pending.size() >= maxPendingLinks && !writeEarly()) {
+                    dropped.increment();
+                    continue;
+                }
+                // Room for every value of the top N and a margin for values still climbing
+                counts = new ClickCounts(topN * 4);
+                pending.put(click.shortCode(), counts);
+            }
+            counts.add(ClickDimension.REFERRER, ClickClassifier.referrer(click.referer()), 1);
+            String country = countries.countryOf(click.remoteAddr());
+            counts.add(ClickDimension.COUNTRY, country != null ? country : ClickClassifier.UNKNOWN, 1);
+            counts.add(ClickDimension.DEVICE, ClickClassifier.device(click.userAgent()), 1);
+            enriched.increment();
+        }
+    }
+
+    // After a failed write the table is not tried again before the next interval
+    private boolean writeEarly() {
+        if (writeFailed && System.nanoTime() - lastFlush < flushIntervalNanos) {
+            return false;
+        }
+        return write();
+    }
+
+    /**
+     * Merges the pending counts into the table. On failure they are kept for the next attempt.
+     */
+    private boolean write() {
+        lastFlush = System.nanoTime();
+        if (pending.isEmpty()) {
+            writeFailed = false;
+            return true;
+        }
+        Map<String, ClickCounts> batch = pending;
+        pending = new HashMap<>();
+        try {
+            flushTimer.record(() -> rollupStore.merge(batch, topN));
+            writeFailed = false;
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Writing click rollups for {} links failed", batch.size(), e);
+            batch.forEach((shortCode, counts) ->
+                pending.merge(shortCode, counts, (kept, added) -> {
+                    kept.addAll(added);
+                    return kept;
+                }));
+            writeFailed = true;
+            return false;
+        }
+    }
+
+    /**
+     * Classifies everything queued so far and writes it out now.
+     */
+    public synchronized void flush() {
+        if (!enabled) {
+            return;
+        }
+        drainQueue();
+        write();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.shortenuri.clicks;
+
+import com.example.shortenuri.dto.ClickBreakdownResponse;
+import com.example.shortenuri.dto.DimensionCount;
+import com.example.shortenuri.entity.ClickRollup;
+import com.example.shortenuri.repository.ClickRollupRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps click rollups in the {@code click_rollups} table, at most {@code topN} values plus
+ * {@link ClickRollup#OTHER} per link and dimension.
+ */
+@Component
+public class ClickRollupStore {
+
+    // Codes per IN query; small enough for every database's parameter limit
+    private static final int CHUNK_SIZE = 500;
+
+    private static final Comparator<ClickRollup> MOST_CLICKED = Comparator
+        .comparing(ClickRollup::isOther)
+        .thenComparing(ClickRollup::getClicks, Comparator.reverseOrder())
+        .thenComparing(ClickRollup::getDimensionValue);
+
+    private final ClickRollupRepository clickRollupRepository;
+
+    public ClickRollupStore(ClickRollupRepository clickRollupRepository) {
+        this.clickRollupRepository = clickRollupRepository;
+    }
+
+    /**
+     * Adds {@code pending} to the stored rollups in one transaction. Values pushed out of a
+     * link's top {@code topN} are folded into its {@link ClickRollup#OTHER} row.
+     */
+    @Transactional
+    public void merge(Map<String, ClickCounts> pending, int topN) {
+        List<String> shortCodes = new ArrayList<>(pending.keySet());
+        Map<String, Map<ClickDimension, Map<String, ClickRollup>>> stored = new HashMap<>();
+        for (int from = 0; from < shortCodes.size(); from += CHUNK_SIZE) {
+            List<String> chunk = shortCodes.subList(from, Math.min(from + CHUNK_SIZE, shortCodes.size()));
+            for (ClickRollup rollup : clickRollupRepository.findByShortCodeIn(chunk)) {
+                stored.computeIfAbsent(rollup.getShortCode(), code -> new EnumMap<>(ClickDimension.class))
+                    .computeIfAbsent(rollup.getDimension(), dimension -> new HashMap<>())
+                    .put(rollup.getDimensionValue(), rollup);
+            }
+        }
+
+        Set<ClickRollup> changed = new HashSet<>();
+        List<ClickRollup> folded = new ArrayList<>();
+        pending.forEach((shortCode, counts) -> {
+            for (ClickDimension dimension : ClickDimension.values()) {
+                Map<String, Long> added = counts.get(dimension);
+                if (added.isEmpty()) {
+                    continue;
+                }
+                Map<String, ClickRollup> rows = stored
+                    .computeIfAbsent(shortCode, code -> new EnumMap<>(ClickDimension.class))
+                    .computeIfAbsent(dimension, d -> new HashMap<>());
+                added.forEach((value, clicks) -> {
+                    ClickRollup row = rows.computeIfAbsent(value, v -> new ClickRollup(shortCode, dimension, v));
+                    row.setClicks(row.getClicks() + clicks);
+                    changed.add(row);
+                });
+                fold(rows, topN, shortCode, dimension, changed, folded);
+            }
+        });
+        changed.removeAll(folded);
+        clickRollupRepository.deleteAll(folded);
+        clickRollupRepository.saveAll(changed);
+    }
+
+    private static void fold(Map<String, ClickRollup> rows, int topN, String shortCode, ClickDimension dimension,
+                             Set<ClickRollup> changed, List<ClickRollup> folded) {
+        ClickRollup other = rows.get(ClickRollup.OTHER);
+        int values = rows.size() - (other != null ? 1 : 0);
+        if (values <= topN) {
+            return;
+        }
+        List<ClickRollup> ranked = new ArrayList<>(rows.values());
+        ranked.sort(MOST_CLICKED);
+        if (other == null) {
+            other = new ClickRollup(shortCode, dimension, ClickRollup.OTHER);
+            rows.put(ClickRollup.OTHER, other);
+        }
+        for (ClickRollup row : ranked.subList(topN, values)) {
+            other.setClicks(other.getClicks() + row.getClicks());
+            rows.remove(row.getDimensionValue());
+            if (row.getId() != null) {
+                folded.add(row);
+            } else {
+                changed.remove(row);
+            }
+        }
+        changed.add(other);
+    }
+
+    /**
+     * Rollups of one link, most clicked first and {@link ClickRollup#OTHER} last.
+     */
+    @Transactional(readOnly = true)
+    public ClickBreakdownResponse breakdown(String shortCode, Long clickCount) {
+        List<ClickRollup> rollups = new ArrayList<>(clickRollupRepository.findByShortCode(shortCode));
+        rollups.sort(MOST_CLICKED);
+        ClickBreakdownResponse response = new ClickBreakdownResponse(shortCode, clickCount);
+        for (ClickRollup rollup : rollups) {
+            DimensionCount count = new DimensionCount(rollup.getDimensionValue(), rollup.getClicks());
+            switch (rollup.getDimension()) {
+                case REFERRER -> response.getReferrers().add(count);
+                case COUNTRY -> response.getCountries().add(count);
+                case DEVICE -> response.getDevices().add(count);
+            }
+        }
+        return response;
+    }
+
+    @Transactional
+    public void delete(String shortCode) {
+        clickRollupRepository.deleteByShortCode(shortCode);
+    }
+}
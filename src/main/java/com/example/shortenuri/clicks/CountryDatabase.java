@@ -0,0 +1,144 @@
+package com.example.shortenuri.clicks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Offline IPv4 to country table loaded from a CSV file with one range per line:
+ * <pre>
+ * first,last,country[,...]
+ * </pre>
+ * where {@code first} and {@code last} are dotted quads or 32-bit integers and {@code country}
+ * is a two-letter code. This is the layout of the freely available IP-to-country CSV exports;
+ * quotes, further columns, IPv6 ranges and {@code #} comments are ignored. Ranges are kept in
+ * sorted primitive arrays and found by binary search.
+ */
+public final class CountryDatabase {
+
+    static final CountryDatabase EMPTY = new CountryDatabase(new long[0], new long[0], new String[0]);
+
+    private final long[] firsts;
+    private final long[] lasts;
+    private final String[] countries;
+
+    private CountryDatabase(long[] firsts, long[] lasts, String[] countries) {
+        this.firsts = firsts;
+        this.lasts = lasts;
+        this.countries = countries;
+    }
+
+    public static CountryDatabase load(Path path) throws IOException {
+        List<long[]> ranges = new ArrayList<>();
+        List<String> codes = new ArrayList<>();
+        // One instance per country code however many ranges it has
+        Map<String, String> interned = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.replace("\"", "").split(",", 4);
+                if (fields.length < 3 || fields[0].indexOf(':') >= 0) {
+                    continue;
+                }
+                long first = parseAddress(fields[0].trim());
+                long last = parseAddress(fields[1].trim());
+                String country = fields[2].trim().toUpperCase(Locale.ROOT);
+                if (first < 0 || last < first) {
+                    throw new IOException("Invalid address range on line " + lineNumber + " of " + path);
+                }
+                if (country.length() != 2 || country.equals("ZZ")) {
+                    continue;
+                }
+                ranges.add(new long[] { first, last, codes.size() });
+                codes.add(interned.computeIfAbsent(country, c -> c));
+            }
+        }
+        ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+        long[] firsts = new long[ranges.size()];
+        long[] lasts = new long[ranges.size()];
+        String[] countries = new String[ranges.size()];
+        for (int i = 0; i < ranges.size(); i++) {
+            firsts[i] = ranges.get(i)[0];
+            lasts[i] = ranges.get(i)[1];
+            countries[i] = codes.get((int) ranges.get(i)[2]);
+        }
+        return new CountryDatabase(firsts, lasts, countries);
+    }
+
+    /**
+     * Two-letter country code of an IPv4 address (also in its IPv4-mapped IPv6 form), or
+     * {@code null} if it is in no range or not an IPv4 address.
+     */
+    public String countryOf(String address) {
+        if (address == null || firsts.length == 0) {
+            return null;
+        }
+        if (address.startsWith("::ffff:")) {
+            address = address.substring(7);
+        }
+        long value = parseDottedQuad(address);
+        if (value < 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(firsts, value);
+        if (index < 0) {
+            // Last range starting below the address
+            index = -index - 2;
+        }
+        return index >= 0 && value <= lasts[index] ? countries[index] : null;
+    }
+
+    public int size() {
+        return firsts.length;
+    }
+
+    private static long parseAddress(String value) {
+        if (value.indexOf('.') >= 0) {
+            return parseDottedQuad(value);
+        }
+        try {
+            long number = Long.parseLong(value);
+            return number <= 0xFFFFFFFFL ? number : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Parsed by hand: InetAddress would resolve anything that is not a literal
+    private static long parseDottedQuad(String value) {
+        long address = 0;
+        int octets = 0;
+        int octet = -1;
+        for (int i = 0; i <= value.length(); i++) {
+            char c = i < value.length() ? value.charAt(i) : '.';
+            if (c == '.') {
+                if (octet < 0 || ++octets > 4) {
+                    return -1;
+                }
+                address = address << 8 | octet;
+                octet = -1;
+            } else if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else {
+                return -1;
+            }
+        }
+        return octets == 4 ? address : -1;
+    }
+}
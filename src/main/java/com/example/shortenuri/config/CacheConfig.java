@@ -0,0 +1,37 @@
+package com.example.shortenuri.config;
+
+import com.example.shortenuri.cache.RedirectTarget;
+import com.example.shortenuri.cache.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public SingleFlight<String, Optional<RedirectTarget>> redirectLoads(
+            @Value("${app.lookup.coalescing.max-in-flight:10000}") int maxInFlight,
+            @Value("${app.lookup.coalescing.timeout-ms:2000}") long timeoutMs,
+            MeterRegistry meterRegistry) {
+        SingleFlight<String, Optional<RedirectTarget>> redirectLoads = new SingleFlight<>(maxInFlight, timeoutMs);
+        FunctionCounter.builder("app.lookup.loads", redirectLoads, SingleFlight::getLoads)
+            .description("Redirect lookups that went to the database")
+            .register(meterRegistry);
+        FunctionCounter.builder("app.lookup.coalesced", redirectLoads, SingleFlight::getCollapsed)
+            .description("Redirect lookups that waited on another caller's in-flight load")
+            .register(meterRegistry);
+        FunctionCounter.builder("app.lookup.coalescing.timeouts", redirectLoads, SingleFlight::getTimeouts)
+            .register(meterRegistry);
+        FunctionCounter.builder("app.lookup.coalescing.bypassed", redirectLoads, SingleFlight::getBypassed)
+            .register(meterRegistry);
+        Gauge.builder("app.lookup.in-flight", redirectLoads, SingleFlight::getInFlight)
+            .register(meterRegistry);
+        return redirectLoads;
+    }
+}
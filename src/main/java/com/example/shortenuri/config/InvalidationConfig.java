@@ -0,0 +1,19 @@
+package com.example.shortenuri.config;
+
+import com.example.shortenuri.cache.InvalidationTransport;
+import com.example.shortenuri.cache.LoopbackInvalidationTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class InvalidationConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.invalidation.transport", havingValue = "loopback", matchIfMissing = true)
+    public InvalidationTransport loopbackInvalidationTransport(
+            @Value("${app.invalidation.channel:shortenuri}") String channel) {
+        return new LoopbackInvalidationTransport(channel);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.shortenuri.config;
+
+import com.example.shortenuri.jfr.RepositoryCallInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+@Configuration
+public class JfrConfig {
+
+    /**
+     * Adds {@link RepositoryCallInterceptor} to every Spring Data repository, ahead of the
+     * transaction advice so that the commit is part of the measured call. Static so that the
+     * post-processor is registered without instantiating this configuration early.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryCallEvents() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                // Runs before the factory bean creates its repository in afterPropertiesSet
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                        (proxyFactory, information) ->
+                            proxyFactory.addAdvice(0, new RepositoryCallInterceptor(information.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
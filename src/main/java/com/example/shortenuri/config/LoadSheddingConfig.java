@@ -0,0 +1,49 @@
+package com.example.shortenuri.config;
+
+import com.example.shortenuri.ratelimit.AdaptiveConcurrencyLimiter;
+import com.example.shortenuri.ratelimit.AdaptiveConcurrencyLimiter.Priority;
+import com.example.shortenuri.ratelimit.LoadSheddingFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "app.concurrency.enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(
+            @Value("${app.concurrency.initial-limit:100}") int initialLimit,
+            @Value("${app.concurrency.min-limit:10}") int minLimit,
+            @Value("${app.concurrency.max-limit:400}") int maxLimit,
+            @Value("${app.concurrency.management-share:0.5}") double managementShare,
+            @Value("${app.concurrency.window-size:100}") int windowSize,
+            MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter =
+            new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, managementShare, windowSize);
+        Gauge.builder("app.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+            .register(meterRegistry);
+        Gauge.builder("app.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+            .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            FunctionCounter.builder("app.concurrency.rejected", limiter, l -> l.getRejections(priority))
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry);
+        }
+        return limiter;
+    }
+
+    @Bean
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(AdaptiveConcurrencyLimiter limiter) {
+        FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(new LoadSheddingFilter(limiter));
+        // Shed before any other work is done for the request
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
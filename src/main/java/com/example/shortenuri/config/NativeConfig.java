@@ -0,0 +1,71 @@
+package com.example.shortenuri.config;
+
+import com.example.shortenuri.dto.BatchLookupRequest;
+import com.example.shortenuri.dto.ClickBreakdownResponse;
+import com.example.shortenuri.dto.CreateUrlRequest;
+import com.example.shortenuri.dto.CreateUrlResponse;
+import com.example.shortenuri.dto.DomainStatsResponse;
+import com.example.shortenuri.dto.HotPathEntry;
+import com.example.shortenuri.dto.HotPathReport;
+import com.example.shortenuri.dto.UrlPageResponse;
+import com.example.shortenuri.dto.UrlStatsResponse;
+import com.example.shortenuri.entity.ClickRollup;
+import com.example.shortenuri.entity.Url;
+import com.example.shortenuri.entity.UrlDestinationListener;
+import com.example.shortenuri.entity.UrlPrefix;
+import com.example.shortenuri.repository.ClickRollupRepository;
+import com.example.shortenuri.repository.UrlRepository;
+import com.example.shortenuri.repository.UrlRepositoryCustom;
+import com.example.shortenuri.url.ValidUrlValidator;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection hints for the native image that Spring AOT cannot infer on its own: DTOs serialized
+ * outside of controller signatures (streamed batch responses, JPQL constructor expressions),
+ * the entity listener Hibernate instantiates through the bean container, the custom constraint
+ * validator, and the dialect named in configuration.
+ */
+@Configuration
+@ImportRuntimeHints(NativeConfig.Hints.class)
+public class NativeConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            bindingRegistrar.registerReflectionHints(hints.reflection(),
+                CreateUrlRequest.class, CreateUrlResponse.class, UrlStatsResponse.class, UrlPageResponse.class,
+                DomainStatsResponse.class, BatchLookupRequest.class, ClickBreakdownResponse.class,
+                HotPathReport.class, HotPathEntry.class);
+
+            // Instantiated by Hibernate for "SELECT new ..." queries
+            hints.reflection().registerType(DomainStatsResponse.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+            for (Class<?> entity : new Class<?>[] { Url.class, UrlPrefix.class, ClickRollup.class }) {
+                hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+            hints.reflection().registerType(UrlDestinationListener.class,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            // Instantiated by Hibernate Validator for @ValidUrl
+            hints.reflection().registerType(ValidUrlValidator.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+            // Query methods and the custom fragment are introspected when the repository is created
+            hints.reflection().registerType(UrlRepository.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.reflection().registerType(UrlRepositoryCustom.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.reflection().registerType(ClickRollupRepository.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            hints.reflection().registerType(TypeReference.of("org.hibernate.dialect.H2Dialect"),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+    }
+}
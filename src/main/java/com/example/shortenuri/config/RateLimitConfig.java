@@ -0,0 +1,59 @@
+package com.example.shortenuri.config;
+
+import com.example.shortenuri.ratelimit.RateLimitFilter;
+import com.example.shortenuri.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+@Configuration
+@ConditionalOnProperty(name = "app.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Value("${app.ratelimit.max-clients:100000}")
+    private int maxClients;
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.ratelimit.create.per-second:10}") double createPerSecond,
+            @Value("${app.ratelimit.create.burst:20}") int createBurst,
+            @Value("${app.ratelimit.stats.per-second:50}") double statsPerSecond,
+            @Value("${app.ratelimit.stats.burst:100}") int statsBurst,
+            @Value("${app.ratelimit.delete.per-second:5}") double deletePerSecond,
+            @Value("${app.ratelimit.delete.burst:10}") int deleteBurst,
+            @Value("${app.ratelimit.api-keys:}") Set<String> apiKeys) {
+        RateLimitFilter filter = new RateLimitFilter(
+            limiter("create", createPerSecond, createBurst, meterRegistry),
+            limiter("stats", statsPerSecond, statsBurst, meterRegistry),
+            limiter("delete", deletePerSecond, deleteBurst, meterRegistry),
+            apiKeys);
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/urls", "/api/urls/*", "/api/domains", "/api/domains/*");
+        return registration;
+    }
+
+    private RateLimiter limiter(String budget, double perSecond, int burst, MeterRegistry meterRegistry) {
+        RateLimiter limiter = new RateLimiter(budget, perSecond, burst, maxClients);
+        FunctionCounter.builder("app.ratelimit.admitted", limiter, RateLimiter::getAdmitted)
+            .tag("budget", budget)
+            .register(meterRegistry);
+        FunctionCounter.builder("app.ratelimit.rejected", limiter, RateLimiter::getRejected)
+            .tag("budget", budget)
+            .register(meterRegistry);
+        FunctionCounter.builder("app.ratelimit.overflowed", limiter, RateLimiter::getOverflowed)
+            .tag("budget", budget)
+            .register(meterRegistry);
+        Gauge.builder("app.ratelimit.clients", limiter, RateLimiter::getTrackedClients)
+            .tag("budget", budget)
+            .register(meterRegistry);
+        return limiter;
+    }
+}
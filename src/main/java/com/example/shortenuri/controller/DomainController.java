@@ -0,0 +1,33 @@
+package com.example.shortenuri.controller;
+
+import com.example.shortenuri.dto.DomainStatsResponse;
+import com.example.shortenuri.service.LookupResult;
+import com.example.shortenuri.service.UrlService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/domains")
+@CrossOrigin(origins = "*")
+public class DomainController {
+
+    @Autowired
+    private UrlService urlService;
+
+    @GetMapping
+    public ResponseEntity<List<DomainStatsResponse>> getTopDomains(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(urlService.getTopDomains(limit));
+    }
+
+    @GetMapping("/{domain}")
+    public ResponseEntity<DomainStatsResponse> getDomainStats(@PathVariable String domain) {
+        LookupResult<DomainStatsResponse> result = urlService.getDomainStats(domain);
+        if (!result.isFound()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(result.getValue());
+    }
+}
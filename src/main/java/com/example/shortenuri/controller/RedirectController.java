@@ -1,13 +1,13 @@
 package com.example.shortenuri.controller;
 
+import com.example.shortenuri.accesslog.RedirectAccessLog;
+import com.example.shortenuri.clicks.ClickEnrichment;
 import com.example.shortenuri.service.UrlService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
-import java.io.IOException;
-
 @RestController
 @CrossOrigin(origins = "*")
 public class RedirectController {
@@ -15,16 +15,23 @@ public class RedirectController {
     @Autowired
     private UrlService urlService;
 
+    @Autowired
+    private RedirectResponder redirectResponder;
+
+    @Autowired
+    private RedirectAccessLog accessLog;
+
+    @Autowired
+    private ClickEnrichment clickEnrichment;
+
     @GetMapping("/{shortCode}")
-    public void redirectToOriginalUrl(@PathVariable String shortCode, HttpServletResponse response) {
-        try {
-            String originalUrl = urlService.getOriginalUrl(shortCode);
+    public void redirectToOriginalUrl(@PathVariable String shortCode, HttpServletRequest request,
+                                      HttpServletResponse response) {
+        long start = System.nanoTime();
+        if (redirectResponder.respond(urlService.resolve(shortCode), response)) {
             urlService.incrementClickCount(shortCode);
-            response.sendRedirect(originalUrl);
-        } catch (RuntimeException e) {
-            response.setStatus(HttpStatus.NOT_FOUND.value());
-        } catch (IOException e) {
-            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            clickEnrichment.record(request, shortCode);
         }
+        accessLog.record(request, shortCode, response.getStatus(), start);
     }
 }
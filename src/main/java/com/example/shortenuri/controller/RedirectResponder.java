@@ -0,0 +1,66 @@
+package com.example.shortenuri.controller;
+
+import com.example.shortenuri.cache.RedirectTarget;
+import com.example.shortenuri.service.LookupResult;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes redirect responses with the link's redirect status and a Cache-Control header.
+ * <p>
+ * Permanent redirects (301/308) are publicly cacheable; temporary ones (302/307) are private
+ * and, with the default configuration, revalidated on every click so clicks keep being counted.
+ * Either way max-age never reaches past the link's expiry.
+ */
+@Component
+public class RedirectResponder {
+
+    private final int defaultStatus;
+    private final long permanentMaxAgeSeconds;
+    private final long temporaryMaxAgeSeconds;
+
+    public RedirectResponder(@Value("${app.redirect.default-status:302}") int defaultStatus,
+                             @Value("${app.redirect.permanent-max-age-seconds:86400}") long permanentMaxAgeSeconds,
+                             @Value("${app.redirect.temporary-max-age-seconds:0}") long temporaryMaxAgeSeconds) {
+        this.defaultStatus = defaultStatus;
+        this.permanentMaxAgeSeconds = permanentMaxAgeSeconds;
+        this.temporaryMaxAgeSeconds = temporaryMaxAgeSeconds;
+    }
+
+    /**
+     * Writes the redirect, or 404 / 410 Gone for a missing or expired link. Returns whether a
+     * redirect was sent.
+     */
+    public boolean respond(LookupResult<RedirectTarget> result, HttpServletResponse response) {
+        switch (result.getStatus()) {
+            case FOUND -> {
+                redirect(result.getValue(), response);
+                return true;
+            }
+            case EXPIRED -> response.setStatus(HttpServletResponse.SC_GONE);
+            default -> response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+        }
+        return false;
+    }
+
+    public void redirect(RedirectTarget target, HttpServletResponse response) {
+        int status = target.getRedirectStatus() != null ? target.getRedirectStatus() : defaultStatus;
+        boolean permanent = status == HttpServletResponse.SC_MOVED_PERMANENTLY || status == 308;
+
+        long maxAge = permanent ? permanentMaxAgeSeconds : temporaryMaxAgeSeconds;
+        if (target.getExpiresAtMillis() != RedirectTarget.NO_EXPIRY) {
+            long untilExpiry = (target.getExpiresAtMillis() - System.currentTimeMillis()) / 1000;
+            maxAge = Math.max(0, Math.min(maxAge, untilExpiry));
+        }
+
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.LOCATION, target.getOriginalUrl());
+        if (maxAge > 0) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, (permanent ? "public" : "private") + ", max-age=" + maxAge);
+        } else {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        }
+    }
+}
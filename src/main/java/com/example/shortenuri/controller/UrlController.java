@@ -1,17 +1,43 @@
 package com.example.shortenuri.controller;
 
+import com.example.shortenuri.accesslog.RedirectAccessLog;
+import com.example.shortenuri.cache.RedirectTarget;
+import com.example.shortenuri.clicks.ClickEnrichment;
+import com.example.shortenuri.dto.AvailabilityResponse;
+import com.example.shortenuri.dto.BatchLookupRequest;
+import com.example.shortenuri.dto.ClickBreakdownResponse;
 import com.example.shortenuri.dto.CreateUrlRequest;
-import com.example.shortenuri.dto.CreateUrlResponse;
+import com.example.shortenuri.dto.UrlPageResponse;
 import com.example.shortenuri.dto.UrlStatsResponse;
+import com.example.shortenuri.live.LiveClickPublisher;
+import com.example.shortenuri.repository.UrlFilter;
+import com.example.shortenuri.service.CreateResult;
+import com.example.shortenuri.service.LookupResult;
 import com.example.shortenuri.service.UrlService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/urls")
@@ -21,46 +47,223 @@ public class UrlController {
     @Autowired
     private UrlService urlService;
 
+    @Autowired
+    private RedirectResponder redirectResponder;
+
+    @Autowired
+    private RedirectAccessLog accessLog;
+
+    @Autowired
+    private ClickEnrichment clickEnrichment;
+
+    @Autowired
+    private LiveClickPublisher liveClicks;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Codes per IN query; small enough for every database's parameter limit
+    private static final int BATCH_CHUNK_SIZE = 500;
+
     @PostMapping
-    public ResponseEntity<CreateUrlResponse> createShortUrl(@Valid @RequestBody CreateUrlRequest request) {
-        try {
-            CreateUrlResponse response = urlService.createShortUrl(request);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().build();
+    public ResponseEntity<?> createShortUrl(@Valid @RequestBody CreateUrlRequest request) {
+        CreateResult result = urlService.createShortUrl(request);
+        if (result.isConflict()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "Short code already exists: " + result.getConflictingShortCode()));
         }
+        return ResponseEntity.status(HttpStatus.CREATED).body(result.getResponse());
+    }
+
+    /**
+     * Whether {@code code} is free to use as a custom short code, with free alternatives when it
+     * is not. Answered from memory except for codes shaped like generated ones.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(@RequestParam String code,
+                                                                  @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(urlService.checkAvailability(code, limit));
+    }
+
+    @GetMapping
+    public ResponseEntity<UrlPageResponse> listUrls(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long minClicks,
+            @RequestParam(required = false) String domain) {
+        UrlFilter filter = new UrlFilter();
+        filter.setCreatedFrom(createdFrom);
+        filter.setCreatedTo(createdTo);
+        if (status != null) {
+            filter.setStatus(UrlFilter.Status.valueOf(status.toUpperCase(Locale.ROOT)));
+        }
+        filter.setMinClicks(minClicks);
+        filter.setDomain(domain);
+        return ResponseEntity.ok(urlService.listUrls(filter, cursor, limit));
+    }
+
+    /**
+     * Stats for many codes, streamed as a JSON array in request order while later chunks are
+     * still being queried. Unknown codes appear as {@code {"shortCode": ..., "found": false}}.
+     */
+    @PostMapping("/stats:batch")
+    public ResponseEntity<StreamingResponseBody> getUrlStatsBatch(@Valid @RequestBody BatchLookupRequest request) {
+        List<String> shortCodes = request.getShortCodes();
+        return streamJson(generator -> {
+            for (List<String> chunk : chunks(shortCodes)) {
+                Map<String, UrlStatsResponse> stats = urlService.getUrlStats(new HashSet<>(chunk));
+                for (String shortCode : chunk) {
+                    UrlStatsResponse response = stats.get(shortCode);
+                    if (response == null) {
+                        writeMissing(generator, shortCode, false);
+                    } else {
+                        ObjectNode node = objectMapper.valueToTree(response);
+                        node.put("found", true);
+                        generator.writeTree(node);
+                    }
+                }
+                generator.flush();
+            }
+        });
+    }
+
+    /**
+     * Resolves many codes to their destinations without counting clicks, streamed like
+     * {@link #getUrlStatsBatch}. Expired links are reported as not found with {@code "expired": true}.
+     */
+    @PostMapping("/resolve:batch")
+    public ResponseEntity<StreamingResponseBody> resolveBatch(@Valid @RequestBody BatchLookupRequest request) {
+        List<String> shortCodes = request.getShortCodes();
+        return streamJson(generator -> {
+            for (List<String> chunk : chunks(shortCodes)) {
+                Map<String, LookupResult<RedirectTarget>> results = urlService.resolveAll(new HashSet<>(chunk));
+                for (String shortCode : chunk) {
+                    LookupResult<RedirectTarget> result = results.getOrDefault(shortCode, LookupResult.notFound());
+                    if (!result.isFound()) {
+                        writeMissing(generator, shortCode, result.getStatus() == LookupResult.Status.EXPIRED);
+                        continue;
+                    }
+                    RedirectTarget target = result.getValue();
+                    generator.writeStartObject();
+                    generator.writeStringField("shortCode", shortCode);
+                    generator.writeBooleanField("found", true);
+                    generator.writeStringField("originalUrl", target.getOriginalUrl());
+                    if (target.getRedirectStatus() != null) {
+                        generator.writeNumberField("redirectStatus", target.getRedirectStatus());
+                    }
+                    generator.writeEndObject();
+                }
+                generator.flush();
+            }
+        });
     }
 
     @GetMapping("/{shortCode}")
     public ResponseEntity<UrlStatsResponse> getUrlStats(@PathVariable String shortCode) {
-        try {
-            UrlStatsResponse response = urlService.getUrlStats(shortCode);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
+        LookupResult<UrlStatsResponse> result = urlService.getUrlStats(shortCode);
+        if (!result.isFound()) {
             return ResponseEntity.notFound().build();
         }
+
+        UrlStatsResponse response = result.getValue();
+        // Spring answers 304 without serializing the body when these validators match
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        long lastModified = 0;
+        if (response.getUpdatedAt() != null) {
+            lastModified = response.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            builder.lastModified(lastModified);
+        }
+        return builder.eTag(statsETag(response, lastModified)).body(response);
+    }
+
+    /**
+     * Clicks by referrer, country and device. The rollups are written periodically, so they
+     * can trail {@code clickCount} by up to {@code app.clicks.flush-interval-ms}.
+     */
+    @GetMapping("/{shortCode}/breakdown")
+    public ResponseEntity<ClickBreakdownResponse> getClickBreakdown(@PathVariable String shortCode) {
+        LookupResult<ClickBreakdownResponse> result = urlService.getClickBreakdown(shortCode);
+        if (!result.isFound()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(result.getValue());
+    }
+
+    /**
+     * Server-Sent Events stream of {@code clicks} events: the link's click count on connect,
+     * then the count and the clicks since the previous event once per {@code app.live.interval-ms}
+     * in which it was clicked. Answers 503 once {@code app.live.max-subscribers} streams are open.
+     */
+    @GetMapping(value = "/{shortCode}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamClicks(@PathVariable String shortCode) {
+        LookupResult<UrlStatsResponse> result = urlService.getUrlStats(shortCode);
+        if (!result.isFound()) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = liveClicks.subscribe(shortCode, result.getValue().getClickCount());
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30").build();
+        }
+        return ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, "no-store").body(emitter);
     }
 
     @DeleteMapping("/{shortCode}")
     public ResponseEntity<Void> deleteUrl(@PathVariable String shortCode) {
-        try {
-            urlService.deleteUrl(shortCode);
-            return ResponseEntity.noContent().build();
-        } catch (RuntimeException e) {
+        if (!urlService.deleteUrl(shortCode)) {
             return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/redirect/{shortCode}")
-    public void redirectToOriginalUrl(@PathVariable String shortCode, HttpServletResponse response) {
-        try {
-            String originalUrl = urlService.getOriginalUrl(shortCode);
+    public void redirectToOriginalUrl(@PathVariable String shortCode, HttpServletRequest request,
+                                      HttpServletResponse response) {
+        long start = System.nanoTime();
+        if (redirectResponder.respond(urlService.resolve(shortCode), response)) {
             urlService.incrementClickCount(shortCode);
-            response.sendRedirect(originalUrl);
-        } catch (RuntimeException e) {
-            response.setStatus(HttpStatus.NOT_FOUND.value());
-        } catch (IOException e) {
-            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            clickEnrichment.record(request, shortCode);
         }
+        accessLog.record(request, shortCode, response.getStatus(), start);
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamJson(BatchBody body) {
+        StreamingResponseBody stream = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                body.write(generator);
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(stream);
+    }
+
+    private static void writeMissing(JsonGenerator generator, String shortCode, boolean expired) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("shortCode", shortCode);
+        generator.writeBooleanField("found", false);
+        if (expired) {
+            generator.writeBooleanField("expired", true);
+        }
+        generator.writeEndObject();
+    }
+
+    private static List<List<String>> chunks(List<String> shortCodes) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < shortCodes.size(); from += BATCH_CHUNK_SIZE) {
+            chunks.add(shortCodes.subList(from, Math.min(from + BATCH_CHUNK_SIZE, shortCodes.size())));
+        }
+        return chunks;
+    }
+
+    @FunctionalInterface
+    private interface BatchBody {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private static String statsETag(UrlStatsResponse response, long lastModified) {
+        return "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(response.getClickCount()) + "\"";
     }
 }
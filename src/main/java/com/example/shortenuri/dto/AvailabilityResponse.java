@@ -0,0 +1,44 @@
+package com.example.shortenuri.dto;
+
+import java.util.List;
+
+public class AvailabilityResponse {
+
+    private String code;
+    private Boolean available;
+    private List<String> suggestions;
+
+    // Constructors
+    public AvailabilityResponse() {}
+
+    public AvailabilityResponse(String code, Boolean available, List<String> suggestions) {
+        this.code = code;
+        this.available = available;
+        this.suggestions = suggestions;
+    }
+
+    // Getters and Setters
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Boolean available) {
+        this.available = available;
+    }
+
+    public List<String> getSuggestions() {
+        return suggestions;
+    }
+
+    public void setSuggestions(List<String> suggestions) {
+        this.suggestions = suggestions;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.shortenuri.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchLookupRequest {
+
+    public static final int MAX_CODES = 5000;
+
+    @NotEmpty(message = "Short codes are required")
+    @Size(max = MAX_CODES, message = "At most " + MAX_CODES + " short codes per request")
+    private List<@NotBlank String> shortCodes;
+
+    // Constructors
+    public BatchLookupRequest() {}
+
+    public BatchLookupRequest(List<String> shortCodes) {
+        this.shortCodes = shortCodes;
+    }
+
+    // Getters and Setters
+    public List<String> getShortCodes() {
+        return shortCodes;
+    }
+
+    public void setShortCodes(List<String> shortCodes) {
+        this.shortCodes = shortCodes;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.shortenuri.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ClickBreakdownResponse {
+
+    private String shortCode;
+    private Long clickCount;
+    private List<DimensionCount> referrers = new ArrayList<>();
+    private List<DimensionCount> countries = new ArrayList<>();
+    private List<DimensionCount> devices = new ArrayList<>();
+
+    // Constructors
+    public ClickBreakdownResponse() {}
+
+    public ClickBreakdownResponse(String shortCode, Long clickCount) {
+        this.shortCode = shortCode;
+        this.clickCount = clickCount;
+    }
+
+    // Getters and Setters
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public void setShortCode(String shortCode) {
+        this.shortCode = shortCode;
+    }
+
+    public Long getClickCount() {
+        return clickCount;
+    }
+
+    public void setClickCount(Long clickCount) {
+        this.clickCount = clickCount;
+    }
+
+    public List<DimensionCount> getReferrers() {
+        return referrers;
+    }
+
+    public void setReferrers(List<DimensionCount> referrers) {
+        this.referrers = referrers;
+    }
+
+    public List<DimensionCount> getCountries() {
+        return countries;
+    }
+
+    public void setCountries(List<DimensionCount> countries) {
+        this.countries = countries;
+    }
+
+    public List<DimensionCount> getDevices() {
+        return devices;
+    }
+
+    public void setDevices(List<DimensionCount> devices) {
+        this.devices = devices;
+    }
+}
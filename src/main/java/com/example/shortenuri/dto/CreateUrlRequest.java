@@ -1,21 +1,22 @@
 package com.example.shortenuri.dto;
 
+import com.example.shortenuri.url.ValidUrl;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Pattern;
 import java.time.LocalDateTime;
 
 public class CreateUrlRequest {
 
     @NotBlank(message = "Original URL is required")
-    @Pattern(regexp = "^(https?://)?([\\da-z.-]+)\\.([a-z.]{2,6})[/\\w .-]*/?$", 
-             message = "Invalid URL format")
+    @ValidUrl
     private String originalUrl;
 
     private String customShortCode;
 
     private LocalDateTime expiresAt;
 
+    private Integer redirectStatus;
+
     // Constructors
     public CreateUrlRequest() {}
 
@@ -52,4 +53,12 @@ public class CreateUrlRequest {
     public void setExpiresAt(LocalDateTime expiresAt) {
         this.expiresAt = expiresAt;
     }
+
+    public Integer getRedirectStatus() {
+        return redirectStatus;
+    }
+
+    public void setRedirectStatus(Integer redirectStatus) {
+        this.redirectStatus = redirectStatus;
+    }
 }
@@ -0,0 +1,32 @@
+package com.example.shortenuri.dto;
+
+public class DimensionCount {
+
+    private String value;
+    private Long clicks;
+
+    // Constructors
+    public DimensionCount() {}
+
+    public DimensionCount(String value, Long clicks) {
+        this.value = value;
+        this.clicks = clicks;
+    }
+
+    // Getters and Setters
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public Long getClicks() {
+        return clicks;
+    }
+
+    public void setClicks(Long clicks) {
+        this.clicks = clicks;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.shortenuri.dto;
+
+public class DomainStatsResponse {
+
+    private String domain;
+    private Long linkCount;
+    private Long totalClicks;
+
+    // Constructors
+    public DomainStatsResponse() {}
+
+    public DomainStatsResponse(String domain, Long linkCount, Long totalClicks) {
+        this.domain = domain;
+        this.linkCount = linkCount;
+        this.totalClicks = totalClicks;
+    }
+
+    // Getters and Setters
+    public String getDomain() {
+        return domain;
+    }
+
+    public void setDomain(String domain) {
+        this.domain = domain;
+    }
+
+    public Long getLinkCount() {
+        return linkCount;
+    }
+
+    public void setLinkCount(Long linkCount) {
+        this.linkCount = linkCount;
+    }
+
+    public Long getTotalClicks() {
+        return totalClicks;
+    }
+
+    public void setTotalClicks(Long totalClicks) {
+        this.totalClicks = totalClicks;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.shortenuri.dto;
+
+public class HotPathEntry {
+
+    private String operation;
+    private String result;
+    private Long count;
+    private Long totalMicros;
+    private Long p50Micros;
+    private Long p99Micros;
+    private Long maxMicros;
+
+    // Constructors
+    public HotPathEntry() {}
+
+    public HotPathEntry(String operation, String result, Long count, Long totalMicros,
+                        Long p50Micros, Long p99Micros, Long maxMicros) {
+        this.operation = operation;
+        this.result = result;
+        this.count = count;
+        this.totalMicros = totalMicros;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    // Getters and Setters
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    public Long getTotalMicros() {
+        return totalMicros;
+    }
+
+    public void setTotalMicros(Long totalMicros) {
+        this.totalMicros = totalMicros;
+    }
+
+    public Long getP50Micros() {
+        return p50Micros;
+    }
+
+    public void setP50Micros(Long p50Micros) {
+        this.p50Micros = p50Micros;
+    }
+
+    public Long getP99Micros() {
+        return p99Micros;
+    }
+
+    public void setP99Micros(Long p99Micros) {
+        this.p99Micros = p99Micros;
+    }
+
+    public Long getMaxMicros() {
+        return maxMicros;
+    }
+
+    public void setMaxMicros(Long maxMicros) {
+        this.maxMicros = maxMicros;
+    }
+}
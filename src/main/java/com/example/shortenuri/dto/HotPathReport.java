@@ -0,0 +1,66 @@
+package com.example.shortenuri.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class HotPathReport {
+
+    private LocalDateTime startedAt;
+    private Long durationMs;
+    private Long gcPauses;
+    private Long gcPauseMicros;
+    private List<HotPathEntry> entries;
+
+    // Constructors
+    public HotPathReport() {}
+
+    public HotPathReport(LocalDateTime startedAt, Long durationMs, Long gcPauses, Long gcPauseMicros,
+                         List<HotPathEntry> entries) {
+        this.startedAt = startedAt;
+        this.durationMs = durationMs;
+        this.gcPauses = gcPauses;
+        this.gcPauseMicros = gcPauseMicros;
+        this.entries = entries;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(Long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public Long getGcPauses() {
+        return gcPauses;
+    }
+
+    public void setGcPauses(Long gcPauses) {
+        this.gcPauses = gcPauses;
+    }
+
+    public Long getGcPauseMicros() {
+        return gcPauseMicros;
+    }
+
+    public void setGcPauseMicros(Long gcPauseMicros) {
+        this.gcPauseMicros = gcPauseMicros;
+    }
+
+    public List<HotPathEntry> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<HotPathEntry> entries) {
+        this.entries = entries;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.shortenuri.dto;
+
+import java.time.LocalDateTime;
+
+public class LiveClickUpdate {
+
+    private String shortCode;
+    private Long clickCount;
+    private Long delta;
+    private LocalDateTime timestamp;
+
+    // Constructors
+    public LiveClickUpdate() {}
+
+    public LiveClickUpdate(String shortCode, Long clickCount, Long delta, LocalDateTime timestamp) {
+        this.shortCode = shortCode;
+        this.clickCount = clickCount;
+        this.delta = delta;
+        this.timestamp = timestamp;
+    }
+
+    // Getters and Setters
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public void setShortCode(String shortCode) {
+        this.shortCode = shortCode;
+    }
+
+    public Long getClickCount() {
+        return clickCount;
+    }
+
+    public void setClickCount(Long clickCount) {
+        this.clickCount = clickCount;
+    }
+
+    public Long getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Long delta) {
+        this.delta = delta;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
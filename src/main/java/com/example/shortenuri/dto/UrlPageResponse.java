@@ -0,0 +1,37 @@
+package com.example.shortenuri.dto;
+
+import java.util.List;
+
+public class UrlPageResponse {
+
+    private List<UrlStatsResponse> items;
+    private String nextCursor;
+
+    // Constructors
+    public UrlPageResponse() {}
+
+    public UrlPageResponse(List<UrlStatsResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<UrlStatsResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<UrlStatsResponse> items) {
+        this.items = items;
+    }
+
+    /**
+     * Cursor for the next page, or {@code null} on the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
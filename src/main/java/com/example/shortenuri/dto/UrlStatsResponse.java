@@ -10,6 +10,8 @@ public class UrlStatsResponse {
     private LocalDateTime createdAt;
     private LocalDateTime expiresAt;
     private Long clickCount;
+    private LocalDateTime updatedAt;
+    private Integer redirectStatus;
 
     // Constructors
     public UrlStatsResponse() {}
@@ -72,4 +74,20 @@ public class UrlStatsResponse {
     public void setClickCount(Long clickCount) {
         this.clickCount = clickCount;
     }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Integer getRedirectStatus() {
+        return redirectStatus;
+    }
+
+    public void setRedirectStatus(Integer redirectStatus) {
+        this.redirectStatus = redirectStatus;
+    }
 }
@@ -0,0 +1,96 @@
+package com.example.shortenuri.entity;
+
+import com.example.shortenuri.clicks.ClickDimension;
+import jakarta.persistence.*;
+
+/**
+ * Clicks on one link with one value of one dimension, e.g. referrer {@code news.example.com}.
+ * Each link keeps at most {@code app.clicks.top-n} values per dimension; the rest are summed
+ * into the {@link #OTHER} row.
+ */
+@Entity
+@Table(name = "click_rollups",
+    uniqueConstraints = @UniqueConstraint(name = "uk_click_rollups_value", columnNames = { "shortCode", "dimension", "dimensionValue" }))
+public class ClickRollup {
+
+    public static final String OTHER = "(other)";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String shortCode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ClickDimension dimension;
+
+    @Column(nullable = false)
+    private String dimensionValue;
+
+    @Column(nullable = false)
+    private Long clicks = 0L;
+
+    // Two nodes flushing the same link must not overwrite each other's counts
+    @Version
+    private Long version;
+
+    // Constructors
+    public ClickRollup() {}
+
+    public ClickRollup(String shortCode, ClickDimension dimension, String dimensionValue) {
+        this.shortCode = shortCode;
+        this.dimension = dimension;
+        this.dimensionValue = dimensionValue;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public void setShortCode(String shortCode) {
+        this.shortCode = shortCode;
+    }
+
+    public ClickDimension getDimension() {
+        return dimension;
+    }
+
+    public void setDimension(ClickDimension dimension) {
+        this.dimension = dimension;
+    }
+
+    public String getDimensionValue() {
+        return dimensionValue;
+    }
+
+    public void setDimensionValue(String dimensionValue) {
+        this.dimensionValue = dimensionValue;
+    }
+
+    public Long getClicks() {
+        return clicks;
+    }
+
+    public void setClicks(Long clicks) {
+        this.clicks = clicks;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public boolean isOther() {
+        return OTHER.equals(dimensionValue);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.shortenuri.entity;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Splits a destination URL into its scheme+authority prefix, stored once in the
+ * {@code url_prefixes} dictionary, and a suffix stored as bytes. The suffix is deflated against
+ * a preset dictionary of tokens that dominate real destinations (paths, UTM and click-id query
+ * parameters) and kept raw when that would not be smaller; the first byte records which.
+ */
+public final class DestinationCodec {
+
+    static final byte RAW = 0;
+    static final byte DEFLATED = 1;
+
+    // zlib prefers matches near the end of the dictionary, so the most common tokens come last
+    private static final byte[] PRESET = (
+        "index.html.php.aspx?id=&ref=&lang=en&page=%20%2F%3D-_/amp/products/blog/articles/"
+            + "&gclid=&fbclid=&mc_cid=&mc_eid=&utm_id=&utm_term=&utm_content="
+            + "&utm_campaign=&utm_medium=email&utm_medium=social&utm_medium=cpc"
+            + "?utm_source=newsletter?utm_source=facebook?utm_source=google?utm_source=")
+        .getBytes(StandardCharsets.US_ASCII);
+
+    // zlib streams are expensive to allocate; each thread reuses its own pair
+    private static final ThreadLocal<Deflater> DEFLATERS =
+        ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_COMPRESSION, true));
+    private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private DestinationCodec() {}
+
+    /**
+     * Length of the scheme+authority prefix of a URL, or 0 if it has none.
+     */
+    public static int prefixLength(String url) {
+        int start = url.indexOf("://");
+        if (start < 0) {
+            return 0;
+        }
+        int end = start + 3;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        return end;
+    }
+
+    public static byte[] encodeSuffix(String suffix) {
+        byte[] raw = suffix.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = DEFLATERS.get();
+        deflater.reset();
+        deflater.setDictionary(PRESET);
+        deflater.setInput(raw);
+        deflater.finish();
+
+        byte[] buffer = new byte[raw.length + 1];
+        buffer[0] = DEFLATED;
+        int length = deflater.deflate(buffer, 1, buffer.length - 1);
+        if (!deflater.finished() || length + 1 >= raw.length + 1) {
+            buffer[0] = RAW;
+            System.arraycopy(raw, 0, buffer, 1, raw.length);
+            return buffer;
+        }
+        return Arrays.copyOf(buffer, length + 1);
+    }
+
+    public static String decodeSuffix(byte[] encoded) {
+        if (encoded[0] == RAW) {
+            return new String(encoded, 1, encoded.length - 1, StandardCharsets.UTF_8);
+        }
+        if (encoded[0] != DEFLATED) {
+            throw new IllegalStateException("Unknown destination encoding: " + encoded[0]);
+        }
+
+        // Raw deflate streams carry no dictionary id, so the preset is supplied up front
+        Inflater inflater = INFLATERS.get();
+        inflater.reset();
+        inflater.setDictionary(PRESET);
+        inflater.setInput(encoded, 1, encoded.length - 1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length * 4);
+        byte[] chunk = new byte[Math.max(256, encoded.length * 4)];
+        try {
+            while (!inflater.finished()) {
+                int n = inflater.inflate(chunk);
+                if (n == 0 && inflater.needsInput()) {
+                    throw new IllegalStateException("Truncated destination suffix");
+                }
+                out.write(chunk, 0, n);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt destination suffix", e);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -3,10 +3,23 @@ package com.example.shortenuri.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+
+import java.net.IDN;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
 
 @Entity
-@Table(name = "urls")
+@EntityListeners(UrlDestinationListener.class)
+@Table(name = "urls", indexes = {
+    @Index(name = "idx_urls_created_at", columnList = "createdAt"),
+    @Index(name = "idx_urls_expires_at", columnList = "expiresAt"),
+    // No index includes clickCount: every flushed click would rewrite its entries
+    @Index(name = "idx_urls_destination_host", columnList = "destinationHost")
+})
 public class Url {
 
     @Id
@@ -17,10 +30,31 @@ public class Url {
     @Column(nullable = false, unique = true)
     private String shortCode;
 
+    // Stored as destinationPrefixId + destinationSuffix by UrlDestinationListener
     @NotBlank
-    @Column(nullable = false, columnDefinition = "TEXT")
+    @Transient
     private String originalUrl;
 
+    @Column
+    private Integer destinationPrefixId;
+
+    @Column(length = 65535)
+    private byte[] destinationSuffix;
+
+    // Full URL of rows written before the compact encoding; cleared when they are migrated
+    @Column(name = "original_url", columnDefinition = "TEXT")
+    private String legacyOriginalUrl;
+
+    @Transient
+    private boolean destinationChanged;
+
+    // Unique so concurrent creates for one destination cannot both insert, even across nodes
+    @Column(unique = true, length = 64)
+    private String originalUrlHash;
+
+    @Column
+    private String destinationHost;
+
     @NotNull
     @Column(nullable = false)
     private LocalDateTime createdAt;
@@ -31,13 +65,20 @@ public class Url {
     @Column(nullable = false)
     private Long clickCount = 0L;
 
+    @Column
+    private LocalDateTime updatedAt;
+
+    @Column
+    private Integer redirectStatus;
+
     // Constructors
     public Url() {}
 
     public Url(String shortCode, String originalUrl) {
         this.shortCode = shortCode;
-        this.originalUrl = originalUrl;
+        setOriginalUrl(originalUrl);
         this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
     }
 
     // Getters and Setters
@@ -63,6 +104,117 @@ public class Url {
 
     public void setOriginalUrl(String originalUrl) {
         this.originalUrl = originalUrl;
+        this.originalUrlHash = originalUrl != null ? hashOf(originalUrl) : null;
+        this.destinationHost = originalUrl != null ? hostOf(originalUrl) : null;
+        this.destinationChanged = true;
+    }
+
+    void restoreOriginalUrl(String originalUrl) {
+        this.originalUrl = originalUrl;
+    }
+
+    boolean isDestinationChanged() {
+        return destinationChanged || legacyOriginalUrl != null;
+    }
+
+    void setEncodedDestination(Integer prefixId, byte[] suffix) {
+        this.destinationPrefixId = prefixId;
+        this.destinationSuffix = suffix;
+        this.legacyOriginalUrl = null;
+        this.destinationChanged = false;
+    }
+
+    public Integer getDestinationPrefixId() {
+        return destinationPrefixId;
+    }
+
+    public byte[] getDestinationSuffix() {
+        return destinationSuffix;
+    }
+
+    public String getLegacyOriginalUrl() {
+        return legacyOriginalUrl;
+    }
+
+    /**
+     * Moves a row written before the compact encoding to it on the next flush.
+     */
+    public void migrateLegacyDestination() {
+        if (legacyOriginalUrl != null) {
+            this.originalUrl = legacyOriginalUrl;
+            this.legacyOriginalUrl = null;
+            this.destinationChanged = true;
+        }
+    }
+
+    public String getOriginalUrlHash() {
+        return originalUrlHash;
+    }
+
+    /**
+     * Sets the destination hash of a row written before the column existed.
+     */
+    public void backfillOriginalUrlHash() {
+        this.originalUrlHash = hashOf(originalUrl);
+    }
+
+    public static String hashOf(String originalUrl) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(originalUrl.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public String getDestinationHost() {
+        return destinationHost;
+    }
+
+    public void setDestinationHost(String destinationHost) {
+        this.destinationHost = destinationHost;
+    }
+
+    /**
+     * Extracts the normalized host of a URL, or {@code null} if it has none.
+     */
+    public static String hostOf(String url) {
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        int end = start;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        String authority = url.substring(start, end);
+        authority = authority.substring(authority.lastIndexOf('@') + 1);
+        if (authority.startsWith("[")) {
+            int close = authority.indexOf(']');
+            return normalizeHost(close > 0 ? authority.substring(0, close + 1) : authority);
+        }
+        int colon = authority.indexOf(':');
+        return normalizeHost(colon >= 0 ? authority.substring(0, colon) : authority);
+    }
+
+    /**
+     * Lower-cases a host and drops a trailing dot and a leading "www." so that equivalent
+     * spellings of one domain share an index entry.
+     */
+    public static String normalizeHost(String host) {
+        String normalized = host.trim().toLowerCase(Locale.ROOT);
+        if (normalized.endsWith(".")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        if (normalized.startsWith("www.")) {
+            normalized = normalized.substring(4);
+        }
+        if (!normalized.startsWith("[")) {
+            try {
+                normalized = IDN.toASCII(normalized);
+            } catch (IllegalArgumentException e) {
+                // Keep the lower-cased form; it still groups identical spellings
+            }
+        }
+        return normalized.isEmpty() ? null : normalized;
     }
 
     public LocalDateTime getCreatedAt() {
@@ -89,8 +241,25 @@ public class Url {
         this.clickCount = clickCount;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Integer getRedirectStatus() {
+        return redirectStatus;
+    }
+
+    public void setRedirectStatus(Integer redirectStatus) {
+        this.redirectStatus = redirectStatus;
+    }
+
     public void incrementClickCount() {
         this.clickCount++;
+        this.updatedAt = LocalDateTime.now();
     }
 
     public boolean isExpired() {
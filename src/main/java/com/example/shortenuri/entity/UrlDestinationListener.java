@@ -0,0 +1,50 @@
+package com.example.shortenuri.entity;
+
+import com.example.shortenuri.repository.PrefixDictionary;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Encodes {@link Url} destinations into a dictionary prefix id plus compressed suffix on write
+ * and decodes them on load. Decoding happens once per load; the redirect cache holds the
+ * decoded URL, so cache hits never pay for it.
+ */
+public class UrlDestinationListener {
+
+    // Resolved on first use: the listener is created while the EntityManagerFactory that the
+    // dictionary's transaction manager depends on is still being built. Constructor-injected
+    // because AOT-processed contexts do not field-inject classes that are not registered beans
+    private final ObjectProvider<PrefixDictionary> prefixDictionary;
+
+    public UrlDestinationListener(ObjectProvider<PrefixDictionary> prefixDictionary) {
+        this.prefixDictionary = prefixDictionary;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void encode(Url url) {
+        if (!url.isDestinationChanged() || url.getOriginalUrl() == null) {
+            return;
+        }
+        String originalUrl = url.getOriginalUrl();
+        String prefix = PrefixDictionary.prefixOf(originalUrl);
+        // Resolved by the writer before its transaction; a prefix it could not add is kept inline
+        Integer prefixId = prefix != null ? prefixDictionary.getObject().cachedIdOf(prefix) : null;
+        int prefixLength = prefixId != null ? prefix.length() : 0;
+        url.setEncodedDestination(prefixId, DestinationCodec.encodeSuffix(originalUrl.substring(prefixLength)));
+    }
+
+    @PostLoad
+    public void decode(Url url) {
+        byte[] suffix = url.getDestinationSuffix();
+        if (suffix == null) {
+            // Not migrated yet; the legacy column still holds the full URL
+            url.restoreOriginalUrl(url.getLegacyOriginalUrl());
+            return;
+        }
+        String prefix = url.getDestinationPrefixId() != null ? prefixDictionary.getObject().prefixOf(url.getDestinationPrefixId()) : "";
+        url.restoreOriginalUrl(prefix + DestinationCodec.decodeSuffix(suffix));
+    }
+}
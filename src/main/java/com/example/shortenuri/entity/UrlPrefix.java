@@ -0,0 +1,45 @@
+package com.example.shortenuri.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Dictionary entry for a scheme+authority prefix shared by many destinations. Entries are
+ * only ever added, so their ids can be cached indefinitely.
+ */
+@Entity
+@Table(name = "url_prefixes")
+public class UrlPrefix {
+
+    public static final int MAX_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, unique = true, length = MAX_LENGTH)
+    private String prefix;
+
+    // Constructors
+    public UrlPrefix() {}
+
+    public UrlPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.shortenuri.exception;
+
+/**
+ * No free short code could be generated within the allowed attempts. Transient: the client may
+ * retry.
+ */
+public class ShortCodeUnavailableException extends RuntimeException {
+
+    public ShortCodeUnavailableException(int attempts) {
+        super("Could not allocate a short code after " + attempts + " attempts, please retry");
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.shortenuri.expiry;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock time in epoch milliseconds, refreshed every {@code app.expiry.tick-ms} by a
+ * background thread. Hot paths read a volatile field instead of asking the system clock; the
+ * value lags real time by at most one tick.
+ */
+@Component
+public class CoarseClock {
+
+    private final ScheduledExecutorService ticker;
+    private volatile long now = System.currentTimeMillis();
+
+    public CoarseClock(@Value("${app.expiry.tick-ms:10}") long tickMillis) {
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "coarse-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> now = System.currentTimeMillis(), tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public long millis() {
+        return now;
+    }
+
+    @PreDestroy
+    public void close() {
+        ticker.shutdownNow();
+    }
+}
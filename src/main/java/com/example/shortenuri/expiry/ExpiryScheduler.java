@@ -0,0 +1,114 @@
+package com.example.shortenuri.expiry;
+
+import com.example.shortenuri.cache.RedirectCache;
+import com.example.shortenuri.cache.RedirectTarget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Removes expiring links from the {@link RedirectCache} when their deadline passes instead of
+ * waiting for the next lookup to notice, and publishes a {@link LinkExpiredEvent} for each.
+ * <p>
+ * Callers {@link #track} a link after caching it. Tracked deadlines are queued and moved into a
+ * {@link TimingWheel} by a single expiry thread, which advances the wheel to the
+ * {@link CoarseClock} every tick; lookups compare against the same clock, so no lookup sees a
+ * link as live after the wheel has expired it. A link that left the cache before its deadline
+ * (deleted, or dropped by a resync) produces no event.
+ */
+@Component
+public class ExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiryScheduler.class);
+
+    private record Deadline(String shortCode, long expiresAtMillis) {}
+
+    private final RedirectCache redirectCache;
+    private final CoarseClock clock;
+    private final ApplicationEventPublisher events;
+    private final TimingWheel<Deadline> wheel;
+    private final ScheduledExecutorService ticker;
+
+    private final Map<String, Long> tracked = new ConcurrentHashMap<>();
+    private final Queue<Deadline> incoming = new ConcurrentLinkedQueue<>();
+    private final Counter expired;
+
+    public ExpiryScheduler(RedirectCache redirectCache,
+                           CoarseClock clock,
+                           ApplicationEventPublisher events,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.expiry.tick-ms:10}") long tickMillis) {
+        this.redirectCache = redirectCache;
+        this.clock = clock;
+        this.events = events;
+        this.wheel = new TimingWheel<>(tickMillis, clock.millis());
+        this.expired = meterRegistry.counter("app.expiry.expired");
+        meterRegistry.gaugeMapSize("app.expiry.tracked", Tags.empty(), tracked);
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "expiry-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Expires {@code target} from the cache at its deadline; does nothing for links without one.
+     */
+    public void track(String shortCode, RedirectTarget target) {
+        long deadline = target.getExpiresAtMillis();
+        if (deadline == RedirectTarget.NO_EXPIRY) {
+            return;
+        }
+        Long previous = tracked.put(shortCode, deadline);
+        if (previous == null || previous != deadline) {
+            incoming.add(new Deadline(shortCode, deadline));
+        }
+    }
+
+    void tick() {
+        try {
+            Deadline deadline;
+            while ((deadline = incoming.poll()) != null) {
+                wheel.schedule(deadline, deadline.expiresAtMillis());
+            }
+            wheel.advance(clock.millis(), this::expire);
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task
+            log.warn("Expiry tick failed", e);
+        }
+    }
+
+    private void expire(Deadline deadline) {
+        if (!tracked.remove(deadline.shortCode(), deadline.expiresAtMillis())) {
+            // Tracked again since with a different deadline
+            return;
+        }
+        RedirectTarget cached = redirectCache.get(deadline.shortCode());
+        if (cached == null || cached.getExpiresAtMillis() != deadline.expiresAtMillis()) {
+            return;
+        }
+        redirectCache.remove(deadline.shortCode(), cached);
+        expired.increment();
+        events.publishEvent(new LinkExpiredEvent(deadline.shortCode(), deadline.expiresAtMillis()));
+    }
+
+    @PreDestroy
+    public void close() {
+        ticker.shutdownNow();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.shortenuri.expiry;
+
+import java.time.Instant;
+
+/**
+ * Published by {@link ExpiryScheduler} when a link this node was serving reaches its expiry.
+ * Listeners run on the expiry thread and should hand off anything slow.
+ */
+public class LinkExpiredEvent {
+
+    private final String shortCode;
+    private final long expiresAtMillis;
+
+    public LinkExpiredEvent(String shortCode, long expiresAtMillis) {
+        this.shortCode = shortCode;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public Instant getExpiresAt() {
+        return Instant.ofEpochMilli(expiresAtMillis);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.shortenuri.expiry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel: {@code LEVELS} wheels of 64 slots, where a slot of level
+ * {@code n} spans 64<sup>n</sup> ticks. A deadline goes into the lowest level whose current
+ * rotation contains it, and is moved down a level each time the clock enters its slot, so
+ * scheduling and firing cost O(1) regardless of how many deadlines are pending. Deadlines beyond
+ * the top level's rotation wait in an overflow list that is re-examined once per rotation.
+ * <p>
+ * Not thread-safe; one thread schedules and advances.
+ */
+final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    // 64^5 ticks: about four months with 10 ms ticks
+    private static final int LEVELS = 5;
+
+    private record Entry<T>(T item, long tick) {}
+
+    private final long tickMillis;
+    private final List<ArrayDeque<Entry<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final ArrayDeque<Entry<T>> overflow = new ArrayDeque<>();
+    private final ArrayDeque<Entry<T>> due = new ArrayDeque<>();
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Schedules {@code item} to fire on the first {@link #advance} past {@code deadlineMillis}.
+     * A deadline already passed fires on the next advance.
+     */
+    void schedule(T item, long deadlineMillis) {
+        // The first tick strictly after the deadline, when a lookup also sees the link as expired
+        long tick = deadlineMillis / tickMillis + 1;
+        place(new Entry<>(item, tick));
+        size++;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis}, handing every item whose deadline has passed to
+     * {@code fire} in deadline order (items due in the same tick in no particular order).
+     */
+    void advance(long nowMillis, Consumer<T> fire) {
+        fireDue(fire);
+        long target = nowMillis / tickMillis;
+        while (currentTick < target) {
+            if (size == 0) {
+                // Nothing left to cascade or fire; skip the idle stretch in one step
+                currentTick = target;
+                break;
+            }
+            currentTick++;
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(slot(level, currentTick));
+                }
+            }
+            if ((currentTick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+                cascade(overflow);
+            }
+            ArrayDeque<Entry<T>> slot = slot(0, currentTick);
+            due.addAll(slot);
+            slot.clear();
+            fireDue(fire);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void place(Entry<T> entry) {
+        if (entry.tick() <= currentTick) {
+            due.add(entry);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * (level + 1);
+            if ((entry.tick() >>> shift) == (currentTick >>> shift)) {
+                slot(level, entry.tick()).add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private void cascade(ArrayDeque<Entry<T>> slot) {
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<Entry<T>> entries = new ArrayList<>(slot);
+        slot.clear();
+        for (Entry<T> entry : entries) {
+            place(entry);
+        }
+    }
+
+    private void fireDue(Consumer<T> fire) {
+        Entry<T> entry;
+        while ((entry = due.poll()) != null) {
+            size--;
+            fire.accept(entry.item());
+        }
+    }
+
+    private ArrayDeque<Entry<T>> slot(int level, long tick) {
+        return slots.get(level * SLOTS + (int) ((tick >>> (SLOT_BITS * level)) & MASK));
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.shortenuri.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("shortenuri.ClickCount")
+@Label("Click Count")
+@Category("Shortenuri")
+@Description("UrlService.incrementClickCount")
+@StackTrace(false)
+public class ClickCountEvent extends Event {
+
+    @Label("Short Code")
+    public String shortCode;
+
+    @Label("Result")
+    @Description("COUNTED or NOT_FOUND")
+    public String result;
+}
@@ -0,0 +1,58 @@
+package com.example.shortenuri.jfr;
+
+import com.example.shortenuri.dto.HotPathReport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * {@code /actuator/hotpath}: POST starts a recording, GET shows its state and DELETE stops it
+ * and returns the summary. Like every actuator endpoint it is served only when listed in
+ * {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "hotpath")
+public class HotPathEndpoint {
+
+    @Autowired
+    private HotPathRecorder recorder;
+
+    @Value("${app.jfr.default-duration-seconds:60}")
+    private long defaultDurationSeconds;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return recorder.status();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> start(@Nullable Long durationSeconds) {
+        long seconds = durationSeconds != null ? durationSeconds : defaultDurationSeconds;
+        if (seconds <= 0) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        if (!recorder.start(Duration.ofSeconds(seconds))) {
+            // The previous recording has to be collected first
+            return new WebEndpointResponse<>(recorder.status(), 409);
+        }
+        return new WebEndpointResponse<>(recorder.status());
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<HotPathReport> stop() {
+        HotPathReport report = recorder.stop();
+        if (report == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(report);
+    }
+}
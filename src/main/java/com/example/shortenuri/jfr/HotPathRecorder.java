@@ -0,0 +1,190 @@
+package com.example.shortenuri.jfr;
+
+import com.example.shortenuri.dto.HotPathEntry;
+import com.example.shortenuri.dto.HotPathReport;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One bounded Flight Recorder recording at a time of the application's events and the JVM's
+ * garbage collections, summarized per operation and result when it is stopped. The recording
+ * stops by itself after its duration; its data stays on disk, limited to {@code max-size-mb}
+ * with the oldest chunks dropped first, until it is collected.
+ */
+@Component
+public class HotPathRecorder {
+
+    private static final List<Class<? extends Event>> EVENTS = List.of(
+        LinkLookupEvent.class, ClickCountEvent.class, LinkCreateEvent.class, RepositoryCallEvent.class);
+
+    private static final Map<String, String> SERVICE_OPERATIONS = Map.of(
+        "shortenuri.LinkLookup", "UrlService.resolve",
+        "shortenuri.ClickCount", "UrlService.incrementClickCount",
+        "shortenuri.LinkCreate", "UrlService.createShortUrl");
+
+    private static final String GARBAGE_COLLECTION = "jdk.GarbageCollection";
+
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+
+    // Guarded by this
+    private Recording recording;
+
+    public HotPathRecorder(@Value("${app.jfr.max-duration-seconds:300}") long maxDurationSeconds,
+                           @Value("${app.jfr.max-size-mb:64}") long maxSizeMb) {
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    /**
+     * Starts recording for {@code duration}, at most {@code max-duration-seconds}. Returns
+     * {@code false} if the previous recording has not been collected with {@link #stop()} yet.
+     */
+    public synchronized boolean start(Duration duration) {
+        if (recording != null) {
+            return false;
+        }
+        Recording started = new Recording();
+        started.setName("shortenuri-hot-path");
+        for (Class<? extends Event> event : EVENTS) {
+            started.enable(event).withoutThreshold();
+        }
+        started.enable(GARBAGE_COLLECTION);
+        started.setToDisk(true);
+        started.setMaxSize(maxSizeBytes);
+        started.setDuration(duration.compareTo(maxDuration) > 0 ? maxDuration : duration);
+        started.start();
+        recording = started;
+        return true;
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "IDLE");
+            return status;
+        }
+        status.put("state", recording.getState() == RecordingState.RUNNING ? "RUNNING" : "STOPPED");
+        status.put("startedAt", toLocalDateTime(recording.getStartTime()));
+        status.put("durationSeconds", recording.getDuration().toSeconds());
+        return status;
+    }
+
+    /**
+     * Stops the recording if it is still running and returns its summary, or {@code null} if
+     * nothing was recorded.
+     */
+    public synchronized HotPathReport stop() {
+        if (recording == null) {
+            return null;
+        }
+        Recording stopped = recording;
+        recording = null;
+        try {
+            if (stopped.getState() == RecordingState.RUNNING) {
+                stopped.stop();
+            }
+            Path file = Files.createTempFile("hot-path", ".jfr");
+            try {
+                stopped.dump(file);
+                return summarize(file, stopped.getStartTime(), stopped.getStopTime());
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            stopped.close();
+        }
+    }
+
+    static HotPathReport summarize(Path file, Instant startedAt, Instant stoppedAt) throws IOException {
+        Map<Key, Samples> samples = new HashMap<>();
+        long gcPauses = 0;
+        long gcPauseNanos = 0;
+        try (RecordingFile events = new RecordingFile(file)) {
+            while (events.hasMoreEvents()) {
+                RecordedEvent event = events.readEvent();
+                String type = event.getEventType().getName();
+                if (type.equals(GARBAGE_COLLECTION)) {
+                    gcPauses++;
+                    gcPauseNanos += event.getDuration("sumOfPauses").toNanos();
+                    continue;
+                }
+                String operation = type.equals("shortenuri.RepositoryCall")
+                    ? event.getString("operation") : SERVICE_OPERATIONS.get(type);
+                if (operation != null) {
+                    samples.computeIfAbsent(new Key(operation, event.getString("result")), k -> new Samples())
+                        .add(event.getDuration().toNanos());
+                }
+            }
+        }
+
+        List<HotPathEntry> entries = new ArrayList<>();
+        samples.forEach((key, s) -> entries.add(s.toEntry(key)));
+        entries.sort(Comparator.comparing(HotPathEntry::getTotalMicros).reversed());
+        return new HotPathReport(toLocalDateTime(startedAt), Duration.between(startedAt, stoppedAt).toMillis(),
+            gcPauses, gcPauseNanos / 1000, entries);
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private record Key(String operation, String result) {}
+
+    private static final class Samples {
+
+        private long[] nanos = new long[16];
+        private int size;
+        private long total;
+
+        void add(long duration) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = duration;
+            total += duration;
+        }
+
+        HotPathEntry toEntry(Key key) {
+            Arrays.sort(nanos, 0, size);
+            return new HotPathEntry(key.operation(), key.result(), (long) size, total / 1000,
+                percentile(0.50) / 1000, percentile(0.99) / 1000, nanos[size - 1] / 1000);
+        }
+
+        private long percentile(double p) {
+            return nanos[Math.max(0, (int) Math.ceil(p * size) - 1)];
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.shortenuri.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("shortenuri.LinkCreate")
+@Label("Link Create")
+@Category("Shortenuri")
+@Description("UrlService.createShortUrl, including the wait for its stripe lock")
+@StackTrace(false)
+public class LinkCreateEvent extends Event {
+
+    @Label("Short Code")
+    public String shortCode;
+
+    @Label("Result")
+    @Description("CREATED, EXISTING, CONFLICT or ERROR")
+    public String result;
+}
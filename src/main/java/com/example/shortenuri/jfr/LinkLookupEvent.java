@@ -0,0 +1,26 @@
+package com.example.shortenuri.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("shortenuri.LinkLookup")
+@Label("Link Lookup")
+@Category("Shortenuri")
+@Description("UrlService.resolve: redirect cache lookup, and the store load on a miss")
+@StackTrace(false)
+public class LinkLookupEvent extends Event {
+
+    public static final String CACHED = "CACHED";
+    public static final String LOADED = "LOADED";
+
+    @Label("Short Code")
+    public String shortCode;
+
+    @Label("Result")
+    @Description("CACHED, LOADED, NOT_FOUND or EXPIRED")
+    public String result;
+}
@@ -0,0 +1,27 @@
+package com.example.shortenuri.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("shortenuri.RepositoryCall")
+@Label("Repository Call")
+@Category("Shortenuri")
+@Description("A call to a Spring Data repository, including its transaction")
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+
+    @Label("Operation")
+    @Description("Repository and method, e.g. UrlRepository.findByShortCode")
+    public String operation;
+
+    @Label("Short Code")
+    public String shortCode;
+
+    @Label("Result")
+    @Description("FOUND, EMPTY, TRUE, FALSE, OK or ERROR")
+    public String result;
+}
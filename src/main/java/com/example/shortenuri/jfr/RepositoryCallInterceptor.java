@@ -0,0 +1,67 @@
+package com.example.shortenuri.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Emits a {@link RepositoryCallEvent} around each repository method. Without a recording that
+ * enables the event, a call costs one check of the event's enabled flag.
+ */
+public class RepositoryCallInterceptor implements MethodInterceptor {
+
+    private final String repository;
+
+    public RepositoryCallInterceptor(Class<?> repositoryInterface) {
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        // Default methods delegate to query methods, which are recorded on their own
+        if (!event.isEnabled() || method.isDefault()) {
+            return invocation.proceed();
+        }
+
+        event.begin();
+        String result = "ERROR";
+        try {
+            Object value = invocation.proceed();
+            result = describe(value);
+            return value;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = repository + "." + method.getName();
+                event.shortCode = shortCode(method, invocation.getArguments());
+                event.result = result;
+                event.commit();
+            }
+        }
+    }
+
+    private static String shortCode(Method method, Object[] arguments) {
+        if (method.getName().contains("ShortCode") && arguments.length > 0 && arguments[0] instanceof String code) {
+            return code;
+        }
+        return null;
+    }
+
+    private static String describe(Object value) {
+        if (value instanceof Optional<?> optional) {
+            return optional.isPresent() ? "FOUND" : "EMPTY";
+        }
+        if (value instanceof Collection<?> collection) {
+            return collection.isEmpty() ? "EMPTY" : "FOUND";
+        }
+        if (value instanceof Boolean bool) {
+            return bool ? "TRUE" : "FALSE";
+        }
+        return "OK";
+    }
+}
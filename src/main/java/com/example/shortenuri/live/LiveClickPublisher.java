@@ -0,0 +1,357 @@
+package com.example.shortenuri.live;
+
+import com.example.shortenuri.dto.LiveClickUpdate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live click counts over Server-Sent Events. A redirect only bumps a counter, and only for links
+ * someone is watching, so its cost does not depend on the number of subscribers. Once per
+ * {@code interval-ms} a single publisher thread turns each link's counter into one
+ * {@code clicks} event, serialized once, and offers it to every subscriber's bounded buffer.
+ * A small pool of sender threads writes the buffers out. A subscriber whose buffer is full is
+ * too slow to keep up and is disconnected instead of holding events back for anyone else.
+ * Links without clicks get a comment every {@code heartbeat-ms} so idle connections stay open.
+ * <p>
+ * Servlet writes block, so a client that stops reading can pin a sender thread until the
+ * container's socket timeout. The publisher thread treats a write that has not returned within
+ * {@code write-timeout-ms} as a slow consumer: it disconnects the subscriber and adds a spare
+ * sender thread for as long as that write stays stuck, up to {@code sender-threads} spares.
+ * <p>
+ * Counts are those of this node: the total read when the first subscriber of a link arrived
+ * plus the clicks this node has redirected since.
+ */
+@Component
+public class LiveClickPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveClickPublisher.class);
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("keepalive").build();
+
+    private final ObjectMapper objectMapper;
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final long heartbeatNanos;
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ScheduledExecutorService publisher;
+    private final long writeTimeoutNanos;
+    private final int senderThreads;
+    private final ThreadPoolExecutor senders;
+    private final Counter events;
+    private final Counter slowConsumers;
+
+    // Publisher thread only
+    private long lastHeartbeat = System.nanoTime();
+    // Guarded by this
+    private int spareSenders;
+
+    public LiveClickPublisher(ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.live.interval-ms:1000}") long intervalMs,
+                              @Value("${app.live.max-subscribers:10000}") int maxSubscribers,
+                              @Value("${app.live.buffer-size:16}") int bufferSize,
+                              @Value("${app.live.sender-threads:4}") int senderThreads,
+                              @Value("${app.live.timeout-ms:1800000}") long timeoutMs,
+                              @Value("${app.live.heartbeat-ms:15000}") long heartbeatMs,
+                              @Value("${app.live.write-timeout-ms:5000}") long writeTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatMs);
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        this.senderThreads = senderThreads;
+        meterRegistry.gauge("app.live.subscribers", subscriberCount);
+        meterRegistry.gaugeMapSize("app.live.channels", Tags.empty(), channels);
+        this.events = meterRegistry.counter("app.live.events");
+        this.slowConsumers = Counter.builder("app.live.slow-consumers")
+            .description("Live subscribers disconnected because their buffer was full or a write stalled")
+            .register(meterRegistry);
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), daemon("live-sender"));
+        this.publisher = Executors.newSingleThreadScheduledExecutor(daemon("live-publisher"));
+        publisher.scheduleWithFixedDelay(this::publishSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger threads = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, name + "-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Counts a redirect of {@code shortCode}. Does nothing unless the link has subscribers.
+     */
+    public void click(String shortCode) {
+        Channel channel = channels.get(shortCode);
+        if (channel != null) {
+            channel.pending.increment();
+        }
+    }
+
+    /**
+     * Opens a stream for {@code shortCode}, starting with an event carrying {@code clickCount}.
+     * Returns {@code null} if {@code max-subscribers} streams are already open.
+     */
+    public SseEmitter subscribe(String shortCode, long clickCount) {
+        return subscribe(shortCode, clickCount, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(String shortCode, long clickCount, SseEmitter emitter) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        Subscriber subscriber = new Subscriber(shortCode, emitter, bufferSize);
+        Channel channel = channels.compute(shortCode, (code, existing) -> {
+            Channel joined = existing != null ? existing : new Channel(clickCount);
+            joined.subscribers.add(subscriber);
+            return joined;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        offer(subscriber, clicksEvent(shortCode, channel.total, 0));
+        return emitter;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        channels.computeIfPresent(subscriber.shortCode, (code, channel) -> {
+            if (channel.subscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return channel.subscribers.isEmpty() ? null : channel;
+        });
+    }
+
+    private void publishSafely() {
+        try {
+            publish();
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task
+            log.warn("Publishing live clicks failed", e);
+        }
+    }
+
+    /**
+     * Sends each watched link's clicks since the last call to its subscribers, and disconnects
+     * subscribers whose current write has stalled.
+     */
+    void publish() {
+        long now = System.nanoTime();
+        boolean heartbeat = now - lastHeartbeat >= heartbeatNanos;
+        if (heartbeat) {
+            lastHeartbeat = now;
+        }
+        channels.forEach((shortCode, channel) -> {
+            long delta = channel.pending.sumThenReset();
+            Set<DataWithMediaType> event;
+            if (delta > 0) {
+                channel.total += delta;
+                event = clicksEvent(shortCode, channel.total, delta);
+            } else if (heartbeat) {
+                event = HEARTBEAT;
+            } else {
+                event = null;
+            }
+            for (Subscriber subscriber : channel.subscribers) {
+                if (subscriber.abortIfStalled(now)) {
+                    slowConsumers.increment();
+                    unsubscribe(subscriber);
+                } else if (event != null) {
+                    offer(subscriber, event);
+                }
+            }
+        });
+    }
+
+    private Set<DataWithMediaType> clicksEvent(String shortCode, long clickCount, long delta) {
+        LiveClickUpdate update = new LiveClickUpdate(shortCode, clickCount, delta, LocalDateTime.now());
+        try {
+            return SseEmitter.event()
+                .name("clicks")
+                .data(objectMapper.writeValueAsString(update), MediaType.APPLICATION_JSON)
+                .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void offer(Subscriber subscriber, Set<DataWithMediaType> event) {
+        if (subscriber.buffer.offer(event)) {
+            events.increment();
+        } else {
+            // Too slow to keep up; the sender completes the stream once its current write returns
+            slowConsumers.increment();
+            subscriber.closed = true;
+            subscriber.buffer.clear();
+            unsubscribe(subscriber);
+        }
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            senders.execute(subscriber::send);
+        }
+    }
+
+    int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    // Stands in for a sender thread stuck in a stalled write
+    private synchronized boolean addSpareSender() {
+        if (spareSenders == senderThreads) {
+            return false;
+        }
+        spareSenders++;
+        senders.setMaximumPoolSize(senderThreads + spareSenders);
+        senders.setCorePoolSize(senderThreads + spareSenders);
+        return true;
+    }
+
+    private synchronized void releaseSpareSender() {
+        spareSenders--;
+        senders.setCorePoolSize(senderThreads + spareSenders);
+        senders.setMaximumPoolSize(senderThreads + spareSenders);
+    }
+
+    @PreDestroy
+    public void close() {
+        publisher.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> {
+            subscriber.closed = true;
+            subscriber.buffer.clear();
+            senders.execute(subscriber::send);
+        }));
+        senders.shutdown();
+        try {
+            senders.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Channel {
+
+        final LongAdder pending = new LongAdder();
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        // Publisher thread, or under the map entry's lock when the channel is created
+        volatile long total;
+
+        Channel(long total) {
+            this.total = total;
+        }
+    }
+
+    private final class Subscriber {
+
+        final String shortCode;
+        final SseEmitter emitter;
+        final BlockingQueue<Set<DataWithMediaType>> buffer;
+        // At most one sender task per subscriber, so its events stay in order
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile boolean closed;
+        // Guarded by this; the write itself happens outside the lock
+        private boolean writing;
+        private long writeStartedNanos;
+        private boolean replaced;
+
+        Subscriber(String shortCode, SseEmitter emitter, int bufferSize) {
+            this.shortCode = shortCode;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void send() {
+            try {
+                Set<DataWithMediaType> event;
+                while (!closed && (event = buffer.poll()) != null) {
+                    beginWrite();
+                    try {
+                        emitter.send(event);
+                    } finally {
+                        if (endWrite()) {
+                            releaseSpareSender();
+                        }
+                    }
+                }
+                if (closed) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the emitter's error callback unsubscribes it
+                log.debug("Live stream for {} closed: {}", shortCode, e.getMessage());
+                closed = true;
+                unsubscribe(this);
+            } finally {
+                scheduled.set(false);
+                if (!closed && !buffer.isEmpty() && scheduled.compareAndSet(false, true)) {
+                    senders.execute(this::send);
+                }
+            }
+        }
+
+        private synchronized void beginWrite() {
+            writing = true;
+            writeStartedNanos = System.nanoTime();
+        }
+
+        /**
+         * Returns whether a spare sender was added while this write was stuck.
+         */
+        private synchronized boolean endWrite() {
+            writing = false;
+            boolean spare = replaced;
+            replaced = false;
+            return spare;
+        }
+
+        /**
+         * Closes the stream if its current write has been stuck for {@code write-timeout-ms},
+         * standing in a spare sender for the stuck thread. Returns whether the subscriber was
+         * still open, so it is counted once. The sender completes the emitter when the write
+         * returns; the emitter's methods share its lock with the stuck write.
+         */
+        synchronized boolean abortIfStalled(long now) {
+            if (!writing || replaced || now - writeStartedNanos < writeTimeoutNanos) {
+                return false;
+            }
+            replaced = addSpareSender();
+            boolean open = !closed;
+            closed = true;
+            buffer.clear();
+            return open;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.shortenuri.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to observed latency.
+ * <p>
+ * Latency samples are averaged over windows of {@code windowSize} requests. Each window's
+ * average (short-term RTT) is compared to an exponentially smoothed long-term RTT: when the
+ * short-term RTT rises above the long-term one, requests are queueing somewhere and the limit
+ * shrinks proportionally; when they match, the limit grows by a headroom of sqrt(limit).
+ * Requests beyond the limit are rejected immediately instead of waiting for a thread or a
+ * JDBC connection.
+ * <p>
+ * Management requests may only use {@code managementShare} of the limit, so under pressure
+ * they are shed before redirects are.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Priority {
+        REDIRECT,
+        MANAGEMENT
+    }
+
+    private static final double LONG_RTT_DECAY = 0.95;
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double managementShare;
+    private final int windowSize;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder redirectRejections = new LongAdder();
+    private final LongAdder managementRejections = new LongAdder();
+
+    private final LongAdder windowRttNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final ReentrantLock windowLock = new ReentrantLock();
+
+    private volatile double limit;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double managementShare, int windowSize) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.managementShare = managementShare;
+        this.windowSize = windowSize;
+    }
+
+    public boolean tryAcquire(Priority priority) {
+        int allowed = priority == Priority.REDIRECT
+            ? (int) limit
+            : Math.max(1, (int) (limit * managementShare));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                (priority == Priority.REDIRECT ? redirectRejections : managementRejections).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a permit and feeds the request's latency into the limit.
+     */
+    public void release(long rttNanos) {
+        inFlight.decrementAndGet();
+        windowRttNanos.add(rttNanos);
+        windowSamples.increment();
+        if (windowSamples.sum() >= windowSize && windowLock.tryLock()) {
+            try {
+                long samples = windowSamples.sumThenReset();
+                long total = windowRttNanos.sumThenReset();
+                if (samples > 0) {
+                    updateLimit((double) total / samples);
+                }
+            } finally {
+                windowLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Releases a permit without a latency sample, e.g. for requests that went asynchronous.
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    private void updateLimit(double shortRttNanos) {
+        if (longRttNanos == 0) {
+            longRttNanos = shortRttNanos;
+        } else {
+            longRttNanos = longRttNanos * LONG_RTT_DECAY + shortRttNanos * (1 - LONG_RTT_DECAY);
+        }
+        // Once latency recovers, let the baseline follow it down quickly
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos = shortRttNanos * 2;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, longRttNanos / shortRttNanos));
+        double current = limit;
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejections(Priority priority) {
+        return (priority == Priority.REDIRECT ? redirectRejections : managementRejections).sum();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.shortenuri.ratelimit;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits requests through an {@link AdaptiveConcurrencyLimiter} and answers 503 when the limit
+ * is reached. The measured latency covers the whole request, including the UrlService lookup
+ * and its database access. Actuator endpoints are never shed.
+ * <p>
+ * A request that goes async, such as a streamed batch response, keeps its permit until the
+ * response completes, errors or times out. Only the live click stream gives its permit back
+ * when it starts: it stays open for as long as the client watches and would otherwise hold a
+ * permit indefinitely.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public LoadSheddingFilter(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return path(request).startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!limiter.tryAcquire(priorityOf(request))) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Service overloaded\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!request.isAsyncStarted()) {
+                limiter.release(System.nanoTime() - start);
+            } else if (isLiveStream(request)) {
+                limiter.releaseWithoutSample();
+            } else {
+                request.getAsyncContext().addListener(new ReleaseOnEnd(limiter, start));
+            }
+        }
+    }
+
+    static boolean isLiveStream(HttpServletRequest request) {
+        String path = path(request);
+        return path.startsWith("/api/urls/") && path.endsWith("/live");
+    }
+
+    static AdaptiveConcurrencyLimiter.Priority priorityOf(HttpServletRequest request) {
+        String path = path(request);
+        if (path.startsWith("/api/") && !path.startsWith("/api/urls/redirect/")) {
+            return AdaptiveConcurrencyLimiter.Priority.MANAGEMENT;
+        }
+        return AdaptiveConcurrencyLimiter.Priority.REDIRECT;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Releases the permit of an async request once, when it ends however it ends.
+     */
+    private static final class ReleaseOnEnd implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnEnd(AdaptiveConcurrencyLimiter limiter, long start) {
+            this.limiter = limiter;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register for the next cycle if the request goes async again
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            // An error or timeout is followed by onComplete
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+}
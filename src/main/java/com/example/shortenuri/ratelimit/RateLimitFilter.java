@@ -0,0 +1,84 @@
+package com.example.shortenuri.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies per-client budgets to the management API under /api/urls and /api/domains. Clients
+ * are identified by their X-API-Key header if it is one of the configured keys, otherwise by
+ * the remote address; an arbitrary header would let a client take a fresh budget per request.
+ * Redirects are not limited here.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String API_KEY_HEADER = "X-API-Key";
+
+    private final RateLimiter createLimiter;
+    private final RateLimiter statsLimiter;
+    private final RateLimiter deleteLimiter;
+    private final Set<String> apiKeys;
+
+    public RateLimitFilter(RateLimiter createLimiter, RateLimiter statsLimiter, RateLimiter deleteLimiter,
+                           Set<String> apiKeys) {
+        this.createLimiter = createLimiter;
+        this.statsLimiter = statsLimiter;
+        this.deleteLimiter = deleteLimiter;
+        this.apiKeys = Set.copyOf(apiKeys);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimiter limiter = limiterFor(request);
+        if (limiter != null) {
+            long waitNanos = limiter.tryAcquire(clientId(request));
+            if (waitNanos > 0) {
+                long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write("{\"error\":\"Too many requests\"}");
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private RateLimiter limiterFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/domains")) {
+            return HttpMethod.GET.matches(request.getMethod()) ? statsLimiter : null;
+        }
+        if (!path.startsWith("/api/urls") || path.startsWith("/api/urls/redirect/")) {
+            return null;
+        }
+        String method = request.getMethod();
+        if (HttpMethod.POST.matches(method)) {
+            // Batch lookups are reads posted as a body, not creates
+            return path.endsWith(":batch") ? statsLimiter : createLimiter;
+        }
+        if (HttpMethod.DELETE.matches(method)) {
+            return deleteLimiter;
+        }
+        if (HttpMethod.GET.matches(method)) {
+            return statsLimiter;
+        }
+        return null;
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+}
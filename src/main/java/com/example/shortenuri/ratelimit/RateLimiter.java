@@ -0,0 +1,107 @@
+package com.example.shortenuri.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets for one budget (create, stats or delete).
+ * <p>
+ * Buckets live in a bounded map. Idle buckets are fully refilled and equivalent to a fresh
+ * one, so they are swept when the map reaches its bound (at most once per second, so a flood
+ * of new clients cannot turn every check into a full scan). If the map is still full, unknown
+ * clients share one overflow bucket with the same budget, so a flood of new clients is limited
+ * as a whole instead of being admitted unchecked.
+ */
+public class RateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxClients;
+    private final LongSupplier clock;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflow;
+    private final AtomicLong lastSweepNanos;
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    public RateLimiter(String name, double permitsPerSecond, int burst, int maxClients) {
+        this(name, permitsPerSecond, burst, maxClients, System::nanoTime);
+    }
+
+    RateLimiter(String name, double permitsPerSecond, int burst, int maxClients, LongSupplier clock) {
+        this.name = name;
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstNanos = intervalNanos * Math.max(0, burst - 1);
+        this.maxClients = maxClients;
+        this.clock = clock;
+        this.lastSweepNanos = new AtomicLong(clock.getAsLong() - SWEEP_INTERVAL_NANOS);
+        this.overflow = new TokenBucket(clock.getAsLong());
+    }
+
+    /**
+     * Returns 0 if the client may proceed, otherwise the nanoseconds until it may retry.
+     */
+    public long tryAcquire(String clientId) {
+        long now = clock.getAsLong();
+        TokenBucket bucket = buckets.get(clientId);
+        if (bucket == null) {
+            if (buckets.size() >= maxClients) {
+                long lastSweep = lastSweepNanos.get();
+                if (now - lastSweep >= SWEEP_INTERVAL_NANOS && lastSweepNanos.compareAndSet(lastSweep, now)) {
+                    sweep(now);
+                }
+                if (buckets.size() >= maxClients) {
+                    overflowed.increment();
+                    bucket = overflow;
+                }
+            }
+            if (bucket == null) {
+                bucket = buckets.computeIfAbsent(clientId, id -> new TokenBucket(now));
+            }
+        }
+
+        long wait = bucket.tryAcquire(now, intervalNanos, burstNanos);
+        if (wait == 0) {
+            admitted.increment();
+        } else {
+            rejected.increment();
+        }
+        return wait;
+    }
+
+    void sweep(long now) {
+        buckets.entrySet().removeIf(entry -> entry.getValue().isIdle(now));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getTrackedClients() {
+        return buckets.size();
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Requests charged to the shared overflow bucket because the map was full.
+     */
+    public long getOverflowed() {
+        return overflowed.sum();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.shortenuri.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket stored as a single timestamp.
+ * <p>
+ * Instead of a token count plus a refill time, the bucket keeps the "theoretical arrival
+ * time" of the next request (the GCRA formulation). A request is admitted while that time is
+ * no more than one burst ahead of now, and admitting it pushes the time forward by one
+ * emission interval. The state is one long, so every check is a read and at most a few CAS
+ * attempts.
+ */
+public class TokenBucket {
+
+    private final AtomicLong theoreticalArrivalNanos;
+
+    public TokenBucket(long nowNanos) {
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Returns 0 if a token was taken, otherwise the nanoseconds until one will be available.
+     */
+    public long tryAcquire(long nowNanos, long intervalNanos, long burstNanos) {
+        while (true) {
+            long current = theoreticalArrivalNanos.get();
+            long start = Math.max(current, nowNanos);
+            long wait = start - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(current, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * True once the bucket has fully refilled, i.e. it holds no information worth keeping.
+     */
+    public boolean isIdle(long nowNanos) {
+        return theoreticalArrivalNanos.get() <= nowNanos;
+    }
+}
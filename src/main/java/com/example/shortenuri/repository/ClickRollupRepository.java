@@ -0,0 +1,23 @@
+package com.example.shortenuri.repository;
+
+import com.example.shortenuri.entity.ClickRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ClickRollupRepository extends JpaRepository<ClickRollup, Long> {
+
+    List<ClickRollup> findByShortCode(String shortCode);
+
+    List<ClickRollup> findByShortCodeIn(Collection<String> shortCodes);
+
+    @Modifying
+    @Query("DELETE FROM ClickRollup r WHERE r.shortCode = :shortCode")
+    int deleteByShortCode(@Param("shortCode") String shortCode);
+}
@@ -0,0 +1,132 @@
+package com.example.shortenuri.repository;
+
+import com.example.shortenuri.entity.DestinationCodec;
+import com.example.shortenuri.entity.UrlPrefix;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-through cache over the {@code url_prefixes} table. New prefixes are inserted in their
+ * own transaction so they are committed before any link referencing them, and a concurrent
+ * insert of the same prefix by another node is resolved by reading the winner's id.
+ * <p>
+ * Writers call {@link #resolve(String)} before opening the transaction that inserts the link;
+ * the entity listener then only reads {@link #cachedIdOf(String)} and never needs a second
+ * connection while the insert holds one. The table is capped at {@code max-size} prefixes;
+ * past that, new destinations are stored without a prefix.
+ */
+@Component
+public class PrefixDictionary {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final Map<Integer, String> prefixes = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private volatile boolean full;
+
+    public PrefixDictionary(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            @Value("${app.prefix-dictionary.max-size:10000}") int maxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Makes sure the prefix of {@code originalUrl} is known to {@link #cachedIdOf(String)},
+     * inserting it if there is room.
+     */
+    public void resolve(String originalUrl) {
+        String prefix = prefixOf(originalUrl);
+        if (prefix != null) {
+            idOf(prefix);
+        }
+    }
+
+    /**
+     * The part of {@code originalUrl} stored in the dictionary, or {@code null} if it has none.
+     */
+    public static String prefixOf(String originalUrl) {
+        if (originalUrl == null) {
+            return null;
+        }
+        int prefixLength = DestinationCodec.prefixLength(originalUrl);
+        return prefixLength > 0 && prefixLength <= UrlPrefix.MAX_LENGTH ? originalUrl.substring(0, prefixLength) : null;
+    }
+
+    /**
+     * The id of {@code prefix} if this node has already resolved it; never touches the database.
+     */
+    public Integer cachedIdOf(String prefix) {
+        return ids.get(prefix);
+    }
+
+    /**
+     * The id of {@code prefix}, inserting it if needed, or {@code null} if it is not in the
+     * dictionary and the dictionary is full.
+     */
+    public Integer idOf(String prefix) {
+        Integer id = ids.get(prefix);
+        if (id != null) {
+            return id;
+        }
+
+        id = requiresNew.execute(status -> findId(prefix));
+        if (id == null) {
+            if (isFull()) {
+                return null;
+            }
+            try {
+                requiresNew.executeWithoutResult(status ->
+                    jdbcTemplate.update("INSERT INTO url_prefixes (prefix) VALUES (?)", prefix));
+            } catch (DuplicateKeyException e) {
+                // Inserted concurrently; read the winner's id below
+            }
+            id = requiresNew.execute(status -> findId(prefix));
+        }
+        remember(id, prefix);
+        return id;
+    }
+
+    public String prefixOf(int id) {
+        String prefix = prefixes.get(id);
+        if (prefix == null) {
+            prefix = jdbcTemplate.queryForObject("SELECT prefix FROM url_prefixes WHERE id = ?", String.class, id);
+            remember(id, prefix);
+        }
+        return prefix;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    // Once full the table stays full, so only the count before that is ever queried
+    private boolean isFull() {
+        if (!full) {
+            Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM url_prefixes", Integer.class);
+            full = count != null && count >= maxSize;
+        }
+        return full;
+    }
+
+    private Integer findId(String prefix) {
+        List<Integer> found = jdbcTemplate.queryForList("SELECT id FROM url_prefixes WHERE prefix = ?", Integer.class, prefix);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    private void remember(int id, String prefix) {
+        ids.put(prefix, id);
+        prefixes.put(id, prefix);
+    }
+}
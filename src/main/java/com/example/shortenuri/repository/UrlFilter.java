@@ -0,0 +1,61 @@
+package com.example.shortenuri.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional criteria for listing links; unset fields do not constrain the result.
+ */
+public class UrlFilter {
+
+    public enum Status {
+        ACTIVE,
+        EXPIRED
+    }
+
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+    private Status status;
+    private Long minClicks;
+    private String domain;
+
+    // Getters and Setters
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(LocalDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(LocalDateTime createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getMinClicks() {
+        return minClicks;
+    }
+
+    public void setMinClicks(Long minClicks) {
+        this.minClicks = minClicks;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public void setDomain(String domain) {
+        this.domain = domain;
+    }
+}
@@ -1,24 +1,51 @@
 package com.example.shortenuri.repository;
 
+import com.example.shortenuri.dto.DomainStatsResponse;
 import com.example.shortenuri.entity.Url;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UrlRepository extends JpaRepository<Url, Long> {
+public interface UrlRepository extends JpaRepository<Url, Long>, UrlRepositoryCustom {
 
     Optional<Url> findByShortCode(String shortCode);
     
     boolean existsByShortCode(String shortCode);
+
+    List<Url> findByShortCodeIn(Collection<String> shortCodes);
+
+    @Query("SELECT u.shortCode FROM Url u ORDER BY u.clickCount DESC")
+    List<String> findMostClickedShortCodes(Pageable pageable);
     
     @Query("SELECT u FROM Url u WHERE u.expiresAt IS NOT NULL AND u.expiresAt < CURRENT_TIMESTAMP")
     List<Url> findExpiredUrls();
     
-    @Query("SELECT u FROM Url u WHERE u.originalUrl = :originalUrl")
-    Optional<Url> findByOriginalUrl(@Param("originalUrl") String originalUrl);
+    Optional<Url> findByOriginalUrlHash(String originalUrlHash);
+
+    boolean existsByOriginalUrlHash(String originalUrlHash);
+
+    List<Url> findByOriginalUrlHashIsNullAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<Url> findByDestinationHostIsNullAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<Url> findByLegacyOriginalUrlIsNotNullAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT new com.example.shortenuri.dto.DomainStatsResponse(u.destinationHost, COUNT(u), SUM(u.clickCount)) "
+        + "FROM Url u WHERE u.destinationHost = :domain GROUP BY u.destinationHost")
+    Optional<DomainStatsResponse> findDomainStats(@Param("domain") String domain);
+
+    @Query("SELECT new com.example.shortenuri.dto.DomainStatsResponse(u.destinationHost, COUNT(u), SUM(u.clickCount)) "
+        + "FROM Url u WHERE u.destinationHost IS NOT NULL GROUP BY u.destinationHost ORDER BY SUM(u.clickCount) DESC")
+    List<DomainStatsResponse> findTopDomains(Pageable pageable);
+
+    default Optional<Url> findByOriginalUrl(String originalUrl) {
+        return findByOriginalUrlHash(Url.hashOf(originalUrl));
+    }
 }
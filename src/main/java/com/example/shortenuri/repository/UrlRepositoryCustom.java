@@ -0,0 +1,15 @@
+package com.example.shortenuri.repository;
+
+import com.example.shortenuri.entity.Url;
+
+import java.util.List;
+
+public interface UrlRepositoryCustom {
+
+    /**
+     * Returns up to {@code limit} links matching the filter with an id greater than
+     * {@code afterId}, in id order. Seeking on the primary key keeps the cost of a page
+     * independent of how deep into the listing it is.
+     */
+    List<Url> findPage(UrlFilter filter, Long afterId, int limit);
+}
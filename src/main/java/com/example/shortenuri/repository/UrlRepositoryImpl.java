@@ -0,0 +1,58 @@
+package com.example.shortenuri.repository;
+
+import com.example.shortenuri.entity.Url;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class UrlRepositoryImpl implements UrlRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Url> findPage(UrlFilter filter, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Url> query = cb.createQuery(Url.class);
+        Root<Url> url = query.from(Url.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(url.get("id"), afterId));
+        }
+        if (filter.getCreatedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(url.get("createdAt"), filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            predicates.add(cb.lessThan(url.get("createdAt"), filter.getCreatedTo()));
+        }
+        if (filter.getMinClicks() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(url.get("clickCount"), filter.getMinClicks()));
+        }
+        if (filter.getDomain() != null) {
+            predicates.add(cb.equal(url.get("destinationHost"), Url.normalizeHost(filter.getDomain())));
+        }
+        if (filter.getStatus() != null) {
+            LocalDateTime now = LocalDateTime.now();
+            if (filter.getStatus() == UrlFilter.Status.EXPIRED) {
+                predicates.add(cb.lessThanOrEqualTo(url.get("expiresAt"), now));
+            } else {
+                predicates.add(cb.or(cb.isNull(url.get("expiresAt")), cb.greaterThan(url.get("expiresAt"), now)));
+            }
+        }
+
+        query.select(url)
+            .where(predicates.toArray(new Predicate[0]))
+            .orderBy(cb.asc(url.get("id")));
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.shortenuri.service;
+
+import com.example.shortenuri.entity.Url;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * A startup pass that rewrites links created before some column or format existed. Rows still
+ * needing the change are walked in id order, one short transaction per batch of
+ * {@code app.migration.batch-size}, so a pass never holds locks on more than one batch and is
+ * cheap to rerun: once every row is done it finds nothing to do. Changed entities are written
+ * when their batch commits.
+ */
+public abstract class BatchMigration implements ApplicationRunner {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    protected BatchMigration(PlatformTransactionManager transactionManager, boolean enabled, int batchSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            migrate();
+        }
+    }
+
+    /**
+     * Returns the number of links changed.
+     */
+    public long migrate() {
+        long migrated = 0;
+        long lastId = 0;
+        while (true) {
+            long afterId = lastId;
+            long[] changed = new long[1];
+            List<Url> batch = transactionTemplate.execute(status -> {
+                List<Url> urls = findBatch(afterId, PageRequest.of(0, batchSize));
+                for (Url url : urls) {
+                    if (migrate(url)) {
+                        changed[0]++;
+                    }
+                }
+                return urls;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            migrated += changed[0];
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+        if (migrated > 0) {
+            log.info("Migrated {} links: {}", migrated, description());
+        }
+        return migrated;
+    }
+
+    /**
+     * The next links still needing the change with an id above {@code afterId}, in id order.
+     */
+    protected abstract List<Url> findBatch(long afterId, Pageable page);
+
+    /**
+     * Applies the change to {@code url} and returns whether it was changed.
+     */
+    protected abstract boolean migrate(Url url);
+
+    protected abstract String description();
+}
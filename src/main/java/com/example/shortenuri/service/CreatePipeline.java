@@ -0,0 +1,200 @@
+package com.example.shortenuri.service;
+
+import com.example.shortenuri.entity.Url;
+import com.example.shortenuri.store.LinkStore;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for creates ({@code app.create.batch.enabled}). Callers hand over a validated
+ * link with its code already assigned and block until it is stored; a single writer thread
+ * collects queued links into batches of up to {@code max-size}, waiting at most
+ * {@code max-delay-ms} after the first for more to arrive, and stores each batch with
+ * {@link LinkStore#insertAll}. While one batch commits the next one fills, so under load the
+ * commit cost is shared by the whole batch.
+ * <p>
+ * If a batch is rejected because one of its links conflicts, each link is retried on its own so
+ * that only the conflicting callers see the exception, exactly as with {@link LinkStore#insert}.
+ */
+@Component
+public class CreatePipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(CreatePipeline.class);
+
+    private record Pending(Url url, CompletableFuture<Url> stored) {}
+
+    private final LinkStore linkStore;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Pending> queue;
+    private final ExecutorService writer;
+    private final DistributionSummary batchSizes;
+    private final Timer commitTimer;
+    private volatile boolean running = true;
+
+    public CreatePipeline(LinkStore linkStore,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.create.batch.enabled:false}") boolean enabled,
+                          @Value("${app.create.batch.max-size:256}") int maxBatchSize,
+                          @Value("${app.create.batch.max-delay-ms:2}") long maxDelayMs,
+                          @Value("${app.create.batch.queue-capacity:10000}") int queueCapacity) {
+        this.linkStore = linkStore;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSizes = meterRegistry.summary("app.create.batch.size");
+        this.commitTimer = meterRegistry.timer("app.create.batch.commit");
+        meterRegistry.gaugeCollectionSize("app.create.batch.queued", Tags.empty(), queue);
+        if (enabled) {
+            this.writer = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "create-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            writer.execute(this::writeLoop);
+        } else {
+            this.writer = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues {@code url} for the next batch and waits until that batch is stored. Blocks while
+     * the queue is full.
+     *
+     * @throws DataIntegrityViolationException if the short code or the destination is taken
+     */
+    public Url insert(Url url) {
+        if (!running) {
+            throw new IllegalStateException("Create pipeline is shut down");
+        }
+        Pending pending = new Pending(url, new CompletableFuture<>());
+        try {
+            queue.put(pending);
+            return pending.stored().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for create batch", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Create batch failed", e.getCause());
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutting down; store what was collected, then drain the rest without waiting
+                running = false;
+                queue.drainTo(batch);
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Url> urls = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            urls.add(pending.url());
+        }
+        long start = System.nanoTime();
+        try {
+            linkStore.insertAll(urls);
+            commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+            for (Pending pending : batch) {
+                pending.stored().complete(pending.url());
+            }
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Create batch of {} rejected, storing its links one by one: {}", batch.size(), e.getMessage());
+            for (Pending pending : batch) {
+                // Ids handed out before the batch rolled back were never committed
+                pending.url().setId(null);
+                try {
+                    pending.stored().complete(linkStore.insert(pending.url()));
+                } catch (RuntimeException single) {
+                    pending.stored().completeExceptionally(single);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Create batch of {} failed", batch.size(), e);
+            for (Pending pending : batch) {
+                pending.stored().completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Stores everything already queued, then stops the writer.
+     */
+    @PreDestroy
+    public void close() {
+        running = false;
+        if (writer != null) {
+            writer.shutdown();
+            try {
+                if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                    writer.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                writer.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            // Queued after the writer's last look
+            List<Pending> left = new ArrayList<>();
+            queue.drainTo(left);
+            for (Pending pending : left) {
+                pending.stored().completeExceptionally(new IllegalStateException("Create pipeline is shut down"));
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.shortenuri.service;
+
+import com.example.shortenuri.dto.CreateUrlResponse;
+
+/**
+ * Outcome of creating a short URL: a new link, the link that already pointed at the same
+ * destination, or a conflict on the requested custom short code.
+ */
+public final class CreateResult {
+
+    public enum Status {
+        CREATED,
+        EXISTING,
+        CONFLICT
+    }
+
+    private final Status status;
+    private final CreateUrlResponse response;
+    private final String conflictingShortCode;
+
+    private CreateResult(Status status, CreateUrlResponse response, String conflictingShortCode) {
+        this.status = status;
+        this.response = response;
+        this.conflictingShortCode = conflictingShortCode;
+    }
+
+    public static CreateResult created(CreateUrlResponse response) {
+        return new CreateResult(Status.CREATED, response, null);
+    }
+
+    public static CreateResult existing(CreateUrlResponse response) {
+        return new CreateResult(Status.EXISTING, response, null);
+    }
+
+    public static CreateResult conflict(String shortCode) {
+        return new CreateResult(Status.CONFLICT, null, shortCode);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isConflict() {
+        return status == Status.CONFLICT;
+    }
+
+    /**
+     * The created or existing link, or {@code null} on conflict.
+     */
+    public CreateUrlResponse getResponse() {
+        return response;
+    }
+
+    public String getConflictingShortCode() {
+        return conflictingShortCode;
+    }
+}
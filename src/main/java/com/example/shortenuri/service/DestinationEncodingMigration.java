@@ -0,0 +1,54 @@
+package com.example.shortenuri.service;
+
+import com.example.shortenuri.entity.Url;
+import com.example.shortenuri.repository.PrefixDictionary;
+import com.example.shortenuri.repository.UrlRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+/**
+ * Re-encodes links still stored in the legacy full-text {@code original_url} column into the
+ * compact prefix + compressed suffix format. Rows touched by a click before this reaches them
+ * are migrated on that write instead.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DestinationEncodingMigration extends BatchMigration {
+
+    private final UrlRepository urlRepository;
+    private final PrefixDictionary prefixDictionary;
+
+    public DestinationEncodingMigration(UrlRepository urlRepository,
+                                        PrefixDictionary prefixDictionary,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${app.migration.destination-encoding.enabled:true}") boolean enabled,
+                                        @Value("${app.migration.batch-size:1000}") int batchSize) {
+        super(transactionManager, enabled, batchSize);
+        this.urlRepository = urlRepository;
+        this.prefixDictionary = prefixDictionary;
+    }
+
+    @Override
+    protected List<Url> findBatch(long afterId, Pageable page) {
+        return urlRepository.findByLegacyOriginalUrlIsNotNullAndIdGreaterThanOrderByIdAsc(afterId, page);
+    }
+
+    @Override
+    protected boolean migrate(Url url) {
+        // Inside the batch transaction, but this runs once on one thread before traffic arrives
+        prefixDictionary.resolve(url.getLegacyOriginalUrl());
+        url.migrateLegacyDestination();
+        return true;
+    }
+
+    @Override
+    protected String description() {
+        return "compact destination encoding";
+    }
+}
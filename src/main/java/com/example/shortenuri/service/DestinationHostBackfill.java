@@ -0,0 +1,43 @@
+package com.example.shortenuri.service;
+
+import com.example.shortenuri.entity.Url;
+import com.example.shortenuri.repository.UrlRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+/**
+ * Fills in {@link Url#getDestinationHost()} for links created before the column existed.
+ */
+@Component
+public class DestinationHostBackfill extends BatchMigration {
+
+    private final UrlRepository urlRepository;
+
+    public DestinationHostBackfill(UrlRepository urlRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.backfill.destination-host.enabled:true}") boolean enabled,
+                                   @Value("${app.migration.batch-size:1000}") int batchSize) {
+        super(transactionManager, enabled, batchSize);
+        this.urlRepository = urlRepository;
+    }
+
+    @Override
+    protected List<Url> findBatch(long afterId, Pageable page) {
+        return urlRepository.findByDestinationHostIsNullAndIdGreaterThanOrderByIdAsc(afterId, page);
+    }
+
+    @Override
+    protected boolean migrate(Url url) {
+        url.setDestinationHost(Url.hostOf(url.getOriginalUrl()));
+        return true;
+    }
+
+    @Override
+    protected String description() {
+        return "destination host backfilled";
+    }
+}
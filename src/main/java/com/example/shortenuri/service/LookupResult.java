@@ -0,0 +1,55 @@
+package com.example.shortenuri.service;
+
+/**
+ * Outcome of looking up a short code. Misses are returned rather than thrown: bot traffic
+ * probing random codes makes them common, and the shared NOT_FOUND and EXPIRED instances cost
+ * neither a stack trace nor a formatted message.
+ */
+public final class LookupResult<T> {
+
+    public enum Status {
+        FOUND,
+        NOT_FOUND,
+        EXPIRED
+    }
+
+    private static final LookupResult<?> NOT_FOUND = new LookupResult<>(Status.NOT_FOUND, null);
+    private static final LookupResult<?> EXPIRED = new LookupResult<>(Status.EXPIRED, null);
+
+    private final Status status;
+    private final T value;
+
+    private LookupResult(Status status, T value) {
+        this.status = status;
+        this.value = value;
+    }
+
+    public static <T> LookupResult<T> found(T value) {
+        return new LookupResult<>(Status.FOUND, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> LookupResult<T> notFound() {
+        return (LookupResult<T>) NOT_FOUND;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> LookupResult<T> expired() {
+        return (LookupResult<T>) EXPIRED;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isFound() {
+        return status == Status.FOUND;
+    }
+
+    /**
+     * The looked-up value, or {@code null} unless the status is FOUND.
+     */
+    public T getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.shortenuri.service;
+
+import com.example.shortenuri.entity.Url;
+import com.example.shortenuri.repository.UrlRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+/**
+ * Fills in {@link Url#getOriginalUrlHash()} for links created before the column existed, so
+ * that creates find them as duplicates. Rows created back then may share a destination; the
+ * first keeps the hash and later ones are left without it, since the column is unique.
+ */
+@Component
+public class OriginalUrlHashBackfill extends BatchMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(OriginalUrlHashBackfill.class);
+
+    private final UrlRepository urlRepository;
+
+    public OriginalUrlHashBackfill(UrlRepository urlRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.backfill.original-url-hash.enabled:true}") boolean enabled,
+                                   @Value("${app.migration.batch-size:1000}") int batchSize) {
+        super(transactionManager, enabled, batchSize);
+        this.urlRepository = urlRepository;
+    }
+
+    @Override
+    protected List<Url> findBatch(long afterId, Pageable page) {
+        return urlRepository.findByOriginalUrlHashIsNullAndIdGreaterThanOrderByIdAsc(afterId, page);
+    }
+
+    @Override
+    protected boolean migrate(Url url) {
+        // The query flushes the batch's earlier rows first, so duplicates within it are seen too
+        if (urlRepository.existsByOriginalUrlHash(Url.hashOf(url.getOriginalUrl()))) {
+            log.warn("Link {} duplicates the destination of an earlier link; left without a hash", url.getShortCode());
+            return false;
+        }
+        url.backfillOriginalUrlHash();
+        return true;
+    }
+
+    @Override
+    protected String description() {
+        return "destination hash backfilled";
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.shortenuri.service;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Opaque listing cursor: the last id of the previous page behind a version byte, base64url
+ * encoded, so the encoding can change without clients depending on it.
+ */
+final class PageCursor {
+
+    private static final byte VERSION = 1;
+
+    private PageCursor() {}
+
+    static String encode(long lastId) {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + 1).put(VERSION).putLong(lastId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    static long decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        if (bytes.length != Long.BYTES + 1 || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return ByteBuffer.wrap(bytes, 1, Long.BYTES).getLong();
+    }
+}
@@ -1,65 +1,180 @@
 package com.example.shortenuri.service;
 
+import com.example.shortenuri.availability.CodeAvailability;
+import com.example.shortenuri.cache.InvalidationBus;
+import com.example.shortenuri.cache.InvalidationEvent;
+import com.example.shortenuri.cache.RedirectCache;
+import com.example.shortenuri.cache.RedirectTarget;
+import com.example.shortenuri.cache.SingleFlight;
+import com.example.shortenuri.clicks.ClickRollupStore;
+import com.example.shortenuri.dto.AvailabilityResponse;
+import com.example.shortenuri.dto.ClickBreakdownResponse;
 import com.example.shortenuri.dto.CreateUrlRequest;
 import com.example.shortenuri.dto.CreateUrlResponse;
+import com.example.shortenuri.dto.DomainStatsResponse;
+import com.example.shortenuri.dto.UrlPageResponse;
 import com.example.shortenuri.dto.UrlStatsResponse;
 import com.example.shortenuri.entity.Url;
-import com.example.shortenuri.repository.UrlRepository;
+import com.example.shortenuri.exception.ShortCodeUnavailableException;
+import com.example.shortenuri.expiry.CoarseClock;
+import com.example.shortenuri.expiry.ExpiryScheduler;
+import com.example.shortenuri.jfr.ClickCountEvent;
+import com.example.shortenuri.jfr.LinkCreateEvent;
+import com.example.shortenuri.jfr.LinkLookupEvent;
+import com.example.shortenuri.live.LiveClickPublisher;
+import com.example.shortenuri.repository.UrlFilter;
+import com.example.shortenuri.store.LinkStore;
+import com.example.shortenuri.url.UrlCanonicalizer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
-@Transactional
 public class UrlService {
 
     @Autowired
-    private UrlRepository urlRepository;
+    private LinkStore linkStore;
+
+    @Autowired
+    private CreatePipeline createPipeline;
+
+    @Autowired
+    private RedirectCache redirectCache;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private SingleFlight<String, Optional<RedirectTarget>> redirectLoads;
+
+    @Autowired
+    private CoarseClock clock;
+
+    @Autowired
+    private ExpiryScheduler expiryScheduler;
+
+    @Autowired
+    private ClickRollupStore clickRollups;
+
+    @Autowired
+    private LiveClickPublisher liveClicks;
+
+    @Autowired
+    private CodeAvailability codeAvailability;
 
     @Value("${app.base-url:http://localhost:8080}")
     private String baseUrl;
 
     private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
     private static final int SHORT_CODE_LENGTH = 8;
+    private static final Set<Integer> REDIRECT_STATUSES = Set.of(301, 302, 307, 308);
+    private static final int MAX_CODE_ATTEMPTS = 3;
+    private static final int MAX_PAGE_SIZE = 500;
     private final SecureRandom random = new SecureRandom();
 
-    public CreateUrlResponse createShortUrl(CreateUrlRequest request) {
+    /**
+     * Each store call commits on its own, or with the rest of its batch when the
+     * {@link CreatePipeline} is enabled. Nothing is locked across the insert: the unique
+     * destination hash settles concurrent creates of one destination, on this node or others,
+     * and a losing insert is resolved by returning the link that won.
+     */
+    public CreateResult createShortUrl(CreateUrlRequest request) {
+        LinkCreateEvent event = new LinkCreateEvent();
+        event.begin();
+        CreateResult result = null;
+        try {
+            result = create(request);
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                if (result != null) {
+                    event.shortCode = result.isConflict()
+                        ? result.getConflictingShortCode() : result.getResponse().getShortCode();
+                }
+                event.result = result != null ? result.getStatus().name() : "ERROR";
+                event.commit();
+            }
+        }
+    }
+
+    private CreateResult create(CreateUrlRequest request) {
+        if (request.getRedirectStatus() != null && !REDIRECT_STATUSES.contains(request.getRedirectStatus())) {
+            throw new IllegalArgumentException("Unsupported redirect status: " + request.getRedirectStatus());
+        }
+
+        // Equivalent spellings of a URL share one link
+        String originalUrl = UrlCanonicalizer.canonicalize(request.getOriginalUrl());
+        if (originalUrl == null) {
+            throw new IllegalArgumentException("Invalid URL format");
+        }
+
         // Check if URL already exists
-        Optional<Url> existingUrl = urlRepository.findByOriginalUrl(request.getOriginalUrl());
+        Optional<Url> existingUrl = linkStore.findByOriginalUrl(originalUrl);
         if (existingUrl.isPresent()) {
-            Url url = existingUrl.get();
-            return new CreateUrlResponse(
-                url.getShortCode(),
-                url.getOriginalUrl(),
-                baseUrl + "/" + url.getShortCode(),
-                url.getCreatedAt(),
-                url.getExpiresAt()
-            );
+            return CreateResult.existing(toCreateResponse(existingUrl.get()));
         }
 
-        // Generate short code
-        String shortCode = request.getCustomShortCode() != null && !request.getCustomShortCode().isEmpty() 
-            ? request.getCustomShortCode() 
-            : generateShortCode();
+        boolean custom = request.getCustomShortCode() != null && !request.getCustomShortCode().isEmpty();
+        for (int attempt = 1; ; attempt++) {
+            // Generate short code
+            String shortCode = custom ? request.getCustomShortCode() : generateShortCode();
 
-        // Check if custom short code already exists
-        if (urlRepository.existsByShortCode(shortCode)) {
-            throw new RuntimeException("Short code already exists: " + shortCode);
-        }
+            // Check if custom short code already exists
+            if (linkStore.existsByShortCode(shortCode)) {
+                if (custom) {
+                    return CreateResult.conflict(shortCode);
+                }
+                checkAttempts(attempt);
+                continue;
+            }
+
+            // Create new URL
+            Url url = new Url(shortCode, originalUrl);
+            if (request.getExpiresAt() != null) {
+                url.setExpiresAt(request.getExpiresAt());
+            }
+            url.setRedirectStatus(request.getRedirectStatus());
 
-        // Create new URL
-        Url url = new Url(shortCode, request.getOriginalUrl());
-        if (request.getExpiresAt() != null) {
-            url.setExpiresAt(request.getExpiresAt());
+            try {
+                url = createPipeline.isEnabled() ? createPipeline.insert(url) : linkStore.insert(url);
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent create of the same destination won, or the code was taken meanwhile
+                Optional<Url> winner = linkStore.findByOriginalUrl(originalUrl);
+                if (winner.isPresent()) {
+                    return CreateResult.existing(toCreateResponse(winner.get()));
+                }
+                if (custom) {
+                    return CreateResult.conflict(shortCode);
+                }
+                checkAttempts(attempt);
+                continue;
+            }
+            invalidationBus.publish(InvalidationEvent.created(url.getShortCode()));
+            codeAvailability.add(url.getShortCode());
+            return CreateResult.created(toCreateResponse(url));
         }
+    }
 
-        url = urlRepository.save(url);
+    // A generated code is retried; running out of attempts is not the client's conflict
+    private static void checkAttempts(int attempt) {
+        if (attempt >= MAX_CODE_ATTEMPTS) {
+            throw new ShortCodeUnavailableException(attempt);
+        }
+    }
 
+    private CreateUrlResponse toCreateResponse(Url url) {
         return new CreateUrlResponse(
             url.getShortCode(),
             url.getOriginalUrl(),
@@ -69,55 +184,208 @@ public class UrlService {
         );
     }
 
-    @Transactional(readOnly = true)
-    public String getOriginalUrl(String shortCode) {
-        Optional<Url> url = urlRepository.findByShortCode(shortCode);
-        if (url.isEmpty()) {
-            throw new RuntimeException("Short URL not found: " + shortCode);
+    public LookupResult<RedirectTarget> resolve(String shortCode) {
+        LinkLookupEvent event = new LinkLookupEvent();
+        event.begin();
+        LookupResult<RedirectTarget> result;
+        RedirectTarget cached = redirectCache.get(shortCode);
+        if (cached != null) {
+            result = resolved(shortCode, cached, true);
+        } else {
+            // Concurrent misses for one code share a single database load
+            Optional<RedirectTarget> loaded = redirectLoads.execute(shortCode, () -> loadRedirectTarget(shortCode));
+            result = loaded.isEmpty() ? LookupResult.notFound() : resolved(shortCode, loaded.get(), false);
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.shortCode = shortCode;
+            event.result = !result.isFound() ? result.getStatus().name()
+                : cached != null ? LinkLookupEvent.CACHED : LinkLookupEvent.LOADED;
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * Resolves many codes at once: cached codes are answered from the cache and the rest with a
+     * single IN query. Codes missing from the returned map do not exist. Clicks are not counted.
+     */
+    public Map<String, LookupResult<RedirectTarget>> resolveAll(Collection<String> shortCodes) {
+        Map<String, LookupResult<RedirectTarget>> results = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String shortCode : shortCodes) {
+            RedirectTarget cached = redirectCache.get(shortCode);
+            if (cached == null) {
+                misses.add(shortCode);
+            } else {
+                results.put(shortCode, resolved(shortCode, cached, true));
+            }
+        }
+        if (misses.isEmpty()) {
+            return results;
         }
 
-        Url urlEntity = url.get();
-        if (urlEntity.isExpired()) {
-            throw new RuntimeException("Short URL has expired: " + shortCode);
+        Map<String, Long> generations = new HashMap<>();
+        for (String shortCode : misses) {
+            generations.put(shortCode, redirectCache.generation(shortCode));
         }
+        for (Url url : linkStore.findByShortCodeIn(misses)) {
+            RedirectTarget target = RedirectTarget.of(url);
+            cache(url.getShortCode(), target, generations.get(url.getShortCode()));
+            results.put(url.getShortCode(), resolved(url.getShortCode(), target, false));
+        }
+        return results;
+    }
+
+    private LookupResult<RedirectTarget> resolved(String shortCode, RedirectTarget target, boolean fromCache) {
+        if (target.isExpiredAt(clock.millis())) {
+            // Only a cached target needs evicting cluster-wide; expired loads are never cached,
+            // and publishing for each of them would broadcast once per lookup of a dead link
+            if (fromCache) {
+                invalidationBus.publish(InvalidationEvent.expired(shortCode));
+            }
+            return LookupResult.expired();
+        }
+        return LookupResult.found(target);
+    }
 
-        return urlEntity.getOriginalUrl();
+    private Optional<RedirectTarget> loadRedirectTarget(String shortCode) {
+        long generation = redirectCache.generation(shortCode);
+        Optional<RedirectTarget> target = linkStore.findByShortCode(shortCode).map(RedirectTarget::of);
+        target.ifPresent(t -> cache(shortCode, t, generation));
+        return target;
+    }
+
+    private void cache(String shortCode, RedirectTarget target, long generation) {
+        if (!target.isExpiredAt(clock.millis()) && redirectCache.putIfCurrent(shortCode, target, generation)) {
+            expiryScheduler.track(shortCode, target);
+        }
     }
 
     public void incrementClickCount(String shortCode) {
-        Optional<Url> url = urlRepository.findByShortCode(shortCode);
-        if (url.isPresent()) {
-            Url urlEntity = url.get();
-            urlEntity.incrementClickCount();
-            urlRepository.save(urlEntity);
+        ClickCountEvent event = new ClickCountEvent();
+        event.begin();
+        boolean counted = linkStore.incrementClickCount(shortCode);
+        liveClicks.click(shortCode);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.shortCode = shortCode;
+            event.result = counted ? "COUNTED" : "NOT_FOUND";
+            event.commit();
         }
     }
 
-    @Transactional(readOnly = true)
-    public UrlStatsResponse getUrlStats(String shortCode) {
-        Optional<Url> url = urlRepository.findByShortCode(shortCode);
+    public LookupResult<UrlStatsResponse> getUrlStats(String shortCode) {
+        Optional<Url> url = linkStore.findByShortCode(shortCode);
         if (url.isEmpty()) {
-            throw new RuntimeException("Short URL not found: " + shortCode);
+            return LookupResult.notFound();
+        }
+
+        return LookupResult.found(toStatsResponse(url.get()));
+    }
+
+    public LookupResult<ClickBreakdownResponse> getClickBreakdown(String shortCode) {
+        Optional<Url> url = linkStore.findByShortCode(shortCode);
+        if (url.isEmpty()) {
+            return LookupResult.notFound();
+        }
+        return LookupResult.found(clickRollups.breakdown(shortCode, url.get().getClickCount()));
+    }
+
+    /**
+     * Stats for many codes with a single IN query, keyed by short code. Codes missing from the
+     * returned map do not exist.
+     */
+    public Map<String, UrlStatsResponse> getUrlStats(Collection<String> shortCodes) {
+        Map<String, UrlStatsResponse> stats = new HashMap<>();
+        for (Url url : linkStore.findByShortCodeIn(shortCodes)) {
+            stats.put(url.getShortCode(), toStatsResponse(url));
+        }
+        return stats;
+    }
+
+    /**
+     * Lists links in creation (id) order. {@code cursor} is the {@code nextCursor} of the previous
+     * page, or {@code null} for the first page.
+     */
+    public UrlPageResponse listUrls(UrlFilter filter, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Long afterId = cursor != null && !cursor.isEmpty() ? PageCursor.decode(cursor) : null;
+
+        // One extra row tells whether another page follows
+        List<Url> urls = linkStore.findPage(filter, afterId, pageSize + 1);
+        boolean hasMore = urls.size() > pageSize;
+        if (hasMore) {
+            urls = urls.subList(0, pageSize);
+        }
+
+        List<UrlStatsResponse> items = new ArrayList<>(urls.size());
+        for (Url url : urls) {
+            items.add(toStatsResponse(url));
+        }
+        String nextCursor = hasMore ? PageCursor.encode(urls.get(urls.size() - 1).getId()) : null;
+        return new UrlPageResponse(items, nextCursor);
+    }
+
+    public LookupResult<DomainStatsResponse> getDomainStats(String domain) {
+        String host = Url.normalizeHost(domain);
+        if (host == null) {
+            return LookupResult.notFound();
         }
+        return linkStore.findDomainStats(host)
+            .map(LookupResult::found)
+            .orElseGet(LookupResult::notFound);
+    }
+
+    /**
+     * Domains ordered by their total clicks, highest first.
+     */
+    public List<DomainStatsResponse> getTopDomains(int limit) {
+        return linkStore.findTopDomains(Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
 
-        Url urlEntity = url.get();
-        return new UrlStatsResponse(
-            urlEntity.getShortCode(),
-            urlEntity.getOriginalUrl(),
-            baseUrl + "/" + urlEntity.getShortCode(),
-            urlEntity.getCreatedAt(),
-            urlEntity.getExpiresAt(),
-            urlEntity.getClickCount()
+    /**
+     * Whether {@code shortCode} can be used as a custom short code and, if it is taken, up to
+     * {@code limit} free codes next to it.
+     */
+    public AvailabilityResponse checkAvailability(String shortCode, int limit) {
+        if (shortCode == null || shortCode.isBlank() || shortCode.length() > CodeAvailability.MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException("Short code must be 1 to " + CodeAvailability.MAX_CODE_LENGTH + " characters");
+        }
+        if (codeAvailability.isAvailable(shortCode)) {
+            return new AvailabilityResponse(shortCode, true, List.of());
+        }
+        int suggestions = Math.max(0, Math.min(limit, CodeAvailability.MAX_SUGGESTIONS));
+        return new AvailabilityResponse(shortCode, false, codeAvailability.suggest(shortCode, suggestions));
+    }
+
+    private UrlStatsResponse toStatsResponse(Url url) {
+        UrlStatsResponse response = new UrlStatsResponse(
+            url.getShortCode(),
+            url.getOriginalUrl(),
+            baseUrl + "/" + url.getShortCode(),
+            url.getCreatedAt(),
+            url.getExpiresAt(),
+            url.getClickCount()
         );
+        response.setUpdatedAt(url.getUpdatedAt() != null ? url.getUpdatedAt() : url.getCreatedAt());
+        response.setRedirectStatus(url.getRedirectStatus());
+        return response;
     }
 
-    public void deleteUrl(String shortCode) {
-        Optional<Url> url = urlRepository.findByShortCode(shortCode);
-        if (url.isPresent()) {
-            urlRepository.delete(url.get());
-        } else {
-            throw new RuntimeException("Short URL not found: " + shortCode);
+    /**
+     * Returns {@code false} if there was no link with this short code.
+     */
+    public boolean deleteUrl(String shortCode) {
+        if (!linkStore.delete(shortCode)) {
+            return false;
         }
+        clickRollups.delete(shortCode);
+        invalidationBus.publish(InvalidationEvent.deleted(shortCode));
+        codeAvailability.remove(shortCode);
+        return true;
     }
 
     private String generateShortCode() {
@@ -0,0 +1,126 @@
+package com.example.shortenuri.snapshot;
+
+import java.time.LocalDateTime;
+
+/**
+ * One link as stored in a snapshot: the destination keeps its compact encoding (prefix plus
+ * encoded suffix) so neither dumping nor restoring has to recompress it.
+ */
+public class LinkRecord {
+
+    private String shortCode;
+    private String destinationPrefix;
+    private byte[] destinationSuffix;
+    private String originalUrlHash;
+    private String destinationHost;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+    private long clickCount;
+    private LocalDateTime updatedAt;
+    private Integer redirectStatus;
+
+    // Constructors
+    public LinkRecord() {}
+
+    public LinkRecord(String shortCode, String destinationPrefix, byte[] destinationSuffix, String originalUrlHash,
+                      String destinationHost, LocalDateTime createdAt, LocalDateTime expiresAt, long clickCount,
+                      LocalDateTime updatedAt, Integer redirectStatus) {
+        this.shortCode = shortCode;
+        this.destinationPrefix = destinationPrefix;
+        this.destinationSuffix = destinationSuffix;
+        this.originalUrlHash = originalUrlHash;
+        this.destinationHost = destinationHost;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.clickCount = clickCount;
+        this.updatedAt = updatedAt;
+        this.redirectStatus = redirectStatus;
+    }
+
+    // Getters and Setters
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public void setShortCode(String shortCode) {
+        this.shortCode = shortCode;
+    }
+
+    /**
+     * Scheme+authority prefix of the destination, or {@code null} if it has none.
+     */
+    public String getDestinationPrefix() {
+        return destinationPrefix;
+    }
+
+    public void setDestinationPrefix(String destinationPrefix) {
+        this.destinationPrefix = destinationPrefix;
+    }
+
+    /**
+     * Destination suffix in the {@link com.example.shortenuri.entity.DestinationCodec} encoding.
+     */
+    public byte[] getDestinationSuffix() {
+        return destinationSuffix;
+    }
+
+    public void setDestinationSuffix(byte[] destinationSuffix) {
+        this.destinationSuffix = destinationSuffix;
+    }
+
+    public String getOriginalUrlHash() {
+        return originalUrlHash;
+    }
+
+    public void setOriginalUrlHash(String originalUrlHash) {
+        this.originalUrlHash = originalUrlHash;
+    }
+
+    public String getDestinationHost() {
+        return destinationHost;
+    }
+
+    public void setDestinationHost(String destinationHost) {
+        this.destinationHost = destinationHost;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public long getClickCount() {
+        return clickCount;
+    }
+
+    public void setClickCount(long clickCount) {
+        this.clickCount = clickCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Integer getRedirectStatus() {
+        return redirectStatus;
+    }
+
+    public void setRedirectStatus(Integer redirectStatus) {
+        this.redirectStatus = redirectStatus;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.shortenuri.snapshot;
+
+/**
+ * Layout of a link snapshot file.
+ * <pre>
+ * header   magic "SUSN" (4) | version (1) | flags (1, bit 0 = body deflated) | created at, epoch ms (8)
+ * body     entry* END-entry | CRC32 of every body byte before it (4)
+ * entry    type (1) | payload length (varint) | payload
+ * </pre>
+ * Entry types: PREFIX (UTF-8 destination prefix, numbered from 1 in order of appearance and
+ * written before the first link that uses it), LINK (see {@link SnapshotWriter#write}) and END
+ * (number of links, varint). Readers skip entry types they do not know, so later versions can
+ * add entries without breaking older readers; incompatible changes bump the version.
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x5355534E;
+    static final int VERSION = 1;
+    static final int FLAG_DEFLATED = 1;
+
+    static final int END = 0;
+    static final int PREFIX = 1;
+    static final int LINK = 2;
+
+    // Presence bits of a LINK's optional fields
+    static final int HAS_HASH = 1;
+    static final int HAS_HOST = 1 << 1;
+    static final int HAS_EXPIRES_AT = 1 << 2;
+    static final int HAS_UPDATED_AT = 1 << 3;
+    static final int HAS_REDIRECT_STATUS = 1 << 4;
+
+    static final int HASH_BYTES = 32;
+    // Far above any real entry (suffixes are capped at 64 KB); guards allocation on a corrupt length
+    static final int MAX_ENTRY_BYTES = 1 << 20;
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private SnapshotFormat() {}
+}
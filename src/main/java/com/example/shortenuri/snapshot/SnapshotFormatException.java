@@ -0,0 +1,14 @@
+package com.example.shortenuri.snapshot;
+
+import java.io.IOException;
+
+/**
+ * A snapshot file that is not a snapshot, was written by a newer version, is truncated or
+ * fails its checksum.
+ */
+public class SnapshotFormatException extends IOException {
+
+    public SnapshotFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.shortenuri.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import static com.example.shortenuri.snapshot.SnapshotFormat.*;
+
+/**
+ * Reads links back from a snapshot written by {@link SnapshotWriter}. The checksum and link
+ * count are verified when the END entry is reached, so a caller must drain the reader with
+ * {@link #next()} until it returns {@code null} before trusting what it read.
+ */
+public class SnapshotReader implements Closeable {
+
+    private final InputStream source;
+    private final InputStream body;
+    private final Inflater inflater;
+    private final Instant createdAt;
+    private final CRC32 crc = new CRC32();
+    private final List<String> prefixes = new ArrayList<>();
+
+    private byte[] payload = new byte[256];
+    private int position;
+    private int limit;
+    private long links;
+    private boolean done;
+
+    public SnapshotReader(InputStream source) throws IOException {
+        this.source = source;
+        InputStream buffered = new BufferedInputStream(source, BUFFER_SIZE);
+        DataInputStream header = new DataInputStream(buffered);
+        try {
+            if (header.readInt() != MAGIC) {
+                throw new SnapshotFormatException("Not a link snapshot");
+            }
+            int version = header.readUnsignedByte();
+            if (version > VERSION) {
+                throw new SnapshotFormatException("Unsupported snapshot version " + version);
+            }
+            int flags = header.readUnsignedByte();
+            this.createdAt = Instant.ofEpochMilli(header.readLong());
+
+            if ((flags & FLAG_DEFLATED) != 0) {
+                this.inflater = new Inflater();
+                this.body = new BufferedInputStream(new InflaterInputStream(buffered, inflater, BUFFER_SIZE), BUFFER_SIZE);
+            } else {
+                this.inflater = null;
+                this.body = buffered;
+            }
+        } catch (EOFException e) {
+            throw new SnapshotFormatException("Truncated snapshot header");
+        }
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Returns the next link, or {@code null} once the END entry has been read and the snapshot
+     * verified.
+     *
+     * @throws SnapshotFormatException if the snapshot is truncated or fails verification
+     */
+    public LinkRecord next() throws IOException {
+        while (!done) {
+            int type = readEntry();
+            switch (type) {
+                case PREFIX -> prefixes.add(new String(payload, 0, limit, StandardCharsets.UTF_8));
+                case LINK -> {
+                    links++;
+                    return parseLink();
+                }
+                case END -> verify();
+                default -> {
+                    // Added by a later version; the length prefix lets us step over it
+                }
+            }
+        }
+        return null;
+    }
+
+    public long getLinkCount() {
+        return links;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            source.close();
+        } finally {
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+    }
+
+    private int readEntry() throws IOException {
+        int type = readChecked();
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = readChecked();
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+            if (shift >= 28) {
+                throw new SnapshotFormatException("Corrupt snapshot entry length");
+            }
+        }
+        if (length > MAX_ENTRY_BYTES) {
+            throw new SnapshotFormatException("Corrupt snapshot entry length " + length);
+        }
+        if (length > payload.length) {
+            payload = Arrays.copyOf(payload, Math.max(payload.length * 2, length));
+        }
+        readFully(payload, length);
+        crc.update(payload, 0, length);
+        position = 0;
+        limit = length;
+        return type;
+    }
+
+    private void verify() throws IOException {
+        long expectedLinks = takeVarLong();
+        byte[] trailer = new byte[4];
+        readFully(trailer, 4);
+        int checksum = ((trailer[0] & 0xFF) << 24) | ((trailer[1] & 0xFF) << 16) | ((trailer[2] & 0xFF) << 8) | (trailer[3] & 0xFF);
+        if (checksum != (int) crc.getValue()) {
+            throw new SnapshotFormatException("Snapshot checksum mismatch");
+        }
+        if (expectedLinks != links) {
+            throw new SnapshotFormatException("Snapshot declares " + expectedLinks + " links but holds " + links);
+        }
+        done = true;
+    }
+
+    private LinkRecord parseLink() throws IOException {
+        LinkRecord link = new LinkRecord();
+        link.setShortCode(takeString());
+        int prefixIndex = (int) takeVarLong();
+        if (prefixIndex > 0) {
+            if (prefixIndex > prefixes.size()) {
+                throw new SnapshotFormatException("Link refers to unknown prefix " + prefixIndex);
+            }
+            link.setDestinationPrefix(prefixes.get(prefixIndex - 1));
+        }
+        link.setDestinationSuffix(takeBytes((int) takeVarLong()));
+        int present = take();
+        if ((present & HAS_HASH) != 0) {
+            link.setOriginalUrlHash(HexFormat.of().formatHex(takeBytes(HASH_BYTES)));
+        }
+        if ((present & HAS_HOST) != 0) {
+            link.setDestinationHost(takeString());
+        }
+        link.setCreatedAt(takeTimestamp());
+        if ((present & HAS_EXPIRES_AT) != 0) {
+            link.setExpiresAt(takeTimestamp());
+        }
+        link.setClickCount(takeVarLong());
+        if ((present & HAS_UPDATED_AT) != 0) {
+            link.setUpdatedAt(takeTimestamp());
+        }
+        if ((present & HAS_REDIRECT_STATUS) != 0) {
+            link.setRedirectStatus((int) takeVarLong());
+        }
+        return link;
+    }
+
+    private int readChecked() throws IOException {
+        int b = body.read();
+        if (b < 0) {
+            throw new SnapshotFormatException("Truncated snapshot");
+        }
+        crc.update(b);
+        return b;
+    }
+
+    private void readFully(byte[] target, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int n = body.read(target, read, length - read);
+            if (n < 0) {
+                throw new SnapshotFormatException("Truncated snapshot");
+            }
+            read += n;
+        }
+    }
+
+    private int take() throws SnapshotFormatException {
+        if (position >= limit) {
+            throw new SnapshotFormatException("Corrupt snapshot entry");
+        }
+        return payload[position++] & 0xFF;
+    }
+
+    private byte[] takeBytes(int length) throws SnapshotFormatException {
+        if (length < 0 || position + length > limit) {
+            throw new SnapshotFormatException("Corrupt snapshot entry");
+        }
+        byte[] bytes = Arrays.copyOfRange(payload, position, position + length);
+        position += length;
+        return bytes;
+    }
+
+    private String takeString() throws SnapshotFormatException {
+        int length = (int) takeVarLong();
+        if (length < 0 || position + length > limit) {
+            throw new SnapshotFormatException("Corrupt snapshot entry");
+        }
+        String value = new String(payload, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    private long takeVarLong() throws SnapshotFormatException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = take();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SnapshotFormatException("Corrupt snapshot varint");
+    }
+
+    private LocalDateTime takeTimestamp() throws SnapshotFormatException {
+        long zigZag = takeVarLong();
+        long seconds = (zigZag >>> 1) ^ -(zigZag & 1);
+        return LocalDateTime.ofEpochSecond(seconds, (int) takeVarLong(), ZoneOffset.UTC);
+    }
+}
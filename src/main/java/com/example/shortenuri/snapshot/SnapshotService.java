@@ -0,0 +1,324 @@
+package com.example.shortenuri.snapshot;
+
+import com.example.shortenuri.entity.DestinationCodec;
+import com.example.shortenuri.entity.UrlPrefix;
+import com.example.shortenuri.repository.PrefixDictionary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Dumps the link table to a binary snapshot file and restores it at startup, so an in-memory
+ * database survives restarts.
+ * <p>
+ * A dump reads the table in short id-ordered pages, each its own query, so writes are never
+ * blocked; links created or changed while it runs may or may not be included. It is written to a
+ * temporary file and moved over the previous snapshot only once complete. A restore only runs
+ * against an empty table, and inserts batches on {@code restore-parallelism} threads while the
+ * file is still being read.
+ * <p>
+ * Dumps and restores read and write the {@code urls} table directly, so enabling them requires
+ * {@code app.store.mode=jpa}; the wal store recovers from its own log and checkpoints.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SnapshotService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotService.class);
+
+    private static final String SELECT_PAGE =
+        "SELECT id, short_code, destination_prefix_id, destination_suffix, original_url, original_url_hash, "
+            + "destination_host, created_at, expires_at, click_count, updated_at, redirect_status "
+            + "FROM urls WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String INSERT =
+        "INSERT INTO urls (short_code, destination_prefix_id, destination_suffix, original_url_hash, "
+            + "destination_host, created_at, expires_at, click_count, updated_at, redirect_status) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Explicit types spare the driver a parameter metadata lookup for every null
+    private static final int[] INSERT_TYPES = {
+        Types.VARCHAR, Types.INTEGER, Types.VARBINARY, Types.VARCHAR, Types.VARCHAR,
+        Types.TIMESTAMP, Types.TIMESTAMP, Types.BIGINT, Types.TIMESTAMP, Types.INTEGER
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PrefixDictionary prefixDictionary;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Path path;
+    private final boolean compressed;
+    private final boolean dumpOnShutdown;
+    private final int batchSize;
+    private final int restoreParallelism;
+
+    private final AtomicBoolean dumping = new AtomicBoolean();
+    private final AtomicLong linksInLastDump = new AtomicLong();
+    private final Timer dumpTimer;
+    private final Timer restoreTimer;
+
+    public SnapshotService(JdbcTemplate jdbcTemplate,
+                           PrefixDictionary prefixDictionary,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.store.mode:jpa}") String storeMode,
+                           @Value("${app.snapshot.enabled:false}") boolean enabled,
+                           @Value("${app.snapshot.path:data/links.snapshot}") String path,
+                           @Value("${app.snapshot.compressed:true}") boolean compressed,
+                           @Value("${app.snapshot.dump-on-shutdown:true}") boolean dumpOnShutdown,
+                           @Value("${app.snapshot.batch-size:1000}") int batchSize,
+                           @Value("${app.snapshot.restore-parallelism:4}") int restoreParallelism) {
+        if (enabled && !"jpa".equals(storeMode)) {
+            throw new IllegalStateException(
+                "app.snapshot.enabled requires app.store.mode=jpa, not " + storeMode + "; the wal store checkpoints itself");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.prefixDictionary = prefixDictionary;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.compressed = compressed;
+        this.dumpOnShutdown = dumpOnShutdown;
+        this.batchSize = batchSize;
+        this.restoreParallelism = restoreParallelism;
+        meterRegistry.gauge("app.snapshot.links", linksInLastDump);
+        this.dumpTimer = meterRegistry.timer("app.snapshot.dump.duration");
+        this.restoreTimer = meterRegistry.timer("app.snapshot.restore.duration");
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (enabled && Files.exists(path)) {
+            restore(path);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.snapshot.interval-ms:300000}", fixedDelayString = "${app.snapshot.interval-ms:300000}")
+    public void scheduledDump() {
+        if (enabled) {
+            dumpQuietly();
+        }
+    }
+
+    @PreDestroy
+    public void dumpOnShutdown() {
+        if (enabled && dumpOnShutdown) {
+            dumpQuietly();
+        }
+    }
+
+    /**
+     * Writes every link to {@code target}, replacing it atomically. Returns the number of links
+     * written.
+     *
+     * @throws IllegalStateException if another dump is already running
+     */
+    public long dump(Path target) throws IOException {
+        if (!dumping.compareAndSet(false, true)) {
+            throw new IllegalStateException("A snapshot dump is already running");
+        }
+        long start = System.nanoTime();
+        try {
+            Path directory = target.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+            long links;
+            try (SnapshotWriter writer = new SnapshotWriter(Files.newOutputStream(temp), compressed)) {
+                long afterId = 0;
+                while (true) {
+                    List<LinkRecord> page = new ArrayList<>(batchSize);
+                    long[] lastId = { afterId };
+                    jdbcTemplate.query(SELECT_PAGE, rs -> {
+                        lastId[0] = rs.getLong("id");
+                        page.add(toRecord(rs));
+                    }, afterId, batchSize);
+                    for (LinkRecord link : page) {
+                        writer.write(link);
+                    }
+                    if (page.size() < batchSize) {
+                        break;
+                    }
+                    afterId = lastId[0];
+                }
+                writer.finish();
+                links = writer.getLinkCount();
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            long elapsed = System.nanoTime() - start;
+            dumpTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            linksInLastDump.set(links);
+            log.info("Dumped {} links to {} ({} bytes) in {} ms", links, target, Files.size(target),
+                TimeUnit.NANOSECONDS.toMillis(elapsed));
+            return links;
+        } finally {
+            dumping.set(false);
+        }
+    }
+
+    /**
+     * Loads every link in {@code source} into an empty link table. Returns the number of links
+     * restored, or 0 without reading the file if the table already holds links. Nothing stays
+     * inserted if the snapshot turns out to be corrupt.
+     */
+    public long restore(Path source) throws IOException {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM urls", Long.class);
+        if (existing != null && existing > 0) {
+            log.info("Skipping snapshot restore: the link table already holds {} links", existing);
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(restoreParallelism);
+        // Bounds the batches read ahead of the inserts
+        Semaphore pending = new Semaphore(restoreParallelism * 2);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        try (SnapshotReader reader = new SnapshotReader(Files.newInputStream(source))) {
+            List<Object[]> batch = new ArrayList<>(batchSize);
+            LinkRecord link;
+            while ((link = reader.next()) != null) {
+                batch.add(toRow(link));
+                if (batch.size() == batchSize) {
+                    submit(executor, pending, failure, batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(executor, pending, failure, batch);
+            }
+            executor.shutdown();
+            awaitTermination(executor);
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+
+            long elapsed = System.nanoTime() - start;
+            restoreTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Restored {} links from {} (written {}) in {} ms", reader.getLinkCount(), source,
+                reader.getCreatedAt(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+            return reader.getLinkCount();
+        } catch (IOException | RuntimeException e) {
+            executor.shutdownNow();
+            awaitTermination(executor);
+            jdbcTemplate.update("DELETE FROM urls");
+            throw e;
+        }
+    }
+
+    private void dumpQuietly() {
+        try {
+            dump(path);
+        } catch (IllegalStateException e) {
+            log.debug("Skipping snapshot dump: {}", e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Snapshot dump to {} failed", path, e);
+        }
+    }
+
+    private void submit(ExecutorService executor, Semaphore pending, AtomicReference<RuntimeException> failure,
+                        List<Object[]> rows) {
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        try {
+            pending.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while restoring snapshot", e);
+        }
+        executor.execute(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, rows, INSERT_TYPES));
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                pending.release();
+            }
+        });
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            executor.awaitTermination(1, TimeUnit.HOURS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private LinkRecord toRecord(ResultSet rs) throws SQLException {
+        String prefix = null;
+        byte[] suffix = rs.getBytes("destination_suffix");
+        if (suffix == null) {
+            // Not migrated to the compact encoding yet; encode the legacy full URL here
+            String originalUrl = rs.getString("original_url");
+            int prefixLength = DestinationCodec.prefixLength(originalUrl);
+            if (prefixLength > UrlPrefix.MAX_LENGTH) {
+                prefixLength = 0;
+            }
+            prefix = prefixLength > 0 ? originalUrl.substring(0, prefixLength) : null;
+            suffix = DestinationCodec.encodeSuffix(originalUrl.substring(prefixLength));
+        } else {
+            Integer prefixId = rs.getObject("destination_prefix_id", Integer.class);
+            if (prefixId != null) {
+                prefix = prefixDictionary.prefixOf(prefixId);
+            }
+        }
+        return new LinkRecord(
+            rs.getString("short_code"),
+            prefix,
+            suffix,
+            rs.getString("original_url_hash"),
+            rs.getString("destination_host"),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("expires_at", LocalDateTime.class),
+            rs.getLong("click_count"),
+            rs.getObject("updated_at", LocalDateTime.class),
+            rs.getObject("redirect_status", Integer.class)
+        );
+    }
+
+    private Object[] toRow(LinkRecord link) {
+        Integer prefixId = link.getDestinationPrefix() != null ? prefixDictionary.idOf(link.getDestinationPrefix()) : null;
+        byte[] suffix = link.getDestinationSuffix();
+        if (prefixId == null && link.getDestinationPrefix() != null) {
+            // The dictionary is full; keep the prefix inline
+            suffix = DestinationCodec.encodeSuffix(link.getDestinationPrefix() + DestinationCodec.decodeSuffix(suffix));
+        }
+        return new Object[] {
+            link.getShortCode(), prefixId, suffix, link.getOriginalUrlHash(),
+            link.getDestinationHost(), link.getCreatedAt(), link.getExpiresAt(), link.getClickCount(),
+            link.getUpdatedAt(), link.getRedirectStatus()
+        };
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.shortenuri.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import static com.example.shortenuri.snapshot.SnapshotFormat.*;
+
+/**
+ * Streams links into the snapshot format described in {@link SnapshotFormat}. Call
+ * {@link #finish()} after the last link; a snapshot closed without it has no END entry and is
+ * rejected as truncated when read.
+ */
+public class SnapshotWriter implements Closeable {
+
+    // Entry payloads are written after a gap for the type and length (varint, at most 5 bytes),
+    // which are filled in right before the payload once its length is known
+    private static final int HEADER_GAP = 6;
+
+    private final OutputStream target;
+    private final BufferedOutputStream buffered;
+    private final DeflaterOutputStream deflating;
+    private final OutputStream body;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final Map<String, Integer> prefixIndexes = new HashMap<>();
+
+    // Each entry is assembled here and written, and checksummed, with a single call
+    private byte[] entry = new byte[256];
+    private int entryLength;
+    private long links;
+
+    public SnapshotWriter(OutputStream target, boolean compressed) throws IOException {
+        this.target = target;
+        this.buffered = new BufferedOutputStream(target, BUFFER_SIZE);
+        DataOutputStream header = new DataOutputStream(buffered);
+        header.writeInt(MAGIC);
+        header.writeByte(VERSION);
+        header.writeByte(compressed ? FLAG_DEFLATED : 0);
+        header.writeLong(System.currentTimeMillis());
+
+        if (compressed) {
+            // Speed over ratio: the prefix dictionary and suffix encoding already removed most redundancy
+            this.deflater = new Deflater(Deflater.BEST_SPEED);
+            this.deflating = new DeflaterOutputStream(buffered, deflater, BUFFER_SIZE);
+            this.body = new BufferedOutputStream(deflating, BUFFER_SIZE);
+        } else {
+            this.deflater = null;
+            this.deflating = null;
+            this.body = buffered;
+        }
+    }
+
+    /**
+     * Appends a link. Its payload is the short code, the prefix number (0 for none), the encoded
+     * suffix, a presence byte for the optional fields, the SHA-256 destination hash as 32 raw
+     * bytes, the host, created-at, expires-at, the click count, updated-at and the redirect status.
+     */
+    public void write(LinkRecord link) throws IOException {
+        int prefixIndex = 0;
+        if (link.getDestinationPrefix() != null) {
+            Integer known = prefixIndexes.get(link.getDestinationPrefix());
+            if (known == null) {
+                known = prefixIndexes.size() + 1;
+                prefixIndexes.put(link.getDestinationPrefix(), known);
+                beginEntry();
+                putBytes(link.getDestinationPrefix().getBytes(StandardCharsets.UTF_8));
+                endEntry(PREFIX);
+            }
+            prefixIndex = known;
+        }
+
+        int present = (link.getOriginalUrlHash() != null ? HAS_HASH : 0)
+            | (link.getDestinationHost() != null ? HAS_HOST : 0)
+            | (link.getExpiresAt() != null ? HAS_EXPIRES_AT : 0)
+            | (link.getUpdatedAt() != null ? HAS_UPDATED_AT : 0)
+            | (link.getRedirectStatus() != null ? HAS_REDIRECT_STATUS : 0);
+
+        beginEntry();
+        putString(link.getShortCode());
+        putVarLong(prefixIndex);
+        putVarLong(link.getDestinationSuffix().length);
+        putBytes(link.getDestinationSuffix());
+        putByte(present);
+        if (link.getOriginalUrlHash() != null) {
+            putBytes(HexFormat.of().parseHex(link.getOriginalUrlHash()));
+        }
+        if (link.getDestinationHost() != null) {
+            putString(link.getDestinationHost());
+        }
+        putTimestamp(link.getCreatedAt());
+        if (link.getExpiresAt() != null) {
+            putTimestamp(link.getExpiresAt());
+        }
+        putVarLong(link.getClickCount());
+        if (link.getUpdatedAt() != null) {
+            putTimestamp(link.getUpdatedAt());
+        }
+        if (link.getRedirectStatus() != null) {
+            putVarLong(link.getRedirectStatus());
+        }
+        endEntry(LINK);
+        links++;
+    }
+
+    /**
+     * Writes the END entry and checksum and flushes everything to the target stream.
+     */
+    public void finish() throws IOException {
+        beginEntry();
+        putVarLong(links);
+        endEntry(END);
+        int checksum = (int) crc.getValue();
+        body.write(new byte[] { (byte) (checksum >>> 24), (byte) (checksum >>> 16), (byte) (checksum >>> 8), (byte) checksum });
+        body.flush();
+        if (deflating != null) {
+            deflating.finish();
+        }
+        buffered.flush();
+    }
+
+    public long getLinkCount() {
+        return links;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            target.close();
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    private void beginEntry() {
+        entryLength = HEADER_GAP;
+    }
+
+    private void endEntry(int type) throws IOException {
+        int payloadLength = entryLength - HEADER_GAP;
+        int headerLength = 1 + varIntLength(payloadLength);
+        int start = HEADER_GAP - headerLength;
+        entry[start] = (byte) type;
+        int position = start + 1;
+        int value = payloadLength;
+        while ((value & ~0x7F) != 0) {
+            entry[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        entry[position] = (byte) value;
+
+        crc.update(entry, start, entryLength - start);
+        body.write(entry, start, entryLength - start);
+    }
+
+    private static int varIntLength(int value) {
+        int length = 1;
+        while ((value & ~0x7F) != 0) {
+            length++;
+            value >>>= 7;
+        }
+        return length;
+    }
+
+    private void ensure(int extra) {
+        if (entryLength + extra > entry.length) {
+            entry = Arrays.copyOf(entry, Math.max(entry.length * 2, entryLength + extra));
+        }
+    }
+
+    private void putByte(int value) {
+        ensure(1);
+        entry[entryLength++] = (byte) value;
+    }
+
+    private void putBytes(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, entry, entryLength, bytes.length);
+        entryLength += bytes.length;
+    }
+
+    private void putVarLong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            entry[entryLength++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        entry[entryLength++] = (byte) value;
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putVarLong(bytes.length);
+        putBytes(bytes);
+    }
+
+    // Zig-zag encoded epoch seconds, so dates before 1970 stay short too, then nanoseconds
+    private void putTimestamp(LocalDateTime value) {
+        long seconds = value.toEpochSecond(ZoneOffset.UTC);
+        putVarLong((seconds << 1) ^ (seconds >> 63));
+        putVarLong(value.getNano());
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.shortenuri.store;
+
+/**
+ * When write-ahead log records are forced to disk.
+ */
+public enum FsyncPolicy {
+
+    /**
+     * A mutation returns once its record is fsynced. Concurrent mutations share one fsync (group
+     * commit), so throughput grows with concurrency instead of being capped by fsync latency.
+     */
+    ALWAYS,
+
+    /**
+     * Records are written and fsynced every {@code fsync-interval-ms}; a mutation does not wait.
+     * A crash loses at most the last interval.
+     */
+    INTERVAL,
+
+    /**
+     * A mutation returns once its record is handed to the OS, which survives a process crash but
+     * not a power loss or kernel panic.
+     */
+    NEVER
+}
@@ -0,0 +1,115 @@
+package com.example.shortenuri.store;
+
+import com.example.shortenuri.dto.DomainStatsResponse;
+import com.example.shortenuri.entity.Url;
+import com.example.shortenuri.repository.PrefixDictionary;
+import com.example.shortenuri.repository.UrlFilter;
+import com.example.shortenuri.repository.UrlRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps links in the {@code urls} table. Each call runs in its own transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "app.store.mode", havingValue = "jpa", matchIfMissing = true)
+public class JpaLinkStore implements LinkStore {
+
+    private final UrlRepository urlRepository;
+    private final PrefixDictionary prefixDictionary;
+
+    public JpaLinkStore(UrlRepository urlRepository, PrefixDictionary prefixDictionary) {
+        this.urlRepository = urlRepository;
+        this.prefixDictionary = prefixDictionary;
+    }
+
+    @Override
+    public Optional<Url> findByShortCode(String shortCode) {
+        return urlRepository.findByShortCode(shortCode);
+    }
+
+    @Override
+    public List<Url> findByShortCodeIn(Collection<String> shortCodes) {
+        return urlRepository.findByShortCodeIn(shortCodes);
+    }
+
+    @Override
+    public Optional<Url> findByOriginalUrl(String originalUrl) {
+        return urlRepository.findByOriginalUrl(originalUrl);
+    }
+
+    @Override
+    public boolean existsByShortCode(String shortCode) {
+        return urlRepository.existsByShortCode(shortCode);
+    }
+
+    @Override
+    public List<String> findMostClickedShortCodes(int limit) {
+        return urlRepository.findMostClickedShortCodes(PageRequest.of(0, limit));
+    }
+
+    /**
+     * Destination prefixes are resolved before the insert's transaction opens, so encoding the
+     * row never needs a second connection.
+     */
+    @Override
+    public Url insert(Url url) {
+        prefixDictionary.resolve(url.getOriginalUrl());
+        return urlRepository.save(url);
+    }
+
+    /**
+     * One transaction for the batch (the repository's saveAll). Ids come from an identity column,
+     * so Hibernate still issues one INSERT per row, but they share a single commit.
+     */
+    @Override
+    public List<Url> insertAll(List<Url> urls) {
+        urls.forEach(url -> prefixDictionary.resolve(url.getOriginalUrl()));
+        return urlRepository.saveAll(urls);
+    }
+
+    @Override
+    @Transactional
+    public boolean incrementClickCount(String shortCode) {
+        Optional<Url> url = urlRepository.findByShortCode(shortCode);
+        if (url.isEmpty()) {
+            return false;
+        }
+        Url urlEntity = url.get();
+        urlEntity.incrementClickCount();
+        urlRepository.save(urlEntity);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean delete(String shortCode) {
+        Optional<Url> url = urlRepository.findByShortCode(shortCode);
+        if (url.isEmpty()) {
+            return false;
+        }
+        urlRepository.delete(url.get());
+        return true;
+    }
+
+    @Override
+    public List<Url> findPage(UrlFilter filter, Long afterId, int limit) {
+        return urlRepository.findPage(filter, afterId, limit);
+    }
+
+    @Override
+    public Optional<DomainStatsResponse> findDomainStats(String host) {
+        return urlRepository.findDomainStats(host);
+    }
+
+    @Override
+    public List<DomainStatsResponse> findTopDomains(int limit) {
+        return urlRepository.findTopDomains(PageRequest.of(0, limit));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.shortenuri.store;
+
+import com.example.shortenuri.dto.DomainStatsResponse;
+import com.example.shortenuri.entity.Url;
+import com.example.shortenuri.repository.UrlFilter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Where links live. {@code app.store.mode} selects the database ({@link JpaLinkStore}, the
+ * default) or an in-memory map made durable by a write-ahead log ({@link WalLinkStore}).
+ */
+public interface LinkStore {
+
+    Optional<Url> findByShortCode(String shortCode);
+
+    List<Url> findByShortCodeIn(Collection<String> shortCodes);
+
+    Optional<Url> findByOriginalUrl(String originalUrl);
+
+    boolean existsByShortCode(String shortCode);
+
+    /**
+     * Codes of the links with the most clicks, highest first.
+     */
+    List<String> findMostClickedShortCodes(int limit);
+
+    /**
+     * Stores a new link and returns it with its id assigned.
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException if the short code or the
+     *         destination is already taken
+     */
+    Url insert(Url url);
+
+    /**
+     * Stores new links with a single commit and returns them with their ids assigned. Either all
+     * are stored or none are.
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException if any short code or
+     *         destination is already taken, or taken twice within {@code urls}
+     */
+    List<Url> insertAll(List<Url> urls);
+
+    /**
+     * Returns {@code false} if there was no link with this short code.
+     */
+    boolean incrementClickCount(String shortCode);
+
+    /**
+     * Returns {@code false} if there was no link with this short code.
+     */
+    boolean delete(String shortCode);
+
+    /**
+     * Links matching {@code filter} with an id above {@code afterId} (any id if {@code null}), in
+     * id order.
+     */
+    List<Url> findPage(UrlFilter filter, Long afterId, int limit);
+
+    Optional<DomainStatsResponse> findDomainStats(String host);
+
+    /**
+     * Domains ordered by their total clicks, highest first.
+     */
+    List<DomainStatsResponse> findTopDomains(int limit);
+}
@@ -0,0 +1,719 @@
+package com.example.shortenuri.store;
+
+import com.example.shortenuri.dto.DomainStatsResponse;
+import com.example.shortenuri.entity.DestinationCodec;
+import com.example.shortenuri.entity.Url;
+import com.example.shortenuri.entity.UrlPrefix;
+import com.example.shortenuri.repository.UrlFilter;
+import com.example.shortenuri.snapshot.LinkRecord;
+import com.example.shortenuri.snapshot.SnapshotReader;
+import com.example.shortenuri.snapshot.SnapshotWriter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps every link in memory and makes each mutation durable through a {@link WriteAheadLog}
+ * before acknowledging it (as far as the {@link FsyncPolicy} asks).
+ * <p>
+ * Log records are redo records carrying absolute values (a click records the new count, not
+ * "+1"), so replaying a record whose effect is already present changes nothing. That lets a
+ * checkpoint run without stopping writes: it rotates the log between two mutations, writes every
+ * link to a snapshot file named after the new segment, and then deletes the older segments and
+ * checkpoints. Recovery loads the newest checkpoint and replays the segments from its number on;
+ * a torn record at the end of the last segment is dropped.
+ */
+@Component
+@ConditionalOnProperty(name = "app.store.mode", havingValue = "wal")
+public class WalLinkStore implements LinkStore, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(WalLinkStore.class);
+
+    private static final String CHECKPOINT_PREFIX = "checkpoint-";
+    private static final String CHECKPOINT_SUFFIX = ".snapshot";
+
+    // Log record types
+    private static final int CREATE = 1;
+    private static final int CLICK = 2;
+    private static final int DELETE = 3;
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final WriteAheadLog wal;
+
+    private final Map<String, Url> byCode = new ConcurrentHashMap<>();
+    private final Map<String, Url> byHash = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Url> byId = new ConcurrentSkipListMap<>();
+    private final Map<String, DomainTotals> domains = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    // Creates and deletes serialize on this; a click only locks its own link
+    private final Object linksLock = new Object();
+    // Mutations hold the read lock while they log and apply a record, so a checkpoint can take
+    // the write lock to rotate the log between two of them
+    private final ReentrantReadWriteLock rotationLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean checkpointing = new AtomicBoolean();
+    private final Timer checkpointTimer;
+    private final Timer recoveryTimer;
+
+    public WalLinkStore(MeterRegistry meterRegistry,
+                        @Value("${app.store.wal.directory:data/wal}") String directory,
+                        @Value("${app.store.wal.fsync-policy:always}") FsyncPolicy fsyncPolicy) {
+        this.directory = Path.of(directory);
+        this.fsyncPolicy = fsyncPolicy;
+        this.wal = new WriteAheadLog(this.directory);
+        meterRegistry.gaugeMapSize("app.store.links", Tags.empty(), byCode);
+        FunctionCounter.builder("app.store.wal.records", wal, WriteAheadLog::getRecordCount).register(meterRegistry);
+        FunctionCounter.builder("app.store.wal.fsyncs", wal, WriteAheadLog::getSyncCount).register(meterRegistry);
+        this.checkpointTimer = meterRegistry.timer("app.store.checkpoint.duration");
+        this.recoveryTimer = meterRegistry.timer("app.store.recovery.duration");
+    }
+
+    /**
+     * Rebuilds the links from the newest checkpoint and the log, then opens a new log segment.
+     * Returns the number of links recovered.
+     */
+    @PostConstruct
+    public long recover() throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> temps = Files.newDirectoryStream(directory, "*.tmp")) {
+            for (Path temp : temps) {
+                Files.delete(temp);
+            }
+        }
+
+        long firstSegment = 0;
+        long checkpointed = 0;
+        Path checkpoint = latestCheckpoint();
+        if (checkpoint != null) {
+            firstSegment = segmentOf(checkpoint);
+            try (SnapshotReader reader = new SnapshotReader(Files.newInputStream(checkpoint))) {
+                LinkRecord link;
+                while ((link = reader.next()) != null) {
+                    replace(toUrl(link));
+                }
+                checkpointed = reader.getLinkCount();
+            }
+        }
+
+        long records = 0;
+        List<Long> segments = new ArrayList<>();
+        for (long segment : WriteAheadLog.segments(directory)) {
+            if (segment >= firstSegment) {
+                segments.add(segment);
+            }
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            Path file = WriteAheadLog.segmentPath(directory, segments.get(i));
+            long[] replayed = { 0 };
+            long valid = WriteAheadLog.read(file, payload -> {
+                replay(payload);
+                replayed[0]++;
+            });
+            records += replayed[0];
+            long size = Files.size(file);
+            if (valid < size) {
+                if (i < segments.size() - 1) {
+                    throw new IllegalStateException("Write-ahead log segment " + file + " is corrupt at byte " + valid
+                        + " but later segments exist");
+                }
+                // Only the tail of the last segment can be torn: a crash mid-append
+                log.warn("Dropping {} bytes of torn write at the end of {}", size - valid, file);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(valid);
+                    channel.force(false);
+                }
+            }
+        }
+        wal.open(segments.isEmpty() ? firstSegment : segments.get(segments.size() - 1) + 1);
+
+        long elapsed = System.nanoTime() - start;
+        recoveryTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Recovered {} links ({} from checkpoint, {} log records replayed) from {} in {} ms",
+            byCode.size(), checkpointed, records, directory, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return byCode.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.store.wal.fsync-interval-ms:100}")
+    public void scheduledSync() {
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            try {
+                wal.flush(true);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Write-ahead log fsync failed", e);
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.store.wal.checkpoint-interval-ms:300000}",
+        fixedDelayString = "${app.store.wal.checkpoint-interval-ms:300000}")
+    public void scheduledCheckpoint() {
+        try {
+            checkpoint();
+        } catch (IllegalStateException e) {
+            log.debug("Skipping checkpoint: {}", e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Checkpoint of {} failed", directory, e);
+        }
+    }
+
+    /**
+     * Writes every link to a new checkpoint and deletes the log segments and checkpoints it
+     * replaces. Returns the number of links written.
+     *
+     * @throws IllegalStateException if another checkpoint is already running
+     */
+    public long checkpoint() throws IOException {
+        if (!checkpointing.compareAndSet(false, true)) {
+            throw new IllegalStateException("A checkpoint is already running");
+        }
+        long start = System.nanoTime();
+        try {
+            long segment;
+            rotationLock.writeLock().lock();
+            try {
+                segment = wal.rotate();
+            } finally {
+                rotationLock.writeLock().unlock();
+            }
+
+            Path target = directory.resolve(String.format("%s%016d%s", CHECKPOINT_PREFIX, segment, CHECKPOINT_SUFFIX));
+            Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+            long links;
+            try (FileOutputStream out = new FileOutputStream(temp.toFile());
+                 SnapshotWriter writer = new SnapshotWriter(out, true)) {
+                for (Url url : byId.values()) {
+                    LinkRecord link;
+                    synchronized (url) {
+                        link = toRecord(url);
+                    }
+                    writer.write(link);
+                }
+                writer.finish();
+                // The checkpoint must be on disk before the segments it replaces are deleted
+                out.getFD().sync();
+                links = writer.getLinkCount();
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            WriteAheadLog.syncDirectory(directory);
+
+            for (long old : WriteAheadLog.segments(directory)) {
+                if (old < segment) {
+                    Files.delete(WriteAheadLog.segmentPath(directory, old));
+                }
+            }
+            try (DirectoryStream<Path> checkpoints = Files.newDirectoryStream(directory, CHECKPOINT_PREFIX + "*" + CHECKPOINT_SUFFIX)) {
+                for (Path old : checkpoints) {
+                    if (segmentOf(old) < segment) {
+                        Files.delete(old);
+                    }
+                }
+            }
+
+            long elapsed = System.nanoTime() - start;
+            checkpointTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Checkpointed {} links to {} ({} bytes) in {} ms", links, target, Files.size(target),
+                TimeUnit.NANOSECONDS.toMillis(elapsed));
+            return links;
+        } finally {
+            checkpointing.set(false);
+        }
+    }
+
+    /**
+     * Checkpoints so the next start replays nothing, then closes the log.
+     */
+    @PreDestroy
+    @Override
+    public void close() throws IOException {
+        try {
+            checkpoint();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Checkpoint on shutdown failed; the log will be replayed on the next start", e);
+        }
+        wal.close();
+    }
+
+    @Override
+    public Optional<Url> findByShortCode(String shortCode) {
+        return Optional.ofNullable(byCode.get(shortCode));
+    }
+
+    @Override
+    public List<Url> findByShortCodeIn(Collection<String> shortCodes) {
+        List<Url> urls = new ArrayList<>(shortCodes.size());
+        for (String shortCode : shortCodes) {
+            Url url = byCode.get(shortCode);
+            if (url != null) {
+                urls.add(url);
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * One pass over the links, keeping the top {@code limit} in a min-heap. Counts are read once
+     * per link, since clicks keep changing them.
+     */
+    @Override
+    public List<String> findMostClickedShortCodes(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        Comparator<Map.Entry<Long, String>> byClicks = Map.Entry.comparingByKey();
+        PriorityQueue<Map.Entry<Long, String>> top = new PriorityQueue<>(byClicks);
+        for (Url url : byCode.values()) {
+            long clicks = url.getClickCount();
+            if (top.size() < limit) {
+                top.add(Map.entry(clicks, url.getShortCode()));
+            } else if (clicks > top.peek().getKey()) {
+                top.poll();
+                top.add(Map.entry(clicks, url.getShortCode()));
+            }
+        }
+        List<Map.Entry<Long, String>> sorted = new ArrayList<>(top);
+        sorted.sort(byClicks.reversed());
+        return sorted.stream().map(Map.Entry::getValue).toList();
+    }
+
+    @Override
+    public Optional<Url> findByOriginalUrl(String originalUrl) {
+        return Optional.ofNullable(byHash.get(Url.hashOf(originalUrl)));
+    }
+
+    @Override
+    public boolean existsByShortCode(String shortCode) {
+        return byCode.containsKey(shortCode);
+    }
+
+    @Override
+    public Url insert(Url url) {
+        long lsn;
+        rotationLock.readLock().lock();
+        try {
+            synchronized (linksLock) {
+                if (byCode.containsKey(url.getShortCode())) {
+                    throw new DataIntegrityViolationException("Short code already exists: " + url.getShortCode());
+                }
+                if (byHash.containsKey(url.getOriginalUrlHash())) {
+                    throw new DataIntegrityViolationException("Destination already shortened: " + url.getOriginalUrl());
+                }
+                if (url.getClickCount() == null) {
+                    url.setClickCount(0L);
+                }
+                lsn = append(encodeCreate(url));
+                url.setId(nextId.getAndIncrement());
+                add(url);
+            }
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        awaitDurable(lsn);
+        return url;
+    }
+
+    /**
+     * Checks every link before logging any, so a conflict leaves nothing behind, then waits once
+     * for the last record: with {@code always} the batch shares one fsync.
+     */
+    @Override
+    public List<Url> insertAll(List<Url> urls) {
+        long lsn = 0;
+        rotationLock.readLock().lock();
+        try {
+            synchronized (linksLock) {
+                Set<String> codes = new HashSet<>();
+                Set<String> hashes = new HashSet<>();
+                for (Url url : urls) {
+                    if (byCode.containsKey(url.getShortCode()) || !codes.add(url.getShortCode())) {
+                        throw new DataIntegrityViolationException("Short code already exists: " + url.getShortCode());
+                    }
+                    if (byHash.containsKey(url.getOriginalUrlHash()) || !hashes.add(url.getOriginalUrlHash())) {
+                        throw new DataIntegrityViolationException("Destination already shortened: " + url.getOriginalUrl());
+                    }
+                }
+                for (Url url : urls) {
+                    if (url.getClickCount() == null) {
+                        url.setClickCount(0L);
+                    }
+                    lsn = append(encodeCreate(url));
+                    url.setId(nextId.getAndIncrement());
+                    add(url);
+                }
+            }
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        if (!urls.isEmpty()) {
+            awaitDurable(lsn);
+        }
+        return urls;
+    }
+
+    @Override
+    public boolean incrementClickCount(String shortCode) {
+        long lsn;
+        rotationLock.readLock().lock();
+        try {
+            Url url = byCode.get(shortCode);
+            if (url == null) {
+                return false;
+            }
+            synchronized (url) {
+                if (byCode.get(shortCode) != url) {
+                    // Deleted since the lookup
+                    return false;
+                }
+                long clickCount = url.getClickCount() + 1;
+                LocalDateTime updatedAt = LocalDateTime.now();
+                lsn = append(encodeClick(shortCode, clickCount, updatedAt));
+                applyClick(url, clickCount, updatedAt);
+            }
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        awaitDurable(lsn);
+        return true;
+    }
+
+    @Override
+    public boolean delete(String shortCode) {
+        long lsn;
+        rotationLock.readLock().lock();
+        try {
+            synchronized (linksLock) {
+                Url url = byCode.get(shortCode);
+                if (url == null) {
+                    return false;
+                }
+                synchronized (url) {
+                    lsn = append(encodeDelete(shortCode));
+                    remove(url);
+                }
+            }
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        awaitDurable(lsn);
+        return true;
+    }
+
+    @Override
+    public List<Url> findPage(UrlFilter filter, Long afterId, int limit) {
+        Collection<Url> candidates = afterId == null ? byId.values() : byId.tailMap(afterId, false).values();
+        String host = filter.getDomain() != null ? Url.normalizeHost(filter.getDomain()) : null;
+        LocalDateTime now = LocalDateTime.now();
+        List<Url> page = new ArrayList<>(Math.min(limit, 64));
+        for (Url url : candidates) {
+            if (matches(url, filter, host, now)) {
+                page.add(url);
+                if (page.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public Optional<DomainStatsResponse> findDomainStats(String host) {
+        DomainTotals totals = domains.get(host);
+        if (totals == null || totals.links.get() == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(totals.toResponse(host));
+    }
+
+    @Override
+    public List<DomainStatsResponse> findTopDomains(int limit) {
+        return domains.entrySet().stream()
+            .filter(entry -> entry.getValue().links.get() > 0)
+            .map(entry -> entry.getValue().toResponse(entry.getKey()))
+            .sorted(Comparator.comparing(DomainStatsResponse::getTotalClicks).reversed())
+            .limit(limit)
+            .toList();
+    }
+
+    private static boolean matches(Url url, UrlFilter filter, String host, LocalDateTime now) {
+        if (filter.getCreatedFrom() != null && url.getCreatedAt().isBefore(filter.getCreatedFrom())) {
+            return false;
+        }
+        if (filter.getCreatedTo() != null && !url.getCreatedAt().isBefore(filter.getCreatedTo())) {
+            return false;
+        }
+        if (filter.getMinClicks() != null && url.getClickCount() < filter.getMinClicks()) {
+            return false;
+        }
+        if (host != null && !host.equals(url.getDestinationHost())) {
+            return false;
+        }
+        if (filter.getStatus() != null) {
+            boolean expired = url.getExpiresAt() != null && !url.getExpiresAt().isAfter(now);
+            return expired == (filter.getStatus() == UrlFilter.Status.EXPIRED);
+        }
+        return true;
+    }
+
+    private long append(byte[] record) {
+        try {
+            return wal.append(record);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Write-ahead log append failed", e);
+        }
+    }
+
+    private void awaitDurable(long lsn) {
+        try {
+            switch (fsyncPolicy) {
+                case ALWAYS -> wal.await(lsn, true);
+                case NEVER -> wal.await(lsn, false);
+                case INTERVAL -> {
+                    // Left for the next scheduled sync
+                }
+            }
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Write-ahead log sync failed", e);
+        }
+    }
+
+    // Callers hold linksLock, or are recovering before the store is in use
+    private void add(Url url) {
+        byCode.put(url.getShortCode(), url);
+        byHash.put(url.getOriginalUrlHash(), url);
+        byId.put(url.getId(), url);
+        if (url.getDestinationHost() != null) {
+            DomainTotals totals = domains.computeIfAbsent(url.getDestinationHost(), host -> new DomainTotals());
+            totals.links.incrementAndGet();
+            totals.clicks.addAndGet(url.getClickCount());
+        }
+    }
+
+    private void remove(Url url) {
+        byCode.remove(url.getShortCode(), url);
+        byHash.remove(url.getOriginalUrlHash(), url);
+        byId.remove(url.getId(), url);
+        if (url.getDestinationHost() != null) {
+            DomainTotals totals = domains.get(url.getDestinationHost());
+            totals.clicks.addAndGet(-url.getClickCount());
+            if (totals.links.decrementAndGet() == 0) {
+                domains.remove(url.getDestinationHost(), totals);
+            }
+        }
+    }
+
+    // Callers hold the link's monitor, or are recovering before the store is in use
+    private void applyClick(Url url, long clickCount, LocalDateTime updatedAt) {
+        if (url.getDestinationHost() != null) {
+            domains.get(url.getDestinationHost()).clicks.addAndGet(clickCount - url.getClickCount());
+        }
+        url.setClickCount(clickCount);
+        url.setUpdatedAt(updatedAt);
+    }
+
+    /**
+     * Adds a recovered link, replacing one with the same short code but keeping its id so that
+     * paging order survives a replay over a checkpoint that already holds the link.
+     */
+    private void replace(Url url) {
+        Url existing = byCode.get(url.getShortCode());
+        if (existing != null) {
+            remove(existing);
+            url.setId(existing.getId());
+        } else {
+            url.setId(nextId.getAndIncrement());
+        }
+        add(url);
+    }
+
+    private void replay(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int type = in.readUnsignedByte();
+        String shortCode = in.readUTF();
+        Url url = byCode.get(shortCode);
+        switch (type) {
+            case CREATE -> {
+                Url created = new Url(shortCode, new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8));
+                created.setCreatedAt(readTimestamp(in));
+                created.setUpdatedAt(created.getCreatedAt());
+                created.setExpiresAt(in.readBoolean() ? readTimestamp(in) : null);
+                created.setRedirectStatus(in.readBoolean() ? in.readInt() : null);
+                created.setClickCount(0L);
+                replace(created);
+            }
+            case CLICK -> {
+                long clickCount = in.readLong();
+                LocalDateTime updatedAt = readTimestamp(in);
+                if (url != null) {
+                    applyClick(url, clickCount, updatedAt);
+                }
+            }
+            case DELETE -> {
+                if (url != null) {
+                    remove(url);
+                }
+            }
+            default -> throw new IOException("Unknown write-ahead log record type " + type);
+        }
+    }
+
+    private static byte[] encodeCreate(Url url) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(CREATE);
+            out.writeUTF(url.getShortCode());
+            byte[] originalUrl = url.getOriginalUrl().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(originalUrl.length);
+            out.write(originalUrl);
+            writeTimestamp(out, url.getCreatedAt());
+            out.writeBoolean(url.getExpiresAt() != null);
+            if (url.getExpiresAt() != null) {
+                writeTimestamp(out, url.getExpiresAt());
+            }
+            out.writeBoolean(url.getRedirectStatus() != null);
+            if (url.getRedirectStatus() != null) {
+                out.writeInt(url.getRedirectStatus());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeClick(String shortCode, long clickCount, LocalDateTime updatedAt) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(CLICK);
+            out.writeUTF(shortCode);
+            out.writeLong(clickCount);
+            writeTimestamp(out, updatedAt);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeDelete(String shortCode) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(DELETE);
+            out.writeUTF(shortCode);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeTimestamp(DataOutputStream out, LocalDateTime timestamp) throws IOException {
+        out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(timestamp.getNano());
+    }
+
+    private static LocalDateTime readTimestamp(DataInputStream in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static LinkRecord toRecord(Url url) {
+        String originalUrl = url.getOriginalUrl();
+        int prefixLength = DestinationCodec.prefixLength(originalUrl);
+        // Same split as the database's prefix dictionary, so a checkpoint also restores as a snapshot
+        if (prefixLength > UrlPrefix.MAX_LENGTH) {
+            prefixLength = 0;
+        }
+        return new LinkRecord(
+            url.getShortCode(),
+            prefixLength > 0 ? originalUrl.substring(0, prefixLength) : null,
+            DestinationCodec.encodeSuffix(originalUrl.substring(prefixLength)),
+            url.getOriginalUrlHash(),
+            url.getDestinationHost(),
+            url.getCreatedAt(),
+            url.getExpiresAt(),
+            url.getClickCount(),
+            url.getUpdatedAt(),
+            url.getRedirectStatus()
+        );
+    }
+
+    private static Url toUrl(LinkRecord link) {
+        String prefix = link.getDestinationPrefix() != null ? link.getDestinationPrefix() : "";
+        Url url = new Url(link.getShortCode(), prefix + DestinationCodec.decodeSuffix(link.getDestinationSuffix()));
+        url.setCreatedAt(link.getCreatedAt());
+        url.setExpiresAt(link.getExpiresAt());
+        url.setClickCount(link.getClickCount());
+        url.setUpdatedAt(link.getUpdatedAt());
+        url.setRedirectStatus(link.getRedirectStatus());
+        return url;
+    }
+
+    private Path latestCheckpoint() throws IOException {
+        Path latest = null;
+        try (DirectoryStream<Path> checkpoints = Files.newDirectoryStream(directory, CHECKPOINT_PREFIX + "*" + CHECKPOINT_SUFFIX)) {
+            for (Path checkpoint : checkpoints) {
+                if (latest == null || segmentOf(checkpoint) > segmentOf(latest)) {
+                    latest = checkpoint;
+                }
+            }
+        }
+        return latest;
+    }
+
+    private static long segmentOf(Path checkpoint) {
+        String name = checkpoint.getFileName().toString();
+        return Long.parseLong(name.substring(CHECKPOINT_PREFIX.length(), name.length() - CHECKPOINT_SUFFIX.length()));
+    }
+
+    private static class DomainTotals {
+        final AtomicLong links = new AtomicLong();
+        final AtomicLong clicks = new AtomicLong();
+
+        DomainStatsResponse toResponse(String host) {
+            return new DomainStatsResponse(host, links.get(), clicks.get());
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.shortenuri.store;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log split into numbered segment files {@code wal-<segment>.log}. Each record is
+ * <pre>
+ * payload length (4) | CRC32 of the payload (4) | payload
+ * </pre>
+ * Appends only copy the record into a memory buffer and return its log sequence number (the
+ * number of bytes appended before it plus its own length). {@link #await} then makes it durable
+ * with group commit: the first waiter becomes the leader and writes and fsyncs everything appended
+ * so far in one go, while later waiters queue behind it and are usually covered by its fsync or
+ * by the next one. An I/O error leaves the log unusable; every later call fails.
+ */
+final class WriteAheadLog implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = 8;
+    // Far above any real record; guards allocation on a corrupt length
+    static final int MAX_RECORD_BYTES = 1 << 20;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Receives the payload of each intact record during {@link #read}.
+     */
+    interface RecordHandler {
+        void accept(byte[] payload) throws IOException;
+    }
+
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushDone = lock.newCondition();
+
+    // All guarded by lock
+    private FileChannel channel;
+    private long segment;
+    private byte[] pending = new byte[BUFFER_SIZE];
+    private int pendingSize;
+    private byte[] spare = new byte[BUFFER_SIZE];
+    private long appended;
+    private long written;
+    private long synced;
+    private boolean flushing;
+    private IOException failure;
+
+    private volatile long records;
+    private volatile long syncs;
+
+    WriteAheadLog(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Segment numbers present in {@code directory}, ascending.
+     */
+    static List<Long> segments(Path directory) throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                segments.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    static Path segmentPath(Path directory, long segment) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Hands every intact record of a segment to {@code handler}, stopping at the first record
+     * that is cut short or fails its checksum. Returns the length of the intact part, which is
+     * less than the file size if the segment ends in a torn write.
+     */
+    static long read(Path file, RecordHandler handler) throws IOException {
+        long valid = 0;
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            byte[] payload = new byte[256];
+            while (true) {
+                int length;
+                int checksum;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD_BYTES) {
+                        return valid;
+                    }
+                    if (length > payload.length) {
+                        payload = new byte[Math.max(payload.length * 2, length)];
+                    }
+                    in.readFully(payload, 0, length);
+                } catch (EOFException e) {
+                    return valid;
+                }
+                crc.reset();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    return valid;
+                }
+                handler.accept(Arrays.copyOf(payload, length));
+                valid += HEADER_BYTES + length;
+            }
+        }
+    }
+
+    /**
+     * Starts appending to a new, empty segment.
+     */
+    void open(long segment) throws IOException {
+        lock.lock();
+        try {
+            this.channel = FileChannel.open(segmentPath(directory, segment),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            this.segment = segment;
+            syncDirectory(directory);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Buffers a record and returns its log sequence number for {@link #await}.
+     */
+    long append(byte[] payload) throws IOException {
+        if (payload.length > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Log record of " + payload.length + " bytes is too large");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        int checksum = (int) crc.getValue();
+
+        lock.lock();
+        try {
+            checkUsable();
+            int size = HEADER_BYTES + payload.length;
+            if (pendingSize + size > pending.length) {
+                pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingSize + size));
+            }
+            ByteBuffer.wrap(pending, pendingSize, HEADER_BYTES).putInt(payload.length).putInt(checksum);
+            System.arraycopy(payload, 0, pending, pendingSize + HEADER_BYTES, payload.length);
+            pendingSize += size;
+            appended += size;
+            records++;
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns once the record with log sequence number {@code lsn} has been written to the OS,
+     * and also fsynced if {@code force} is set.
+     */
+    void await(long lsn, boolean force) throws IOException {
+        lock.lock();
+        try {
+            while ((force ? synced : written) < lsn) {
+                checkUsable();
+                if (flushing) {
+                    flushDone.awaitUninterruptibly();
+                    continue;
+                }
+
+                // Lead a group: swap buffers so appends continue while this batch is written
+                flushing = true;
+                byte[] batch = pending;
+                int batchSize = pendingSize;
+                long batchEnd = appended;
+                FileChannel target = channel;
+                pending = spare;
+                pendingSize = 0;
+                lock.unlock();
+                IOException error = null;
+                try {
+                    writeFully(target, batch, batchSize);
+                    if (force) {
+                        target.force(false);
+                    }
+                } catch (IOException e) {
+                    error = e;
+                } finally {
+                    lock.lock();
+                    spare = batch;
+                    flushing = false;
+                    if (error == null) {
+                        written = batchEnd;
+                        if (force) {
+                            synced = batchEnd;
+                            syncs++;
+                        }
+                    } else {
+                        failure = error;
+                    }
+                    flushDone.signalAll();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes everything appended so far, and fsyncs it if {@code force} is set.
+     */
+    void flush(boolean force) throws IOException {
+        long lsn;
+        lock.lock();
+        try {
+            lsn = appended;
+        } finally {
+            lock.unlock();
+        }
+        await(lsn, force);
+    }
+
+    /**
+     * Makes the current segment durable and switches to the next one. Returns the new segment
+     * number; every record appended before the call is in an earlier segment.
+     */
+    long rotate() throws IOException {
+        lock.lock();
+        try {
+            drainAndClose();
+            this.channel = null;
+            open(segment + 1);
+            return segment;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getRecordCount() {
+        return records;
+    }
+
+    long getSyncCount() {
+        return syncs;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                drainAndClose();
+                channel = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with the lock held
+    private void drainAndClose() throws IOException {
+        while (flushing) {
+            flushDone.awaitUninterruptibly();
+        }
+        checkUsable();
+        try {
+            writeFully(channel, pending, pendingSize);
+            channel.force(false);
+            pendingSize = 0;
+            written = appended;
+            synced = appended;
+            syncs++;
+            channel.close();
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+    }
+
+    private void checkUsable() throws IOException {
+        if (failure != null) {
+            throw new IOException("Write-ahead log failed earlier", failure);
+        }
+        if (channel == null) {
+            throw new IllegalStateException("Write-ahead log is not open");
+        }
+    }
+
+    private static void writeFully(FileChannel channel, byte[] bytes, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Makes a created, renamed or deleted file in {@code directory} survive a crash.
+     */
+    static void syncDirectory(Path directory) {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not every platform can open a directory; the rename is then as durable as the OS makes it
+        }
+    }
+}
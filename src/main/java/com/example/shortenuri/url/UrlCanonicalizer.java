@@ -0,0 +1,375 @@
+package com.example.shortenuri.url;
+
+import java.net.IDN;
+
+/**
+ * Validates a destination URL and writes it in one canonical form, so that spellings of the
+ * same URL dedupe to the same link. One left-to-right pass without regular expressions, linear
+ * in the length of the URL:
+ * <ul>
+ *   <li>only {@code http} and {@code https}; a URL without a scheme is taken as {@code http};</li>
+ *   <li>scheme and host lower-cased, an internationalized host converted to its ASCII form, and
+ *       a trailing dot on the host and the scheme's default port dropped;</li>
+ *   <li>the host must be a domain name with a top-level domain, an IPv4 address or a bracketed
+ *       IPv6 address; credentials before the host are refused;</li>
+ *   <li>{@code .} and {@code ..} path segments resolved, and an empty path and a path of just
+ *       {@code /} written the same way;</li>
+ *   <li>percent-escapes of unreserved characters decoded and the others upper-cased, and
+ *       characters a URL cannot carry as they are, such as spaces and non-ASCII, percent-encoded
+ *       as UTF-8.</li>
+ * </ul>
+ * Query and fragment are otherwise kept as given, since servers may give their spelling meaning.
+ */
+public final class UrlCanonicalizer {
+
+    /** Longer URLs are refused by common browsers and servers. */
+    public static final int MAX_LENGTH = 8192;
+
+    private static final int MAX_HOST_LENGTH = 253;
+    private static final int MAX_LABEL_LENGTH = 63;
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final int PATH = 0;
+    private static final int QUERY = 1;
+    private static final int FRAGMENT = 2;
+
+    private UrlCanonicalizer() {}
+
+    /**
+     * The canonical form of {@code url}, or {@code null} if it is not a valid http(s) URL.
+     */
+    public static String canonicalize(String url) {
+        if (url == null) {
+            return null;
+        }
+        int start = 0;
+        int end = url.length();
+        while (start < end && url.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && url.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end || end - start > MAX_LENGTH) {
+            return null;
+        }
+
+        StringBuilder out = new StringBuilder(end - start + 8);
+        int i = scheme(url, start, end, out);
+        if (i < 0) {
+            return null;
+        }
+        boolean https = out.length() == "https://".length();
+
+        i = host(url, i, end, out);
+        if (i < 0) {
+            return null;
+        }
+        i = port(url, i, end, https, out);
+        if (i < 0) {
+            return null;
+        }
+
+        // Path, query and fragment
+        int pathStart = out.length();
+        out.append('/');
+        int segmentStart = out.length();
+        int part = PATH;
+        if (i < end && url.charAt(i) == '/') {
+            i++;
+        }
+        for (; i < end; i++) {
+            char c = url.charAt(i);
+            if (part == PATH && (c == '/' || c == '?' || c == '#')) {
+                segmentStart = endSegment(out, pathStart, segmentStart, c == '/');
+                if (c != '/') {
+                    part = c == '?' ? QUERY : FRAGMENT;
+                    out.append(c);
+                }
+                continue;
+            }
+            if (part == QUERY && c == '#') {
+                part = FRAGMENT;
+                out.append(c);
+                continue;
+            }
+
+            if (c == '%') {
+                int high = i + 2 < end ? hexValue(url.charAt(i + 1)) : -1;
+                int low = high >= 0 ? hexValue(url.charAt(i + 2)) : -1;
+                if (low < 0) {
+                    return null;
+                }
+                char decoded = (char) (high << 4 | low);
+                if (unreserved(decoded)) {
+                    out.append(decoded);
+                } else {
+                    out.append('%').append(HEX[high]).append(HEX[low]);
+                }
+                i += 2;
+            } else if (c < ' ' || c == 0x7f) {
+                return null;
+            } else if (c < 0x80) {
+                if (allowed(c)) {
+                    out.append(c);
+                } else {
+                    percentEncode(out, c);
+                }
+            } else {
+                int codePoint = c;
+                if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(url.charAt(i + 1))) {
+                    codePoint = Character.toCodePoint(c, url.charAt(++i));
+                } else if (Character.isSurrogate(c)) {
+                    return null;
+                }
+                encodeUtf8(out, codePoint);
+            }
+        }
+        if (part == PATH) {
+            endSegment(out, pathStart, segmentStart, false);
+            // "http://a.com/" and "http://a.com" are the same URL
+            if (out.length() == pathStart + 1) {
+                out.setLength(pathStart);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes the scheme and {@code ://} and returns the index after them in {@code url}, or -1
+     * for a scheme other than http(s).
+     */
+    private static int scheme(String url, int start, int end, StringBuilder out) {
+        int i = start;
+        while (i < end && schemeChar(url.charAt(i))) {
+            i++;
+        }
+        // "host:port/..." has no "//" after the colon and is a URL without a scheme
+        if (i == start || i + 2 >= end || url.charAt(i) != ':' || url.charAt(i + 1) != '/' || url.charAt(i + 2) != '/') {
+            out.append("http://");
+            return start;
+        }
+        int length = i - start;
+        if ((length == 4 || length == 5) && url.regionMatches(true, start, "https", 0, length)) {
+            out.append(length == 4 ? "http://" : "https://");
+            return i + 3;
+        }
+        return -1;
+    }
+
+    /**
+     * Writes the lower-cased host and returns the index after it in {@code url}, or -1 if the
+     * host is not valid.
+     */
+    private static int host(String url, int i, int end, StringBuilder out) {
+        int hostStart = out.length();
+        if (i < end && url.charAt(i) == '[') {
+            // IPv6 literal: checked for its characters only
+            int colons = 0;
+            out.append('[');
+            for (i++; i < end && url.charAt(i) != ']'; i++) {
+                char c = Character.toLowerCase(url.charAt(i));
+                if (c == ':') {
+                    colons++;
+                } else if (hexValue(c) < 0 && c != '.') {
+                    return -1;
+                }
+                out.append(c);
+            }
+            if (i == end || colons < 2) {
+                return -1;
+            }
+            out.append(']');
+            return i + 1;
+        }
+
+        boolean ascii = true;
+        for (; i < end; i++) {
+            char c = url.charAt(i);
+            if (c == '/' || c == '?' || c == '#' || c == ':') {
+                break;
+            }
+            if (c >= 'A' && c <= 'Z') {
+                out.append((char) (c + ('a' - 'A')));
+            } else if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '.' || c == '_') {
+                out.append(c);
+            } else if (c >= 0x80) {
+                ascii = false;
+                out.append(c);
+            } else {
+                // Including '@': credentials in a destination only serve to disguise its host
+                return -1;
+            }
+        }
+        if (!ascii) {
+            String host;
+            try {
+                host = IDN.toASCII(out.substring(hostStart));
+            } catch (IllegalArgumentException e) {
+                return -1;
+            }
+            out.setLength(hostStart);
+            out.append(host);
+        }
+        if (out.length() > hostStart && out.charAt(out.length() - 1) == '.') {
+            out.setLength(out.length() - 1);
+        }
+        return validHost(out, hostStart) ? i : -1;
+    }
+
+    /**
+     * A domain name whose top-level domain is letters (or punycode), or a dotted IPv4 address.
+     */
+    private static boolean validHost(StringBuilder out, int from) {
+        int length = out.length() - from;
+        if (length == 0 || length > MAX_HOST_LENGTH) {
+            return false;
+        }
+        int labels = 0;
+        int labelStart = from;
+        int lastLabelStart = from;
+        boolean numeric = true;
+        boolean letters = true;
+        boolean allNumeric = true;
+        boolean octets = true;
+        for (int j = from; j <= out.length(); j++) {
+            char c = j < out.length() ? out.charAt(j) : '.';
+            if (c != '.') {
+                numeric &= c >= '0' && c <= '9';
+                letters &= c >= 'a' && c <= 'z';
+                continue;
+            }
+            int labelLength = j - labelStart;
+            if (labelLength == 0 || labelLength > MAX_LABEL_LENGTH
+                    || out.charAt(labelStart) == '-' || out.charAt(j - 1) == '-') {
+                return false;
+            }
+            if (numeric) {
+                // No leading zeros: "010" would be octal to some resolvers
+                octets &= labelLength <= 3 && (labelLength == 1 || out.charAt(labelStart) != '0')
+                    && Integer.parseInt(out, labelStart, j, 10) <= 255;
+            } else {
+                allNumeric = false;
+            }
+            labels++;
+            lastLabelStart = labelStart;
+            labelStart = j + 1;
+            if (j < out.length()) {
+                numeric = true;
+                letters = true;
+            }
+        }
+        if (allNumeric) {
+            return labels == 4 && octets;
+        }
+        int tldLength = out.length() - lastLabelStart;
+        return labels >= 2
+            && ((letters && tldLength >= 2) || (tldLength > 4 && out.indexOf("xn--", lastLabelStart) == lastLabelStart));
+    }
+
+    /**
+     * Writes the port unless it is the scheme's default and returns the index after it in
+     * {@code url}, or -1 if it is not a valid port.
+     */
+    private static int port(String url, int i, int end, boolean https, StringBuilder out) {
+        if (i == end || url.charAt(i) != ':') {
+            return i;
+        }
+        int port = 0;
+        int digits = 0;
+        for (i++; i < end && url.charAt(i) >= '0' && url.charAt(i) <= '9'; i++) {
+            port = port * 10 + (url.charAt(i) - '0');
+            if (port > 65535) {
+                return -1;
+            }
+            digits++;
+        }
+        if (i < end && url.charAt(i) != '/' && url.charAt(i) != '?' && url.charAt(i) != '#') {
+            return -1;
+        }
+        // An empty port is the default port
+        if (digits > 0) {
+            if (port == 0) {
+                return -1;
+            }
+            if (port != (https ? 443 : 80)) {
+                out.append(':').append(port);
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Ends the path segment started at {@code segmentStart}, resolving it if it is {@code .} or
+     * {@code ..}, and returns where the next segment starts.
+     */
+    private static int endSegment(StringBuilder out, int pathStart, int segmentStart, boolean slash) {
+        int length = out.length() - segmentStart;
+        if (length == 1 && out.charAt(segmentStart) == '.') {
+            out.setLength(segmentStart);
+        } else if (length == 2 && out.charAt(segmentStart) == '.' && out.charAt(segmentStart + 1) == '.') {
+            // Drop the previous segment too, if there is one
+            int previous = segmentStart - 1;
+            if (previous > pathStart) {
+                previous--;
+                while (out.charAt(previous) != '/') {
+                    previous--;
+                }
+                out.setLength(previous + 1);
+            } else {
+                out.setLength(segmentStart);
+            }
+        } else if (slash) {
+            out.append('/');
+        }
+        return out.length();
+    }
+
+    private static boolean schemeChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+            || c == '+' || c == '-' || c == '.';
+    }
+
+    private static boolean unreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+            || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    /**
+     * Characters a path, query or fragment may carry as they are (RFC 3986 pchar, '/' and '?').
+     */
+    private static boolean allowed(char c) {
+        return unreserved(c) || "!$&'()*+,;=:@/?".indexOf(c) >= 0;
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static void percentEncode(StringBuilder out, int b) {
+        out.append('%').append(HEX[(b >> 4) & 0xf]).append(HEX[b & 0xf]);
+    }
+
+    private static void encodeUtf8(StringBuilder out, int codePoint) {
+        if (codePoint < 0x800) {
+            percentEncode(out, 0xc0 | codePoint >> 6);
+        } else if (codePoint < 0x10000) {
+            percentEncode(out, 0xe0 | codePoint >> 12);
+            percentEncode(out, 0x80 | (codePoint >> 6 & 0x3f));
+        } else {
+            percentEncode(out, 0xf0 | codePoint >> 18);
+            percentEncode(out, 0x80 | (codePoint >> 12 & 0x3f));
+            percentEncode(out, 0x80 | (codePoint >> 6 & 0x3f));
+        }
+        percentEncode(out, 0x80 | (codePoint & 0x3f));
+    }
+}
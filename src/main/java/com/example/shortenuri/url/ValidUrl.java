@@ -0,0 +1,27 @@
+package com.example.shortenuri.url;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated string must be an http(s) URL that {@link UrlCanonicalizer} accepts.
+ * {@code null} and blank values are valid; combine with {@code @NotBlank} to require one.
+ */
+@Documented
+@Constraint(validatedBy = ValidUrlValidator.class)
+@Target({ ElementType.FIELD, ElementType.PARAMETER })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidUrl {
+
+    String message() default "Invalid URL format";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,12 @@
+package com.example.shortenuri.url;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class ValidUrlValidator implements ConstraintValidator<ValidUrl, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return value == null || value.isBlank() || UrlCanonicalizer.canonicalize(value) != null;
+    }
+}
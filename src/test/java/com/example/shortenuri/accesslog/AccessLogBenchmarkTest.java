@@ -0,0 +1,71 @@
+package com.example.shortenuri.accesslog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Per-request cost of {@link RedirectAccessLog#record} against formatting and writing each line
+ * on the request thread, flushed per line as a logging appender does by default.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class AccessLogBenchmarkTest {
+
+    private static final int REQUESTS = 500_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void record_AsyncBatchedVersusSynchronousWrite() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/abc12345");
+        request.setRemoteAddr("203.0.113.7");
+        request.addHeader(HttpHeaders.REFERER, "https://news.example.com/articles/2026/10/launch");
+        request.addHeader(HttpHeaders.USER_AGENT, "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 Chrome/129.0 Safari/537.36");
+
+        for (int round = 0; round < 3; round++) {
+            Path syncPath = directory.resolve("sync-" + round + ".log");
+            long start = System.nanoTime();
+            try (BufferedWriter out = Files.newBufferedWriter(syncPath, StandardCharsets.US_ASCII,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (int i = 0; i < REQUESTS; i++) {
+                    long begin = System.nanoTime();
+                    out.write(String.format("%s %s \"GET /%s\" %d %d \"%s\" \"%s\"%n", Instant.now(),
+                        request.getRemoteAddr(), "abc12345", 302, (System.nanoTime() - begin) / 1000,
+                        request.getHeader(HttpHeaders.REFERER), request.getHeader(HttpHeaders.USER_AGENT)));
+                    out.flush();
+                }
+            }
+            double sync = (System.nanoTime() - start) / (double) REQUESTS;
+
+            Path asyncPath = directory.resolve("async-" + round + ".log");
+            RedirectAccessLog accessLog = new RedirectAccessLog(new SimpleMeterRegistry(), true, asyncPath.toString(),
+                65536, 256, 1000, 100, 10);
+            start = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                accessLog.record(request, "abc12345", 302, System.nanoTime());
+            }
+            double async = (System.nanoTime() - start) / (double) REQUESTS;
+            accessLog.close();
+
+            assertEquals(REQUESTS, accessLog.getWritten() + accessLog.getDropped());
+            System.out.printf("Access log: synchronous %.0f ns/request (%,d writes), async %.0f ns/request "
+                    + "(%,d appends, %,d dropped)%n",
+                sync, REQUESTS, async, accessLog.getAppends(), accessLog.getDropped());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.shortenuri.accesslog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedirectAccessLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void record_FormatsOneLinePerRedirectWithEscapedHeaders() throws IOException {
+        Path path = directory.resolve("access.log");
+        RedirectAccessLog accessLog = open(path, 1024, 100, 10);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/abc12345");
+        request.setRemoteAddr("203.0.113.7");
+        request.addHeader(HttpHeaders.REFERER, "https://ref.example/?q=\"x\"");
+        request.addHeader(HttpHeaders.USER_AGENT, "Agent/1.0 (\u00fcn\u00efcode)");
+        accessLog.record(request, "abc12345", 302, System.nanoTime());
+        accessLog.record(new MockHttpServletRequest(), "missing1", 404, System.nanoTime());
+        accessLog.close();
+
+        List<String> lines = Files.readAllLines(path, StandardCharsets.US_ASCII);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).matches(
+            "\\d{4}-\\d\\d-\\d\\dT\\d\\d:\\d\\d:\\d\\d\\.\\d{3}Z 203\\.0\\.113\\.7 \"GET /abc12345\" 302 \\d+ "
+                + "\"https://ref\\.example/\\?q=\\\\\"x\\\\\"\" \"Agent/1\\.0 \\(\\?n\\?code\\)\""), lines.get(0));
+        assertTrue(lines.get(1).matches(".*Z 127\\.0\\.0\\.1 \"GET /missing1\" 404 \\d+ \"-\" \"-\""), lines.get(1));
+        assertEquals(2, accessLog.getWritten());
+        assertEquals(1, accessLog.getAppends());
+    }
+
+    @Test
+    void record_PastMaxFileSize_RotatesAndKeepsMaxFiles() throws IOException {
+        Path path = directory.resolve("access.log");
+        RedirectAccessLog accessLog = open(path, 65536, 1, 2);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        for (int i = 0; i < 40_000; i++) {
+            accessLog.record(request, String.format("code%04d", i % 10_000), 302, System.nanoTime());
+        }
+        accessLog.close();
+
+        assertEquals(0, accessLog.getDropped());
+        Path first = path.resolveSibling("access.log.1");
+        Path second = path.resolveSibling("access.log.2");
+        assertTrue(Files.exists(first));
+        assertTrue(Files.exists(second));
+        assertFalse(Files.exists(path.resolveSibling("access.log.3")));
+        for (Path file : List.of(path, first, second)) {
+            assertTrue(Files.size(file) <= 1024 * 1024, file + " is " + Files.size(file) + " bytes");
+        }
+        List<String> newest = Files.readAllLines(path, StandardCharsets.US_ASCII);
+        assertTrue(newest.get(newest.size() - 1).contains("\"GET /code9999\""));
+    }
+
+    @Test
+    void record_RingFull_DropsAndCountsInsteadOfBlocking() throws IOException {
+        Path path = directory.resolve("access.log");
+        RedirectAccessLog accessLog = open(path, 8, 100, 10);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        for (int i = 0; i < 10_000; i++) {
+            accessLog.record(request, "abc12345", 302, System.nanoTime());
+        }
+        accessLog.close();
+
+        assertTrue(accessLog.getDropped() > 0);
+        assertEquals(10_000, accessLog.getWritten() + accessLog.getDropped());
+        assertEquals(accessLog.getWritten(), Files.readAllLines(path, StandardCharsets.US_ASCII).size());
+    }
+
+    private static RedirectAccessLog open(Path path, int queueCapacity, long maxFileSizeMb, int maxFiles) {
+        return new RedirectAccessLog(new SimpleMeterRegistry(), true, path.toString(), queueCapacity, 256, 1000,
+            maxFileSizeMb, maxFiles);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.shortenuri.availability;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Memory per custom code and availability/suggestion latency with two million codes, against
+ * a {@code HashSet<String>} of the same codes. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class AvailabilityBenchmarkTest {
+
+    private static final int CODES = 2_000_000;
+    private static final int QUERIES = 1_000_000;
+
+    @Test
+    void trie_MillionsOfCodes_MicrosecondChecks() {
+        String[] codes = vanityCodes(CODES, new Random(7));
+
+        long before = usedMemory();
+        Set<String> set = new HashSet<>();
+        for (String code : codes) {
+            // Its own copy, as a set loaded from the store would hold
+            set.add(new String(code));
+        }
+        long setBytes = usedMemory() - before;
+
+        before = usedMemory();
+        RadixTrie trie = new RadixTrie();
+        for (String code : codes) {
+            trie.add(code);
+        }
+        long trieBytes = usedMemory() - before;
+        System.out.printf("%,d codes: HashSet %.1f bytes/code, radix trie %.1f bytes/code%n",
+            trie.size(), setBytes / (double) trie.size(), trieBytes / (double) trie.size());
+
+        Random random = new Random(11);
+        String[] queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            // Half taken, half free
+            queries[i] = i % 2 == 0 ? codes[random.nextInt(CODES)] : codes[random.nextInt(CODES)] + "x";
+        }
+        for (int round = 0; round < 3; round++) {
+            int taken = 0;
+            long start = System.nanoTime();
+            for (String query : queries) {
+                if (trie.contains(query)) {
+                    taken++;
+                }
+            }
+            double contains = (System.nanoTime() - start) / (double) QUERIES;
+
+            start = System.nanoTime();
+            for (String query : queries) {
+                if (set.contains(query)) {
+                    taken--;
+                }
+            }
+            double setContains = (System.nanoTime() - start) / (double) QUERIES;
+
+            start = System.nanoTime();
+            int suggested = 0;
+            for (int i = 0; i < QUERIES / 10; i++) {
+                suggested += CodeAvailability.candidates(queries[i * 2], 10, c -> !trie.contains(c)).size();
+            }
+            double suggest = (System.nanoTime() - start) / 1000.0 / (QUERIES / 10);
+            System.out.printf("Availability check: HashSet %.0f ns, radix trie %.0f ns; 10 suggestions %.2f µs%n",
+                setContains, contains, suggest);
+            assertEquals(0, taken);
+            assertEquals(QUERIES, suggested);
+        }
+        assertEquals(set.size(), trie.size());
+    }
+
+    // Words with optional counters and campaign suffixes, so that many codes share prefixes
+    private static String[] vanityCodes(int count, Random random) {
+        List<String> words = List.of("sale", "summer", "winter", "promo", "launch", "event", "news", "black-friday",
+            "spring", "deal", "shop", "blog", "jobs", "docs", "meetup", "webinar", "podcast", "release");
+        Set<String> codes = new HashSet<>();
+        while (codes.size() < count) {
+            StringBuilder code = new StringBuilder(words.get(random.nextInt(words.size())));
+            if (random.nextBoolean()) {
+                code.append('-').append(words.get(random.nextInt(words.size())));
+            }
+            code.append(random.nextBoolean() ? "-" : "").append(random.nextInt(100_000));
+            codes.add(code.toString());
+        }
+        return codes.toArray(new String[0]);
+    }
+
+    private static long usedMemory() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.shortenuri.availability;
+
+import com.example.shortenuri.cache.InvalidationBus;
+import com.example.shortenuri.cache.InvalidationEvent;
+import com.example.shortenuri.entity.Url;
+import com.example.shortenuri.store.LinkStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Mockito generates mock classes at runtime, which a native image cannot load
+@DisabledInNativeImage
+@ExtendWith(MockitoExtension.class)
+class CodeAvailabilityTest {
+
+    @Mock
+    private LinkStore linkStore;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    private CodeAvailability availability;
+
+    @BeforeEach
+    void setUp() {
+        availability = new CodeAvailability(linkStore, invalidationBus, new SimpleMeterRegistry(), true, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        availability.close();
+    }
+
+    @Test
+    void load_CustomCodesOnly_AnsweredFromMemory() {
+        // Given: three pages of two
+        List<Url> links = links("sale", "Ab3dE5fG", "sale2", "sale-3", "summer");
+        when(linkStore.findPage(any(), isNull(), eq(2))).thenReturn(links.subList(0, 2));
+        when(linkStore.findPage(any(), eq(2L), eq(2))).thenReturn(links.subList(2, 4));
+        when(linkStore.findPage(any(), eq(4L), eq(2))).thenReturn(links.subList(4, 5));
+
+        // When
+        availability.load();
+
+        // Then
+        assertEquals(4, availability.size());
+        assertFalse(availability.isAvailable("sale"));
+        assertTrue(availability.isAvailable("winter"));
+        assertEquals(List.of("sale-2", "sale3", "sale4", "sale-4"), availability.suggest("sale", 4));
+        verify(linkStore, never()).existsByShortCode(any());
+        verify(linkStore, never()).findByShortCodeIn(any());
+    }
+
+    @Test
+    void isAvailable_GeneratableCode_CheckedInStore() {
+        // Given
+        when(linkStore.findPage(any(), isNull(), eq(2))).thenReturn(List.of());
+        when(linkStore.existsByShortCode("Ab3dE5fG")).thenReturn(true);
+        availability.load();
+
+        // When & Then
+        assertFalse(availability.isAvailable("Ab3dE5fG"));
+        verify(linkStore).existsByShortCode("Ab3dE5fG");
+    }
+
+    @Test
+    void suggest_GeneratableCandidates_TakenOnesDroppedWithOneQuery() {
+        // Given
+        when(linkStore.findPage(any(), isNull(), eq(2))).thenReturn(List.of());
+        availability.load();
+        when(linkStore.findByShortCodeIn(List.of("sale2025", "sale2026", "sale2027", "sale2028")))
+            .thenReturn(links("sale2026"));
+
+        // When & Then
+        assertEquals(List.of("sale2025", "sale2027"), availability.suggest("sale2024", 2));
+    }
+
+    @Test
+    void suggest_BeforeLoad_CheckedInStore() {
+        // Given
+        when(linkStore.findByShortCodeIn(List.of("sale2", "sale-2", "sale3", "sale-3"))).thenReturn(links("sale2"));
+
+        // When & Then
+        assertEquals(List.of("sale-2", "sale3"), availability.suggest("sale", 2));
+    }
+
+    @Test
+    void candidates_CounterKeepsWidthAndLongNumbersAreStem() {
+        assertEquals(List.of("sale08", "sale09", "sale10"), CodeAvailability.candidates("sale07", 3, c -> true));
+        assertEquals(List.of("2024-2", "2024-3"), CodeAvailability.candidates("2024-", 2, c -> true));
+        assertEquals(List.of("12342", "12343"), CodeAvailability.candidates("1234", 2, c -> true));
+        assertEquals(List.of("id12345678902", "id12345678903"),
+            CodeAvailability.candidates("id1234567890", 2, c -> true));
+    }
+
+    @Test
+    void changes_LocalAndRemote_AppliedAndKeptAcrossReload() {
+        // Given: a delete and a create arrive while the store is being read
+        when(linkStore.findPage(any(), isNull(), eq(2))).thenAnswer(invocation -> {
+            availability.remove("old-code");
+            availability.onEvent(InvalidationEvent.created("new-code"));
+            return links("old-code");
+        });
+
+        // When
+        availability.load();
+
+        // Then
+        assertTrue(availability.isAvailable("old-code"));
+        assertFalse(availability.isAvailable("new-code"));
+
+        availability.onEvent(InvalidationEvent.deleted("new-code"));
+        availability.onEvent(InvalidationEvent.expired("old-code"));
+        assertTrue(availability.isAvailable("new-code"));
+        assertTrue(availability.isAvailable("old-code"));
+        verify(invalidationBus).addListener(availability);
+    }
+
+    private static List<Url> links(String... shortCodes) {
+        List<Url> links = new ArrayList<>();
+        for (String shortCode : shortCodes) {
+            Url url = new Url(shortCode, "https://www.shop.com/" + shortCode);
+            url.setId(links.size() + 1L);
+            links.add(url);
+        }
+        return links;
+    }
+}
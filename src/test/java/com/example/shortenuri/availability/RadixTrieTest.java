@@ -0,0 +1,87 @@
+package com.example.shortenuri.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadixTrieTest {
+
+    @Test
+    void add_SharedPrefixes_SplitEdgesAndKeepEachKey() {
+        RadixTrie trie = new RadixTrie();
+
+        assertTrue(trie.add("summer"));
+        assertTrue(trie.add("summer-sale"));
+        assertTrue(trie.add("sum"));
+        assertTrue(trie.add("sunday"));
+        assertFalse(trie.add("summer"));
+
+        assertEquals(4, trie.size());
+        for (String key : List.of("summer", "summer-sale", "sum", "sunday")) {
+            assertTrue(trie.contains(key), key);
+        }
+        for (String key : List.of("s", "su", "summ", "summer-", "summer-sales", "sun", "x", "")) {
+            assertFalse(trie.contains(key), key);
+        }
+    }
+
+    @Test
+    void remove_InnerAndLeafKeys_OthersRemain() {
+        RadixTrie trie = new RadixTrie();
+        trie.add("sale");
+        trie.add("sale2");
+        trie.add("sale-2");
+
+        assertTrue(trie.remove("sale"));
+        assertFalse(trie.remove("sale"));
+        assertFalse(trie.remove("sal"));
+        assertTrue(trie.contains("sale2"));
+        assertTrue(trie.contains("sale-2"));
+
+        assertTrue(trie.remove("sale2"));
+        assertTrue(trie.contains("sale-2"));
+        assertFalse(trie.contains("sale"));
+
+        // Merged edges still split correctly afterwards
+        assertTrue(trie.add("sal"));
+        assertTrue(trie.contains("sal"));
+        assertTrue(trie.contains("sale-2"));
+        assertEquals(2, trie.size());
+    }
+
+    @Test
+    void randomOperations_MatchHashSet() {
+        Random random = new Random(42);
+        RadixTrie trie = new RadixTrie();
+        Set<String> expected = new HashSet<>();
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            // Short keys over a small alphabet share many prefixes
+            StringBuilder key = new StringBuilder();
+            for (int length = 1 + random.nextInt(6); length > 0; length--) {
+                key.append("ab-1".charAt(random.nextInt(4)));
+            }
+            keys.add(key.toString());
+        }
+
+        for (int i = 0; i < 50_000; i++) {
+            String key = keys.get(random.nextInt(keys.size()));
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), trie.remove(key), key);
+            } else {
+                assertEquals(expected.add(key), trie.add(key), key);
+            }
+        }
+
+        assertEquals(expected.size(), trie.size());
+        for (String key : keys) {
+            assertEquals(expected.contains(key), trie.contains(key), key);
+        }
+    }
+}
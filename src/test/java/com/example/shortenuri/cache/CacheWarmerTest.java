@@ -0,0 +1,96 @@
+package com.example.shortenuri.cache;
+
+import com.example.shortenuri.entity.Url;
+import com.example.shortenuri.expiry.ExpiryScheduler;
+import com.example.shortenuri.store.LinkStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Mockito generates mock classes at runtime, which a native image cannot load
+@DisabledInNativeImage
+@ExtendWith(MockitoExtension.class)
+class CacheWarmerTest {
+
+    @Mock
+    private LinkStore linkStore;
+
+    @Mock
+    private ExpiryScheduler expiryScheduler;
+
+    @TempDir
+    Path tempDir;
+
+    private RedirectCache redirectCache;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        redirectCache = new RedirectCache(1000);
+        meterRegistry = new SimpleMeterRegistry();
+        when(linkStore.findByShortCodeIn(any())).thenAnswer(invocation -> {
+            Collection<String> codes = invocation.getArgument(0);
+            return codes.stream().map(code -> {
+                Url url = new Url(code, "https://www.example.com/" + code);
+                if (code.startsWith("old")) {
+                    url.setExpiresAt(LocalDateTime.now().minusDays(1));
+                }
+                return url;
+            }).toList();
+        });
+    }
+
+    @Test
+    void warmUp_LoadsTopLinksInChunks() {
+        // Given
+        when(linkStore.findMostClickedShortCodes(100)).thenReturn(List.of("a1", "a2", "a3", "old1", "a4"));
+        CacheWarmer warmer = new CacheWarmer(redirectCache, linkStore, expiryScheduler, meterRegistry, true, 100, 2, 2, 5000, "");
+
+        // When
+        long loaded = warmer.warmUp();
+
+        // Then
+        assertEquals(4, loaded);
+        assertEquals("https://www.example.com/a3", redirectCache.get("a3").getOriginalUrl());
+        assertNull(redirectCache.get("old1"));
+        verify(linkStore, times(3)).findByShortCodeIn(any());
+        assertEquals(4.0, meterRegistry.get("app.warmup.keys.loaded").gauge().value());
+        assertEquals(1, meterRegistry.get("app.warmup.duration").timer().count());
+    }
+
+    @Test
+    void warmUp_IncludesHotKeysWrittenAtShutdown() throws Exception {
+        // Given
+        Path hotKeys = tempDir.resolve("hot-keys.txt");
+        redirectCache.putIfCurrent("persisted", new RedirectTarget("https://www.example.com/persisted", null), 0);
+        new CacheWarmer(redirectCache, linkStore, expiryScheduler, meterRegistry, true, 100, 10, 1, 5000, hotKeys.toString())
+            .writeHotKeys();
+        assertEquals(List.of("persisted"), Files.readAllLines(hotKeys));
+
+        RedirectCache freshCache = new RedirectCache(1000);
+        when(linkStore.findMostClickedShortCodes(100)).thenReturn(List.of("a1"));
+        CacheWarmer warmer = new CacheWarmer(freshCache, linkStore, expiryScheduler, meterRegistry, true, 100, 10, 1, 5000, hotKeys.toString());
+
+        // When
+        warmer.warmUp();
+
+        // Then
+        assertNotNull(freshCache.get("persisted"));
+        assertNotNull(freshCache.get("a1"));
+    }
+}
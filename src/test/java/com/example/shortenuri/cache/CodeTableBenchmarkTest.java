@@ -0,0 +1,99 @@
+package com.example.shortenuri.cache;
+
+import com.example.shortenuri.entity.Url;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Heap bytes per cached link and nanoseconds per hit for the packed {@link RedirectCache} table
+ * against a {@code HashMap<String, Url>}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class CodeTableBenchmarkTest {
+
+    private static final int LINKS = 500_000;
+    private static final int LOOKUPS = 5_000_000;
+
+    @Test
+    void packedTable_VersusHashMapOfEntities_BytesAndLookupCost() {
+        String[] codes = codes(LINKS);
+        String[] destinations = new String[LINKS];
+        for (int i = 0; i < LINKS; i++) {
+            destinations[i] = "https://www.example.com/articles/" + i + "/a-reasonably-long-article-slug";
+        }
+
+        long before = usedHeap();
+        Map<String, Url> map = new HashMap<>();
+        for (int i = 0; i < LINKS; i++) {
+            Url url = new Url(codes[i], destinations[i]);
+            url.setId((long) i + 1);
+            url.setClickCount((long) i);
+            map.put(codes[i], url);
+        }
+        double mapBytes = (double) (usedHeap() - before) / LINKS;
+
+        before = usedHeap();
+        RedirectCache cache = new RedirectCache(LINKS);
+        for (int i = 0; i < LINKS; i++) {
+            assertTrue(cache.putIfCurrent(codes[i], new RedirectTarget(destinations[i], null), cache.generation(codes[i])));
+        }
+        double tableBytes = (double) (usedHeap() - before) / LINKS;
+
+        // Probe codes are fresh Strings with no cached hash, as when parsed from a request path
+        String[] probes = new String[LINKS];
+        Random random = new Random(9);
+        for (int i = 0; i < LINKS; i++) {
+            probes[i] = new String(codes[random.nextInt(LINKS)].toCharArray());
+        }
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            long mapSink = 0;
+            for (int i = 0; i < LOOKUPS; i++) {
+                mapSink += map.get(new String(probes[i % LINKS].toCharArray())).getOriginalUrl().length();
+            }
+            double mapNs = (double) (System.nanoTime() - start) / LOOKUPS;
+
+            start = System.nanoTime();
+            long tableSink = 0;
+            for (int i = 0; i < LOOKUPS; i++) {
+                tableSink += cache.get(new String(probes[i % LINKS].toCharArray())).getOriginalUrl().length();
+            }
+            double tableNs = (double) (System.nanoTime() - start) / LOOKUPS;
+
+            assertEquals(mapSink, tableSink);
+            System.out.printf("%,d links: HashMap<String, Url> %.0f B/link %.0f ns/hit, packed table %.0f B/link"
+                    + " (%.0f B/link in arrays) %.0f ns/hit%n",
+                LINKS, mapBytes, mapNs, tableBytes, (double) cache.memoryBytes() / LINKS, tableNs);
+        }
+        assertTrue(tableBytes < mapBytes);
+        assertEquals(LINKS, map.size());
+    }
+
+    private static String[] codes(int count) {
+        Random random = new Random(1);
+        String[] codes = new String[count];
+        for (int i = 0; i < count; i++) {
+            char[] chars = new char[ShortCodeKeys.MAX_LENGTH];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = ShortCodeKeys.ALPHABET.charAt(random.nextInt(ShortCodeKeys.ALPHABET.length()));
+            }
+            codes[i] = new String(chars);
+        }
+        return codes;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
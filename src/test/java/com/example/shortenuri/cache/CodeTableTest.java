@@ -0,0 +1,185 @@
+package com.example.shortenuri.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodeTableTest {
+
+    @Test
+    void shortCodeKeys_RoundTripAndRejectForeignCodes() {
+        Random random = new Random(3);
+        for (int i = 0; i < 10_000; i++) {
+            StringBuilder code = new StringBuilder();
+            int length = 1 + random.nextInt(ShortCodeKeys.MAX_LENGTH);
+            for (int j = 0; j < length; j++) {
+                code.append(ShortCodeKeys.ALPHABET.charAt(random.nextInt(ShortCodeKeys.ALPHABET.length())));
+            }
+            long key = ShortCodeKeys.encode(code.toString());
+            assertTrue(key > 0 && key < 1L << 48, code.toString());
+            assertEquals(code.toString(), ShortCodeKeys.decode(key));
+        }
+        assertNotEquals(ShortCodeKeys.encode("B"), ShortCodeKeys.encode("AB"));
+        assertEquals(ShortCodeKeys.NOT_ENCODABLE, ShortCodeKeys.encode(""));
+        assertEquals(ShortCodeKeys.NOT_ENCODABLE, ShortCodeKeys.encode("my-link"));
+        assertEquals(ShortCodeKeys.NOT_ENCODABLE, ShortCodeKeys.encode("abcdefghi"));
+        assertEquals(ShortCodeKeys.NOT_ENCODABLE, ShortCodeKeys.encode("café"));
+    }
+
+    @Test
+    void putRemove_RandomOperations_MatchHashMap() {
+        Random random = new Random(11);
+        CodeTable table = new CodeTable();
+        Map<Long, RedirectTarget> model = new HashMap<>();
+        // A small key space forces replacements, long probe runs and removals from their middle
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(5_000);
+            int op = random.nextInt(10);
+            if (op < 5) {
+                RedirectTarget target = target(random, i);
+                table.put(key, target);
+                model.put(key, target);
+            } else if (op < 8) {
+                assertEquals(model.remove(key) != null, table.remove(key, null));
+            } else {
+                RedirectTarget expected = model.get(key);
+                if (expected != null && random.nextBoolean()) {
+                    assertTrue(table.remove(key, expected));
+                    model.remove(key);
+                } else {
+                    assertFalse(table.remove(key, target(random, -1)));
+                }
+            }
+            if (i % 1_000 == 0) {
+                assertEquals(model.size(), table.size());
+            }
+        }
+        assertEquals(model.size(), table.size());
+        model.forEach((key, target) -> assertEquals(target, table.get(key)));
+        for (long key = 1; key <= 5_000; key++) {
+            assertEquals(model.containsKey(key), table.contains(key));
+        }
+    }
+
+    @Test
+    void get_WhileWritersGrowAndCompact_NeverReturnsAWrongTarget() throws InterruptedException {
+        CodeTable table = new CodeTable();
+        AtomicBoolean done = new AtomicBoolean();
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            Thread reader = new Thread(() -> {
+                Random random = new Random();
+                while (!done.get()) {
+                    long key = 1 + random.nextInt(20_000);
+                    RedirectTarget found = table.get(key);
+                    if (found != null && !found.getOriginalUrl().equals(destination(key))) {
+                        failures.add(key + " -> " + found.getOriginalUrl());
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        // Each key only ever maps to its own destination, so any other value is a torn read
+        Random random = new Random(5);
+        for (int i = 0; i < 300_000; i++) {
+            long key = 1 + random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                table.remove(key, null);
+            } else {
+                table.put(key, new RedirectTarget(destination(key), RedirectTarget.NO_EXPIRY, null));
+            }
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertTrue(failures.isEmpty(), "Wrong targets: " + failures.stream().limit(5).toList());
+    }
+
+    @Test
+    void putIfCurrent_Full_EvictsColdEntriesForNewOnes() {
+        RedirectCache cache = new RedirectCache(100);
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            codes.add(String.format("code%04d", i));
+            codes.add("custom-link-" + i);
+        }
+        // Half packed, half in the fallback map; the first ten of each kind are read again
+        for (int i = 0; i < 100; i++) {
+            String code = codes.get(i);
+            assertTrue(cache.putIfCurrent(code, new RedirectTarget("https://example.com/" + code, null),
+                cache.generation(code)));
+        }
+        for (int i = 0; i < 20; i++) {
+            cache.get(codes.get(i));
+        }
+
+        for (int i = 100; i < codes.size(); i++) {
+            String code = codes.get(i);
+            assertTrue(cache.putIfCurrent(code, new RedirectTarget("https://example.com/" + code, null),
+                cache.generation(code)), code);
+            assertEquals("https://example.com/" + code, cache.get(code).getOriginalUrl());
+            assertTrue(cache.size() <= 100);
+        }
+        assertEquals(100, cache.size());
+    }
+
+    @Test
+    void putIfCurrent_Full_HotEntriesSurviveColdChurn() {
+        RedirectCache cache = new RedirectCache(1_000);
+        for (int i = 0; i < 1_000; i++) {
+            String code = String.format("hot%05d", i);
+            cache.putIfCurrent(code, new RedirectTarget("https://hot.example.com/" + i, null), cache.generation(code));
+        }
+        for (int i = 0; i < 100; i++) {
+            cache.get(String.format("hot%05d", i));
+        }
+        // A stream of links read once, while the first hundred stay in use
+        for (int i = 0; i < 20_000; i++) {
+            String cold = String.format("cold%04d", i);
+            cache.putIfCurrent(cold, new RedirectTarget("https://cold.example.com/" + i, null), cache.generation(cold));
+            String hot = String.format("hot%05d", i % 100);
+            assertNotNull(cache.get(hot), hot);
+        }
+        assertEquals(1_000, cache.size());
+    }
+
+    @Test
+    void keys_HottestFirst_FallbackCodesIncluded() {
+        RedirectCache cache = new RedirectCache(100);
+        cache.putIfCurrent("cold0000", new RedirectTarget("https://cold.example.com", null), cache.generation("cold0000"));
+        cache.putIfCurrent("hot00000", new RedirectTarget("https://hot.example.com", null), cache.generation("hot00000"));
+        cache.putIfCurrent("my-custom-link", new RedirectTarget("https://custom.example.com", null), cache.generation("my-custom-link"));
+        for (int i = 0; i < 5; i++) {
+            cache.get("hot00000");
+        }
+        cache.get("cold0000");
+
+        assertEquals(List.of("hot00000", "cold0000", "my-custom-link"), cache.keys(10));
+        assertEquals(List.of("hot00000"), cache.keys(1));
+        assertEquals("https://custom.example.com", cache.get("my-custom-link").getOriginalUrl());
+        assertEquals(3, cache.size());
+    }
+
+    private static String destination(long key) {
+        return "https://www.example.com/" + key + "/" + "x".repeat((int) (key % 50));
+    }
+
+    private static RedirectTarget target(Random random, int version) {
+        Integer status = random.nextBoolean() ? null : 301 + random.nextInt(8);
+        long expires = random.nextBoolean() ? RedirectTarget.NO_EXPIRY : 1_700_000_000_000L + random.nextInt(1_000_000);
+        return new RedirectTarget("https://example.com/" + version + "/über".repeat(random.nextInt(4)), expires, status);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.shortenuri.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvalidationBusTest {
+
+    private RedirectCache cacheA;
+    private RedirectCache cacheB;
+    private InvalidationBus busA;
+    private InvalidationBus busB;
+    private DroppingTransport transportA;
+
+    @BeforeEach
+    void setUp() {
+        String channel = "test-" + UUID.randomUUID();
+        cacheA = new RedirectCache(1000);
+        cacheB = new RedirectCache(1000);
+        transportA = new DroppingTransport(new LoopbackInvalidationTransport(channel));
+        // Long interval so batches only go out when the test flushes explicitly
+        busA = new InvalidationBus(cacheA, transportA, 60_000, 500);
+        busB = new InvalidationBus(cacheB, new LoopbackInvalidationTransport(channel), 60_000, 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        busA.close();
+        busB.close();
+    }
+
+    @Test
+    void publish_DeleteOnOneNode_InvalidatesOtherNode() {
+        // Given
+        cacheA.putIfCurrent("abc12345", new RedirectTarget("https://www.google.com", null), cacheA.generation("abc12345"));
+        cacheB.putIfCurrent("abc12345", new RedirectTarget("https://www.google.com", null), cacheB.generation("abc12345"));
+
+        // When
+        busA.publish(InvalidationEvent.deleted("abc12345"));
+
+        // Then
+        assertNull(cacheA.get("abc12345"));
+        assertNotNull(cacheB.get("abc12345"));
+
+        busA.flush();
+        assertNull(cacheB.get("abc12345"));
+    }
+
+    @Test
+    void publish_RepeatedEventsForSameCode_CoalescedIntoOneBatch() {
+        // When
+        busA.publish(InvalidationEvent.created("abc12345"));
+        busA.publish(InvalidationEvent.deleted("abc12345"));
+        busA.publish(InvalidationEvent.deleted("def67890"));
+        busA.flush();
+
+        // Then
+        assertEquals(1, transportA.sent.size());
+        InvalidationBatch batch = transportA.sent.get(0);
+        assertEquals(2, batch.getEvents().size());
+        assertEquals(InvalidationEvent.Type.DELETED, batch.getEvents().get(1).getType());
+    }
+
+    @Test
+    void onBatch_SequenceGap_ClearsWholeCache() {
+        // Given
+        busA.publish(InvalidationEvent.deleted("first"));
+        busA.flush();
+        cacheB.putIfCurrent("unrelated", new RedirectTarget("https://www.github.com", null), cacheB.generation("unrelated"));
+
+        // When - second batch is lost, third arrives
+        transportA.dropNext = true;
+        busA.publish(InvalidationEvent.deleted("second"));
+        busA.flush();
+        busA.publish(InvalidationEvent.deleted("third"));
+        busA.flush();
+
+        // Then
+        assertNull(cacheB.get("unrelated"));
+        assertEquals(1, busB.getResyncs());
+    }
+
+    @Test
+    void putIfCurrent_InvalidatedDuringLoad_NotCached() {
+        // Given
+        long generation = cacheB.generation("abc12345");
+
+        // When
+        cacheB.invalidate("abc12345");
+        boolean cached = cacheB.putIfCurrent("abc12345", new RedirectTarget("https://www.google.com", null), generation);
+
+        // Then
+        assertFalse(cached);
+        assertNull(cacheB.get("abc12345"));
+    }
+
+    @Test
+    void putIfCurrent_OtherCodeInvalidatedDuringLoad_Cached() {
+        // Given
+        long generation = cacheB.generation("abc12345");
+
+        // When: a create elsewhere publishes its own invalidation
+        cacheB.invalidate("xyz98765");
+        boolean cached = cacheB.putIfCurrent("abc12345", new RedirectTarget("https://www.google.com", null), generation);
+
+        // Then
+        assertTrue(cached);
+        assertNotNull(cacheB.get("abc12345"));
+    }
+
+    private static class DroppingTransport implements InvalidationTransport {
+
+        private final InvalidationTransport delegate;
+        private final List<InvalidationBatch> sent = new ArrayList<>();
+        private boolean dropNext;
+
+        DroppingTransport(InvalidationTransport delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void send(InvalidationBatch batch) {
+            sent.add(batch);
+            if (dropNext) {
+                dropNext = false;
+                return;
+            }
+            delegate.send(batch);
+        }
+
+        @Override
+        public void subscribe(Consumer<InvalidationBatch> listener) {
+            delegate.subscribe(listener);
+        }
+
+        @Override
+        public void unsubscribe(Consumer<InvalidationBatch> listener) {
+            delegate.unsubscribe(listener);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.shortenuri.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void execute_ConcurrentCallsForSameKey_ShareOneLoad() throws Exception {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(100, 5000);
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("abc12345", () -> {
+                loaderCalls.incrementAndGet();
+                await(release);
+                return "https://www.google.com";
+            })));
+        }
+        while (singleFlight.getCollapsed() < callers - 1) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            assertEquals("https://www.google.com", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loaderCalls.get());
+        assertEquals(callers - 1, singleFlight.getCollapsed());
+        assertEquals(0, singleFlight.getInFlight());
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_LoaderFails_WaitersSeeSameFailure() throws Exception {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(100, 5000);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // When
+        Future<String> leader = executor.submit(() -> singleFlight.execute("broken", () -> {
+            await(release);
+            throw new IllegalStateException("database down");
+        }));
+        while (singleFlight.getInFlight() == 0) {
+            Thread.sleep(1);
+        }
+        Future<String> waiter = executor.submit(() -> singleFlight.execute("broken", () -> "unused"));
+        while (singleFlight.getCollapsed() == 0) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        // Then
+        Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception waiterFailure = assertThrows(Exception.class, () -> waiter.get(5, TimeUnit.SECONDS));
+        assertEquals("database down", leaderFailure.getCause().getMessage());
+        assertEquals("database down", waiterFailure.getCause().getMessage());
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_WaiterTimesOut_LoadsItself() throws Exception {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(100, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> singleFlight.execute("slow", () -> {
+            await(release);
+            return "late";
+        }));
+        while (singleFlight.getInFlight() == 0) {
+            Thread.sleep(1);
+        }
+
+        // When
+        String result = singleFlight.execute("slow", () -> "own");
+
+        // Then
+        assertEquals("own", result);
+        assertEquals(1, singleFlight.getTimeouts());
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_InFlightTableFull_BypassesCoalescing() throws Exception {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(1, 5000);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> singleFlight.execute("first", () -> {
+            await(release);
+            return "first";
+        }));
+        while (singleFlight.getInFlight() == 0) {
+            Thread.sleep(1);
+        }
+
+        // When
+        String result = singleFlight.execute("second", () -> "second");
+
+        // Then
+        assertEquals("second", result);
+        assertEquals(1, singleFlight.getBypassed());
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.shortenuri.clicks;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClickClassifierTest {
+
+    @Test
+    void referrer_NormalizesHostAndMarksMissingHeader() {
+        assertEquals("news.example.com", ClickClassifier.referrer("https://WWW.News.Example.com:8443/a?b=c"));
+        assertEquals("t.co", ClickClassifier.referrer("http://t.co/xyz"));
+        assertEquals(ClickClassifier.DIRECT, ClickClassifier.referrer(null));
+        assertEquals(ClickClassifier.DIRECT, ClickClassifier.referrer(" "));
+        assertEquals(ClickClassifier.UNKNOWN, ClickClassifier.referrer("https:///path"));
+    }
+
+    @Test
+    void device_ClassifiesCommonUserAgents() {
+        assertEquals(ClickClassifier.MOBILE, ClickClassifier.device(
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_0 like Mac OS X) AppleWebKit/605.1.15 Mobile/15E148 Safari/604.1"));
+        assertEquals(ClickClassifier.MOBILE, ClickClassifier.device(
+            "Mozilla/5.0 (Linux; Android 14; Pixel 8) AppleWebKit/537.36 Chrome/129.0 Mobile Safari/537.36"));
+        assertEquals(ClickClassifier.TABLET, ClickClassifier.device(
+            "Mozilla/5.0 (iPad; CPU OS 17_0 like Mac OS X) AppleWebKit/605.1.15 Mobile/15E148 Safari/604.1"));
+        assertEquals(ClickClassifier.TABLET, ClickClassifier.device(
+            "Mozilla/5.0 (Linux; Android 13; SM-X700) AppleWebKit/537.36 Chrome/129.0 Safari/537.36"));
+        assertEquals(ClickClassifier.DESKTOP, ClickClassifier.device(
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 Chrome/129.0 Safari/537.36"));
+        assertEquals(ClickClassifier.BOT, ClickClassifier.device(
+            "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)"));
+        assertEquals(ClickClassifier.BOT, ClickClassifier.device("curl/8.4.0"));
+        assertEquals(ClickClassifier.UNKNOWN, ClickClassifier.device(null));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.shortenuri.clicks;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountryDatabaseTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void countryOf_DottedAndNumericRanges_FoundByAddress() throws IOException {
+        Path csv = directory.resolve("countries.csv");
+        Files.writeString(csv, """
+            # first,last,country
+            "203.0.113.0","203.0.113.255","KR","Korea"
+            1.0.0.0,1.0.0.255,au
+            16777472,16778239,CN
+            2001:db8::,2001:db8::ffff,DE
+            10.0.0.0,10.255.255.255,ZZ
+            """);
+
+        CountryDatabase database = CountryDatabase.load(csv);
+
+        assertEquals(3, database.size());
+        assertEquals("KR", database.countryOf("203.0.113.7"));
+        assertEquals("KR", database.countryOf("::ffff:203.0.113.255"));
+        assertEquals("AU", database.countryOf("1.0.0.0"));
+        // 16777472 is 1.0.1.0
+        assertEquals("CN", database.countryOf("1.0.1.0"));
+        assertEquals("CN", database.countryOf("1.0.3.255"));
+        assertNull(database.countryOf("1.0.4.0"));
+        assertNull(database.countryOf("10.1.2.3"));
+        assertNull(database.countryOf("0.0.0.1"));
+        assertNull(database.countryOf("2001:db8::1"));
+        assertNull(database.countryOf("256.1.1.1"));
+        assertNull(database.countryOf("localhost"));
+    }
+
+    @Test
+    void load_InvertedRange_Rejected() throws IOException {
+        Path csv = directory.resolve("countries.csv");
+        Files.writeString(csv, "1.0.0.255,1.0.0.0,AU\n");
+
+        assertThrows(IOException.class, () -> CountryDatabase.load(csv));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.shortenuri.config;
+
+import com.example.shortenuri.dto.CreateUrlRequest;
+import com.example.shortenuri.dto.DomainStatsResponse;
+import com.example.shortenuri.dto.UrlStatsResponse;
+import com.example.shortenuri.entity.Url;
+import com.example.shortenuri.entity.UrlDestinationListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.ObjectProvider;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeConfigTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativeConfig.Hints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_StreamedDto_GettersReachable() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection()
+            .onMethod(UrlStatsResponse.class.getMethod("getClickCount")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+            .onMethod(CreateUrlRequest.class.getMethod("setOriginalUrl", String.class)).test(hints));
+    }
+
+    @Test
+    void registerHints_ConstructorExpressionDto_ConstructorInvocable() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection()
+            .onConstructor(DomainStatsResponse.class.getConstructor(String.class, Long.class, Long.class))
+            .test(hints));
+    }
+
+    @Test
+    void registerHints_EntityAndListener_Reachable() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Url.class)
+            .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+            .onConstructor(UrlDestinationListener.class.getConstructor(ObjectProvider.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+            .onType(TypeReference.of("org.hibernate.dialect.H2Dialect")).test(hints));
+    }
+}
@@ -1,18 +1,31 @@
 package com.example.shortenuri.controller;
 
+import com.example.shortenuri.accesslog.RedirectAccessLog;
+import com.example.shortenuri.cache.RedirectTarget;
+import com.example.shortenuri.clicks.ClickEnrichment;
+import com.example.shortenuri.service.LookupResult;
 import com.example.shortenuri.service.UrlService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+// @MockBean contexts cannot be processed ahead of time, so these only run on the JVM
+@DisabledInAotMode
 @WebMvcTest(RedirectController.class)
+@Import(RedirectResponder.class)
 class RedirectControllerTest {
 
     @Autowired
@@ -21,9 +34,15 @@ class RedirectControllerTest {
     @MockBean
     private UrlService urlService;
 
+    @MockBean
+    private RedirectAccessLog accessLog;
+
+    @MockBean
+    private ClickEnrichment clickEnrichment;
+
     @BeforeEach
     void setUp() {
-        reset(urlService);
+        reset(urlService, accessLog, clickEnrichment);
     }
 
     @Test
@@ -32,14 +51,41 @@ class RedirectControllerTest {
         String shortCode = "abc12345";
         String originalUrl = "https://www.google.com";
         
-        when(urlService.getOriginalUrl(shortCode)).thenReturn(originalUrl);
+        when(urlService.resolve(shortCode)).thenReturn(LookupResult.found(new RedirectTarget(originalUrl, null)));
 
         // When & Then
         mockMvc.perform(get("/" + shortCode))
                 .andExpect(status().is3xxRedirection());
 
-        verify(urlService, times(1)).getOriginalUrl(shortCode);
+        verify(urlService, times(1)).resolve(shortCode);
         verify(urlService, times(1)).incrementClickCount(shortCode);
+        verify(clickEnrichment, times(1)).record(any(), eq(shortCode));
+    }
+
+    @Test
+    void redirectToOriginalUrl_DefaultStatus_NotCacheable() throws Exception {
+        // Given
+        when(urlService.resolve("abc12345")).thenReturn(LookupResult.found(new RedirectTarget("https://www.google.com", null)));
+
+        // When & Then
+        mockMvc.perform(get("/abc12345"))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", "https://www.google.com"))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void redirectToOriginalUrl_PermanentRedirect_CacheableUntilExpiry() throws Exception {
+        // Given
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10);
+        when(urlService.resolve("perm1234"))
+                .thenReturn(LookupResult.found(new RedirectTarget("https://www.google.com", expiresAt, 308)));
+
+        // When & Then
+        mockMvc.perform(get("/perm1234"))
+                .andExpect(status().isPermanentRedirect())
+                .andExpect(header().string("Location", "https://www.google.com"))
+                .andExpect(header().string("Cache-Control", matchesPattern("public, max-age=(599|600)")));
     }
 
     @Test
@@ -47,15 +93,16 @@ class RedirectControllerTest {
         // Given
         String shortCode = "nonexistent";
         
-        when(urlService.getOriginalUrl(shortCode))
-                .thenThrow(new RuntimeException("Short URL not found"));
+        when(urlService.resolve(shortCode)).thenReturn(LookupResult.notFound());
 
         // When & Then
         mockMvc.perform(get("/" + shortCode))
                 .andExpect(status().isNotFound());
 
-        verify(urlService, times(1)).getOriginalUrl(shortCode);
+        verify(urlService, times(1)).resolve(shortCode);
         verify(urlService, never()).incrementClickCount(any());
+        verify(clickEnrichment, never()).record(any(), any());
+        verify(accessLog).record(any(), eq(shortCode), eq(404), anyLong());
     }
 
     @Test
@@ -63,14 +110,13 @@ class RedirectControllerTest {
         // Given
         String shortCode = "expired123";
         
-        when(urlService.getOriginalUrl(shortCode))
-                .thenThrow(new RuntimeException("Short URL has expired"));
+        when(urlService.resolve(shortCode)).thenReturn(LookupResult.expired());
 
         // When & Then
         mockMvc.perform(get("/" + shortCode))
-                .andExpect(status().isNotFound());
+                .andExpect(status().isGone());
 
-        verify(urlService, times(1)).getOriginalUrl(shortCode);
+        verify(urlService, times(1)).resolve(shortCode);
         verify(urlService, never()).incrementClickCount(any());
     }
 }
@@ -1,8 +1,20 @@
 package com.example.shortenuri.controller;
 
+import com.example.shortenuri.accesslog.RedirectAccessLog;
+import com.example.shortenuri.cache.RedirectTarget;
+import com.example.shortenuri.clicks.ClickEnrichment;
+import com.example.shortenuri.dto.AvailabilityResponse;
+import com.example.shortenuri.dto.BatchLookupRequest;
+import com.example.shortenuri.dto.ClickBreakdownResponse;
 import com.example.shortenuri.dto.CreateUrlRequest;
 import com.example.shortenuri.dto.CreateUrlResponse;
+import com.example.shortenuri.dto.DimensionCount;
+import com.example.shortenuri.dto.UrlPageResponse;
 import com.example.shortenuri.dto.UrlStatsResponse;
+import com.example.shortenuri.live.LiveClickPublisher;
+import com.example.shortenuri.repository.UrlFilter;
+import com.example.shortenuri.service.CreateResult;
+import com.example.shortenuri.service.LookupResult;
 import com.example.shortenuri.service.UrlService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,17 +22,30 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+// @MockBean contexts cannot be processed ahead of time, so these only run on the JVM
+@DisabledInAotMode
 @WebMvcTest(UrlController.class)
+@Import(RedirectResponder.class)
 class UrlControllerTest {
 
     @Autowired
@@ -29,6 +54,15 @@ class UrlControllerTest {
     @MockBean
     private UrlService urlService;
 
+    @MockBean
+    private RedirectAccessLog accessLog;
+
+    @MockBean
+    private ClickEnrichment clickEnrichment;
+
+    @MockBean
+    private LiveClickPublisher liveClicks;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -60,7 +94,7 @@ class UrlControllerTest {
 
     @Test
     void createShortUrl_Success() throws Exception {
-        when(urlService.createShortUrl(any(CreateUrlRequest.class))).thenReturn(validResponse);
+        when(urlService.createShortUrl(any(CreateUrlRequest.class))).thenReturn(CreateResult.created(validResponse));
 
         mockMvc.perform(post("/api/urls")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -76,7 +110,7 @@ class UrlControllerTest {
     @Test
     void createShortUrl_WithCustomCode_Success() throws Exception {
         validRequest.setCustomShortCode("custom123");
-        when(urlService.createShortUrl(any(CreateUrlRequest.class))).thenReturn(validResponse);
+        when(urlService.createShortUrl(any(CreateUrlRequest.class))).thenReturn(CreateResult.created(validResponse));
 
         mockMvc.perform(post("/api/urls")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -97,6 +131,18 @@ class UrlControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void createShortUrl_CustomCodeTaken_Conflict() throws Exception {
+        validRequest.setCustomShortCode("custom123");
+        when(urlService.createShortUrl(any(CreateUrlRequest.class))).thenReturn(CreateResult.conflict("custom123"));
+
+        mockMvc.perform(post("/api/urls")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Short code already exists: custom123"));
+    }
+
     @Test
     void createShortUrl_ServiceException_BadRequest() throws Exception {
         when(urlService.createShortUrl(any(CreateUrlRequest.class)))
@@ -108,9 +154,90 @@ class UrlControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void listUrls_Success() throws Exception {
+        when(urlService.listUrls(any(UrlFilter.class), eq("AQAAAAAAAAAK"), eq(20)))
+                .thenReturn(new UrlPageResponse(List.of(validStatsResponse), "AQAAAAAAAAAU"));
+
+        mockMvc.perform(get("/api/urls")
+                .param("cursor", "AQAAAAAAAAAK")
+                .param("limit", "20")
+                .param("status", "expired")
+                .param("minClicks", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].shortCode").value("abc12345"))
+                .andExpect(jsonPath("$.nextCursor").value("AQAAAAAAAAAU"));
+
+        verify(urlService).listUrls(argThat(filter ->
+                filter.getStatus() == UrlFilter.Status.EXPIRED && filter.getMinClicks() == 3L), eq("AQAAAAAAAAAK"), eq(20));
+    }
+
+    @Test
+    void listUrls_UnknownStatus_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/urls").param("status", "archived"))
+                .andExpect(status().isBadRequest());
+
+        verify(urlService, never()).listUrls(any(), any(), anyInt());
+    }
+
+    @Test
+    void getUrlStatsBatch_StreamsResultsWithNotFoundMarkers() throws Exception {
+        when(urlService.getUrlStats(anyCollection())).thenReturn(Map.of("abc12345", validStatsResponse));
+
+        MvcResult result = mockMvc.perform(post("/api/urls/stats:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BatchLookupRequest(List.of("abc12345", "missing1")))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].shortCode").value("abc12345"))
+                .andExpect(jsonPath("$[0].found").value(true))
+                .andExpect(jsonPath("$[0].clickCount").value(5))
+                .andExpect(jsonPath("$[1].shortCode").value("missing1"))
+                .andExpect(jsonPath("$[1].found").value(false));
+    }
+
+    @Test
+    void resolveBatch_QueriesOncePerChunk() throws Exception {
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            codes.add("code" + i);
+        }
+        when(urlService.resolveAll(anyCollection())).thenAnswer(invocation -> Map.of(
+                "code0", LookupResult.found(new RedirectTarget("https://www.google.com", null, 301)),
+                "code1", LookupResult.expired()));
+
+        MvcResult result = mockMvc.perform(post("/api/urls/resolve:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BatchLookupRequest(codes))))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1200))
+                .andExpect(jsonPath("$[0].originalUrl").value("https://www.google.com"))
+                .andExpect(jsonPath("$[0].redirectStatus").value(301))
+                .andExpect(jsonPath("$[1].found").value(false))
+                .andExpect(jsonPath("$[1].expired").value(true))
+                .andExpect(jsonPath("$[2].found").value(false));
+
+        verify(urlService, times(3)).resolveAll(anyCollection());
+        verify(urlService, never()).incrementClickCount(any());
+    }
+
+    @Test
+    void resolveBatch_EmptyRequest_BadRequest() throws Exception {
+        mockMvc.perform(post("/api/urls/resolve:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BatchLookupRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getUrlStats_Success() throws Exception {
-        when(urlService.getUrlStats("abc12345")).thenReturn(validStatsResponse);
+        when(urlService.getUrlStats("abc12345")).thenReturn(LookupResult.found(validStatsResponse));
 
         mockMvc.perform(get("/api/urls/abc12345"))
                 .andExpect(status().isOk())
@@ -121,18 +248,103 @@ class UrlControllerTest {
         verify(urlService, times(1)).getUrlStats("abc12345");
     }
 
+    @Test
+    void getUrlStats_MatchingETag_NotModified() throws Exception {
+        validStatsResponse.setUpdatedAt(LocalDateTime.now().withNano(0));
+        when(urlService.getUrlStats("abc12345")).thenReturn(LookupResult.found(validStatsResponse));
+
+        String etag = mockMvc.perform(get("/api/urls/abc12345"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/api/urls/abc12345").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void getUrlStats_NotFound() throws Exception {
-        when(urlService.getUrlStats("nonexistent"))
-                .thenThrow(new RuntimeException("Short URL not found"));
+        when(urlService.getUrlStats("nonexistent")).thenReturn(LookupResult.notFound());
 
         mockMvc.perform(get("/api/urls/nonexistent"))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getClickBreakdown_Success() throws Exception {
+        ClickBreakdownResponse breakdown = new ClickBreakdownResponse("abc12345", 5L);
+        breakdown.getReferrers().add(new DimensionCount("news.example.com", 3L));
+        breakdown.getReferrers().add(new DimensionCount("(direct)", 2L));
+        breakdown.getDevices().add(new DimensionCount("mobile", 5L));
+        when(urlService.getClickBreakdown("abc12345")).thenReturn(LookupResult.found(breakdown));
+
+        mockMvc.perform(get("/api/urls/abc12345/breakdown"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.clickCount").value(5))
+                .andExpect(jsonPath("$.referrers[0].value").value("news.example.com"))
+                .andExpect(jsonPath("$.referrers[1].clicks").value(2))
+                .andExpect(jsonPath("$.countries").isEmpty())
+                .andExpect(jsonPath("$.devices[0].value").value("mobile"));
+    }
+
+    @Test
+    void getClickBreakdown_NotFound() throws Exception {
+        when(urlService.getClickBreakdown("nonexistent")).thenReturn(LookupResult.notFound());
+
+        mockMvc.perform(get("/api/urls/nonexistent/breakdown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void checkAvailability_TakenCode_Suggestions() throws Exception {
+        when(urlService.checkAvailability("summer-sale", 2))
+            .thenReturn(new AvailabilityResponse("summer-sale", false, List.of("summer-sale2", "summer-sale-2")));
+
+        mockMvc.perform(get("/api/urls/availability").param("code", "summer-sale").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("summer-sale"))
+                .andExpect(jsonPath("$.available").value(false))
+                .andExpect(jsonPath("$.suggestions[0]").value("summer-sale2"))
+                .andExpect(jsonPath("$.suggestions[1]").value("summer-sale-2"));
+    }
+
+    @Test
+    void streamClicks_Success_StartsEventStream() throws Exception {
+        when(urlService.getUrlStats("abc12345")).thenReturn(LookupResult.found(validStatsResponse));
+        when(liveClicks.subscribe("abc12345", 5L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/urls/abc12345/live").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(liveClicks).subscribe("abc12345", 5L);
+    }
+
+    @Test
+    void streamClicks_NotFound() throws Exception {
+        when(urlService.getUrlStats("nonexistent")).thenReturn(LookupResult.notFound());
+
+        mockMvc.perform(get("/api/urls/nonexistent/live").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+
+        verify(liveClicks, never()).subscribe(any(), anyLong());
+    }
+
+    @Test
+    void streamClicks_TooManySubscribers_ServiceUnavailable() throws Exception {
+        when(urlService.getUrlStats("abc12345")).thenReturn(LookupResult.found(validStatsResponse));
+        when(liveClicks.subscribe("abc12345", 5L)).thenReturn(null);
+
+        mockMvc.perform(get("/api/urls/abc12345/live").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+
     @Test
     void deleteUrl_Success() throws Exception {
-        doNothing().when(urlService).deleteUrl("abc12345");
+        when(urlService.deleteUrl("abc12345")).thenReturn(true);
 
         mockMvc.perform(delete("/api/urls/abc12345"))
                 .andExpect(status().isNoContent());
@@ -142,8 +354,7 @@ class UrlControllerTest {
 
     @Test
     void deleteUrl_NotFound() throws Exception {
-        doThrow(new RuntimeException("Short URL not found"))
-                .when(urlService).deleteUrl("nonexistent");
+        when(urlService.deleteUrl("nonexistent")).thenReturn(false);
 
         mockMvc.perform(delete("/api/urls/nonexistent"))
                 .andExpect(status().isNotFound());
@@ -151,22 +362,37 @@ class UrlControllerTest {
 
     @Test
     void redirectToOriginalUrl_Success() throws Exception {
-        when(urlService.getOriginalUrl("abc12345")).thenReturn("https://www.google.com");
+        when(urlService.resolve("abc12345")).thenReturn(LookupResult.found(new RedirectTarget("https://www.google.com", null)));
         doNothing().when(urlService).incrementClickCount("abc12345");
 
         mockMvc.perform(get("/api/urls/redirect/abc12345"))
                 .andExpect(status().is3xxRedirection());
 
-        verify(urlService, times(1)).getOriginalUrl("abc12345");
+        verify(urlService, times(1)).resolve("abc12345");
         verify(urlService, times(1)).incrementClickCount("abc12345");
+        verify(clickEnrichment).record(any(), eq("abc12345"));
+        verify(accessLog).record(any(), eq("abc12345"), eq(302), anyLong());
     }
 
     @Test
     void redirectToOriginalUrl_NotFound() throws Exception {
-        when(urlService.getOriginalUrl("nonexistent"))
-                .thenThrow(new RuntimeException("Short URL not found"));
+        when(urlService.resolve("nonexistent")).thenReturn(LookupResult.notFound());
 
         mockMvc.perform(get("/api/urls/redirect/nonexistent"))
                 .andExpect(status().isNotFound());
+
+        verify(clickEnrichment, never()).record(any(), any());
+        verify(accessLog).record(any(), eq("nonexistent"), eq(404), anyLong());
+    }
+
+    @Test
+    void redirectToOriginalUrl_Expired() throws Exception {
+        when(urlService.resolve("expired1")).thenReturn(LookupResult.expired());
+
+        mockMvc.perform(get("/api/urls/redirect/expired1"))
+                .andExpect(status().isGone());
+
+        verify(urlService, never()).incrementClickCount(any());
+        verify(accessLog).record(any(), eq("expired1"), eq(410), anyLong());
     }
 }
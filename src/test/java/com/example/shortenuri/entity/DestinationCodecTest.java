@@ -0,0 +1,49 @@
+package com.example.shortenuri.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DestinationCodecTest {
+
+    @Test
+    void prefixLength_SplitsSchemeAndAuthority() {
+        assertEquals("https://www.google.com".length(), DestinationCodec.prefixLength("https://www.google.com/search?q=x"));
+        assertEquals("http://user@host:8080".length(), DestinationCodec.prefixLength("http://user@host:8080?a=b"));
+        assertEquals("https://example.com".length(), DestinationCodec.prefixLength("https://example.com"));
+        assertEquals(0, DestinationCodec.prefixLength("www.google.com/search"));
+    }
+
+    @Test
+    void encodeSuffix_UtmQuery_CompressesAndRoundTrips() {
+        String suffix = "/spring-sale/landing?utm_source=newsletter&utm_medium=email&utm_campaign=spring_2024";
+
+        byte[] encoded = DestinationCodec.encodeSuffix(suffix);
+
+        assertEquals(DestinationCodec.DEFLATED, encoded[0]);
+        assertTrue(encoded.length < suffix.length() / 2, "Expected under half the size but got " + encoded.length);
+        assertEquals(suffix, DestinationCodec.decodeSuffix(encoded));
+    }
+
+    @Test
+    void encodeSuffix_TooShortToCompress_StoredRaw() {
+        String suffix = "/Zq7";
+
+        byte[] encoded = DestinationCodec.encodeSuffix(suffix);
+
+        assertEquals(DestinationCodec.RAW, encoded[0]);
+        assertEquals(suffix.length() + 1, encoded.length);
+        assertEquals(suffix, DestinationCodec.decodeSuffix(encoded));
+    }
+
+    @Test
+    void encodeSuffix_EmptyAndNonAscii_RoundTrip() {
+        assertEquals("", DestinationCodec.decodeSuffix(DestinationCodec.encodeSuffix("")));
+
+        String korean = "/검색?q=" + "단축 URL ".repeat(20);
+        assertEquals(korean, DestinationCodec.decodeSuffix(DestinationCodec.encodeSuffix(korean)));
+        assertTrue(DestinationCodec.encodeSuffix(korean).length < korean.getBytes(StandardCharsets.UTF_8).length);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.shortenuri.entity;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Storage saved by the compact destination encoding and the cost of decoding it, which is paid
+ * once per database load on a redirect cache miss. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class DestinationEncodingBenchmarkTest {
+
+    private static final int LINKS = 200_000;
+    private static final int DECODE_WARMUP = 500_000;
+    private static final int DECODE_ITERATIONS = 2_000_000;
+
+    private static final String[] HOSTS = {
+        "https://www.shop.com", "https://blog.example.com", "https://news.partner.co.kr", "https://m.store.io",
+        "https://www.youtube.com", "https://docs.google.com", "http://event.brand.net", "https://landing.ads.com"
+    };
+    private static final String[] SOURCES = { "newsletter", "facebook", "google", "instagram", "kakao" };
+    private static final String[] MEDIUMS = { "email", "social", "cpc" };
+
+    @Test
+    void encode_SyntheticDestinations_ReportsBytesSavedAndDecodeCost() {
+        Random random = new Random(42);
+        Map<String, Integer> prefixIds = new HashMap<>();
+        Map<Integer, String> prefixes = new HashMap<>();
+        String[] urls = new String[LINKS];
+        int[] prefixIdOf = new int[LINKS];
+        byte[][] suffixes = new byte[LINKS][];
+
+        long legacyBytes = 0;
+        long compactBytes = 0;
+        for (int i = 0; i < LINKS; i++) {
+            String url = destination(random);
+            urls[i] = url;
+            int prefixLength = DestinationCodec.prefixLength(url);
+            String prefix = url.substring(0, prefixLength);
+            Integer id = prefixIds.computeIfAbsent(prefix, p -> prefixIds.size() + 1);
+            prefixes.put(id, prefix);
+            prefixIdOf[i] = id;
+            suffixes[i] = DestinationCodec.encodeSuffix(url.substring(prefixLength));
+
+            legacyBytes += url.getBytes(StandardCharsets.UTF_8).length;
+            compactBytes += Integer.BYTES + suffixes[i].length;
+        }
+        for (String prefix : prefixIds.keySet()) {
+            compactBytes += Integer.BYTES + prefix.length();
+        }
+
+        for (int i = 0; i < LINKS; i++) {
+            assertEquals(urls[i], prefixes.get(prefixIdOf[i]) + DestinationCodec.decodeSuffix(suffixes[i]));
+        }
+        decode(prefixes, prefixIdOf, suffixes, DECODE_WARMUP);
+        long start = System.nanoTime();
+        long sink = decode(prefixes, prefixIdOf, suffixes, DECODE_ITERATIONS);
+        double decodeNs = (double) (System.nanoTime() - start) / DECODE_ITERATIONS;
+
+        double savedPerMillion = (double) (legacyBytes - compactBytes) / LINKS * 1_000_000;
+        System.out.printf("Destination encoding: %.1f -> %.1f bytes/link, %.1f MB saved per million links, "
+                + "%.0f ns per decode (sink=%d)%n",
+            (double) legacyBytes / LINKS, (double) compactBytes / LINKS, savedPerMillion / 1_000_000, decodeNs, sink);
+        assertTrue(compactBytes < legacyBytes / 2, "Expected at least 50% savings");
+        assertTrue(decodeNs < 20_000, "Expected decode well under the cost of the query itself but got " + decodeNs + " ns");
+    }
+
+    private static long decode(Map<Integer, String> prefixes, int[] prefixIdOf, byte[][] suffixes, int iterations) {
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            int link = i % suffixes.length;
+            sink += (prefixes.get(prefixIdOf[link]) + DestinationCodec.decodeSuffix(suffixes[link])).length();
+        }
+        return sink;
+    }
+
+    private static String destination(Random random) {
+        StringBuilder url = new StringBuilder(HOSTS[random.nextInt(HOSTS.length)]);
+        url.append("/campaign/").append(2020 + random.nextInt(5)).append("/item-").append(random.nextInt(100_000));
+        if (random.nextInt(10) < 8) {
+            url.append("?utm_source=").append(SOURCES[random.nextInt(SOURCES.length)])
+                .append("&utm_medium=").append(MEDIUMS[random.nextInt(MEDIUMS.length)])
+                .append("&utm_campaign=spring_sale_").append(random.nextInt(50));
+            if (random.nextBoolean()) {
+                url.append("&utm_content=banner_").append(random.nextInt(10));
+            }
+        }
+        return url.toString();
+    }
+}
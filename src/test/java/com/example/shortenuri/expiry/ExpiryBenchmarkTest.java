@@ -0,0 +1,78 @@
+package com.example.shortenuri.expiry;
+
+import com.example.shortenuri.cache.RedirectTarget;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cost of the per-redirect expiry check before (LocalDateTime.now() against a LocalDateTime)
+ * and after (cached clock against epoch millis), and of scheduling and firing deadlines on the
+ * timing wheel. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ExpiryBenchmarkTest {
+
+    private static final int CHECKS = 20_000_000;
+    private static final int TIMERS = 1_000_000;
+
+    @Test
+    void expiryCheck_LocalDateTimeVersusCoarseClock() {
+        LocalDateTime expiresAt = LocalDateTime.now().plusDays(1);
+        RedirectTarget target = new RedirectTarget("https://www.example.com", expiresAt);
+        CoarseClock clock = new CoarseClock(10);
+        try {
+            for (int round = 0; round < 3; round++) {
+                long start = System.nanoTime();
+                int live = 0;
+                for (int i = 0; i < CHECKS; i++) {
+                    if (!LocalDateTime.now().isAfter(expiresAt)) {
+                        live++;
+                    }
+                }
+                double before = (System.nanoTime() - start) / (double) CHECKS;
+
+                start = System.nanoTime();
+                for (int i = 0; i < CHECKS; i++) {
+                    if (!target.isExpiredAt(clock.millis())) {
+                        live++;
+                    }
+                }
+                double after = (System.nanoTime() - start) / (double) CHECKS;
+
+                assertEquals(2 * CHECKS, live);
+                System.out.printf("Expiry check: LocalDateTime.now() %.1f ns, coarse clock %.1f ns%n", before, after);
+            }
+        } finally {
+            clock.close();
+        }
+    }
+
+    @Test
+    void timingWheel_MillionDeadlinesOverAnHour_ScheduleAndFireCost() {
+        Random random = new Random(1);
+        long now = System.currentTimeMillis();
+        TimingWheel<Integer> wheel = new TimingWheel<>(10, now);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TIMERS; i++) {
+            wheel.schedule(i, now + random.nextInt(3_600_000));
+        }
+        double schedule = (System.nanoTime() - start) / (double) TIMERS;
+
+        int[] fired = { 0 };
+        start = System.nanoTime();
+        for (long t = now; t <= now + 3_600_010; t += 10) {
+            wheel.advance(t, item -> fired[0]++);
+        }
+        double advance = (System.nanoTime() - start) / (double) TIMERS;
+
+        assertEquals(TIMERS, fired[0]);
+        System.out.printf("Timing wheel, %,d deadlines: schedule %.0f ns, advance and fire %.0f ns per deadline%n",
+            TIMERS, schedule, advance);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.shortenuri.expiry;
+
+import com.example.shortenuri.cache.RedirectCache;
+import com.example.shortenuri.cache.RedirectTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpirySchedulerTest {
+
+    private final RedirectCache redirectCache = new RedirectCache(1000);
+    private final List<LinkExpiredEvent> events = new CopyOnWriteArrayList<>();
+    private CoarseClock clock;
+    private ExpiryScheduler expiryScheduler;
+
+    @BeforeEach
+    void setUp() {
+        clock = new CoarseClock(1);
+        expiryScheduler = new ExpiryScheduler(redirectCache, clock, event -> events.add((LinkExpiredEvent) event),
+            new SimpleMeterRegistry(), 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        expiryScheduler.close();
+        clock.close();
+    }
+
+    @Test
+    void track_ExpiringLink_RemovedFromCacheAtDeadlineWithEvent() throws InterruptedException {
+        RedirectTarget target = cache("soon", LocalDateTime.now().plusNanos(150_000_000));
+        RedirectTarget forever = cache("forever", null);
+
+        awaitEvents(1);
+        assertTrue(target.isExpiredAt(clock.millis()));
+        assertNull(redirectCache.get("soon"));
+        assertEquals(forever, redirectCache.get("forever"));
+        assertEquals("soon", events.get(0).getShortCode());
+        assertEquals(target.getExpiresAtMillis(), events.get(0).getExpiresAtMillis());
+    }
+
+    @Test
+    void track_LinkGoneBeforeDeadline_NoEvent() throws InterruptedException {
+        cache("deleted", LocalDateTime.now().plusNanos(50_000_000));
+        redirectCache.invalidate("deleted");
+        cache("later", LocalDateTime.now().plusNanos(200_000_000));
+
+        awaitEvents(1);
+        assertEquals(List.of("later"), events.stream().map(LinkExpiredEvent::getShortCode).toList());
+    }
+
+    private RedirectTarget cache(String shortCode, LocalDateTime expiresAt) {
+        RedirectTarget target = new RedirectTarget("https://www.example.com/" + shortCode, expiresAt);
+        assertTrue(redirectCache.putIfCurrent(shortCode, target, redirectCache.generation(shortCode)));
+        expiryScheduler.track(shortCode, target);
+        return target;
+    }
+
+    private void awaitEvents(int count) throws InterruptedException {
+        long giveUp = System.currentTimeMillis() + 5_000;
+        while (events.size() < count && System.currentTimeMillis() < giveUp) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, events.size());
+        // Nothing else fires shortly after
+        Thread.sleep(100);
+        assertEquals(count, events.size());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.shortenuri.expiry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void advance_DeadlinesAcrossLevels_FireOnTheFirstTickPastTheirDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+        Map<String, Long> deadlines = Map.of(
+            "same-tick", START + 3,
+            "level0", START + 300,
+            "level1", START + 30_000,
+            "level2", START + 1_500_000,
+            "level3", START + 100_000_000);
+        deadlines.forEach(wheel::schedule);
+
+        List<Map.Entry<String, Long>> inOrder = new ArrayList<>(deadlines.entrySet());
+        inOrder.sort(Map.Entry.comparingByValue());
+        for (Map.Entry<String, Long> entry : inOrder) {
+            List<String> fired = new ArrayList<>();
+            long deadline = entry.getValue();
+            long firstTickPast = (deadline / TICK + 1) * TICK;
+
+            wheel.advance(firstTickPast - 1, fired::add);
+            assertFalse(fired.contains(entry.getKey()), entry.getKey() + " fired early");
+            wheel.advance(firstTickPast, fired::add);
+            assertTrue(fired.contains(entry.getKey()), entry.getKey() + " did not fire");
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_RandomDeadlinesAndSteps_EachFiresExactlyOnceInTheRightStep() {
+        Random random = new Random(7);
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, START);
+        long[] deadlines = new long[20_000];
+        for (int i = 0; i < deadlines.length; i++) {
+            // Mostly near-term, some up to two days out, a few already past
+            long horizon = random.nextInt(10) == 0 ? 172_800_000L : 60_000L;
+            deadlines[i] = START - 50 + (long) (random.nextDouble() * horizon);
+            wheel.schedule(i, deadlines[i]);
+        }
+
+        Map<Integer, Long> firedAt = new HashMap<>();
+        // Deadlines already past fire on the first step
+        long previous = Long.MIN_VALUE;
+        long now = START;
+        while (firedAt.size() < deadlines.length) {
+            now += 1 + random.nextInt(random.nextBoolean() ? 25 : 600_000);
+            long step = now;
+            long before = previous;
+            wheel.advance(step, item -> {
+                assertNull(firedAt.put(item, step), "Fired twice: " + item);
+                long due = deadlines[item] / TICK + 1;
+                assertTrue(step / TICK >= due, "Fired before its deadline: " + item);
+                assertTrue(before / TICK < due, "Fired late: " + item);
+            });
+            previous = now;
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_AfterIdleStretch_StillFiresOnTime() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+        wheel.advance(START + 86_400_000, item -> fail("Nothing was scheduled"));
+
+        List<String> fired = new ArrayList<>();
+        wheel.schedule("late", START + 86_400_000 + 1_000);
+        wheel.advance(START + 86_400_000 + 999, fired::add);
+        assertTrue(fired.isEmpty());
+        wheel.advance(START + 86_400_000 + 1_010, fired::add);
+        assertEquals(List.of("late"), fired);
+    }
+}
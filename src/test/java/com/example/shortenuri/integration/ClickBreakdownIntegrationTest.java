@@ -0,0 +1,145 @@
+package com.example.shortenuri.integration;
+
+import com.example.shortenuri.clicks.ClickEnrichment;
+import com.example.shortenuri.dto.CreateUrlRequest;
+import com.example.shortenuri.dto.CreateUrlResponse;
+import com.example.shortenuri.repository.ClickRollupRepository;
+import com.example.shortenuri.repository.UrlRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Redirects with different headers and addresses, broken down with {@code top-n=2} so that
+ * values are folded into "(other)" across two flushes.
+ */
+@SpringBootTest(properties = {
+    "app.clicks.top-n=2",
+    // Written only when the test flushes
+    "app.clicks.flush-interval-ms=3600000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+class ClickBreakdownIntegrationTest {
+
+    private static final String IPHONE = "Mozilla/5.0 (iPhone; CPU iPhone OS 17_0 like Mac OS X) Mobile/15E148 Safari/604.1";
+    private static final String WINDOWS = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) Chrome/129.0 Safari/537.36";
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private ClickRollupRepository clickRollupRepository;
+
+    @Autowired
+    private ClickEnrichment clickEnrichment;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void countryDatabase(DynamicPropertyRegistry registry) throws IOException {
+        Path csv = Files.createTempFile("countries", ".csv");
+        csv.toFile().deleteOnExit();
+        Files.writeString(csv, "203.0.113.0,203.0.113.255,KR\n1.0.0.0,1.0.0.255,AU\n");
+        registry.add("app.clicks.geoip-path", csv::toString);
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        urlRepository.deleteAll();
+        clickRollupRepository.deleteAll();
+    }
+
+    @Test
+    void breakdown_RedirectsFromSeveralSources_TopValuesAndOther() throws Exception {
+        String shortCode = create("https://www.shop.com/breakdown");
+
+        for (int i = 0; i < 3; i++) {
+            redirect(shortCode, "https://news.example.com/a", IPHONE, "203.0.113.7");
+        }
+        redirect(shortCode, "https://t.co/x", WINDOWS, "1.0.0.1");
+        clickEnrichment.flush();
+
+        redirect(shortCode, null, null, "127.0.0.1");
+        redirect(shortCode, "https://other.example/", "curl/8.4.0", "1.0.0.2");
+        clickEnrichment.flush();
+
+        // Ties are ranked by value, so "(direct)" and "(unknown)" outrank later letters
+        mockMvc.perform(get("/api/urls/" + shortCode + "/breakdown"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.clickCount").value(6))
+                .andExpect(jsonPath("$.referrers.length()").value(3))
+                .andExpect(jsonPath("$.referrers[0].value").value("news.example.com"))
+                .andExpect(jsonPath("$.referrers[0].clicks").value(3))
+                .andExpect(jsonPath("$.referrers[1].value").value("(direct)"))
+                .andExpect(jsonPath("$.referrers[2].value").value("(other)"))
+                .andExpect(jsonPath("$.referrers[2].clicks").value(2))
+                .andExpect(jsonPath("$.countries[0].value").value("KR"))
+                .andExpect(jsonPath("$.countries[1].value").value("AU"))
+                .andExpect(jsonPath("$.countries[1].clicks").value(2))
+                .andExpect(jsonPath("$.countries[2].value").value("(other)"))
+                .andExpect(jsonPath("$.countries[2].clicks").value(1))
+                .andExpect(jsonPath("$.devices[0].value").value("mobile"))
+                .andExpect(jsonPath("$.devices[1].value").value("(unknown)"))
+                .andExpect(jsonPath("$.devices[2].value").value("(other)"))
+                .andExpect(jsonPath("$.devices[2].clicks").value(2));
+        assertEquals(9, clickRollupRepository.findByShortCode(shortCode).size());
+
+        mockMvc.perform(delete("/api/urls/" + shortCode))
+                .andExpect(status().isNoContent());
+        assertTrue(clickRollupRepository.findByShortCode(shortCode).isEmpty());
+        mockMvc.perform(get("/api/urls/" + shortCode + "/breakdown"))
+                .andExpect(status().isNotFound());
+    }
+
+    private String create(String originalUrl) throws Exception {
+        String body = mockMvc.perform(post("/api/urls")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateUrlRequest(originalUrl))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(body, CreateUrlResponse.class).getShortCode();
+    }
+
+    private void redirect(String shortCode, String referer, String userAgent, String remoteAddr) throws Exception {
+        mockMvc.perform(get("/" + shortCode)
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddr);
+                    if (referer != null) {
+                        request.addHeader("Referer", referer);
+                    }
+                    if (userAgent != null) {
+                        request.addHeader("User-Agent", userAgent);
+                    }
+                    return request;
+                }))
+                .andExpect(status().isFound());
+    }
+}
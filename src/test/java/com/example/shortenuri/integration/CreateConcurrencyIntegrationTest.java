@@ -0,0 +1,120 @@
+package com.example.shortenuri.integration;
+
+import com.example.shortenuri.dto.CreateUrlRequest;
+import com.example.shortenuri.dto.CreateUrlResponse;
+import com.example.shortenuri.repository.UrlRepository;
+import com.example.shortenuri.service.CreateResult;
+import com.example.shortenuri.service.UrlService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+class CreateConcurrencyIntegrationTest {
+
+    private static final int CREATES = 4000;
+    private static final int DESTINATIONS = 40;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @BeforeEach
+    void setUp() {
+        urlRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        urlRepository.deleteAll();
+    }
+
+    @Test
+    void createShortUrl_ParallelCreatesForSameDestinations_NoDuplicates() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Map<String, Set<String>> codesByDestination = new ConcurrentHashMap<>();
+
+        // When
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < CREATES; i++) {
+            String destination = "https://www.concurrent.com/page" + (i % DESTINATIONS);
+            results.add(executor.submit(() -> {
+                start.await();
+                CreateUrlResponse response = urlService.createShortUrl(new CreateUrlRequest(destination)).getResponse();
+                codesByDestination.computeIfAbsent(destination, d -> ConcurrentHashMap.newKeySet())
+                    .add(response.getShortCode());
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(DESTINATIONS, urlRepository.count());
+        assertEquals(DESTINATIONS, codesByDestination.size());
+        codesByDestination.forEach((destination, codes) ->
+            assertEquals(1, codes.size(), "Multiple codes issued for " + destination));
+    }
+
+    @Test
+    void createShortUrl_ParallelCreatesForSameCustomCode_OneWinsOthersRejected() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        int contenders = 200;
+
+        // When
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < contenders; i++) {
+            String destination = "https://www.contender.com/" + i;
+            results.add(executor.submit(() -> {
+                start.await();
+                CreateResult result = urlService.createShortUrl(new CreateUrlRequest(destination, "contested"));
+                if (result.isConflict()) {
+                    assertEquals("contested", result.getConflictingShortCode());
+                    return false;
+                }
+                return true;
+            }));
+        }
+        start.countDown();
+        int winners = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(60, TimeUnit.SECONDS)) {
+                winners++;
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(1, winners);
+        assertEquals(1, urlRepository.count());
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.shortenuri.integration;
+
+import com.example.shortenuri.dto.CreateUrlRequest;
+import com.example.shortenuri.dto.CreateUrlResponse;
+import com.example.shortenuri.jfr.HotPathRecorder;
+import com.example.shortenuri.repository.UrlRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,metrics,hotpath")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+class HotPathRecordingIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private HotPathRecorder recorder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        urlRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recorder.stop();
+    }
+
+    @Test
+    void recording_CreateAndRedirects_SummarizedPerOperationAndResult() throws Exception {
+        mockMvc.perform(post("/actuator/hotpath")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"durationSeconds\":30}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andExpect(jsonPath("$.durationSeconds").value(30));
+
+        String shortCode = create("https://www.shop.com/hot-path");
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/" + shortCode)).andExpect(status().isFound());
+        }
+        mockMvc.perform(get("/missing1")).andExpect(status().isNotFound());
+
+        mockMvc.perform(delete("/actuator/hotpath"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries[?(@.operation == 'UrlService.createShortUrl')].result")
+                    .value(hasItem("CREATED")))
+                .andExpect(jsonPath("$.entries[?(@.operation == 'UrlService.resolve')].result")
+                    .value(hasItem("CACHED")))
+                .andExpect(jsonPath("$.entries[?(@.operation == 'UrlService.resolve' && @.result == 'NOT_FOUND')].count")
+                    .value(hasItem(1)))
+                .andExpect(jsonPath("$.entries[?(@.operation == 'UrlService.incrementClickCount')].count")
+                    .value(hasItem(3)))
+                .andExpect(jsonPath("$.entries[?(@.operation == 'UrlRepository.findByShortCode')].result")
+                    .value(hasItem("EMPTY")))
+                .andExpect(jsonPath("$.entries[?(@.operation == 'UrlRepository.save')].result")
+                    .value(hasItem("OK")));
+
+        mockMvc.perform(get("/actuator/hotpath"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("IDLE"));
+    }
+
+    @Test
+    void recording_StartedTwiceOrStoppedWhenIdle_Refused() throws Exception {
+        mockMvc.perform(delete("/actuator/hotpath"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/actuator/hotpath").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.durationSeconds").value(60));
+        mockMvc.perform(post("/actuator/hotpath").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+    }
+
+    private String create(String originalUrl) throws Exception {
+        String body = mockMvc.perform(post("/api/urls")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateUrlRequest(originalUrl))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(body, CreateUrlResponse.class).getShortCode();
+    }
+}
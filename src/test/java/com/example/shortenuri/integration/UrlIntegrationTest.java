@@ -2,23 +2,37 @@ package com.example.shortenuri.integration;
 
 import com.example.shortenuri.dto.CreateUrlRequest;
 import com.example.shortenuri.dto.CreateUrlResponse;
+import com.example.shortenuri.dto.UrlPageResponse;
 import com.example.shortenuri.dto.UrlStatsResponse;
 import com.example.shortenuri.entity.Url;
 import com.example.shortenuri.repository.UrlRepository;
+import com.example.shortenuri.service.DestinationEncodingMigration;
+import com.example.shortenuri.service.DestinationHostBackfill;
+import com.example.shortenuri.service.OriginalUrlHashBackfill;
+import com.example.shortenuri.snapshot.SnapshotService;
+import com.example.shortenuri.store.LinkStore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -27,7 +41,6 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
 @ActiveProfiles("test")
-@Transactional
 class UrlIntegrationTest {
 
     @Autowired
@@ -39,6 +52,24 @@ class UrlIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private DestinationHostBackfill destinationHostBackfill;
+
+    @Autowired
+    private DestinationEncodingMigration destinationEncodingMigration;
+
+    @Autowired
+    private OriginalUrlHashBackfill originalUrlHashBackfill;
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LinkStore linkStore;
+
     private MockMvc mockMvc;
 
     @BeforeEach
@@ -96,7 +127,7 @@ class UrlIntegrationTest {
     }
 
     @Test
-    void createShortUrl_DuplicateCustomCode_Integration_BadRequest() throws Exception {
+    void createShortUrl_DuplicateCustomCode_Integration_Conflict() throws Exception {
         // Given - Create first URL
         CreateUrlRequest request1 = new CreateUrlRequest();
         request1.setOriginalUrl("https://www.google.com");
@@ -116,6 +147,37 @@ class UrlIntegrationTest {
         mockMvc.perform(post("/api/urls")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request2)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Short code already exists: duplicate123"));
+    }
+
+    @Test
+    void checkAvailability_FollowsCreateAndDelete_Integration() throws Exception {
+        mockMvc.perform(get("/api/urls/availability").param("code", "spring-sale"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(true))
+                .andExpect(jsonPath("$.suggestions").isEmpty());
+
+        mockMvc.perform(post("/api/urls")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateUrlRequest("https://www.shop.com/spring", "spring-sale"))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/urls")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateUrlRequest("https://www.shop.com/spring2", "spring-sale2"))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/urls/availability").param("code", "spring-sale").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(false))
+                .andExpect(jsonPath("$.suggestions[0]").value("spring-sale-2"))
+                .andExpect(jsonPath("$.suggestions[1]").value("spring-sale3"));
+
+        mockMvc.perform(delete("/api/urls/spring-sale"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/urls/availability").param("code", "spring-sale"))
+                .andExpect(jsonPath("$.available").value(true));
+        mockMvc.perform(get("/api/urls/availability").param("code", " "))
                 .andExpect(status().isBadRequest());
     }
 
@@ -306,6 +368,38 @@ class UrlIntegrationTest {
         assertEquals(response1.getShortUrl(), response2.getShortUrl());
     }
 
+    @Test
+    void createShortUrl_EquivalentSpellings_Integration_ShareOneLink() throws Exception {
+        // Given - a URL with a port, a query string and a long top-level domain
+        String first = createShortCode("https://Shop.Example.photography:8443/a/./b?q=1&size=42");
+
+        // When & Then - the same URL spelled differently gets the same link
+        assertEquals(first, createShortCode("https://shop.example.photography.:8443/a/x/../b?q=%31&size=42"));
+        assertEquals("https://shop.example.photography:8443/a/b?q=1&size=42",
+                urlRepository.findByShortCode(first).orElseThrow().getOriginalUrl());
+        mockMvc.perform(get("/" + first))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(header().string("Location", "https://shop.example.photography:8443/a/b?q=1&size=42"));
+
+        // Credentials before the host are refused
+        CreateUrlRequest request = new CreateUrlRequest("https://shop.example.com@evil.example.com/");
+        mockMvc.perform(post("/api/urls")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String createShortCode(String originalUrl) throws Exception {
+        String json = mockMvc.perform(post("/api/urls")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateUrlRequest(originalUrl))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(json, CreateUrlResponse.class).getShortCode();
+    }
+
     @Test
     void redirectFromRootPath_Integration_Success() throws Exception {
         // Given - Create URL first
@@ -339,4 +433,229 @@ class UrlIntegrationTest {
         mockMvc.perform(get("/nonexistent"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void listUrls_PagesThroughFilteredLinks_Integration() throws Exception {
+        // Given - 7 links, of which 2 have expired and 1 is below the click threshold
+        for (int i = 0; i < 7; i++) {
+            Url url = new Url("list" + i, "https://www.list.com/" + i);
+            url.setClickCount(i == 6 ? 0L : 5L);
+            if (i < 2) {
+                url.setExpiresAt(LocalDateTime.now().minusDays(1));
+            }
+            urlRepository.save(url);
+        }
+
+        // When - page through active links with at least one click, 2 per page
+        List<String> codes = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/urls")
+                    .param("limit", "2")
+                    .param("status", "active")
+                    .param("minClicks", "1");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String json = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            UrlPageResponse page = objectMapper.readValue(json, UrlPageResponse.class);
+            page.getItems().forEach(item -> codes.add(item.getShortCode()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Then
+        assertEquals(List.of("list2", "list3", "list4", "list5"), codes);
+        assertEquals(2, pages);
+    }
+
+    @Test
+    void listUrls_InvalidCursor_Integration_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/urls").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void domainQueries_FilterAndAggregateByHost_Integration() throws Exception {
+        // Given
+        Url partnerA = new Url("partner1", "https://WWW.Partner.com/a");
+        partnerA.setClickCount(3L);
+        Url partnerB = new Url("partner2", "http://partner.com:8080/b?x=1");
+        partnerB.setClickCount(4L);
+        urlRepository.save(partnerA);
+        urlRepository.save(partnerB);
+        urlRepository.save(new Url("other123", "https://other.org/"));
+
+        // When & Then
+        mockMvc.perform(get("/api/urls").param("domain", "Partner.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].shortCode").value("partner1"));
+
+        mockMvc.perform(get("/api/domains/www.partner.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.domain").value("partner.com"))
+                .andExpect(jsonPath("$.linkCount").value(2))
+                .andExpect(jsonPath("$.totalClicks").value(7));
+
+        mockMvc.perform(get("/api/domains"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].domain").value("partner.com"))
+                .andExpect(jsonPath("$[1].domain").value("other.org"));
+
+        mockMvc.perform(get("/api/domains/unknown.net"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void destinationHostBackfill_FillsMissingHosts_Integration() {
+        // Given - rows written before the column existed
+        for (int i = 0; i < 3; i++) {
+            Url url = new Url("legacy" + i, "https://legacy.com/" + i);
+            url.setDestinationHost(null);
+            urlRepository.save(url);
+        }
+
+        // When
+        long updated = destinationHostBackfill.migrate();
+
+        // Then
+        assertEquals(3, updated);
+        assertEquals("legacy.com", urlRepository.findByShortCode("legacy1").orElseThrow().getDestinationHost());
+        assertEquals(0, destinationHostBackfill.migrate());
+    }
+
+    @Test
+    void originalUrlHashBackfill_FillsMissingHashes_Integration() throws Exception {
+        // Given - rows written before the column existed, two of them for one destination
+        urlRepository.save(new Url("hashold1", "https://legacy.com/a"));
+        urlRepository.save(new Url("hashold2", "https://legacy.com/b"));
+        jdbcTemplate.update("UPDATE urls SET original_url_hash = NULL");
+        urlRepository.save(new Url("hashold3", "https://legacy.com/a"));
+        jdbcTemplate.update("UPDATE urls SET original_url_hash = NULL");
+
+        // When
+        long updated = originalUrlHashBackfill.migrate();
+
+        // Then - the first of the duplicates keeps the hash and creates find it
+        assertEquals(2, updated);
+        assertNull(urlRepository.findByShortCode("hashold3").orElseThrow().getOriginalUrlHash());
+        assertEquals(0, originalUrlHashBackfill.migrate());
+
+        CreateUrlRequest request = new CreateUrlRequest();
+        request.setOriginalUrl("https://legacy.com/a");
+        mockMvc.perform(post("/api/urls")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.shortCode").value("hashold1"));
+    }
+
+    @Test
+    void destinationEncoding_StoresPrefixIdAndCompressedSuffix_Integration() {
+        // Given
+        String originalUrl = "https://www.shop.com/spring-sale/landing?utm_source=newsletter&utm_medium=email&utm_campaign=spring";
+        linkStore.insert(new Url("encoded1", originalUrl));
+
+        // When
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT original_url, destination_prefix_id, destination_suffix FROM urls WHERE short_code = 'encoded1'");
+
+        // Then
+        assertNull(row.get("ORIGINAL_URL"));
+        assertNotNull(row.get("DESTINATION_PREFIX_ID"));
+        assertTrue(((byte[]) row.get("DESTINATION_SUFFIX")).length < originalUrl.length() - "https://www.shop.com".length());
+        assertEquals(originalUrl, urlRepository.findByShortCode("encoded1").orElseThrow().getOriginalUrl());
+    }
+
+    @Test
+    void destinationEncoding_PrefixNotResolved_KeptInline_Integration() {
+        // Given - saved without going through the link store, so the prefix was never resolved
+        String originalUrl = "https://unresolved.example.org/path?q=1";
+        urlRepository.save(new Url("inline01", originalUrl));
+
+        // When
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT destination_prefix_id, destination_suffix FROM urls WHERE short_code = 'inline01'");
+
+        // Then
+        assertNull(row.get("DESTINATION_PREFIX_ID"));
+        assertNotNull(row.get("DESTINATION_SUFFIX"));
+        assertEquals(originalUrl, urlRepository.findByShortCode("inline01").orElseThrow().getOriginalUrl());
+    }
+
+    @Test
+    void destinationEncodingMigration_EncodesLegacyRows_Integration() {
+        // Given - a row written before the compact encoding
+        jdbcTemplate.update("INSERT INTO urls (short_code, original_url, original_url_hash, destination_host, "
+                + "created_at, click_count) VALUES ('legacy99', 'https://legacy.com/a?b=c', ?, 'legacy.com', ?, 0)",
+                Url.hashOf("https://legacy.com/a?b=c"), LocalDateTime.now());
+        assertEquals("https://legacy.com/a?b=c", urlRepository.findByShortCode("legacy99").orElseThrow().getOriginalUrl());
+
+        // When
+        long migrated = destinationEncodingMigration.migrate();
+
+        // Then
+        assertEquals(1, migrated);
+        assertNull(jdbcTemplate.queryForObject("SELECT original_url FROM urls WHERE short_code = 'legacy99'", String.class));
+        assertEquals("https://legacy.com/a?b=c", urlRepository.findByShortCode("legacy99").orElseThrow().getOriginalUrl());
+        assertEquals(0, destinationEncodingMigration.migrate());
+    }
+
+    @Test
+    void snapshot_DumpAndRestore_RoundTripsLinks_Integration(@TempDir Path dir) throws Exception {
+        // Given - an encoded link with every optional field, a plain one and a legacy row
+        Url full = new Url("snap1", "https://www.shop.com/sale?utm_source=newsletter&utm_medium=email");
+        full.setClickCount(42L);
+        full.setExpiresAt(LocalDateTime.now().plusDays(7));
+        full.setRedirectStatus(301);
+        urlRepository.save(full);
+        urlRepository.save(new Url("snap2", "https://blog.example.com/post/1"));
+        jdbcTemplate.update("INSERT INTO urls (short_code, original_url, original_url_hash, destination_host, "
+                + "created_at, click_count) VALUES ('snap3', 'https://legacy.com/a?b=c', ?, 'legacy.com', ?, 0)",
+                Url.hashOf("https://legacy.com/a?b=c"), LocalDateTime.now());
+        Url before = urlRepository.findByShortCode("snap1").orElseThrow();
+        Path snapshot = dir.resolve("links.snapshot");
+
+        // When
+        long dumped = snapshotService.dump(snapshot);
+        urlRepository.deleteAll();
+        long restored = snapshotService.restore(snapshot);
+
+        // Then
+        assertEquals(3, dumped);
+        assertEquals(3, restored);
+        Url after = urlRepository.findByShortCode("snap1").orElseThrow();
+        assertEquals(before.getOriginalUrl(), after.getOriginalUrl());
+        assertEquals(before.getOriginalUrlHash(), after.getOriginalUrlHash());
+        assertEquals("shop.com", after.getDestinationHost());
+        assertEquals(42L, after.getClickCount());
+        assertEquals(before.getCreatedAt(), after.getCreatedAt());
+        assertEquals(before.getExpiresAt(), after.getExpiresAt());
+        assertEquals(301, after.getRedirectStatus());
+        assertEquals("https://blog.example.com/post/1", urlRepository.findByShortCode("snap2").orElseThrow().getOriginalUrl());
+        assertEquals("https://legacy.com/a?b=c", urlRepository.findByShortCode("snap3").orElseThrow().getOriginalUrl());
+        assertEquals(0, snapshotService.restore(snapshot), "Restore must not touch a populated table");
+    }
+
+    @Test
+    void snapshot_CorruptFile_RestoresNothing_Integration(@TempDir Path dir) throws Exception {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            urlRepository.save(new Url("corrupt" + i, "https://example.com/" + i));
+        }
+        Path snapshot = dir.resolve("links.snapshot");
+        snapshotService.dump(snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length - 1] ^= 0x5A;
+        Files.write(snapshot, bytes);
+        urlRepository.deleteAll();
+
+        // When & Then
+        assertThrows(IOException.class, () -> snapshotService.restore(snapshot));
+        assertEquals(0, urlRepository.count());
+    }
 }
@@ -0,0 +1,104 @@
+package com.example.shortenuri.integration;
+
+import com.example.shortenuri.cache.RedirectTarget;
+import com.example.shortenuri.dto.CreateUrlRequest;
+import com.example.shortenuri.dto.CreateUrlResponse;
+import com.example.shortenuri.dto.UrlStatsResponse;
+import com.example.shortenuri.repository.UrlRepository;
+import com.example.shortenuri.service.LookupResult;
+import com.example.shortenuri.service.UrlService;
+import com.example.shortenuri.store.LinkStore;
+import com.example.shortenuri.store.WalLinkStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.store.mode=wal")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+class WalStoreIntegrationTest {
+
+    @TempDir
+    static Path walDirectory;
+
+    @DynamicPropertySource
+    static void walProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.store.wal.directory", walDirectory::toString);
+    }
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private LinkStore linkStore;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Test
+    void linkLifecycle_WalMode_ServedFromMemoryNotDatabase() {
+        assertInstanceOf(WalLinkStore.class, linkStore);
+
+        CreateUrlResponse created = urlService.createShortUrl(new CreateUrlRequest("https://www.wal-mode.com/page")).getResponse();
+        LookupResult<RedirectTarget> resolved = urlService.resolve(created.getShortCode());
+        urlService.incrementClickCount(created.getShortCode());
+        LookupResult<UrlStatsResponse> stats = urlService.getUrlStats(created.getShortCode());
+
+        assertTrue(resolved.isFound());
+        assertEquals("https://www.wal-mode.com/page", resolved.getValue().getOriginalUrl());
+        assertEquals(1L, stats.getValue().getClickCount());
+        assertEquals(1L, urlService.getDomainStats("wal-mode.com").getValue().getLinkCount());
+        assertEquals(0, urlRepository.count());
+
+        assertTrue(urlService.deleteUrl(created.getShortCode()));
+        assertFalse(urlService.getUrlStats(created.getShortCode()).isFound());
+    }
+
+    @Test
+    void createShortUrl_ParallelCreatesForSameDestinations_NoDuplicates() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        Map<String, Set<String>> codesByDestination = new ConcurrentHashMap<>();
+
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String destination = "https://www.wal-concurrent.com/page" + (i % 20);
+            results.add(executor.submit(() -> {
+                start.await();
+                CreateUrlResponse response = urlService.createShortUrl(new CreateUrlRequest(destination)).getResponse();
+                codesByDestination.computeIfAbsent(destination, d -> ConcurrentHashMap.newKeySet())
+                    .add(response.getShortCode());
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(20, codesByDestination.size());
+        codesByDestination.forEach((destination, codes) ->
+            assertEquals(1, codes.size(), "Multiple codes issued for " + destination));
+        assertEquals(20L, urlService.getDomainStats("wal-concurrent.com").getValue().getLinkCount());
+    }
+}
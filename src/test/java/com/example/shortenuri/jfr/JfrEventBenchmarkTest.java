@@ -0,0 +1,63 @@
+package com.example.shortenuri.jfr;
+
+import com.example.shortenuri.dto.HotPathEntry;
+import com.example.shortenuri.dto.HotPathReport;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cost of a {@link LinkLookupEvent} on the redirect path with no recording, where it should
+ * compile down to a flag check, and while {@link HotPathRecorder} is recording.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class JfrEventBenchmarkTest {
+
+    private static final int LOOKUPS = 10_000_000;
+    private static final int RECORDED_LOOKUPS = 1_000_000;
+
+    @Test
+    void lookupEvent_NegligibleWithoutRecording() {
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                lookup("abc12345");
+            }
+            System.out.printf("Lookup event without recording: %.1f ns%n",
+                (System.nanoTime() - start) / (double) LOOKUPS);
+        }
+
+        HotPathRecorder recorder = new HotPathRecorder(300, 256);
+        assertTrue(recorder.start(Duration.ofMinutes(5)));
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < RECORDED_LOOKUPS; i++) {
+                lookup("abc12345");
+            }
+            System.out.printf("Lookup event while recording: %.1f ns%n",
+                (System.nanoTime() - start) / (double) RECORDED_LOOKUPS);
+        }
+
+        long start = System.nanoTime();
+        HotPathReport report = recorder.stop();
+        System.out.printf("Summarizing %,d events: %d ms%n", 3 * RECORDED_LOOKUPS, (System.nanoTime() - start) / 1_000_000);
+        HotPathEntry entry = report.getEntries().get(0);
+        assertEquals("UrlService.resolve", entry.getOperation());
+        assertEquals(3L * RECORDED_LOOKUPS, entry.getCount());
+    }
+
+    private static void lookup(String shortCode) {
+        LinkLookupEvent event = new LinkLookupEvent();
+        event.begin();
+        event.end();
+        if (event.shouldCommit()) {
+            event.shortCode = shortCode;
+            event.result = LinkLookupEvent.CACHED;
+            event.commit();
+        }
+    }
+}
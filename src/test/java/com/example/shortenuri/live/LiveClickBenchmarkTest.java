@@ -0,0 +1,69 @@
+package com.example.shortenuri.live;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Redirect-path cost of {@link LiveClickPublisher#click} with no subscribers and with many
+ * subscribers on one link, and the publisher's fan-out time per interval.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class LiveClickBenchmarkTest {
+
+    private static final int CLICKS = 20_000_000;
+
+    @Test
+    void click_CostIndependentOfSubscriberCount() {
+        for (int subscribers : new int[] { 0, 100, 10_000 }) {
+            LiveClickPublisher publisher = new LiveClickPublisher(JsonMapper.builder().findAndAddModules().build(),
+                new SimpleMeterRegistry(), 3_600_000, 20_000, 16, 4, 60_000, 3_600_000, 60_000);
+            LongAdder sent = new LongAdder();
+            try {
+                for (int i = 0; i < subscribers; i++) {
+                    publisher.subscribe("abc12345", 0, new CountingEmitter(sent));
+                }
+                for (int round = 0; round < 3; round++) {
+                    long start = System.nanoTime();
+                    for (int i = 0; i < CLICKS; i++) {
+                        publisher.click("abc12345");
+                    }
+                    double click = (System.nanoTime() - start) / (double) CLICKS;
+
+                    start = System.nanoTime();
+                    publisher.publish();
+                    double fanOut = (System.nanoTime() - start) / 1e6;
+                    System.out.printf("Live clicks, %,6d subscribers: click %.1f ns, fan-out %.2f ms per interval%n",
+                        subscribers, click, fanOut);
+                }
+            } finally {
+                publisher.close();
+            }
+            // The initial event plus one per round
+            assertEquals(subscribers * 4L, sent.sum());
+        }
+    }
+
+    private static class CountingEmitter extends SseEmitter {
+
+        private final LongAdder sent;
+
+        CountingEmitter(LongAdder sent) {
+            this.sent = sent;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            sent.increment();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.shortenuri.live;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveClickPublisherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LiveClickPublisher publisher;
+
+    @AfterEach
+    void tearDown() {
+        publisher.close();
+    }
+
+    @Test
+    void publish_ClicksSinceLastInterval_OneEventWithDeltaAndTotal() throws Exception {
+        publisher = open(10, 16);
+        RecordingEmitter emitter = new RecordingEmitter();
+        assertSame(emitter, publisher.subscribe("abc12345", 100, emitter));
+
+        String initial = emitter.next();
+        assertTrue(initial.startsWith("event:clicks\ndata:"), initial);
+        assertTrue(initial.contains("\"clickCount\":100,\"delta\":0"), initial);
+
+        for (int i = 0; i < 5; i++) {
+            publisher.click("abc12345");
+        }
+        publisher.click("unwatched");
+        publisher.publish();
+        assertTrue(emitter.next().contains("\"shortCode\":\"abc12345\",\"clickCount\":105,\"delta\":5"));
+
+        // Nothing clicked and no heartbeat due
+        publisher.publish();
+        assertNull(emitter.events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void publish_SlowSubscriber_DisconnectedWithoutHoldingBackOthers() throws Exception {
+        publisher = open(10, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter();
+        publisher.subscribe("abc12345", 0, slow);
+        publisher.subscribe("abc12345", 0, fast);
+        assertNotNull(fast.next());
+
+        for (int i = 1; i <= 5; i++) {
+            publisher.click("abc12345");
+            publisher.publish();
+            assertTrue(fast.next().contains("\"clickCount\":" + i + ","));
+        }
+
+        assertEquals(1, publisher.subscriberCount());
+        assertEquals(1.0, meterRegistry.get("app.live.slow-consumers").counter().count());
+        release.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void publish_StalledWrite_DisconnectedAndSenderReplaced() throws Exception {
+        publisher = open(10, 16, 1, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(release);
+        publisher.subscribe("abc12345", 0, stalled);
+
+        // The only sender thread is stuck in the initial write
+        Thread.sleep(200);
+        publisher.publish();
+
+        assertEquals(0, publisher.subscriberCount());
+        assertEquals(1.0, meterRegistry.get("app.live.slow-consumers").counter().count());
+        RecordingEmitter other = new RecordingEmitter();
+        publisher.subscribe("def67890", 0, other);
+        assertNotNull(other.next());
+
+        release.countDown();
+        assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void subscribe_AtSubscriberLimit_Refused() {
+        publisher = open(1, 16);
+
+        assertNotNull(publisher.subscribe("abc12345", 0, new RecordingEmitter()));
+        assertNull(publisher.subscribe("def67890", 0, new RecordingEmitter()));
+        assertEquals(1, publisher.subscriberCount());
+    }
+
+    private LiveClickPublisher open(int maxSubscribers, int bufferSize) {
+        return open(maxSubscribers, bufferSize, 2, 60_000);
+    }
+
+    private LiveClickPublisher open(int maxSubscribers, int bufferSize, int senderThreads, long writeTimeoutMs) {
+        // Intervals are driven by the test
+        return new LiveClickPublisher(JsonMapper.builder().findAndAddModules().build(), meterRegistry,
+            3_600_000, maxSubscribers, bufferSize, senderThreads, 60_000, 3_600_000, writeTimeoutMs);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        // Every send blocks until released, like a client that stopped reading
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StringBuilder event = new StringBuilder();
+            for (DataWithMediaType item : items) {
+                event.append(item.getData());
+            }
+            events.add(event.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        String next() throws InterruptedException {
+            String event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "No event within 5 seconds");
+            return event;
+        }
+    }
+}
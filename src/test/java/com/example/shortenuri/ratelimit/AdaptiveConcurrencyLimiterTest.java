@@ -0,0 +1,115 @@
+package com.example.shortenuri.ratelimit;
+
+import com.example.shortenuri.ratelimit.AdaptiveConcurrencyLimiter.Priority;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_AtLimit_Rejects() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 100, 0.5, 10);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(Priority.REDIRECT));
+        }
+
+        assertFalse(limiter.tryAcquire(Priority.REDIRECT));
+        assertEquals(1, limiter.getRejections(Priority.REDIRECT));
+        limiter.release(MS);
+        assertTrue(limiter.tryAcquire(Priority.REDIRECT));
+    }
+
+    @Test
+    void tryAcquire_ManagementShedBeforeRedirects() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 100, 0.5, 10);
+
+        assertTrue(limiter.tryAcquire(Priority.MANAGEMENT));
+        assertTrue(limiter.tryAcquire(Priority.MANAGEMENT));
+
+        assertFalse(limiter.tryAcquire(Priority.MANAGEMENT));
+        assertTrue(limiter.tryAcquire(Priority.REDIRECT));
+        assertEquals(1, limiter.getRejections(Priority.MANAGEMENT));
+    }
+
+    @Test
+    void release_LatencyRises_LimitShrinks() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 10, 400, 0.5, 10);
+        feed(limiter, 50, MS);
+        int steadyLimit = limiter.getLimit();
+
+        feed(limiter, 200, 10 * MS);
+
+        assertTrue(limiter.getLimit() < steadyLimit,
+            "Expected limit below " + steadyLimit + " but was " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 10);
+    }
+
+    @Test
+    void release_LatencyStable_LimitGrowsToMax() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 10, 60, 0.5, 10);
+
+        feed(limiter, 2000, MS);
+
+        assertEquals(60, limiter.getLimit());
+    }
+
+    @Test
+    void filter_LimitReached_Returns503AndKeepsPermitsBalanced() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1.0, 10);
+        LoadSheddingFilter filter = new LoadSheddingFilter(limiter);
+        assertTrue(limiter.tryAcquire(Priority.REDIRECT));
+
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/abc12345"), shed, new MockFilterChain());
+        assertEquals(503, shed.getStatus());
+
+        limiter.release(MS);
+        MockHttpServletResponse served = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/abc12345"), served, new MockFilterChain());
+        assertEquals(200, served.getStatus());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void filter_AsyncRequest_HoldsPermitUntilComplete() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 2, 1.0, 10);
+        LoadSheddingFilter filter = new LoadSheddingFilter(limiter);
+
+        MockHttpServletRequest batch = new MockHttpServletRequest("POST", "/api/urls/stats:batch");
+        batch.setAsyncSupported(true);
+        filter.doFilter(batch, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        assertEquals(1, limiter.getInFlight());
+
+        MockHttpServletRequest live = new MockHttpServletRequest("GET", "/api/urls/abc12345/live");
+        live.setAsyncSupported(true);
+        filter.doFilter(live, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        assertEquals(1, limiter.getInFlight());
+
+        batch.getAsyncContext().complete();
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void priorityOf_ClassifiesRedirectsAndManagement() {
+        assertEquals(Priority.REDIRECT, LoadSheddingFilter.priorityOf(new MockHttpServletRequest("GET", "/abc12345")));
+        assertEquals(Priority.REDIRECT,
+            LoadSheddingFilter.priorityOf(new MockHttpServletRequest("GET", "/api/urls/redirect/abc12345")));
+        assertEquals(Priority.MANAGEMENT, LoadSheddingFilter.priorityOf(new MockHttpServletRequest("POST", "/api/urls")));
+    }
+
+    private static void feed(AdaptiveConcurrencyLimiter limiter, int samples, long rttNanos) {
+        for (int i = 0; i < samples; i++) {
+            limiter.tryAcquire(Priority.REDIRECT);
+            limiter.release(rttNanos);
+        }
+    }
+}
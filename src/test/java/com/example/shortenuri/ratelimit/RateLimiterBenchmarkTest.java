@@ -0,0 +1,79 @@
+package com.example.shortenuri.ratelimit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Per-check overhead of the admission path. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class RateLimiterBenchmarkTest {
+
+    private static final int CLIENTS = 10_000;
+    private static final int WARMUP = 5_000_000;
+    private static final int ITERATIONS = 20_000_000;
+
+    @Test
+    void tryAcquire_SingleThread_SubMicrosecond() {
+        RateLimiter limiter = new RateLimiter("bench", 1_000_000, 1_000, CLIENTS * 2);
+        String[] clients = clientIds();
+
+        run(limiter, clients, WARMUP);
+        long start = System.nanoTime();
+        long sink = run(limiter, clients, ITERATIONS);
+        double nsPerOp = (double) (System.nanoTime() - start) / ITERATIONS;
+
+        System.out.printf("RateLimiter single-thread: %.1f ns/check (sink=%d)%n", nsPerOp, sink);
+        assertTrue(nsPerOp < 1_000, "Expected sub-microsecond checks but got " + nsPerOp + " ns");
+    }
+
+    @Test
+    void tryAcquire_Contended_SubMicrosecond() throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        RateLimiter limiter = new RateLimiter("bench", 1_000_000, 1_000, CLIENTS * 2);
+        String[] clients = clientIds();
+        run(limiter, clients, WARMUP);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int perThread = ITERATIONS / threads;
+        long start = System.nanoTime();
+        List<Future<Long>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> run(limiter, clients, perThread)));
+        }
+        for (Future<Long> result : results) {
+            result.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        // Wall-clock time per check on each thread
+        double nsPerOp = (double) elapsed / perThread;
+        System.out.printf("RateLimiter %d threads: %.1f ns/check per thread%n", threads, nsPerOp);
+        assertTrue(nsPerOp < 1_000, "Expected sub-microsecond checks but got " + nsPerOp + " ns");
+    }
+
+    private static long run(RateLimiter limiter, String[] clients, int iterations) {
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            sink += limiter.tryAcquire(clients[i % clients.length]);
+        }
+        return sink;
+    }
+
+    private static String[] clientIds() {
+        String[] clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "ip:10.0." + (i / 256) + "." + (i % 256);
+        }
+        return clients;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.shortenuri.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private AtomicLong clock;
+    private RateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+        limiter = new RateLimiter("create", 2, 3, 2, clock::get);
+    }
+
+    @Test
+    void tryAcquire_WithinBurst_Admitted() {
+        assertEquals(0, limiter.tryAcquire("client-a"));
+        assertEquals(0, limiter.tryAcquire("client-a"));
+        assertEquals(0, limiter.tryAcquire("client-a"));
+
+        long wait = limiter.tryAcquire("client-a");
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), wait);
+        assertEquals(1, limiter.getRejected());
+    }
+
+    @Test
+    void tryAcquire_AfterRefill_AdmittedAgain() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("client-a");
+        }
+        assertTrue(limiter.tryAcquire("client-a") > 0);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertEquals(0, limiter.tryAcquire("client-a"));
+    }
+
+    @Test
+    void tryAcquire_ClientsHaveSeparateBuckets() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("client-a");
+        }
+
+        assertTrue(limiter.tryAcquire("client-a") > 0);
+        assertEquals(0, limiter.tryAcquire("client-b"));
+    }
+
+    @Test
+    void tryAcquire_MapFull_SweepsIdleBuckets() {
+        limiter.tryAcquire("client-a");
+        limiter.tryAcquire("client-b");
+        assertEquals(2, limiter.getTrackedClients());
+
+        // Both buckets refill completely
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertEquals(0, limiter.tryAcquire("client-c"));
+
+        assertEquals(1, limiter.getTrackedClients());
+        assertEquals(0, limiter.getOverflowed());
+    }
+
+    @Test
+    void tryAcquire_MapFullOfActiveClients_SharesOverflowBucket() {
+        limiter.tryAcquire("client-a");
+        limiter.tryAcquire("client-b");
+
+        // New clients draw on one shared burst of 3 instead of getting through unchecked
+        assertEquals(0, limiter.tryAcquire("client-c"));
+        assertEquals(0, limiter.tryAcquire("client-d"));
+        assertEquals(0, limiter.tryAcquire("client-e"));
+        assertTrue(limiter.tryAcquire("client-f") > 0);
+        assertEquals(4, limiter.getOverflowed());
+        assertEquals(2, limiter.getTrackedClients());
+    }
+
+    @Test
+    void filter_BudgetExhausted_Returns429WithRetryAfter() throws Exception {
+        RateLimiter create = new RateLimiter("create", 1, 1, 100, clock::get);
+        RateLimiter stats = new RateLimiter("stats", 1, 1, 100, clock::get);
+        RateLimiter delete = new RateLimiter("delete", 1, 1, 100, clock::get);
+        RateLimitFilter filter = new RateLimitFilter(create, stats, delete, Set.of("key-1"));
+
+        MockHttpServletResponse first = perform(filter, "POST", "/api/urls", "key-1");
+        MockHttpServletResponse second = perform(filter, "POST", "/api/urls", "key-1");
+        MockHttpServletResponse otherBudget = perform(filter, "GET", "/api/urls/abc12345", "key-1");
+        MockHttpServletResponse redirect = perform(filter, "GET", "/api/urls/redirect/abc12345", "key-1");
+        MockHttpServletResponse redirectAgain = perform(filter, "GET", "/api/urls/redirect/abc12345", "key-1");
+
+        assertEquals(200, first.getStatus());
+        assertEquals(429, second.getStatus());
+        assertEquals("1", second.getHeader("Retry-After"));
+        assertEquals(200, otherBudget.getStatus());
+        assertEquals(200, redirect.getStatus());
+        assertEquals(200, redirectAgain.getStatus());
+    }
+
+    @Test
+    void filter_DomainQueries_ShareStatsBudget() throws Exception {
+        RateLimiter create = new RateLimiter("create", 1, 1, 100, clock::get);
+        RateLimiter stats = new RateLimiter("stats", 1, 1, 100, clock::get);
+        RateLimiter delete = new RateLimiter("delete", 1, 1, 100, clock::get);
+        RateLimitFilter filter = new RateLimitFilter(create, stats, delete, Set.of("key-1"));
+
+        assertEquals(200, perform(filter, "GET", "/api/domains/partner.com", "key-1").getStatus());
+        assertEquals(429, perform(filter, "GET", "/api/urls/abc12345", "key-1").getStatus());
+    }
+
+    @Test
+    void filter_BatchLookups_UseStatsBudget() throws Exception {
+        RateLimiter create = new RateLimiter("create", 1, 1, 100, clock::get);
+        RateLimiter stats = new RateLimiter("stats", 1, 1, 100, clock::get);
+        RateLimiter delete = new RateLimiter("delete", 1, 1, 100, clock::get);
+        RateLimitFilter filter = new RateLimitFilter(create, stats, delete, Set.of("key-1"));
+
+        assertEquals(200, perform(filter, "POST", "/api/urls/resolve:batch", "key-1").getStatus());
+        assertEquals(429, perform(filter, "POST", "/api/urls/stats:batch", "key-1").getStatus());
+        assertEquals(200, perform(filter, "POST", "/api/urls", "key-1").getStatus());
+    }
+
+    @Test
+    void filter_UnknownApiKeys_LimitedByRemoteAddress() throws Exception {
+        RateLimiter create = new RateLimiter("create", 1, 1, 100, clock::get);
+        RateLimiter stats = new RateLimiter("stats", 1, 1, 100, clock::get);
+        RateLimiter delete = new RateLimiter("delete", 1, 1, 100, clock::get);
+        RateLimitFilter filter = new RateLimitFilter(create, stats, delete, Set.of("key-1"));
+
+        assertEquals(200, perform(filter, "POST", "/api/urls", "made-up-1").getStatus());
+        assertEquals(429, perform(filter, "POST", "/api/urls", "made-up-2").getStatus());
+        assertEquals(200, perform(filter, "POST", "/api/urls", "key-1").getStatus());
+    }
+
+    private static MockHttpServletResponse perform(RateLimitFilter filter, String method, String uri, String apiKey)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.addHeader(RateLimitFilter.API_KEY_HEADER, apiKey);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
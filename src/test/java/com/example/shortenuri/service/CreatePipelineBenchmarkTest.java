@@ -0,0 +1,125 @@
+package com.example.shortenuri.service;
+
+import com.example.shortenuri.dto.CreateUrlRequest;
+import com.example.shortenuri.repository.UrlRepository;
+import com.example.shortenuri.store.LinkStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Create throughput and latency through {@link UrlService} with one commit per create versus the
+ * batching {@link CreatePipeline} at a few batch delays. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.example.shortenuri=INFO",
+    "logging.level.org.springframework.web=INFO"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+class CreatePipelineBenchmarkTest {
+
+    private static final int CREATES_PER_RUN = 4_000;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private LinkStore linkStore;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    private int run;
+
+    @Test
+    void createShortUrl_DirectVersusBatched_ThroughputAndLatency() throws Exception {
+        Object direct = ReflectionTestUtils.getField(urlService, "createPipeline");
+        System.out.printf("%-18s %7s %10s %9s %9s %11s%n", "mode", "clients", "creates/s", "p50 ms", "p99 ms", "rows/batch");
+        try {
+            // Warm-up; both paths share most of their code
+            for (int i = 0; i < 3; i++) {
+                measure("warm-up direct", 16, null);
+                measureBatched("warm-up batched", 16, 2, direct);
+            }
+            for (int clients : new int[] { 1, 16, 64 }) {
+                measure("direct", clients, null);
+                for (long delayMs : new long[] { 0, 2, 5 }) {
+                    measureBatched("batched " + delayMs + " ms", clients, delayMs, direct);
+                }
+            }
+        } finally {
+            urlRepository.deleteAll();
+        }
+    }
+
+    private void measureBatched(String mode, int clients, long delayMs, Object direct) throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CreatePipeline pipeline = new CreatePipeline(linkStore, meterRegistry, true, 256, delayMs, 10_000);
+        ReflectionTestUtils.setField(urlService, "createPipeline", pipeline);
+        try {
+            measure(mode, clients, meterRegistry);
+        } finally {
+            pipeline.close();
+            ReflectionTestUtils.setField(urlService, "createPipeline", direct);
+        }
+    }
+
+    private void measure(String mode, int clients, SimpleMeterRegistry meterRegistry) throws Exception {
+        int prefix = run++;
+        int perClient = CREATES_PER_RUN / clients;
+        long[] latencies = new long[perClient * clients];
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perClient; i++) {
+                    String destination = "https://www.campaign.com/" + prefix + "/" + client + "/" + i;
+                    long begin = System.nanoTime();
+                    CreateResult result = urlService.createShortUrl(new CreateUrlRequest(destination));
+                    latencies[client * perClient + i] = System.nanoTime() - begin;
+                    assertEquals(CreateResult.Status.CREATED, result.getStatus());
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(5, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+
+        Arrays.sort(latencies);
+        double rowsPerBatch = meterRegistry != null
+            ? meterRegistry.get("app.create.batch.size").summary().mean()
+            : 1.0;
+        System.out.printf("%-18s %7d %,10.0f %9.2f %9.2f %11.1f%n", mode, clients,
+            latencies.length / (elapsed / 1e9),
+            latencies[latencies.length / 2] / 1e6,
+            latencies[(int) (latencies.length * 0.99)] / 1e6,
+            rowsPerBatch);
+    }
+}
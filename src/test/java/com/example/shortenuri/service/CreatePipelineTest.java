@@ -0,0 +1,108 @@
+package com.example.shortenuri.service;
+
+import com.example.shortenuri.entity.Url;
+import com.example.shortenuri.repository.UrlFilter;
+import com.example.shortenuri.store.FsyncPolicy;
+import com.example.shortenuri.store.WalLinkStore;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CreatePipelineTest {
+
+    private static final int CLIENTS = 32;
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private WalLinkStore store;
+    private CreatePipeline pipeline;
+    private ExecutorService clients;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new WalLinkStore(meterRegistry, directory.toString(), FsyncPolicy.ALWAYS);
+        store.recover();
+        pipeline = new CreatePipeline(store, meterRegistry, true, 64, 20, 1000);
+        clients = Executors.newFixedThreadPool(CLIENTS);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        clients.shutdownNow();
+        pipeline.close();
+        store.close();
+    }
+
+    @Test
+    void insert_ConcurrentCallers_StoredInSharedBatches() throws Exception {
+        List<Future<Url>> results = submit(CLIENTS, i -> new Url("code" + i, "https://www.shop.com/" + i));
+
+        for (int i = 0; i < CLIENTS; i++) {
+            Url stored = results.get(i).get(10, TimeUnit.SECONDS);
+            assertNotNull(stored.getId());
+            assertTrue(store.existsByShortCode("code" + i));
+        }
+        DistributionSummary batches = meterRegistry.get("app.create.batch.size").summary();
+        assertEquals(CLIENTS, (long) batches.totalAmount());
+        assertTrue(batches.count() < CLIENTS, "Expected shared batches but saw " + batches.count());
+    }
+
+    @Test
+    void insert_ConflictInBatch_OnlyConflictingCallersFail() throws Exception {
+        store.insert(new Url("taken", "https://www.shop.com/taken"));
+
+        // Caller 0 wants a taken code, caller 1 a taken destination; the rest are fine
+        List<Future<Url>> results = submit(CLIENTS, i -> switch (i) {
+            case 0 -> new Url("taken", "https://www.shop.com/fresh");
+            case 1 -> new Url("fresh1", "https://www.shop.com/taken");
+            default -> new Url("code" + i, "https://www.shop.com/" + i);
+        });
+
+        for (int i = 0; i < CLIENTS; i++) {
+            Future<Url> result = results.get(i);
+            if (i < 2) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+                assertInstanceOf(DataIntegrityViolationException.class, e.getCause());
+            } else {
+                assertNotNull(result.get(10, TimeUnit.SECONDS).getId());
+            }
+        }
+        assertEquals("https://www.shop.com/taken", store.findByShortCode("taken").orElseThrow().getOriginalUrl());
+        assertFalse(store.existsByShortCode("fresh1"));
+        assertEquals(CLIENTS - 1, store.findPage(new UrlFilter(), null, 100).size());
+    }
+
+    private List<Future<Url>> submit(int count, IntFunction<Url> links) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Url>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Url url = links.apply(i);
+            results.add(clients.submit(() -> {
+                start.await();
+                return pipeline.insert(url);
+            }));
+        }
+        start.countDown();
+        return results;
+    }
+}
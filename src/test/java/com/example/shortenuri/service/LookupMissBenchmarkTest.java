@@ -0,0 +1,100 @@
+package com.example.shortenuri.service;
+
+import com.example.shortenuri.cache.RedirectCache;
+import com.example.shortenuri.cache.RedirectTarget;
+import com.example.shortenuri.cache.SingleFlight;
+import com.example.shortenuri.expiry.CoarseClock;
+import com.example.shortenuri.repository.PrefixDictionary;
+import com.example.shortenuri.repository.UrlRepository;
+import com.example.shortenuri.store.JpaLinkStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Cost of a lookup miss (bot traffic probing random codes) with typed results versus the previous
+ * throw-and-catch flow. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class LookupMissBenchmarkTest {
+
+    private static final int CODES = 4_096;
+    private static final int WARMUP = 500_000;
+    private static final int ITERATIONS = 2_000_000;
+
+    @Test
+    void resolve_Miss_CheaperThanThrowing() {
+        UrlService urlService = missingOnlyService();
+        String[] codes = new String[CODES];
+        for (int i = 0; i < CODES; i++) {
+            codes[i] = String.format("bot%05d", i);
+        }
+
+        resultPath(urlService, codes, WARMUP);
+        throwingPath(urlService, codes, WARMUP);
+
+        long start = System.nanoTime();
+        long resultSink = resultPath(urlService, codes, ITERATIONS);
+        double resultNs = (double) (System.nanoTime() - start) / ITERATIONS;
+
+        start = System.nanoTime();
+        long throwingSink = throwingPath(urlService, codes, ITERATIONS);
+        double throwingNs = (double) (System.nanoTime() - start) / ITERATIONS;
+
+        System.out.printf("Lookup miss: %.1f ns with LookupResult, %.1f ns throwing (sink=%d)%n",
+            resultNs, throwingNs, resultSink + throwingSink);
+        assertTrue(resultNs < throwingNs,
+            "Expected result path below " + throwingNs + " ns but was " + resultNs + " ns");
+    }
+
+    private static long resultPath(UrlService urlService, String[] codes, int iterations) {
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            LookupResult<RedirectTarget> result = urlService.resolve(codes[i % CODES]);
+            if (!result.isFound()) {
+                sink++;
+            }
+        }
+        return sink;
+    }
+
+    // Mirrors the former getOriginalUrl: format a message, throw, and let the controller catch it
+    private static long throwingPath(UrlService urlService, String[] codes, int iterations) {
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            String code = codes[i % CODES];
+            try {
+                LookupResult<RedirectTarget> result = urlService.resolve(code);
+                if (!result.isFound()) {
+                    throw new RuntimeException("Short URL not found: " + code);
+                }
+            } catch (RuntimeException e) {
+                sink += e.getMessage().length();
+            }
+        }
+        return sink;
+    }
+
+    private static UrlService missingOnlyService() {
+        // A plain proxy rather than a Mockito mock, whose invocation bookkeeping would dominate
+        UrlRepository repository = (UrlRepository) Proxy.newProxyInstance(
+            UrlRepository.class.getClassLoader(),
+            new Class<?>[] { UrlRepository.class },
+            (proxy, method, args) -> Optional.empty());
+        RedirectCache redirectCache = new RedirectCache(1_000);
+
+        UrlService urlService = new UrlService();
+        ReflectionTestUtils.setField(urlService, "linkStore", new JpaLinkStore(repository, mock(PrefixDictionary.class)));
+        ReflectionTestUtils.setField(urlService, "redirectCache", redirectCache);
+        ReflectionTestUtils.setField(urlService, "clock", new CoarseClock(10));
+        ReflectionTestUtils.setField(urlService, "redirectLoads",
+            new SingleFlight<String, Optional<RedirectTarget>>(1_000, 1_000));
+        return urlService;
+    }
+}
@@ -1,31 +1,83 @@
 package com.example.shortenuri.service;
 
+import com.example.shortenuri.availability.CodeAvailability;
+import com.example.shortenuri.cache.InvalidationBus;
+import com.example.shortenuri.cache.InvalidationEvent;
+import com.example.shortenuri.cache.RedirectCache;
+import com.example.shortenuri.cache.RedirectTarget;
+import com.example.shortenuri.cache.SingleFlight;
+import com.example.shortenuri.clicks.ClickRollupStore;
+import com.example.shortenuri.dto.AvailabilityResponse;
+import com.example.shortenuri.dto.ClickBreakdownResponse;
 import com.example.shortenuri.dto.CreateUrlRequest;
 import com.example.shortenuri.dto.CreateUrlResponse;
 import com.example.shortenuri.dto.UrlStatsResponse;
 import com.example.shortenuri.entity.Url;
+import com.example.shortenuri.exception.ShortCodeUnavailableException;
+import com.example.shortenuri.expiry.CoarseClock;
+import com.example.shortenuri.expiry.ExpiryScheduler;
+import com.example.shortenuri.live.LiveClickPublisher;
+import com.example.shortenuri.repository.PrefixDictionary;
 import com.example.shortenuri.repository.UrlRepository;
+import com.example.shortenuri.store.JpaLinkStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+// Mockito generates mock classes at runtime, which a native image cannot load
+@DisabledInNativeImage
 @ExtendWith(MockitoExtension.class)
 class UrlServiceTest {
 
     @Mock
     private UrlRepository urlRepository;
 
+    @Mock
+    private PrefixDictionary prefixDictionary;
+
+    @Spy
+    private RedirectCache redirectCache = new RedirectCache(1000);
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @Spy
+    private SingleFlight<String, Optional<RedirectTarget>> redirectLoads = new SingleFlight<>(1000, 1000);
+
+    @Spy
+    private CoarseClock clock = new CoarseClock(10);
+
+    @Mock
+    private ExpiryScheduler expiryScheduler;
+
+    @Mock
+    private CreatePipeline createPipeline;
+
+    @Mock
+    private ClickRollupStore clickRollups;
+
+    @Mock
+    private LiveClickPublisher liveClicks;
+
+    @Mock
+    private CodeAvailability codeAvailability;
+
     @InjectMocks
     private UrlService urlService;
 
@@ -44,6 +96,7 @@ class UrlServiceTest {
 
         // Set base URL for testing
         ReflectionTestUtils.setField(urlService, "baseUrl", "http://localhost:8080");
+        ReflectionTestUtils.setField(urlService, "linkStore", new JpaLinkStore(urlRepository, prefixDictionary));
     }
 
     @Test
@@ -54,9 +107,11 @@ class UrlServiceTest {
         when(urlRepository.save(any(Url.class))).thenReturn(validUrl);
 
         // When
-        CreateUrlResponse response = urlService.createShortUrl(validRequest);
+        CreateResult result = urlService.createShortUrl(validRequest);
+        CreateUrlResponse response = result.getResponse();
 
         // Then
+        assertEquals(CreateResult.Status.CREATED, result.getStatus());
         assertNotNull(response);
         assertEquals("abc12345", response.getShortCode());
         assertEquals("https://www.google.com", response.getOriginalUrl());
@@ -65,7 +120,7 @@ class UrlServiceTest {
 
         verify(urlRepository).findByOriginalUrl(validRequest.getOriginalUrl());
         verify(urlRepository).existsByShortCode(any());
-        verify(urlRepository).save(any(Url.class));
+        verify(urlRepository).save(argThat(url -> "google.com".equals(url.getDestinationHost())));
     }
 
     @Test
@@ -74,9 +129,11 @@ class UrlServiceTest {
         when(urlRepository.findByOriginalUrl(validRequest.getOriginalUrl())).thenReturn(Optional.of(validUrl));
 
         // When
-        CreateUrlResponse response = urlService.createShortUrl(validRequest);
+        CreateResult result = urlService.createShortUrl(validRequest);
+        CreateUrlResponse response = result.getResponse();
 
         // Then
+        assertEquals(CreateResult.Status.EXISTING, result.getStatus());
         assertNotNull(response);
         assertEquals("abc12345", response.getShortCode());
         assertEquals("https://www.google.com", response.getOriginalUrl());
@@ -85,6 +142,31 @@ class UrlServiceTest {
         verify(urlRepository, never()).save(any(Url.class));
     }
 
+    @Test
+    void createShortUrl_EquivalentSpelling_ReturnsExisting() {
+        // Given
+        validRequest.setOriginalUrl("HTTPS://WWW.Google.com:443/");
+        when(urlRepository.findByOriginalUrl("https://www.google.com")).thenReturn(Optional.of(validUrl));
+
+        // When
+        CreateResult result = urlService.createShortUrl(validRequest);
+
+        // Then
+        assertEquals(CreateResult.Status.EXISTING, result.getStatus());
+        assertEquals("abc12345", result.getResponse().getShortCode());
+        verify(urlRepository, never()).save(any(Url.class));
+    }
+
+    @Test
+    void createShortUrl_InvalidUrl_ThrowsException() {
+        // Given
+        validRequest.setOriginalUrl("javascript:alert(1)");
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> urlService.createShortUrl(validRequest));
+        verify(urlRepository, never()).save(any(Url.class));
+    }
+
     @Test
     void createShortUrl_WithCustomCode_Success() {
         // Given
@@ -94,26 +176,87 @@ class UrlServiceTest {
         when(urlRepository.save(any(Url.class))).thenReturn(validUrl);
 
         // When
-        CreateUrlResponse response = urlService.createShortUrl(validRequest);
+        CreateResult result = urlService.createShortUrl(validRequest);
+        CreateUrlResponse response = result.getResponse();
 
         // Then
         assertNotNull(response);
         verify(urlRepository).existsByShortCode("custom123");
+        verify(codeAvailability).add("abc12345");
     }
 
     @Test
-    void createShortUrl_CustomCodeExists_ThrowsException() {
+    void createShortUrl_CustomCodeExists_ReturnsConflict() {
         // Given
         validRequest.setCustomShortCode("existing123");
         when(urlRepository.findByOriginalUrl(validRequest.getOriginalUrl())).thenReturn(Optional.empty());
         when(urlRepository.existsByShortCode("existing123")).thenReturn(true);
 
+        // When
+        CreateResult result = urlService.createShortUrl(validRequest);
+
+        // Then
+        assertTrue(result.isConflict());
+        assertEquals("existing123", result.getConflictingShortCode());
+        assertNull(result.getResponse());
+        verify(urlRepository, never()).save(any(Url.class));
+    }
+
+    @Test
+    void createShortUrl_UnsupportedRedirectStatus_ThrowsException() {
+        // Given
+        validRequest.setRedirectStatus(303);
+
         // When & Then
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            urlService.createShortUrl(validRequest);
-        });
+        assertThrows(IllegalArgumentException.class, () -> urlService.createShortUrl(validRequest));
+        verify(urlRepository, never()).save(any(Url.class));
+    }
+
+    @Test
+    void createShortUrl_ConcurrentInsertLost_ReturnsWinner() {
+        // Given
+        Url winner = new Url("winner12", "https://www.google.com");
+        when(urlRepository.findByOriginalUrl(validRequest.getOriginalUrl()))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(winner));
+        when(urlRepository.existsByShortCode(any())).thenReturn(false);
+        when(urlRepository.save(any(Url.class))).thenThrow(new DataIntegrityViolationException("duplicate hash"));
+
+        // When
+        CreateResult result = urlService.createShortUrl(validRequest);
+        CreateUrlResponse response = result.getResponse();
+
+        // Then
+        assertEquals(CreateResult.Status.EXISTING, result.getStatus());
+        assertEquals("winner12", response.getShortCode());
+        verify(invalidationBus, never()).publish(any());
+    }
 
-        assertEquals("Short code already exists: existing123", exception.getMessage());
+    @Test
+    void createShortUrl_CustomCodeTakenConcurrently_ReturnsConflict() {
+        // Given
+        validRequest.setCustomShortCode("race1234");
+        when(urlRepository.findByOriginalUrl(validRequest.getOriginalUrl())).thenReturn(Optional.empty());
+        when(urlRepository.existsByShortCode("race1234")).thenReturn(false);
+        when(urlRepository.save(any(Url.class))).thenThrow(new DataIntegrityViolationException("duplicate code"));
+
+        // When
+        CreateResult result = urlService.createShortUrl(validRequest);
+
+        // Then
+        assertTrue(result.isConflict());
+        assertEquals("race1234", result.getConflictingShortCode());
+    }
+
+    @Test
+    void createShortUrl_GeneratedCodesExhausted_ThrowsUnavailable() {
+        // Given
+        when(urlRepository.findByOriginalUrl(validRequest.getOriginalUrl())).thenReturn(Optional.empty());
+        when(urlRepository.existsByShortCode(any())).thenReturn(true);
+
+        // When & Then
+        assertThrows(ShortCodeUnavailableException.class, () -> urlService.createShortUrl(validRequest));
+        verify(urlRepository, never()).save(any(Url.class));
     }
 
     @Test
@@ -126,7 +269,8 @@ class UrlServiceTest {
         when(urlRepository.save(any(Url.class))).thenReturn(validUrl);
 
         // When
-        CreateUrlResponse response = urlService.createShortUrl(validRequest);
+        CreateResult result = urlService.createShortUrl(validRequest);
+        CreateUrlResponse response = result.getResponse();
 
         // Then
         assertNotNull(response);
@@ -134,43 +278,93 @@ class UrlServiceTest {
     }
 
     @Test
-    void getOriginalUrl_ValidCode_Success() {
+    void resolve_ValidCode_Found() {
         // Given
         when(urlRepository.findByShortCode("abc12345")).thenReturn(Optional.of(validUrl));
 
         // When
-        String originalUrl = urlService.getOriginalUrl("abc12345");
+        LookupResult<RedirectTarget> result = urlService.resolve("abc12345");
 
         // Then
-        assertEquals("https://www.google.com", originalUrl);
+        assertTrue(result.isFound());
+        assertEquals("https://www.google.com", result.getValue().getOriginalUrl());
         verify(urlRepository).findByShortCode("abc12345");
     }
 
     @Test
-    void getOriginalUrl_InvalidCode_ThrowsException() {
+    void resolve_CachedCode_SkipsRepository() {
+        // Given
+        when(urlRepository.findByShortCode("abc12345")).thenReturn(Optional.of(validUrl));
+        urlService.resolve("abc12345");
+
+        // When
+        LookupResult<RedirectTarget> result = urlService.resolve("abc12345");
+
+        // Then
+        assertEquals("https://www.google.com", result.getValue().getOriginalUrl());
+        verify(urlRepository, times(1)).findByShortCode("abc12345");
+    }
+
+    @Test
+    void resolve_InvalidCode_NotFound() {
         // Given
         when(urlRepository.findByShortCode("nonexistent")).thenReturn(Optional.empty());
 
-        // When & Then
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            urlService.getOriginalUrl("nonexistent");
-        });
+        // When
+        LookupResult<RedirectTarget> result = urlService.resolve("nonexistent");
 
-        assertEquals("Short URL not found: nonexistent", exception.getMessage());
+        // Then
+        assertEquals(LookupResult.Status.NOT_FOUND, result.getStatus());
+        assertNull(result.getValue());
     }
 
     @Test
-    void getOriginalUrl_ExpiredUrl_ThrowsException() {
+    void resolve_ExpiredUrl_Expired() {
         // Given
         validUrl.setExpiresAt(LocalDateTime.now().minusDays(1)); // 만료된 URL
         when(urlRepository.findByShortCode("abc12345")).thenReturn(Optional.of(validUrl));
 
-        // When & Then
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            urlService.getOriginalUrl("abc12345");
-        });
+        // When
+        LookupResult<RedirectTarget> result = urlService.resolve("abc12345");
+
+        // Then - nothing was cached, so there is nothing to invalidate
+        assertEquals(LookupResult.Status.EXPIRED, result.getStatus());
+        verify(invalidationBus, never()).publish(any());
+    }
+
+    @Test
+    void resolve_CachedTargetExpired_PublishesExpiry() {
+        // Given
+        validUrl.setExpiresAt(LocalDateTime.now().minusDays(1));
+        redirectCache.putIfCurrent("abc12345", RedirectTarget.of(validUrl), redirectCache.generation("abc12345"));
 
-        assertEquals("Short URL has expired: abc12345", exception.getMessage());
+        // When
+        LookupResult<RedirectTarget> result = urlService.resolve("abc12345");
+
+        // Then
+        assertEquals(LookupResult.Status.EXPIRED, result.getStatus());
+        verify(invalidationBus).publish(argThat(event -> event.getType() == InvalidationEvent.Type.EXPIRED));
+        verify(urlRepository, never()).findByShortCode(any());
+    }
+
+    @Test
+    void resolveAll_MixedCacheHitsAndMisses_SingleQueryForMisses() {
+        // Given
+        when(urlRepository.findByShortCode("abc12345")).thenReturn(Optional.of(validUrl));
+        urlService.resolve("abc12345");
+        Url other = new Url("other123", "https://www.github.com");
+        when(urlRepository.findByShortCodeIn(List.of("other123", "missing1"))).thenReturn(List.of(other));
+
+        // When
+        Map<String, LookupResult<RedirectTarget>> results =
+            urlService.resolveAll(List.of("abc12345", "other123", "missing1"));
+
+        // Then
+        assertEquals("https://www.google.com", results.get("abc12345").getValue().getOriginalUrl());
+        assertEquals("https://www.github.com", results.get("other123").getValue().getOriginalUrl());
+        assertFalse(results.containsKey("missing1"));
+        verify(urlRepository, times(1)).findByShortCodeIn(any());
+        assertNotNull(redirectCache.get("other123"));
     }
 
     @Test
@@ -185,6 +379,7 @@ class UrlServiceTest {
         // Then
         verify(urlRepository).findByShortCode("abc12345");
         verify(urlRepository).save(validUrl);
+        verify(liveClicks).click("abc12345");
         assertEquals(1L, validUrl.getClickCount());
     }
 
@@ -209,10 +404,11 @@ class UrlServiceTest {
         when(urlRepository.findByShortCode("abc12345")).thenReturn(Optional.of(validUrl));
 
         // When
-        UrlStatsResponse response = urlService.getUrlStats("abc12345");
+        LookupResult<UrlStatsResponse> result = urlService.getUrlStats("abc12345");
 
         // Then
-        assertNotNull(response);
+        assertTrue(result.isFound());
+        UrlStatsResponse response = result.getValue();
         assertEquals("abc12345", response.getShortCode());
         assertEquals("https://www.google.com", response.getOriginalUrl());
         assertEquals("http://localhost:8080/abc12345", response.getShortUrl());
@@ -221,16 +417,15 @@ class UrlServiceTest {
     }
 
     @Test
-    void getUrlStats_InvalidCode_ThrowsException() {
+    void getUrlStats_InvalidCode_NotFound() {
         // Given
         when(urlRepository.findByShortCode("nonexistent")).thenReturn(Optional.empty());
 
-        // When & Then
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            urlService.getUrlStats("nonexistent");
-        });
+        // When
+        LookupResult<UrlStatsResponse> result = urlService.getUrlStats("nonexistent");
 
-        assertEquals("Short URL not found: nonexistent", exception.getMessage());
+        // Then
+        assertFalse(result.isFound());
     }
 
     @Test
@@ -240,25 +435,88 @@ class UrlServiceTest {
         doNothing().when(urlRepository).delete(validUrl);
 
         // When
-        urlService.deleteUrl("abc12345");
+        boolean deleted = urlService.deleteUrl("abc12345");
 
         // Then
+        assertTrue(deleted);
         verify(urlRepository).findByShortCode("abc12345");
         verify(urlRepository).delete(validUrl);
+        verify(clickRollups).delete("abc12345");
+        verify(invalidationBus).publish(argThat(event ->
+            event.getType() == InvalidationEvent.Type.DELETED && "abc12345".equals(event.getShortCode())));
+        verify(codeAvailability).remove("abc12345");
     }
 
     @Test
-    void deleteUrl_InvalidCode_ThrowsException() {
+    void deleteUrl_InvalidCode_ReturnsFalse() {
         // Given
         when(urlRepository.findByShortCode("nonexistent")).thenReturn(Optional.empty());
 
-        // When & Then
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            urlService.deleteUrl("nonexistent");
-        });
+        // When
+        boolean deleted = urlService.deleteUrl("nonexistent");
 
-        assertEquals("Short URL not found: nonexistent", exception.getMessage());
+        // Then
+        assertFalse(deleted);
         verify(urlRepository, never()).delete(any(Url.class));
+        verify(clickRollups, never()).delete(any());
+    }
+
+    @Test
+    void checkAvailability_TakenCode_SuggestionsUpToMaximum() {
+        // Given
+        when(codeAvailability.isAvailable("summer-sale")).thenReturn(false);
+        when(codeAvailability.suggest("summer-sale", CodeAvailability.MAX_SUGGESTIONS))
+            .thenReturn(List.of("summer-sale2", "summer-sale-2"));
+
+        // When
+        AvailabilityResponse response = urlService.checkAvailability("summer-sale", 1000);
+
+        // Then
+        assertFalse(response.getAvailable());
+        assertEquals(List.of("summer-sale2", "summer-sale-2"), response.getSuggestions());
+    }
+
+    @Test
+    void checkAvailability_FreeOrBlankCode() {
+        // Given
+        when(codeAvailability.isAvailable("winter-sale")).thenReturn(true);
+
+        // When & Then
+        AvailabilityResponse response = urlService.checkAvailability("winter-sale", 5);
+        assertTrue(response.getAvailable());
+        assertTrue(response.getSuggestions().isEmpty());
+        verify(codeAvailability, never()).suggest(any(), anyInt());
+
+        assertThrows(IllegalArgumentException.class, () -> urlService.checkAvailability(" ", 5));
+    }
+
+    @Test
+    void getClickBreakdown_ExistingLink_RollupsWithClickCount() {
+        // Given
+        validUrl.setClickCount(7L);
+        ClickBreakdownResponse breakdown = new ClickBreakdownResponse("abc12345", 7L);
+        when(urlRepository.findByShortCode("abc12345")).thenReturn(Optional.of(validUrl));
+        when(clickRollups.breakdown("abc12345", 7L)).thenReturn(breakdown);
+
+        // When
+        LookupResult<ClickBreakdownResponse> result = urlService.getClickBreakdown("abc12345");
+
+        // Then
+        assertTrue(result.isFound());
+        assertSame(breakdown, result.getValue());
+    }
+
+    @Test
+    void getClickBreakdown_UnknownCode_NotFound() {
+        // Given
+        when(urlRepository.findByShortCode("nonexistent")).thenReturn(Optional.empty());
+
+        // When
+        LookupResult<ClickBreakdownResponse> result = urlService.getClickBreakdown("nonexistent");
+
+        // Then
+        assertFalse(result.isFound());
+        verifyNoInteractions(clickRollups);
     }
 
 
@@ -0,0 +1,129 @@
+package com.example.shortenuri.snapshot;
+
+import com.example.shortenuri.entity.DestinationCodec;
+import com.example.shortenuri.entity.Url;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFormatTest {
+
+    @Test
+    void writeAndRead_AllFieldsAndNulls_RoundTrip() throws IOException {
+        LinkRecord full = new LinkRecord("abc123", "https://www.shop.com",
+            DestinationCodec.encodeSuffix("/sale?utm_source=newsletter"), Url.hashOf("https://www.shop.com/sale"),
+            "shop.com", LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000), LocalDateTime.of(2024, 4, 1, 0, 0),
+            9_876_543_210L, LocalDateTime.of(2024, 3, 2, 8, 0), 308);
+        LinkRecord bare = new LinkRecord("bare", null, DestinationCodec.encodeSuffix("www.no-scheme.com/x"),
+            null, null, LocalDateTime.of(1969, 12, 31, 23, 59, 59), null, 0, null, null);
+
+        for (boolean compressed : new boolean[] { true, false }) {
+            List<LinkRecord> read = readAll(write(compressed, full, bare));
+
+            assertEquals(2, read.size());
+            assertSameLink(full, read.get(0));
+            assertSameLink(bare, read.get(1));
+        }
+    }
+
+    @Test
+    void write_RepeatedPrefix_StoredOnce() throws IOException {
+        LinkRecord[] sameHost = new LinkRecord[100];
+        LinkRecord[] distinctHosts = new LinkRecord[100];
+        for (int i = 0; i < 100; i++) {
+            sameHost[i] = link("s" + i, "https://a-fairly-long-host-name.example.com");
+            distinctHosts[i] = link("d" + i, "https://a-fairly-long-host-name-" + i + ".example.com");
+        }
+
+        int sameHostSize = write(false, sameHost).length;
+        int distinctHostsSize = write(false, distinctHosts).length;
+
+        assertTrue(sameHostSize + 90 * 40 < distinctHostsSize,
+            "Expected the prefix once, but sizes were " + sameHostSize + " and " + distinctHostsSize);
+        assertEquals("https://a-fairly-long-host-name.example.com", readAll(write(false, sameHost)).get(99).getDestinationPrefix());
+    }
+
+    @Test
+    void read_FlippedByte_ChecksumMismatch() throws IOException {
+        byte[] snapshot = write(false, link("a", "https://example.com"), link("b", "https://example.com"));
+        // A flipped bit in the destination hash still parses; only the checksum catches it
+        byte[] hash = HexFormat.of().parseHex(Url.hashOf("https://example.com/p"));
+        snapshot[lastIndexOf(snapshot, hash)] ^= 1;
+
+        SnapshotFormatException e = assertThrows(SnapshotFormatException.class, () -> readAll(snapshot));
+        assertTrue(e.getMessage().contains("checksum"), e.getMessage());
+    }
+
+    @Test
+    void read_Truncated_Rejected() throws IOException {
+        byte[] snapshot = write(true, link("a", "https://example.com"), link("b", "https://example.com"));
+
+        assertThrows(IOException.class, () -> readAll(Arrays.copyOf(snapshot, snapshot.length - 6)));
+        assertThrows(SnapshotFormatException.class, () -> readAll(Arrays.copyOf(snapshot, 10)));
+    }
+
+    @Test
+    void read_NotASnapshot_Rejected() {
+        SnapshotFormatException e = assertThrows(SnapshotFormatException.class,
+            () -> readAll("INSERT INTO urls VALUES (1);".getBytes()));
+        assertEquals("Not a link snapshot", e.getMessage());
+    }
+
+    private static LinkRecord link(String shortCode, String prefix) {
+        return new LinkRecord(shortCode, prefix, DestinationCodec.encodeSuffix("/p"), Url.hashOf(prefix + "/p"),
+            null, LocalDateTime.of(2024, 1, 1, 0, 0), null, 7, null, null);
+    }
+
+    private static byte[] write(boolean compressed, LinkRecord... links) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SnapshotWriter writer = new SnapshotWriter(out, compressed)) {
+            for (LinkRecord link : links) {
+                writer.write(link);
+            }
+            writer.finish();
+        }
+        return out.toByteArray();
+    }
+
+    private static List<LinkRecord> readAll(byte[] snapshot) throws IOException {
+        List<LinkRecord> links = new ArrayList<>();
+        try (SnapshotReader reader = new SnapshotReader(new ByteArrayInputStream(snapshot))) {
+            LinkRecord link;
+            while ((link = reader.next()) != null) {
+                links.add(link);
+            }
+        }
+        return links;
+    }
+
+    private static int lastIndexOf(byte[] bytes, byte[] sequence) {
+        for (int i = bytes.length - sequence.length; i >= 0; i--) {
+            if (Arrays.equals(bytes, i, i + sequence.length, sequence, 0, sequence.length)) {
+                return i;
+            }
+        }
+        throw new AssertionError("Sequence not found");
+    }
+
+    private static void assertSameLink(LinkRecord expected, LinkRecord actual) {
+        assertEquals(expected.getShortCode(), actual.getShortCode());
+        assertEquals(expected.getDestinationPrefix(), actual.getDestinationPrefix());
+        assertArrayEquals(expected.getDestinationSuffix(), actual.getDestinationSuffix());
+        assertEquals(expected.getOriginalUrlHash(), actual.getOriginalUrlHash());
+        assertEquals(expected.getDestinationHost(), actual.getDestinationHost());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getExpiresAt(), actual.getExpiresAt());
+        assertEquals(expected.getClickCount(), actual.getClickCount());
+        assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+        assertEquals(expected.getRedirectStatus(), actual.getRedirectStatus());
+    }
+}
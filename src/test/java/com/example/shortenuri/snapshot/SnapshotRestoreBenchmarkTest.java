@@ -0,0 +1,114 @@
+package com.example.shortenuri.snapshot;
+
+import com.example.shortenuri.entity.DestinationCodec;
+import com.example.shortenuri.entity.Url;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Restore time for a 10M-link snapshot. Reading and verifying the file is measured on the full
+ * 10M links; the database restore is measured on {@code benchmark.snapshot.db-links} links (an
+ * in-memory H2 holding 10M links needs several GB of heap) and extrapolated. Run with
+ * {@code mvn test -Pbenchmark}, optionally with {@code -Dbenchmark.snapshot.db-links=10000000}
+ * on a machine with the memory for it.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class SnapshotRestoreBenchmarkTest {
+
+    private static final int FILE_LINKS = Integer.getInteger("benchmark.snapshot.links", 10_000_000);
+    private static final int DB_LINKS = Integer.getInteger("benchmark.snapshot.db-links", 500_000);
+
+    private static final String[] HOSTS = {
+        "https://www.shop.com", "https://blog.example.com", "https://news.partner.co.kr", "https://m.store.io",
+        "https://www.youtube.com", "https://docs.google.com", "http://event.brand.net", "https://landing.ads.com"
+    };
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM urls");
+    }
+
+    @Test
+    void restore_TenMillionLinks_ReportsReadAndInsertTime(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("file.snapshot");
+        long start = System.nanoTime();
+        writeSnapshot(file, FILE_LINKS);
+        double writeSeconds = (System.nanoTime() - start) / 1e9;
+
+        start = System.nanoTime();
+        long read = 0;
+        try (SnapshotReader reader = new SnapshotReader(Files.newInputStream(file))) {
+            while (reader.next() != null) {
+                read++;
+            }
+        }
+        double readSeconds = (System.nanoTime() - start) / 1e9;
+        assertEquals(FILE_LINKS, read);
+
+        Path dbFile = dir.resolve("db.snapshot");
+        writeSnapshot(dbFile, DB_LINKS);
+        start = System.nanoTime();
+        long restored = snapshotService.restore(dbFile);
+        double restoreSeconds = (System.nanoTime() - start) / 1e9;
+        assertEquals(DB_LINKS, restored);
+
+        start = System.nanoTime();
+        long dumped = snapshotService.dump(dir.resolve("dump.snapshot"));
+        double dumpSeconds = (System.nanoTime() - start) / 1e9;
+        assertEquals(DB_LINKS, dumped);
+
+        double scale = (double) FILE_LINKS / DB_LINKS;
+        System.out.printf("Snapshot of %,d links: %.1f bytes/link (%,d MB), written in %.1f s, read and verified in %.1f s "
+                + "(%.0f ns/link)%n",
+            FILE_LINKS, (double) Files.size(file) / FILE_LINKS, Files.size(file) >> 20, writeSeconds, readSeconds,
+            readSeconds * 1e9 / FILE_LINKS);
+        System.out.printf("Database restore of %,d links: %.1f s (%,.0f links/s, ~%.0f s for %,d); dump %.1f s%n",
+            DB_LINKS, restoreSeconds, DB_LINKS / restoreSeconds, restoreSeconds * scale, FILE_LINKS, dumpSeconds);
+    }
+
+    private static void writeSnapshot(Path file, int links) throws IOException {
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        try (SnapshotWriter writer = new SnapshotWriter(Files.newOutputStream(file), true)) {
+            for (int i = 0; i < links; i++) {
+                String prefix = HOSTS[random.nextInt(HOSTS.length)];
+                String suffix = "/campaign/item-" + random.nextInt(1_000_000) + "?utm_source=newsletter&utm_medium=email";
+                writer.write(new LinkRecord(
+                    Long.toString(i, 36) + "x",
+                    prefix,
+                    DestinationCodec.encodeSuffix(suffix),
+                    // Unique per link so the restore exercises the unique index like real data
+                    Url.hashOf(prefix + suffix + i),
+                    Url.hostOf(prefix),
+                    base.plusSeconds(i),
+                    random.nextInt(10) == 0 ? base.plusDays(30) : null,
+                    random.nextInt(1_000),
+                    null,
+                    null));
+            }
+            writer.finish();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.shortenuri.store;
+
+import com.example.shortenuri.entity.Url;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Create throughput of the write-ahead log store per fsync policy and client count. With
+ * {@code always}, group commit should let throughput grow with concurrency while the number of
+ * fsyncs stays well below the number of records. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class WalGroupCommitBenchmarkTest {
+
+    private static final int CREATES_PER_RUN = 4_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void insert_ConcurrentClients_ReportsThroughputAndRecordsPerFsync() throws Exception {
+        System.out.printf("%-9s %7s %12s %14s%n", "policy", "clients", "creates/s", "records/fsync");
+        for (FsyncPolicy policy : FsyncPolicy.values()) {
+            for (int clients : new int[] { 1, 8, 64 }) {
+                run(policy, clients);
+            }
+        }
+    }
+
+    private void run(FsyncPolicy policy, int clients) throws Exception {
+        Path path = Files.createTempDirectory(directory, policy.name());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        WalLinkStore store = new WalLinkStore(meterRegistry, path.toString(), policy);
+        store.recover();
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        int perClient = CREATES_PER_RUN / clients;
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perClient; i++) {
+                    store.insert(new Url(client + "-" + i, "https://www.shop.com/" + client + "/" + i));
+                }
+                return null;
+            }));
+        }
+        double syncsBefore = fsyncs(meterRegistry);
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(5, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        long syncs = (long) (fsyncs(meterRegistry) - syncsBefore);
+        executor.shutdown();
+        store.close();
+
+        long records = (long) perClient * clients;
+        if (policy == FsyncPolicy.ALWAYS) {
+            assertTrue(syncs <= records, "More fsyncs than records");
+        }
+        System.out.printf("%-9s %7d %,12.0f %14s%n", policy.name().toLowerCase(), clients, records / seconds,
+            syncs > 0 ? String.format("%.1f", (double) records / syncs) : "-");
+
+        assertEquals(records, reopen(path));
+    }
+
+    private static double fsyncs(SimpleMeterRegistry meterRegistry) {
+        return meterRegistry.get("app.store.wal.fsyncs").functionCounter().count();
+    }
+
+    private static long reopen(Path path) throws IOException {
+        WalLinkStore store = new WalLinkStore(new SimpleMeterRegistry(), path.toString(), FsyncPolicy.ALWAYS);
+        try {
+            return store.recover();
+        } finally {
+            store.close();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.shortenuri.store;
+
+import com.example.shortenuri.dto.DomainStatsResponse;
+import com.example.shortenuri.entity.Url;
+import com.example.shortenuri.repository.UrlFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WalLinkStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @TempDir
+    Path crashed;
+
+    private final List<WalLinkStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (WalLinkStore store : stores) {
+            store.close();
+        }
+    }
+
+    @Test
+    void recover_AfterCrash_RestoresAcknowledgedMutations() throws IOException {
+        WalLinkStore store = open(directory);
+        store.insert(new Url("aaa", "https://www.shop.com/a"));
+        store.insert(new Url("bbb", "https://www.shop.com/b"));
+        Url expiring = new Url("ccc", "https://blog.example.com/c");
+        expiring.setExpiresAt(LocalDateTime.of(2030, 1, 1, 0, 0));
+        expiring.setRedirectStatus(308);
+        store.insert(expiring);
+        store.incrementClickCount("aaa");
+        store.incrementClickCount("aaa");
+        store.incrementClickCount("bbb");
+        store.delete("bbb");
+
+        WalLinkStore recovered = open(crashCopy(directory));
+
+        assertEquals(2L, recovered.findByShortCode("aaa").orElseThrow().getClickCount());
+        assertFalse(recovered.existsByShortCode("bbb"));
+        Url c = recovered.findByShortCode("ccc").orElseThrow();
+        assertEquals(LocalDateTime.of(2030, 1, 1, 0, 0), c.getExpiresAt());
+        assertEquals(308, c.getRedirectStatus());
+        assertEquals("ccc", recovered.findByOriginalUrl("https://blog.example.com/c").orElseThrow().getShortCode());
+        assertTrue(recovered.findByOriginalUrl("https://www.shop.com/b").isEmpty());
+        assertEquals(List.of("aaa", "ccc"), codes(recovered.findPage(new UrlFilter(), null, 10)));
+        assertDomain(recovered, "shop.com", 1, 2);
+    }
+
+    @Test
+    void recover_TornTail_DropsOnlyTheLastRecord() throws IOException {
+        WalLinkStore store = open(directory);
+        store.insert(new Url("aaa", "https://www.shop.com/a"));
+        store.incrementClickCount("aaa");
+        Path copy = crashCopy(directory);
+        // A crash in the middle of appending the click record
+        Path segment = lastSegment(copy);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        WalLinkStore recovered = open(copy);
+        assertEquals(0L, recovered.findByShortCode("aaa").orElseThrow().getClickCount());
+
+        // The log keeps working after the torn record was cut off
+        recovered.incrementClickCount("aaa");
+        recovered.insert(new Url("bbb", "https://www.shop.com/b"));
+        WalLinkStore again = open(crashCopy(copy));
+        assertEquals(1L, again.findByShortCode("aaa").orElseThrow().getClickCount());
+        assertTrue(again.existsByShortCode("bbb"));
+    }
+
+    @Test
+    void checkpoint_CompactsLogAndRecoversCheckpointPlusLaterRecords() throws IOException {
+        WalLinkStore store = open(directory);
+        for (int i = 0; i < 100; i++) {
+            store.insert(new Url("code" + i, "https://host" + (i % 5) + ".com/page" + i));
+            for (int click = 0; click < i % 3; click++) {
+                store.incrementClickCount("code" + i);
+            }
+        }
+
+        assertEquals(100, store.checkpoint());
+        assertEquals(List.of(1L), WriteAheadLog.segments(directory));
+        assertEquals(1, count(directory, "checkpoint-*.snapshot"));
+
+        store.delete("code10");
+        store.incrementClickCount("code20");
+        store.insert(new Url("late", "https://host1.com/late"));
+        store.insert(new Url("code10", "https://host9.com/reused"));
+
+        WalLinkStore recovered = open(crashCopy(directory));
+
+        List<Url> expected = store.findPage(new UrlFilter(), null, 1000);
+        List<Url> actual = recovered.findPage(new UrlFilter(), null, 1000);
+        assertEquals(codes(expected), codes(actual));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getOriginalUrl(), actual.get(i).getOriginalUrl());
+            assertEquals(expected.get(i).getClickCount(), actual.get(i).getClickCount());
+            assertEquals(expected.get(i).getCreatedAt(), actual.get(i).getCreatedAt());
+        }
+        assertEquals(store.findTopDomains(10).size(), recovered.findTopDomains(10).size());
+        assertDomain(recovered, "host9.com", 1, 0);
+    }
+
+    @Test
+    void insert_TakenCodeOrDestination_Rejected() throws IOException {
+        WalLinkStore store = open(directory);
+        store.insert(new Url("aaa", "https://www.shop.com/a"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> store.insert(new Url("aaa", "https://www.shop.com/other")));
+        assertThrows(DataIntegrityViolationException.class, () -> store.insert(new Url("bbb", "https://www.shop.com/a")));
+        assertFalse(store.existsByShortCode("bbb"));
+    }
+
+    @Test
+    void insertAll_AnyConflict_StoresNoneOfTheBatch() throws IOException {
+        WalLinkStore store = open(directory);
+        store.insert(new Url("aaa", "https://www.shop.com/a"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> store.insertAll(List.of(
+            new Url("bbb", "https://www.shop.com/b"), new Url("aaa", "https://www.shop.com/other"))));
+        assertThrows(DataIntegrityViolationException.class, () -> store.insertAll(List.of(
+            new Url("ccc", "https://www.shop.com/c"), new Url("ddd", "https://www.shop.com/c"))));
+        assertFalse(store.existsByShortCode("bbb"));
+        assertFalse(store.existsByShortCode("ccc"));
+
+        List<Url> stored = store.insertAll(List.of(new Url("bbb", "https://www.shop.com/b"), new Url("ccc", "https://www.shop.com/c")));
+        assertTrue(stored.stream().allMatch(url -> url.getId() != null));
+        WalLinkStore recovered = open(crashCopy(directory));
+        assertEquals(List.of("aaa", "bbb", "ccc"), codes(recovered.findPage(new UrlFilter(), null, 10)));
+    }
+
+    @Test
+    void findPage_FiltersAndRanking_MatchDatabaseSemantics() throws IOException {
+        WalLinkStore store = open(directory);
+        Url expired = new Url("expired", "https://www.shop.com/old");
+        expired.setExpiresAt(LocalDateTime.now().minusDays(1));
+        store.insert(expired);
+        store.insert(new Url("popular", "https://www.shop.com/hot"));
+        store.insert(new Url("other", "https://news.site.org/x"));
+        for (int i = 0; i < 5; i++) {
+            store.incrementClickCount("popular");
+        }
+        store.incrementClickCount("other");
+
+        UrlFilter byDomain = new UrlFilter();
+        byDomain.setDomain("WWW.Shop.com");
+        UrlFilter active = new UrlFilter();
+        active.setStatus(UrlFilter.Status.ACTIVE);
+        UrlFilter popular = new UrlFilter();
+        popular.setMinClicks(5L);
+        Long firstId = store.findByShortCode("expired").orElseThrow().getId();
+
+        assertEquals(List.of("expired", "popular"), codes(store.findPage(byDomain, null, 10)));
+        assertEquals(List.of("popular", "other"), codes(store.findPage(active, null, 10)));
+        assertEquals(List.of("popular"), codes(store.findPage(popular, null, 10)));
+        assertEquals(List.of("popular"), codes(store.findPage(new UrlFilter(), firstId, 1)));
+        assertEquals("shop.com", store.findTopDomains(10).get(0).getDomain());
+        assertEquals(List.of("popular", "other"), store.findMostClickedShortCodes(2));
+    }
+
+    private WalLinkStore open(Path path) throws IOException {
+        WalLinkStore store = new WalLinkStore(new SimpleMeterRegistry(), path.toString(), FsyncPolicy.ALWAYS);
+        store.recover();
+        stores.add(store);
+        return store;
+    }
+
+    /**
+     * Copies the store's files as a crash would leave them: only what was acknowledged (fsynced)
+     * is guaranteed to be there, and no shutdown checkpoint has run.
+     */
+    private Path crashCopy(Path from) throws IOException {
+        Path to = Files.createTempDirectory(crashed, "crash");
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(from)) {
+            for (Path file : files) {
+                Files.copy(file, to.resolve(file.getFileName()));
+            }
+        }
+        return to;
+    }
+
+    private static Path lastSegment(Path path) throws IOException {
+        List<Long> segments = WriteAheadLog.segments(path);
+        return WriteAheadLog.segmentPath(path, segments.get(segments.size() - 1));
+    }
+
+    private static int count(Path path, String glob) throws IOException {
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(path, glob)) {
+            for (Path ignored : files) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static List<String> codes(List<Url> urls) {
+        return urls.stream().map(Url::getShortCode).toList();
+    }
+
+    private static void assertDomain(WalLinkStore store, String host, long links, long clicks) {
+        Optional<DomainStatsResponse> stats = store.findDomainStats(host);
+        assertTrue(stats.isPresent(), host);
+        assertEquals(links, stats.get().getLinkCount());
+        assertEquals(clicks, stats.get().getTotalClicks());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.shortenuri.url;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * URL validation with the canonicalizer against the pattern CreateUrlRequest used before, on
+ * typical destinations and on inputs that make the pattern backtrack. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class UrlValidationBenchmarkTest {
+
+    private static final Pattern PREVIOUS =
+        Pattern.compile("^(https?://)?([\\da-z.-]+)\\.([a-z.]{2,6})[/\\w .-]*/?$");
+
+    private static final int ROUNDS = 1_000_000;
+
+    @Test
+    void typicalUrls_CanonicalizerAgainstPattern() {
+        List<String> urls = List.of(
+            "https://www.google.com",
+            "https://www.shop.com/spring-sale/landing",
+            "https://blog.example.com/2024/03/01/a-fairly-long-post-title-with-words",
+            "https://www.shop.com/spring-sale/landing?utm_source=newsletter&utm_medium=email&utm_campaign=spring",
+            "http://news.partner.co.kr:8080/article/123#comments");
+        for (int round = 0; round < 3; round++) {
+            int accepted = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                if (PREVIOUS.matcher(urls.get(i % urls.size())).matches()) {
+                    accepted++;
+                }
+            }
+            double pattern = (System.nanoTime() - start) / (double) ROUNDS;
+
+            start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                if (UrlCanonicalizer.canonicalize(urls.get(i % urls.size())) != null) {
+                    accepted--;
+                }
+            }
+            double canonicalizer = (System.nanoTime() - start) / (double) ROUNDS;
+            System.out.printf("Typical URL: pattern %.0f ns, canonicalizer %.0f ns%n", pattern, canonicalizer);
+            // The pattern refuses the two with a query string or a port
+            assertEquals(-ROUNDS * 2 / urls.size(), accepted);
+        }
+    }
+
+    @Test
+    void adversarialUrls_CanonicalizerStaysLinear() {
+        for (int length = 1_000; length <= 8_000; length *= 2) {
+            // Many ways to split the host between the pattern's groups, then a character it refuses
+            String url = "http://a" + ".a".repeat(length / 2) + "!";
+
+            long start = System.nanoTime();
+            assertFalse(PREVIOUS.matcher(url).matches());
+            double pattern = (System.nanoTime() - start) / 1_000_000.0;
+
+            start = System.nanoTime();
+            for (int i = 0; i < 1_000; i++) {
+                assertNull(UrlCanonicalizer.canonicalize(url));
+            }
+            double canonicalizer = (System.nanoTime() - start) / 1_000.0 / 1_000_000.0;
+            System.out.printf("%,d chars: pattern %.1f ms, canonicalizer %.3f ms%n", url.length(), pattern, canonicalizer);
+        }
+    }
+}